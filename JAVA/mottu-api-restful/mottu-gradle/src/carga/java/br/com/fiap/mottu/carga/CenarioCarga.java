@@ -0,0 +1,354 @@
+package br.com.fiap.mottu.carga;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Mix de tráfego de portão contra a API em execução, com um virtual thread por usuário:
+ * <ul>
+ *   <li>check-in (33%) e check-out (28%) pelo EstacionamentoController, cada placa alternando entre
+ *       as filas de "fora" e "estacionadas" para que as chamadas sejam válidas;</li>
+ *   <li>troca de turno (4%): entrada ou saída em lote de até {@value #TAMANHO_LOTE} placas;</li>
+ *   <li>consultas do operador (15%): DataTable de estacionamentos e histórico por cursor;</li>
+ *   <li>relatórios (12%): ocupação atual, movimentação diária, dashboard IA e performance dos pátios;</li>
+ *   <li>OCR (8%): sessão + upload + long-poll até o resultado, contra o {@link ReconhecedorSimulado};</li>
+ *   <li>assinantes SSE do stream de boxes durante toda a execução (tempo até o primeiro evento e eventos recebidos).</li>
+ * </ul>
+ */
+public class CenarioCarga {
+
+    private static final Logger log = LoggerFactory.getLogger(CenarioCarga.class);
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final Pattern SESSION_ID = Pattern.compile("\"sessionId\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern RESULTADO_PLACA =
+            Pattern.compile("\"placa\"\\s*:\\s*\"([^\"]+)\"\\s*,\\s*\"sucesso\"\\s*:\\s*(true|false)");
+    private static final String FRONTEIRA = "----mottu-carga";
+    private static final int TAMANHO_LOTE = 20;
+
+    private final String base;
+    private final ConfiguracaoCarga configuracao;
+    private final SemeadorCarga.Frota frota;
+    private final MedidorLatencia medidor;
+    private final HttpClient http;
+    private final Queue<String> foraDoPatio = new ConcurrentLinkedQueue<>();
+    private final Queue<String> estacionadas = new ConcurrentLinkedQueue<>();
+    private final Set<String> errosRelatados = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger ocupadas = new AtomicInteger();
+    private final int limiteOcupacao;
+    private final LongAdder eventosSse = new LongAdder();
+    private final LongAdder conexoesSse = new LongAdder();
+    private final LongAdder placasEmLote = new LongAdder();
+
+    public CenarioCarga(int porta, ConfiguracaoCarga configuracao, SemeadorCarga.Frota frota, MedidorLatencia medidor) {
+        this.base = "http://localhost:" + porta;
+        this.configuracao = configuracao;
+        this.frota = frota;
+        this.medidor = medidor;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.limiteOcupacao = configuracao.patios() * configuracao.boxesPorPatio() * 9 / 10;
+        foraDoPatio.addAll(frota.placas());
+    }
+
+    /**
+     * Executa o aquecimento (descartado) e a janela medida; bloqueia até o fim.
+     */
+    public void executar() throws InterruptedException {
+        HttpClient httpSse = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long fim = System.nanoTime() + Duration.ofSeconds(configuracao.aquecimentoSegundos() + configuracao.duracaoSegundos()).toNanos();
+        try (ExecutorService usuarios = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < configuracao.usuarios(); i++) {
+                usuarios.submit(() -> usuario(fim));
+            }
+            log.info("🔥 Aquecimento de {} s com {} usuário(s)", configuracao.aquecimentoSegundos(), configuracao.usuarios());
+            Thread.sleep(Duration.ofSeconds(configuracao.aquecimentoSegundos()));
+
+            // Assinantes entram já na janela medida: o tempo até o snapshot inicial é medido sob carga
+            medidor.iniciar();
+            for (int i = 0; i < configuracao.assinantesSse(); i++) {
+                Long patioId = frota.patioIds().get(i % frota.patioIds().size());
+                usuarios.submit(() -> assinarSse(httpSse, patioId, fim));
+            }
+            log.info("📏 Medindo por {} s com {} assinante(s) SSE", configuracao.duracaoSegundos(), configuracao.assinantesSse());
+            Thread.sleep(Duration.ofSeconds(configuracao.duracaoSegundos()));
+            medidor.parar();
+            // Streams SSE não terminam sozinhos: encerrar o cliente libera os leitores bloqueados
+            httpSse.shutdownNow();
+        }
+    }
+
+    public long getEventosSse() {
+        return eventosSse.sum();
+    }
+
+    public long getConexoesSse() {
+        return conexoesSse.sum();
+    }
+
+    /** Placas processadas com sucesso pelos endpoints de lote na janela medida. */
+    public long getPlacasEmLote() {
+        return placasEmLote.sum();
+    }
+
+    private void usuario(long fim) {
+        while (System.nanoTime() < fim) {
+            int sorteio = ThreadLocalRandom.current().nextInt(100);
+            try {
+                if (sorteio < 33) {
+                    checkIn();
+                } else if (sorteio < 61) {
+                    checkOut();
+                } else if (sorteio < 65) {
+                    lote();
+                } else if (sorteio < 80) {
+                    consulta();
+                } else if (sorteio < 92) {
+                    relatorio();
+                } else {
+                    ocr();
+                }
+                if (configuracao.pausaMs() > 0) {
+                    Thread.sleep(configuracao.pausaMs());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.debug("Operação falhou: {}", e.toString());
+            }
+        }
+    }
+
+    /** Com o pátio quase cheio a entrada vira saída, para o check-in não medir "sem vagas". */
+    private void checkIn() {
+        String placa = ocupadas.get() < limiteOcupacao ? foraDoPatio.poll() : null;
+        if (placa == null) {
+            checkOut();
+            return;
+        }
+        Long patioId = frota.patioIds().get(ThreadLocalRandom.current().nextInt(frota.patioIds().size()));
+        int status = enviar("POST /api/estacionamentos/estacionar",
+                post("/api/estacionamentos/estacionar?patioId=" + patioId, "{\"placa\":\"" + placa + "\"}")).status();
+        if (status == 201) {
+            ocupadas.incrementAndGet();
+            estacionadas.add(placa);
+        } else {
+            foraDoPatio.add(placa);
+        }
+    }
+
+    private void checkOut() {
+        String placa = estacionadas.poll();
+        if (placa == null) {
+            return;
+        }
+        int status = enviar("POST /api/estacionamentos/liberar",
+                post("/api/estacionamentos/liberar", "{\"placa\":\"" + placa + "\"}")).status();
+        if (status == 200) {
+            ocupadas.decrementAndGet();
+            foraDoPatio.add(placa);
+        } else {
+            estacionadas.add(placa);
+        }
+    }
+
+    /** Troca de turno: metade das vezes entra um lote (se houver vagas), senão sai um lote. */
+    private void lote() {
+        boolean entrada = ThreadLocalRandom.current().nextBoolean() && ocupadas.get() + TAMANHO_LOTE < limiteOcupacao;
+        Queue<String> origem = entrada ? foraDoPatio : estacionadas;
+        List<String> placas = new ArrayList<>(TAMANHO_LOTE);
+        String placa;
+        while (placas.size() < TAMANHO_LOTE && (placa = origem.poll()) != null) {
+            placas.add(placa);
+        }
+        if (placas.isEmpty()) {
+            return;
+        }
+        String caminho = entrada ? "/api/estacionamentos/estacionar/lote" : "/api/estacionamentos/liberar/lote";
+        String corpo = placas.stream().map(p -> "\"" + p + "\"").collect(Collectors.joining(",", "{\"placas\":[", "]}"));
+        Resposta resposta = enviar("POST " + caminho, post(caminho, corpo));
+        if (resposta.status() != 200) {
+            origem.addAll(placas);
+            return;
+        }
+        Matcher resultado = RESULTADO_PLACA.matcher(resposta.corpo());
+        Set<String> processadas = new HashSet<>();
+        while (resultado.find()) {
+            if (Boolean.parseBoolean(resultado.group(2))) {
+                processadas.add(resultado.group(1));
+            }
+        }
+        for (String p : placas) {
+            if (!processadas.contains(p)) {
+                origem.add(p);
+            } else if (entrada) {
+                ocupadas.incrementAndGet();
+                estacionadas.add(p);
+            } else {
+                ocupadas.decrementAndGet();
+                foraDoPatio.add(p);
+            }
+        }
+        if (medidor.isMedindo()) {
+            placasEmLote.add(processadas.size());
+        }
+    }
+
+    private void consulta() {
+        if (ThreadLocalRandom.current().nextBoolean()) {
+            enviar("POST /api/estacionamentos/datatable", post("/api/estacionamentos/datatable",
+                    "{\"draw\":1,\"start\":0,\"length\":25,\"contagem\":\"estimada\"}"));
+        } else {
+            Long patioId = frota.patioIds().get(ThreadLocalRandom.current().nextInt(frota.patioIds().size()));
+            enviar("GET /api/estacionamentos/patio/{id}/historico/cursor",
+                    get("/api/estacionamentos/patio/" + patioId + "/historico/cursor?tamanho=20"));
+        }
+    }
+
+    private void relatorio() {
+        switch (ThreadLocalRandom.current().nextInt(4)) {
+            case 0 -> enviar("GET /api/relatorios/ocupacao/atual", get("/api/relatorios/ocupacao/atual"));
+            case 1 -> enviar("GET /api/relatorios/movimentacao/diaria", get("/api/relatorios/movimentacao/diaria"));
+            case 2 -> enviar("GET /api/relatorios/ia/dashboard", get("/api/relatorios/ia/dashboard"));
+            default -> enviar("GET /api/relatorios/performance/patios", get("/api/relatorios/performance/patios"));
+        }
+    }
+
+    /** Fluxo do celular: cria a sessão, envia a foto e espera o resultado por long-poll. */
+    private void ocr() {
+        long inicio = System.nanoTime();
+        Resposta sessao = enviar("POST /api/radar/iniciar-sessao", post("/api/radar/iniciar-sessao", ""));
+        Matcher id = SESSION_ID.matcher(sessao.corpo());
+        if (sessao.status() != 200 || !id.find()) {
+            medidor.registrar("OCR ponta a ponta", inicio, sessao.status() == 200 ? 500 : sessao.status());
+            return;
+        }
+        String sessionId = id.group(1);
+        byte[] imagem = new byte[8 * 1024];
+        ThreadLocalRandom.current().nextBytes(imagem);
+        int upload = enviar("POST /api/radar/upload-imagem/{id}", multipart("/api/radar/upload-imagem/" + sessionId, imagem)).status();
+        if (upload != 202) {
+            medidor.registrar("OCR ponta a ponta", inicio, upload);
+            return;
+        }
+        Resposta resultado = enviar("GET /api/radar/aguardar-sessao/{id}",
+                get("/api/radar/aguardar-sessao/" + sessionId + "?timeoutSegundos=20"));
+        boolean concluida = resultado.corpo() != null && resultado.corpo().contains("COMPLETED");
+        medidor.registrar("OCR ponta a ponta", inicio, concluida ? 200 : Math.max(resultado.status(), 500));
+    }
+
+    /**
+     * Um dashboard conectado ao stream de boxes; reconecta se o servidor encerrar o stream.
+     * Registra o tempo até o primeiro evento (snapshot) de cada conexão e conta os eventos recebidos.
+     */
+    private void assinarSse(HttpClient httpSse, Long patioId, long fim) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/api/boxes/stream?patioId=" + patioId))
+                .header("Accept", "text/event-stream").GET().build();
+        while (System.nanoTime() < fim) {
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<InputStream> resposta = httpSse.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                conexoesSse.increment();
+                if (resposta.statusCode() != 200) {
+                    medidor.registrar("SSE /api/boxes/stream (primeiro evento)", inicio, resposta.statusCode());
+                    resposta.body().close();
+                    continue;
+                }
+                try (BufferedReader leitor = new BufferedReader(new InputStreamReader(resposta.body(), StandardCharsets.UTF_8))) {
+                    boolean primeiro = true;
+                    String linha;
+                    while (System.nanoTime() < fim && (linha = leitor.readLine()) != null) {
+                        if (linha.startsWith("data:")) {
+                            if (primeiro) {
+                                medidor.registrar("SSE /api/boxes/stream (primeiro evento)", inicio, 200);
+                                primeiro = false;
+                            }
+                            eventosSse.increment();
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                if (System.nanoTime() < fim) {
+                    medidor.registrar("SSE /api/boxes/stream (primeiro evento)", inicio, 0);
+                }
+            }
+        }
+    }
+
+    private HttpRequest get(String caminho) {
+        return HttpRequest.newBuilder(URI.create(base + caminho)).timeout(TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String caminho, String json) {
+        return HttpRequest.newBuilder(URI.create(base + caminho)).timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private HttpRequest multipart(String caminho, byte[] imagem) {
+        ByteArrayOutputStream corpo = new ByteArrayOutputStream(imagem.length + 256);
+        corpo.writeBytes(("--" + FRONTEIRA + "\r\n"
+                + "Content-Disposition: form-data; name=\"image\"; filename=\"placa.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        corpo.writeBytes(imagem);
+        corpo.writeBytes(("\r\n--" + FRONTEIRA + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create(base + caminho)).timeout(TIMEOUT)
+                .header("Content-Type", "multipart/form-data; boundary=" + FRONTEIRA)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(corpo.toByteArray())).build();
+    }
+
+    /** Envia e registra a latência; falhas de rede viram status 0 (sem lançar). */
+    private Resposta enviar(String endpoint, HttpRequest request) {
+        long inicio = System.nanoTime();
+        try {
+            HttpResponse<String> resposta = http.send(request, HttpResponse.BodyHandlers.ofString());
+            medidor.registrar(endpoint, inicio, resposta.statusCode());
+            if (resposta.statusCode() >= 500 && errosRelatados.add(endpoint)) {
+                log.warn("⚠️ Primeira resposta {} de {}: {}", resposta.statusCode(), endpoint,
+                        resposta.body().length() > 500 ? resposta.body().substring(0, 500) : resposta.body());
+            }
+            return new Resposta(resposta.statusCode(), resposta.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (Exception e) {
+            medidor.registrar(endpoint, inicio, 0);
+            return new Resposta(0, "");
+        }
+    }
+
+    private record Resposta(int status, String corpo) {
+    }
+}
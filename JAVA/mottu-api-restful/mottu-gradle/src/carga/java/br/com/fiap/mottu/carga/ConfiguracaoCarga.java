@@ -0,0 +1,50 @@
+package br.com.fiap.mottu.carga;
+
+/**
+ * Parâmetros do teste de carga, lidos das propriedades de sistema "carga.*"
+ * (o build repassa -Pcarga.xxx=valor para a JVM do teste).
+ *
+ * @param patios              pátios semeados
+ * @param boxesPorPatio       boxes por pátio
+ * @param veiculos            veículos cadastrados (placas que entram e saem)
+ * @param usuarios            clientes simultâneos executando o mix de requisições
+ * @param assinantesSse       dashboards conectados ao stream SSE de boxes
+ * @param duracaoSegundos     janela medida
+ * @param aquecimentoSegundos carga inicial descartada (JIT, caches, pool de conexões)
+ * @param latenciaOcrMs       tempo simulado de cada reconhecimento de placa
+ * @param pausaMs             pausa de cada usuário entre duas operações (0 = carga máxima)
+ * @param limiteErroPercentual acima deste % de erros em algum endpoint o processo termina com código 1
+ * @param relatorio           arquivo JSON com o resultado
+ */
+public record ConfiguracaoCarga(
+        int patios,
+        int boxesPorPatio,
+        int veiculos,
+        int usuarios,
+        int assinantesSse,
+        int duracaoSegundos,
+        int aquecimentoSegundos,
+        int latenciaOcrMs,
+        int pausaMs,
+        double limiteErroPercentual,
+        String relatorio) {
+
+    public static ConfiguracaoCarga doSistema() {
+        return new ConfiguracaoCarga(
+                inteiro("carga.patios", 5),
+                inteiro("carga.boxesPorPatio", 200),
+                inteiro("carga.veiculos", 2_000),
+                inteiro("carga.usuarios", 64),
+                inteiro("carga.assinantesSse", 20),
+                inteiro("carga.duracaoSegundos", 60),
+                inteiro("carga.aquecimentoSegundos", 10),
+                inteiro("carga.latenciaOcrMs", 150),
+                inteiro("carga.pausaMs", 20),
+                Double.parseDouble(System.getProperty("carga.limiteErroPercentual", "5")),
+                System.getProperty("carga.relatorio", "build/reports/carga/resultado.json"));
+    }
+
+    private static int inteiro(String chave, int padrao) {
+        return Integer.parseInt(System.getProperty(chave, String.valueOf(padrao)));
+    }
+}
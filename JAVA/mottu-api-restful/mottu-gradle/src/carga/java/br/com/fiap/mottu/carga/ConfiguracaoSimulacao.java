@@ -0,0 +1,36 @@
+package br.com.fiap.mottu.carga;
+
+import br.com.fiap.mottu.service.ocr.OcrExecutor;
+import br.com.fiap.mottu.service.ocr.OcrSessionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Beans extras do perfil carga: o {@link ReconhecedorSimulado} passa a ser o {@code PlateRecognizer}
+ * injetado no RadarController. O reconhecedor especulativo continua registrado (o health check o usa),
+ * só deixa de ser o primário.
+ */
+@Configuration
+public class ConfiguracaoSimulacao {
+
+    private static final String RECONHECEDOR_REAL = "reconhecedorEspeculativo";
+
+    @Bean
+    static BeanFactoryPostProcessor rebaixarReconhecedorReal() {
+        return beanFactory -> {
+            if (beanFactory.containsBeanDefinition(RECONHECEDOR_REAL)) {
+                beanFactory.getBeanDefinition(RECONHECEDOR_REAL).setPrimary(false);
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    ReconhecedorSimulado reconhecedorSimulado(OcrSessionManager sessionManager, OcrExecutor ocrExecutor,
+                                              @Value("${carga.latenciaOcrMs:150}") int latenciaMs) {
+        return new ReconhecedorSimulado(sessionManager, ocrExecutor, latenciaMs);
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.fiap.mottu.carga;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latências por endpoint (todas as amostras, sem histograma aproximado: uma execução tem no máximo
+ * alguns milhões de requisições) e contagem de respostas por código HTTP. Amostras registradas
+ * enquanto {@code ativo == false} (aquecimento) são descartadas.
+ */
+public class MedidorLatencia {
+
+    private final Map<String, Amostras> porEndpoint = new ConcurrentHashMap<>();
+    private volatile boolean ativo;
+
+    public void iniciar() {
+        porEndpoint.clear();
+        ativo = true;
+    }
+
+    public void parar() {
+        ativo = false;
+    }
+
+    public boolean isMedindo() {
+        return ativo;
+    }
+
+    /**
+     * @param status código HTTP, ou 0 quando a requisição falhou antes da resposta (timeout, conexão)
+     */
+    public void registrar(String endpoint, long inicioNanos, int status) {
+        if (!ativo) {
+            return;
+        }
+        porEndpoint.computeIfAbsent(endpoint, e -> new Amostras()).adicionar(System.nanoTime() - inicioNanos, status);
+    }
+
+    public List<ResultadoEndpoint> resultados(double duracaoSegundos) {
+        return porEndpoint.entrySet().stream()
+                .map(e -> e.getValue().resumir(e.getKey(), duracaoSegundos))
+                .sorted(Comparator.comparing(ResultadoEndpoint::endpoint))
+                .toList();
+    }
+
+    /**
+     * Resumo de um endpoint na janela medida; latências em milissegundos.
+     */
+    public record ResultadoEndpoint(String endpoint, long requisicoes, long erros, double percentualErro,
+                                    double vazaoPorSegundo, double p50Ms, double p95Ms, double p99Ms,
+                                    double maxMs, Map<Integer, Long> porStatus) {
+    }
+
+    private static final class Amostras {
+
+        private long[] nanos = new long[1024];
+        private int total;
+        private long erros;
+        private final Map<Integer, Long> porStatus = new TreeMap<>();
+
+        synchronized void adicionar(long duracaoNanos, int status) {
+            if (total == nanos.length) {
+                nanos = Arrays.copyOf(nanos, total * 2);
+            }
+            nanos[total++] = duracaoNanos;
+            porStatus.merge(status, 1L, Long::sum);
+            if (status == 0 || status >= 400) {
+                erros++;
+            }
+        }
+
+        synchronized ResultadoEndpoint resumir(String endpoint, double duracaoSegundos) {
+            long[] ordenadas = Arrays.copyOf(nanos, total);
+            Arrays.sort(ordenadas);
+            return new ResultadoEndpoint(endpoint, total, erros,
+                    total == 0 ? 0 : erros * 100.0 / total,
+                    total / duracaoSegundos,
+                    percentil(ordenadas, 50), percentil(ordenadas, 95), percentil(ordenadas, 99),
+                    total == 0 ? 0 : ordenadas[total - 1] / 1e6,
+                    new TreeMap<>(porStatus));
+        }
+
+        /** Percentil pelo método nearest-rank. */
+        private static double percentil(long[] ordenadas, double p) {
+            if (ordenadas.length == 0) {
+                return 0;
+            }
+            int posicao = (int) Math.ceil(p / 100.0 * ordenadas.length) - 1;
+            return ordenadas[Math.max(0, posicao)] / 1e6;
+        }
+    }
+}
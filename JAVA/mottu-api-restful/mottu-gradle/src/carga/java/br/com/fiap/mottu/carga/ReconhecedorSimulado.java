@@ -0,0 +1,53 @@
+package br.com.fiap.mottu.carga;
+
+import br.com.fiap.mottu.exception.OcrOcupadoException;
+import br.com.fiap.mottu.service.ocr.OcrExecutor;
+import br.com.fiap.mottu.service.ocr.OcrSessionManager;
+import br.com.fiap.mottu.service.ocr.PlateRecognizer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reconhecedor de placas sem OpenALPR/Tesseract: passa pelo mesmo {@link OcrExecutor} (fila limitada,
+ * HTTP 429 quando cheia) e devolve uma placa da frota após {@code latenciaMs}, para o teste de carga
+ * medir o fluxo de sessões/long-poll sem depender dos binários nativos.
+ */
+public class ReconhecedorSimulado implements PlateRecognizer {
+
+    private final OcrSessionManager sessionManager;
+    private final OcrExecutor ocrExecutor;
+    private final int latenciaMs;
+    private volatile List<String> placas = List.of("ABC1D23");
+
+    public ReconhecedorSimulado(OcrSessionManager sessionManager, OcrExecutor ocrExecutor, int latenciaMs) {
+        this.sessionManager = sessionManager;
+        this.ocrExecutor = ocrExecutor;
+        this.latenciaMs = latenciaMs;
+    }
+
+    /** Placas devolvidas pelo reconhecimento (as da frota semeada). */
+    public void usarPlacas(List<String> placas) {
+        this.placas = List.copyOf(placas);
+    }
+
+    @Override
+    public void extractPlate(String sessionId, byte[] imageBytes) {
+        sessionManager.setSessionProcessing(sessionId);
+        try {
+            ocrExecutor.submeter(sessionId, () -> {
+                try {
+                    Thread.sleep(latenciaMs);
+                    List<String> frota = placas;
+                    sessionManager.updateSessionSuccess(sessionId, frota.get(ThreadLocalRandom.current().nextInt(frota.size())));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    sessionManager.updateSessionError(sessionId, "Reconhecimento interrompido.");
+                }
+            });
+        } catch (OcrOcupadoException e) {
+            sessionManager.updateSessionBusy(sessionId, e.getMessage());
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.fiap.mottu.carga;
+
+import br.com.fiap.mottu.model.Box;
+import br.com.fiap.mottu.model.Contato;
+import br.com.fiap.mottu.model.Endereco;
+import br.com.fiap.mottu.model.Patio;
+import br.com.fiap.mottu.model.Veiculo;
+import br.com.fiap.mottu.repository.BoxRepository;
+import br.com.fiap.mottu.repository.ContatoRepository;
+import br.com.fiap.mottu.repository.EnderecoRepository;
+import br.com.fiap.mottu.repository.PatioRepository;
+import br.com.fiap.mottu.repository.VeiculoRepository;
+import br.com.fiap.mottu.service.alocacao.IndiceVagasLivres;
+import br.com.fiap.mottu.service.ocr.IndicePlacasFrota;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Popula o H2 com N pátios (cada um com seus boxes livres) e M veículos, direto pelos repositórios,
+ * e recarrega os índices em memória que a aplicação montou com o banco ainda vazio.
+ */
+public final class SemeadorCarga {
+
+    private static final Logger log = LoggerFactory.getLogger(SemeadorCarga.class);
+    private static final String[] FABRICANTES = {"Mottu", "Honda", "Yamaha"};
+
+    private SemeadorCarga() {
+    }
+
+    /**
+     * Dados semeados usados pelo cenário.
+     */
+    public record Frota(List<Long> patioIds, List<String> placas) {
+    }
+
+    public static Frota semear(ApplicationContext contexto, ConfiguracaoCarga configuracao) {
+        long inicio = System.currentTimeMillis();
+        PatioRepository patioRepository = contexto.getBean(PatioRepository.class);
+        BoxRepository boxRepository = contexto.getBean(BoxRepository.class);
+        VeiculoRepository veiculoRepository = contexto.getBean(VeiculoRepository.class);
+        ContatoRepository contatoRepository = contexto.getBean(ContatoRepository.class);
+        EnderecoRepository enderecoRepository = contexto.getBean(EnderecoRepository.class);
+
+        List<Long> patioIds = new ArrayList<>();
+        for (int p = 1; p <= configuracao.patios(); p++) {
+            Contato contato = contatoRepository.save(Contato.builder()
+                    .email("patio" + p + "@carga.mottu").ddd(11).ddi(55)
+                    .telefone1("1130000000").celular("11990000000").build());
+            Endereco endereco = enderecoRepository.save(Endereco.builder()
+                    .cep("01310-100").numero(p).logradouro("Av. Paulista").bairro("Bela Vista")
+                    .cidade("São Paulo").estado("SP").pais("Brasil").build());
+            Patio patio = patioRepository.save(Patio.builder()
+                    .nomePatio("Pátio Carga " + p).status("A").dataCadastro(LocalDate.now())
+                    .contato(contato).endereco(endereco).build());
+            List<Box> boxes = new ArrayList<>(configuracao.boxesPorPatio());
+            for (int b = 1; b <= configuracao.boxesPorPatio(); b++) {
+                boxes.add(Box.builder().nome("P" + p + "-B" + b).status("L").patio(patio).build());
+            }
+            boxRepository.saveAll(boxes);
+            patioIds.add(patio.getIdPatio());
+        }
+
+        List<String> placas = new ArrayList<>(configuracao.veiculos());
+        List<Veiculo> veiculos = new ArrayList<>(configuracao.veiculos());
+        for (int v = 0; v < configuracao.veiculos(); v++) {
+            String placa = placa(v);
+            placas.add(placa);
+            veiculos.add(Veiculo.builder()
+                    .placa(placa)
+                    .renavam(String.format("%011d", v))
+                    .chassi(String.format("9CARGA%011d", v))
+                    .fabricante(FABRICANTES[v % FABRICANTES.length])
+                    .modelo("Mottu Sport 110i").ano(2024).combustivel("Gasolina")
+                    .status("OPERACIONAL")
+                    .build());
+        }
+        veiculoRepository.saveAll(veiculos);
+
+        contexto.getBean(IndiceVagasLivres.class).recarregar();
+        contexto.getBean(IndicePlacasFrota.class).reconstruir(placas);
+        contexto.getBean(ReconhecedorSimulado.class).usarPlacas(placas);
+        log.info("🌱 Semeados {} pátio(s), {} box(es) e {} veículo(s) em {} ms", configuracao.patios(),
+                configuracao.patios() * configuracao.boxesPorPatio(), placas.size(), System.currentTimeMillis() - inicio);
+        return new Frota(patioIds, placas);
+    }
+
+    /** Placa Mercosul única por índice (AAA0A00 ... ZZZ9Z99). */
+    static String placa(int indice) {
+        int resto = indice;
+        char d2 = (char) ('0' + resto % 10);
+        resto /= 10;
+        char d1 = (char) ('0' + resto % 10);
+        resto /= 10;
+        char l4 = (char) ('A' + resto % 26);
+        resto /= 26;
+        char d0 = (char) ('0' + resto % 10);
+        resto /= 10;
+        char l3 = (char) ('A' + resto % 26);
+        resto /= 26;
+        char l2 = (char) ('A' + resto % 26);
+        resto /= 26;
+        char l1 = (char) ('A' + resto % 26);
+        return "" + l1 + l2 + l3 + d0 + l4 + d1 + d2;
+    }
+}
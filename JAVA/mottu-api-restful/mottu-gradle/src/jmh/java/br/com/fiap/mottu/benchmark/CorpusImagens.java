@@ -0,0 +1,92 @@
+package br.com.fiap.mottu.benchmark;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Corpus de imagens do OCR para os benchmarks: fotos sintéticas de placas Mercosul (fundo com
+ * ruído, placa em posição e tamanho variáveis) codificadas em JPEG, como chegam do celular.
+ * Gerado com semente fixa, então todas as execuções medem exatamente os mesmos bytes.
+ */
+public final class CorpusImagens {
+
+    private CorpusImagens() {
+    }
+
+    /** Placa no padrão Mercosul (LLLNLNN). */
+    public static String placaAleatoria(Random aleatorio) {
+        return "" + letra(aleatorio) + letra(aleatorio) + letra(aleatorio) + aleatorio.nextInt(10)
+                + letra(aleatorio) + aleatorio.nextInt(10) + aleatorio.nextInt(10);
+    }
+
+    /**
+     * @param largura    largura das fotos (a altura segue 4:3)
+     * @param quantidade imagens no corpus
+     */
+    public static List<byte[]> fotosDePlacas(int largura, int quantidade) {
+        Random aleatorio = new Random(largura * 31L + quantidade);
+        List<byte[]> corpus = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            corpus.add(jpeg(desenhar(largura, largura * 3 / 4, placaAleatoria(aleatorio), aleatorio)));
+        }
+        return corpus;
+    }
+
+    private static BufferedImage desenhar(int largura, int altura, String placa, Random aleatorio) {
+        BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = imagem.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(new Color(90, 95, 100));
+            g.fillRect(0, 0, largura, altura);
+            for (int i = 0; i < largura * altura / 200; i++) { // ruído de fundo
+                int tom = 60 + aleatorio.nextInt(90);
+                g.setColor(new Color(tom, tom, tom));
+                g.fillRect(aleatorio.nextInt(largura), aleatorio.nextInt(altura), 2, 2);
+            }
+
+            int larguraPlaca = largura / 3 + aleatorio.nextInt(largura / 6);
+            int alturaPlaca = larguraPlaca * 13 / 40; // proporção 400 x 130 mm
+            int x = aleatorio.nextInt(largura - larguraPlaca);
+            int y = aleatorio.nextInt(altura - alturaPlaca);
+            g.setColor(Color.WHITE);
+            g.fillRect(x, y, larguraPlaca, alturaPlaca);
+            g.setColor(new Color(0, 51, 153)); // faixa azul do Mercosul
+            g.fillRect(x, y, larguraPlaca, alturaPlaca / 5);
+            g.setColor(Color.BLACK);
+            g.setStroke(new BasicStroke(Math.max(2, larguraPlaca / 100f)));
+            g.drawRect(x, y, larguraPlaca, alturaPlaca);
+            g.setFont(new Font(Font.MONOSPACED, Font.BOLD, alturaPlaca * 3 / 5));
+            int larguraTexto = g.getFontMetrics().stringWidth(placa);
+            g.drawString(placa, x + (larguraPlaca - larguraTexto) / 2, y + alturaPlaca * 9 / 10);
+        } finally {
+            g.dispose();
+        }
+        return imagem;
+    }
+
+    private static byte[] jpeg(BufferedImage imagem) {
+        try {
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+            ImageIO.write(imagem, "jpg", saida);
+            return saida.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static char letra(Random aleatorio) {
+        return (char) ('A' + aleatorio.nextInt(26));
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.fiap.mottu.benchmark;
+
+import br.com.fiap.mottu.service.ocr.IndicePlacasFrota;
+import br.com.fiap.mottu.service.ocr.PlateUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura do OCR contra a frota: varredura linear ({@link PlateUtils#bestCandidate})
+ * x índice por vizinhança de deleção ({@link IndicePlacasFrota}), com uma troca de caractere na leitura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndicePlacasBenchmark {
+
+    @Param({"10000", "100000"})
+    private int tamanhoFrota;
+
+    private List<String> frota;
+    private IndicePlacasFrota indice;
+    private String[] leituras;
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = new Random(7);
+        frota = new ArrayList<>(tamanhoFrota);
+        for (int i = 0; i < tamanhoFrota; i++) {
+            frota.add(CorpusImagens.placaAleatoria(aleatorio));
+        }
+        indice = new IndicePlacasFrota(null);
+        indice.reconstruir(frota);
+        leituras = new String[1024];
+        for (int i = 0; i < leituras.length; i++) {
+            char[] placa = frota.get(aleatorio.nextInt(tamanhoFrota)).toCharArray();
+            placa[aleatorio.nextInt(placa.length)] = (char) ('A' + aleatorio.nextInt(26));
+            leituras[i] = new String(placa);
+        }
+    }
+
+    private String leitura() {
+        proxima = (proxima + 1) & (leituras.length - 1);
+        return leituras[proxima];
+    }
+
+    @Benchmark
+    public String varreduraLinear() {
+        return PlateUtils.bestCandidate(frota, leitura(), 1);
+    }
+
+    @Benchmark
+    public Object indiceFrota() {
+        return indice.maisProxima(leitura(), 1);
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.fiap.mottu.benchmark;
+
+import br.com.fiap.mottu.dto.estacionamento.EstacionamentoResponseDto;
+import br.com.fiap.mottu.dto.relatorio.MovimentacaoDetalhadaDto;
+import br.com.fiap.mottu.mapper.EstacionamentoMapper;
+import br.com.fiap.mottu.mapper.EstacionamentoMapperImpl;
+import br.com.fiap.mottu.mapper.LogMovimentacaoMapper;
+import br.com.fiap.mottu.model.Box;
+import br.com.fiap.mottu.model.Estacionamento;
+import br.com.fiap.mottu.model.LogMovimentacao;
+import br.com.fiap.mottu.model.Patio;
+import br.com.fiap.mottu.model.Veiculo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão entidade → DTO das listagens: {@link EstacionamentoMapper} (MapStruct, com veículo,
+ * box e pátio aninhados) e {@link LogMovimentacaoMapper} (movimentações detalhadas dos relatórios).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    /** Tamanho da página/lista convertida. */
+    @Param({"20", "500"})
+    private int tamanho;
+
+    private final EstacionamentoMapper estacionamentoMapper = new EstacionamentoMapperImpl();
+    private final LogMovimentacaoMapper logMovimentacaoMapper = new LogMovimentacaoMapper();
+    private List<Estacionamento> estacionamentos;
+    private List<LogMovimentacao> movimentacoes;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = new Random(3);
+        LocalDateTime agora = LocalDateTime.now();
+        List<Patio> patios = new ArrayList<>();
+        for (long p = 1; p <= 5; p++) {
+            patios.add(Patio.builder().idPatio(p).nomePatio("Pátio " + p).status("A").build());
+        }
+        estacionamentos = new ArrayList<>(tamanho);
+        movimentacoes = new ArrayList<>(tamanho);
+        for (long i = 1; i <= tamanho; i++) {
+            Patio patio = patios.get((int) (i % patios.size()));
+            Veiculo veiculo = Veiculo.builder().idVeiculo(i).placa(CorpusImagens.placaAleatoria(aleatorio))
+                    .modelo("Mottu Sport 110i").fabricante("Mottu").status("OPERACIONAL").tagBleId("TAG" + i).build();
+            Box box = Box.builder().idBox(i).nome("B" + i).status("O").dataEntrada(agora.minusHours(i % 48))
+                    .patio(patio).build();
+            LocalDateTime entrada = agora.minusMinutes(aleatorio.nextInt(5_000));
+            estacionamentos.add(Estacionamento.builder().idEstacionamento(i).veiculo(veiculo).box(box).patio(patio)
+                    .estaEstacionado(true).dataEntrada(entrada).dataUltimaAtualizacao(agora).build());
+            movimentacoes.add(LogMovimentacao.builder().idLogMovimentacao(i).veiculo(veiculo).box(box).patio(patio)
+                    .tipoMovimentacao(i % 2 == 0 ? LogMovimentacao.TipoMovimentacao.ENTRADA : LogMovimentacao.TipoMovimentacao.SAIDA)
+                    .dataHoraMovimentacao(entrada).tempoEstacionamentoMinutos(i % 2 == 0 ? null : (long) aleatorio.nextInt(600))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<EstacionamentoResponseDto> estacionamentoToResponseDtoList() {
+        return estacionamentoMapper.toResponseDtoList(estacionamentos);
+    }
+
+    @Benchmark
+    public List<MovimentacaoDetalhadaDto> logMovimentacaoToDetalhadaDtoList() {
+        return logMovimentacaoMapper.toMovimentacaoDetalhadaDtoList(movimentacoes);
+    }
+}
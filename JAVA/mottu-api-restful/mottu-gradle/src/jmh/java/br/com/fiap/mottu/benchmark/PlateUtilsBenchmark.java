@@ -0,0 +1,95 @@
+package br.com.fiap.mottu.benchmark;
+
+import br.com.fiap.mottu.service.ocr.PlateUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalização Mercosul, distância de Levenshtein e melhor candidato por varredura
+ * ({@link PlateUtils}) sobre leituras com o ruído típico do OCR (traços, espaços, O/0, I/1, B/8).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlateUtilsBenchmark {
+
+    @Param({"500"})
+    private int tamanhoFrota;
+
+    private List<String> frota;
+    private String[] leiturasBrutas;
+    private String[] leituras;
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = new Random(11);
+        frota = new ArrayList<>(tamanhoFrota);
+        for (int i = 0; i < tamanhoFrota; i++) {
+            frota.add(CorpusImagens.placaAleatoria(aleatorio));
+        }
+        leiturasBrutas = new String[1024];
+        leituras = new String[leiturasBrutas.length];
+        for (int i = 0; i < leiturasBrutas.length; i++) {
+            String placa = frota.get(aleatorio.nextInt(tamanhoFrota));
+            leiturasBrutas[i] = ruidoOcr(placa, aleatorio);
+            leituras[i] = PlateUtils.normalizeMercosul(leiturasBrutas[i]);
+        }
+    }
+
+    private int indice() {
+        proxima = (proxima + 1) & (leituras.length - 1);
+        return proxima;
+    }
+
+    @Benchmark
+    public String normalizeMercosul() {
+        return PlateUtils.normalizeMercosul(leiturasBrutas[indice()]);
+    }
+
+    @Benchmark
+    public int levenshtein() {
+        int i = indice();
+        return PlateUtils.levenshtein(leituras[i], frota.get(i % tamanhoFrota));
+    }
+
+    @Benchmark
+    public String bestCandidate() {
+        return PlateUtils.bestCandidate(frota, leituras[indice()], 1);
+    }
+
+    /** Separadores, minúsculas e as trocas letra↔dígito que o OCR costuma fazer. */
+    private static String ruidoOcr(String placa, Random aleatorio) {
+        char[] c = placa.toCharArray();
+        int posicao = aleatorio.nextInt(c.length);
+        c[posicao] = switch (c[posicao]) {
+            case 'O' -> '0';
+            case '0' -> 'O';
+            case 'I' -> '1';
+            case '1' -> 'I';
+            case 'B' -> '8';
+            case '8' -> 'B';
+            default -> c[posicao];
+        };
+        String ruidosa = new String(c, 0, 3) + (aleatorio.nextBoolean() ? "-" : " ") + new String(c, 3, 4);
+        return aleatorio.nextInt(4) == 0 ? ruidosa.toLowerCase() : ruidosa;
+    }
+}
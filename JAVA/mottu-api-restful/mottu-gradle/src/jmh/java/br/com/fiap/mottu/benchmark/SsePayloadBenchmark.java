@@ -0,0 +1,70 @@
+package br.com.fiap.mottu.benchmark;
+
+import br.com.fiap.mottu.dto.box.BoxStatusEventoDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização Jackson dos eventos do stream SSE de boxes ({@link BoxStatusEventoDto}):
+ * o SNAPSHOT enviado a cada conexão e o DELTA enviado a cada mudança.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SsePayloadBenchmark {
+
+    /** Boxes do pátio (tamanho do SNAPSHOT). */
+    @Param({"100", "1000"})
+    private int boxes;
+
+    /** Mesmos módulos que o Spring Boot registra (findAndAddModules: JavaTime, Jdk8, parâmetros). */
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private BoxStatusEventoDto snapshot;
+    private BoxStatusEventoDto delta;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = new Random(5);
+        List<BoxStatusEventoDto.BoxStatus> todos = new ArrayList<>(boxes);
+        for (long i = 1; i <= boxes; i++) {
+            boolean ocupado = aleatorio.nextInt(10) < 7;
+            BoxStatusEventoDto.Veiculo veiculo = ocupado
+                    ? new BoxStatusEventoDto.Veiculo(CorpusImagens.placaAleatoria(aleatorio), "Mottu Sport 110i", "Mottu", "TAG" + i)
+                    : null;
+            todos.add(new BoxStatusEventoDto.BoxStatus(i, "B" + i, ocupado ? "O" : "L", veiculo));
+        }
+        snapshot = BoxStatusEventoDto.snapshot(1, todos);
+        delta = BoxStatusEventoDto.delta(2, todos.subList(0, 3), List.of((long) boxes + 1));
+    }
+
+    @Benchmark
+    public byte[] snapshot() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(snapshot);
+    }
+
+    @Benchmark
+    public byte[] delta() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(delta);
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.fiap.mottu.service.ocr;
+
+import br.com.fiap.mottu.benchmark.CorpusImagens;
+import nu.pattern.OpenCV;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodificação + pré-processamento do Tesseract (cinza, blur, limiar adaptativo) sobre o
+ * {@link CorpusImagens}, sem o OCR em si. Fica no pacote service.ocr para alcançar
+ * {@link TesseractService#prepararImagem(byte[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PreprocessamentoTesseractBenchmark {
+
+    /** Largura das fotos do corpus (4:3). */
+    @Param({"640", "1280", "1920"})
+    private int largura;
+
+    private OcrExecutor ocrExecutor;
+    private TesseractService tesseract;
+    private List<byte[]> corpus;
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        OpenCV.loadLocally();
+        ocrExecutor = new OcrExecutor(1, 1);
+        tesseract = new TesseractService(null, ocrExecutor);
+        corpus = CorpusImagens.fotosDePlacas(largura, 16);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        ocrExecutor.encerrar();
+    }
+
+    @Benchmark
+    public BufferedImage prepararImagem() throws IOException {
+        proxima = (proxima + 1) % corpus.size();
+        return tesseract.prepararImagem(corpus.get(proxima));
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.fiap.mottu.service.relatorios.analytics;
+
+import br.com.fiap.mottu.dto.relatorio.OcupacaoAtualDto;
+import br.com.fiap.mottu.service.RelatorioService;
+import br.com.fiap.mottu.service.relatorios.OcupacaoService;
+import br.com.fiap.mottu.service.relatorios.SecoesRelatorio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agregação em memória dos relatórios, sem banco: a passada de {@link AgregadoMovimentacoes}
+ * sobre as linhas de TB_LOG_MOVIMENTACAO (fica neste pacote para alcançar {@code acumular}) e os
+ * cálculos do Dashboard IA do {@link RelatorioService} sobre a ocupação atual dos pátios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AgregacaoRelatoriosBenchmark {
+
+    /** Linhas de movimentação agregadas por chamada. */
+    @Param({"100000"})
+    private int movimentacoes;
+
+    private LocalDateTime[] datas;
+    private boolean[] entradas;
+    private long[] patios;
+    private long[] boxes;
+    private Long[] tempos;
+    private String[] fabricantes;
+    private RelatorioService relatorioService;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = new Random(13);
+        LocalDateTime inicio = LocalDateTime.now().minusDays(30);
+        String[] marcas = {"Mottu", "Honda", "Yamaha"};
+        datas = new LocalDateTime[movimentacoes];
+        entradas = new boolean[movimentacoes];
+        patios = new long[movimentacoes];
+        boxes = new long[movimentacoes];
+        tempos = new Long[movimentacoes];
+        fabricantes = new String[movimentacoes];
+        for (int i = 0; i < movimentacoes; i++) {
+            datas[i] = inicio.plusMinutes(aleatorio.nextInt(30 * 24 * 60));
+            entradas[i] = aleatorio.nextBoolean();
+            patios[i] = 1 + aleatorio.nextInt(20);
+            boxes[i] = 1 + aleatorio.nextInt(2_000);
+            tempos[i] = entradas[i] ? null : (long) aleatorio.nextInt(600);
+            fabricantes[i] = marcas[aleatorio.nextInt(marcas.length)];
+        }
+
+        List<OcupacaoAtualDto> ocupacao = new ArrayList<>();
+        for (long p = 1; p <= 20; p++) {
+            int total = 100 + aleatorio.nextInt(400);
+            int ocupados = aleatorio.nextInt(total + 1);
+            ocupacao.add(OcupacaoAtualDto.builder().patioId(p).nomePatio("Pátio " + p).totalBoxes(total)
+                    .boxesOcupados(ocupados).boxesLivres(total - ocupados).taxaOcupacao(ocupados * 100.0 / total)
+                    .ultimaAtualizacao(LocalDateTime.now()).statusPatio("A").build());
+        }
+        OcupacaoService ocupacaoFixa = new OcupacaoService(null, null, null) {
+            @Override
+            public List<OcupacaoAtualDto> getOcupacaoAtual() {
+                return ocupacao;
+            }
+        };
+        relatorioService = new RelatorioService(null, null, null, null, null, null, ocupacaoFixa, null, null, null,
+                new SecoesRelatorio(TransactionOperations.withoutTransaction(), 10_000));
+    }
+
+    @Benchmark
+    public AgregadoMovimentacoes agregarMovimentacoes() {
+        AgregadoMovimentacoes agregado = new AgregadoMovimentacoes();
+        for (int i = 0; i < movimentacoes; i++) {
+            agregado.acumular(datas[i], entradas[i], patios[i], boxes[i], tempos[i], fabricantes[i]);
+        }
+        return agregado;
+    }
+
+    @Benchmark
+    public Map<String, Object> dashboardIA() {
+        return relatorioService.getDadosDashboardIA();
+    }
+}
@@ -1,29 +1,56 @@
 package br.com.fiap.mottu.config;
 
+import br.com.fiap.mottu.service.cache.RecargaCaches;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    /**
+     * Política de um cache com carga assíncrona e refresh antecipado.
+     *
+     * @param maximo    número máximo de chaves
+     * @param refresh   idade a partir da qual uma leitura dispara a recarga em segundo plano (servindo o valor atual)
+     * @param expiracao idade máxima de uma entrada que ninguém leu a tempo de ser recarregada
+     */
+    record PoliticaRefresh(long maximo, Duration refresh, Duration expiracao) {}
+
+    // Caches de painel: agregações caras lidas por todos os dashboards ao mesmo tempo
+    static final PoliticaRefresh MAPA_GLOBAL = new PoliticaRefresh(200, Duration.ofMinutes(2), Duration.ofMinutes(10));
+    static final PoliticaRefresh METRICAS_GERAIS = new PoliticaRefresh(10, Duration.ofSeconds(30), Duration.ofMinutes(5));
+    static final PoliticaRefresh RELATORIO_PERFORMANCE = new PoliticaRefresh(10, Duration.ofSeconds(10), Duration.ofMinutes(2));
+    static final PoliticaRefresh ESTATISTICAS_ESTACIONAMENTO = new PoliticaRefresh(500, Duration.ofSeconds(30), Duration.ofMinutes(2));
+
+    /** As cargas fazem I/O de banco; threads virtuais evitam ocupar o ForkJoinPool comum. */
+    private static final Executor CARGAS = Executors.newVirtualThreadPerTaskExecutor();
+
     @Bean
     @Primary
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(ObjectProvider<RecargaCaches> recargas) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(1000)
                 .expireAfterWrite(Duration.ofMinutes(10))
                 .expireAfterAccess(Duration.ofMinutes(5))
                 .recordStats());
+        registrarComRefresh(cacheManager, "mapaGlobal", MAPA_GLOBAL, recargas);
+        registrarComRefresh(cacheManager, "metricasGerais", METRICAS_GERAIS, recargas);
+        registrarComRefresh(cacheManager, "relatorioPerformance", RELATORIO_PERFORMANCE, recargas);
         return cacheManager;
     }
 
@@ -72,21 +99,47 @@ public class CacheConfig {
      * estacionamentoPorId, estacionamentoPorPlaca, estacionamentosPorPatio, estatisticasEstacionamento
      */
     @Bean("estacionamentoCacheManager")
-    public CacheManager estacionamentoCacheManager() {
+    public CacheManager estacionamentoCacheManager(ObjectProvider<RecargaCaches> recargas) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager(
                 "estacionamentos",
                 "estacionamentosAtivos",
                 "estacionamentosAtivosSSE",
                 "estacionamentoPorId",
                 "estacionamentoPorPlaca",
-                "estacionamentosPorPatio",
-                "estatisticasEstacionamento"
+                "estacionamentosPorPatio"
         );
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(500)
                 .expireAfterWrite(Duration.ofMinutes(2))
                 .expireAfterAccess(Duration.ofMinutes(1))
                 .recordStats());
+        registrarComRefresh(cacheManager, "estatisticasEstacionamento", ESTATISTICAS_ESTACIONAMENTO, recargas);
         return cacheManager;
     }
+
+    /**
+     * Registra um cache que o Spring lê pelo carregador do Caffeine: numa chave ausente só uma
+     * carga roda e os pedidos simultâneos esperam por ela; depois de {@code refresh} a leitura
+     * devolve o valor atual e recarrega em segundo plano. Chave que {@link RecargaCaches} não
+     * sabe recalcular carrega null e o {@code @Cacheable} executa o próprio método.
+     */
+    private static void registrarComRefresh(CaffeineCacheManager cacheManager, String nome,
+                                            PoliticaRefresh politica, ObjectProvider<RecargaCaches> recargas) {
+        cacheManager.registerCustomCache(nome, cacheComRefresh(politica, (chave, executor) ->
+                CompletableFuture.supplyAsync(() -> {
+                    RecargaCaches recarga = recargas.getIfAvailable();
+                    return recarga != null ? recarga.recarregar(nome, chave) : null;
+                }, executor)));
+    }
+
+    static AsyncLoadingCache<Object, Object> cacheComRefresh(PoliticaRefresh politica,
+                                                            AsyncCacheLoader<Object, Object> carregador) {
+        return Caffeine.newBuilder()
+                .maximumSize(politica.maximo())
+                .refreshAfterWrite(politica.refresh())
+                .expireAfterWrite(politica.expiracao())
+                .executor(CARGAS)
+                .recordStats()
+                .buildAsync(carregador);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package br.com.fiap.mottu.config;
+
+import br.com.fiap.mottu.service.metricas.ContadorSql;
+import br.com.fiap.mottu.service.metricas.DataSourceContado;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+
+/**
+ * Instrumentação própria da aplicação. HTTP, Hikari, JVM, caches e duração por método de
+ * repositório vêm da autoconfiguração do Actuator (ver "Métricas" no application.properties);
+ * aqui entra a contagem de statements SQL por método de repositório ({@link ContadorSql}).
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public ContadorSql contadorSql(MeterRegistry registry) {
+        return new ContadorSql(registry);
+    }
+
+    /**
+     * Envolve o DataSource no {@link DataSourceContado}: conta o SQL do Hibernate e do JDBC direto.
+     * Estático pelo mesmo motivo do {@link #origemStatementsSql()}.
+     */
+    @Bean
+    public static BeanPostProcessor contagemStatementsSql(ObjectProvider<ContadorSql> contadorSql) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceContado)) {
+                    return new DataSourceContado(dataSource, contadorSql::getIfAvailable);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Marca o método de repositório em execução para o {@link ContadorSql}.
+     * Estático para não instanciar a configuração antes dos demais BeanPostProcessors.
+     */
+    @Bean
+    public static BeanPostProcessor origemStatementsSql() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositorio) {
+                    repositorio.addRepositoryFactoryCustomizer(fabrica -> fabrica.addRepositoryProxyPostProcessor(
+                            (proxy, informacao) -> proxy.addAdvice(
+                                    ContadorSql.interceptador(informacao.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.fiap.mottu.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Confere, na subida, se o INCREMENT BY de cada sequence mapeada é igual ao allocationSize do
+ * gerador pooled do Hibernate, e impede a aplicação de subir se não for.
+ *
+ * Com INCREMENT BY 1 e allocationSize 50, cada instância reserva faixas que se sobrepõem às das
+ * outras e os INSERTs colidem na chave primária. No perfil de produção
+ * ({@code use_jdbc_metadata_defaults=false}) o Hibernate não lê o INCREMENT BY e não tem como
+ * corrigir sozinho, então a divergência (ex.: V6__Sequences_Pooled.sql não executado) para o
+ * deploy aqui. Só vale para Oracle; no H2 as sequences são criadas pelo próprio Hibernate.
+ */
+@Component
+@Slf4j
+public class VerificadorSequencias {
+
+    private static final String SQL_INCREMENTO = """
+            SELECT INCREMENT_BY FROM ALL_SEQUENCES
+             WHERE SEQUENCE_OWNER = NVL(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA'))
+               AND SEQUENCE_NAME = ?""";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Schema em que o Hibernate procura as sequences sem schema no mapeamento (vazio = schema corrente). */
+    @Value("${spring.jpa.properties.hibernate.default_schema:}")
+    private String schemaPadrao = "";
+
+    public VerificadorSequencias(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void verificar() {
+        String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao ->
+                conexao.getMetaData().getDatabaseProductName());
+        if (banco == null || !banco.toLowerCase(Locale.ROOT).contains("oracle")) {
+            log.debug("Banco {}: conferência do INCREMENT BY das sequences ignorada", banco);
+            return;
+        }
+        conferir(sequencesMapeadas());
+    }
+
+    /**
+     * Falha se alguma sequence mapeada diverge do banco.
+     */
+    void conferir(Map<String, Integer> mapeadas) {
+        List<String> divergencias = divergencias(mapeadas, this::incrementoNoBanco);
+        if (!divergencias.isEmpty()) {
+            throw new IllegalStateException("Sequences com INCREMENT BY diferente do allocationSize (execute "
+                    + "db/migration/V6__Sequences_Pooled.sql antes de subir): " + String.join("; ", divergencias));
+        }
+        log.info("✅ {} sequences conferidas: INCREMENT BY igual ao allocationSize", mapeadas.size());
+    }
+
+    /** Nome qualificado ("SCHEMA.SEQ" ou "SEQ") -> incremento efetivo do otimizador do Hibernate. */
+    Map<String, Integer> sequencesMapeadas() {
+        Map<String, Integer> mapeadas = new TreeMap<>();
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .forEachEntityDescriptor(entidade -> {
+                    if (entidade.getGenerator() instanceof SequenceStyleGenerator sequencia
+                            && sequencia.getDatabaseStructure().isPhysicalSequence()) {
+                        mapeadas.put(sequencia.getDatabaseStructure().getPhysicalName().render().toUpperCase(Locale.ROOT),
+                                sequencia.getDatabaseStructure().getIncrementSize());
+                    }
+                });
+        return mapeadas;
+    }
+
+    private Integer incrementoNoBanco(String nomeQualificado) {
+        int ponto = nomeQualificado.lastIndexOf('.');
+        String owner = ponto > 0 ? nomeQualificado.substring(0, ponto)
+                : schemaPadrao.isBlank() ? null : schemaPadrao.toUpperCase(Locale.ROOT);
+        List<Integer> incrementos = jdbcTemplate.queryForList(SQL_INCREMENTO, Integer.class,
+                owner, nomeQualificado.substring(ponto + 1));
+        return incrementos.isEmpty() ? null : incrementos.get(0);
+    }
+
+    /**
+     * Sequences cujo INCREMENT BY no banco não é o allocationSize mapeado (ou que não existem).
+     */
+    static List<String> divergencias(Map<String, Integer> mapeadas, Function<String, Integer> incrementoNoBanco) {
+        List<String> divergencias = new ArrayList<>();
+        mapeadas.forEach((nome, allocationSize) -> {
+            Integer incremento = incrementoNoBanco.apply(nome);
+            if (incremento == null) {
+                divergencias.add(nome + " não existe");
+            } else if (!incremento.equals(allocationSize)) {
+                divergencias.add(nome + " INCREMENT BY " + incremento + " (allocationSize " + allocationSize + ")");
+            }
+        });
+        return divergencias;
+    }
+}
@@ -1,6 +1,10 @@
 package br.com.fiap.mottu.controller;
 
+import br.com.fiap.mottu.dto.box.BoxStatusEventoDto;
 import br.com.fiap.mottu.service.VagaOracleService;
+import br.com.fiap.mottu.service.stream.BoxStatusStreamService;
+import br.com.fiap.mottu.service.stream.MudancaHub;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -11,19 +15,23 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
-import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * SSE para atualização de status dos boxes em tempo real.
- * Atualiza os mapas 2D dos pátios quando há mudanças nos status dos boxes.
+ * Atualiza os mapas 2D dos pátios quando há mudanças nos status dos boxes:
+ * o snapshot é recarregado pelo {@link MudancaHub} apenas quando uma escrita é confirmada
+ * e compartilhado entre todos os clientes do mesmo pátio.
  */
 @RestController
 @RequestMapping("/api/boxes")
@@ -32,14 +40,19 @@ public class BoxStreamController {
 
     private static final Logger log = LoggerFactory.getLogger(BoxStreamController.class);
     private final VagaOracleService vagaService;
+    private final MudancaHub mudancaHub;
+    private final BoxStatusStreamService boxStatusStreamService;
 
-    public BoxStreamController(VagaOracleService vagaService) {
+    public BoxStreamController(VagaOracleService vagaService, MudancaHub mudancaHub,
+                               BoxStatusStreamService boxStatusStreamService) {
         this.vagaService = vagaService;
+        this.mudancaHub = mudancaHub;
+        this.boxStatusStreamService = boxStatusStreamService;
     }
 
     /**
      * Stream SSE com status atualizado dos boxes de um pátio específico.
-     * Atualiza a cada 3 segundos.
+     * Emite o estado atual na conexão e um novo snapshot a cada mudança de box/estacionamento.
      * 
      * @param patioId ID do pátio (opcional, se não fornecido retorna todos os pátios)
      * @return Flux com lista de boxes e seus status atualizados
@@ -47,8 +60,8 @@ public class BoxStreamController {
     @Operation(
             summary = "Stream SSE de status dos boxes em tempo real",
             description = """
-                    Retorna um stream Server-Sent Events (SSE) com atualizações periódicas (a cada 3 segundos) 
-                    do status dos boxes. Inclui boxes livres (L), ocupados (O) e em manutenção (M).
+                    Retorna um stream Server-Sent Events (SSE) com o status dos boxes: o estado atual na conexão
+                    e um novo snapshot sempre que um box ou estacionamento é alterado. Inclui boxes livres (L), ocupados (O) e em manutenção (M).
                     
                     O stream inclui:
                     - Status do box (L, O, M)
@@ -69,7 +82,7 @@ public class BoxStreamController {
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Stream SSE iniciado com sucesso. Dados são enviados continuamente a cada 3 segundos",
+                            description = "Stream SSE iniciado com sucesso. Dados são enviados na conexão e a cada mudança",
                             content = @Content(
                                     mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
                                     schema = @Schema(description = "Lista de boxes com status atualizado")
@@ -85,65 +98,104 @@ public class BoxStreamController {
     public Flux<List<Map<String, Object>>> streamBoxesStatus(
             @RequestParam(required = false) Long patioId) {
         log.debug("Cliente conectado ao stream de boxes status. PatioId: {}", patioId);
-        
-        return Flux.interval(Duration.ofSeconds(3))
-                .map(tick -> {
-                    try {
-                        // Buscar boxes com detalhes do veículo (inclui status L, O, M)
-                        List<Map<String, Object>> boxes;
-                        if (patioId != null) {
-                            boxes = vagaService.listarBoxesComDetalhesVeiculo(patioId).stream()
-                                    .map(row -> {
-                                        Map<String, Object> boxData = new java.util.LinkedHashMap<>();
-                                        boxData.put("idBox", row.idBox());
-                                        boxData.put("nome", row.nome());
-                                        // Preservar status original do box (L, O, M)
-                                        boxData.put("status", row.status());
-                                        // Criar mapa de veículo usando LinkedHashMap para permitir nulls
-                                        if (row.placa() != null) {
-                                            Map<String, Object> veiculoData = new java.util.LinkedHashMap<>();
-                                            veiculoData.put("placa", row.placa());
-                                            veiculoData.put("modelo", row.modelo() != null ? row.modelo() : "");
-                                            veiculoData.put("fabricante", row.fabricante() != null ? row.fabricante() : "");
-                                            veiculoData.put("tagBleId", row.tagBleId()); // Pode ser null
-                                            boxData.put("veiculo", veiculoData);
-                                        } else {
-                                            boxData.put("veiculo", null);
-                                        }
-                                        return boxData;
-                                    })
-                                    .toList();
-                        } else {
-                            // Sem filtro de pátio, retorna todos
-                            boxes = vagaService.listarBoxesComDetalhesVeiculo().stream()
-                                    .map(row -> {
-                                        Map<String, Object> boxData = new java.util.LinkedHashMap<>();
-                                        boxData.put("idBox", row.idBox());
-                                        boxData.put("nome", row.nome());
-                                        boxData.put("status", row.status());
-                                        boxData.put("veiculo", row.placa() != null ? Map.of(
-                                                "placa", row.placa(),
-                                                "modelo", row.modelo() != null ? row.modelo() : "",
-                                                "fabricante", row.fabricante() != null ? row.fabricante() : "",
-                                                "tagBleId", row.tagBleId() != null ? row.tagBleId() : null
-                                        ) : null);
-                                        return boxData;
-                                    })
-                                    .toList();
-                        }
-                        
-                        log.trace("Enviando {} boxes atualizados via SSE", boxes.size());
-                        return boxes;
-                    } catch (Exception e) {
-                        log.error("Erro ao buscar boxes para SSE", e);
-                        return List.<Map<String, Object>>of();
-                    }
-                })
-                .onErrorContinue((err, obj) -> {
-                    log.warn("Erro no stream de boxes status: {}", err.getMessage());
-                })
+
+        String chave = patioId != null ? "boxes:patio-" + patioId : "boxes:todos";
+        return mudancaHub.snapshots(chave, patioId, () -> carregarBoxes(patioId),
+                        TopicoMudanca.BOX, TopicoMudanca.ESTACIONAMENTO, TopicoMudanca.VEICULO)
                 .doOnCancel(() -> {
                     log.info("Cliente desconectou do stream de boxes status");
                 });
     }
+
+    /**
+     * Stream SSE de status dos boxes com protocolo snapshot + delta.
+     * Primeiro evento: snapshot completo; depois apenas os boxes alterados.
+     *
+     * @param patioId     ID do pátio (opcional)
+     * @param lastEventId enviado automaticamente pelo EventSource na reconexão
+     * @return Flux de eventos SSE "snapshot" e "delta" com ID "geracao:seq"
+     */
+    @Operation(
+            summary = "Stream SSE de status dos boxes (snapshot + delta)",
+            description = """
+                    Versão incremental do stream de boxes. O primeiro evento (event: snapshot) traz todos os boxes
+                    e um número de sequência; os eventos seguintes (event: delta) trazem somente os boxes cujo status
+                    ou veículo mudou e os IDs removidos.
+                    
+                    Cada evento tem id "geracao:seq". Ao reconectar, o EventSource envia o header Last-Event-ID e o
+                    servidor reenvia apenas os deltas perdidos; se a sequência não estiver mais no histórico, um novo
+                    snapshot é enviado.
+                    """,
+            parameters = {
+                    @Parameter(
+                            name = "patioId",
+                            description = "ID do pátio para filtrar boxes (opcional). Se não fornecido, retorna boxes de todos os pátios",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "integer", example = "1"),
+                            required = false
+                    ),
+                    @Parameter(
+                            name = "Last-Event-ID",
+                            description = "ID do último evento recebido (geracao:seq) para retomar o stream",
+                            in = ParameterIn.HEADER,
+                            schema = @Schema(type = "string", example = "1718000000000:42"),
+                            required = false
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Stream SSE iniciado com sucesso",
+                            content = @Content(
+                                    mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                    schema = @Schema(implementation = BoxStatusEventoDto.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping(path = "/stream/delta", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<BoxStatusEventoDto>> streamBoxesStatusDelta(
+            @RequestParam(required = false) Long patioId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("Cliente conectado ao stream delta de boxes. PatioId: {}, Last-Event-ID: {}", patioId, lastEventId);
+        return boxStatusStreamService.assinar(patioId, lastEventId)
+                .doOnCancel(() -> log.info("Cliente desconectou do stream delta de boxes"));
+    }
+
+    /**
+     * Carrega os boxes (status L, O, M) com os dados do veículo, do pátio informado ou de todos.
+     */
+    private List<Map<String, Object>> carregarBoxes(Long patioId) {
+        try {
+            List<VagaOracleService.BoxComVeiculoRow> rows = patioId != null
+                    ? vagaService.listarBoxesComDetalhesVeiculo(patioId)
+                    : vagaService.listarBoxesComDetalhesVeiculo();
+            List<Map<String, Object>> boxes = rows.stream().map(this::toBoxData).toList();
+            log.trace("Enviando {} boxes atualizados via SSE", boxes.size());
+            return boxes;
+        } catch (Exception e) {
+            log.error("Erro ao buscar boxes para SSE", e);
+            return List.of();
+        }
+    }
+
+    private Map<String, Object> toBoxData(VagaOracleService.BoxComVeiculoRow row) {
+        Map<String, Object> boxData = new LinkedHashMap<>();
+        boxData.put("idBox", row.idBox());
+        boxData.put("nome", row.nome());
+        // Preservar status original do box (L, O, M)
+        boxData.put("status", row.status());
+        // Criar mapa de veículo usando LinkedHashMap para permitir nulls
+        if (row.placa() != null) {
+            Map<String, Object> veiculoData = new LinkedHashMap<>();
+            veiculoData.put("placa", row.placa());
+            veiculoData.put("modelo", row.modelo() != null ? row.modelo() : "");
+            veiculoData.put("fabricante", row.fabricante() != null ? row.fabricante() : "");
+            veiculoData.put("tagBleId", row.tagBleId()); // Pode ser null
+            boxData.put("veiculo", veiculoData);
+        } else {
+            boxData.put("veiculo", null);
+        }
+        return boxData;
+    }
 }
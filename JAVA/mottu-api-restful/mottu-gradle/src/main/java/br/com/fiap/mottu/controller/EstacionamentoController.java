@@ -2,10 +2,14 @@ package br.com.fiap.mottu.controller;
 
 import br.com.fiap.mottu.dto.datatable.DataTableRequest;
 import br.com.fiap.mottu.dto.datatable.DataTableResponse;
+import br.com.fiap.mottu.dto.datatable.JanelaResponse;
 import br.com.fiap.mottu.dto.estacionamento.EstacionamentoRequestDto;
 import br.com.fiap.mottu.dto.estacionamento.EstacionamentoResponseDto;
+import br.com.fiap.mottu.dto.estacionamento.LoteEstacionamentoRequestDto;
+import br.com.fiap.mottu.dto.estacionamento.LoteEstacionamentoResponseDto;
 import br.com.fiap.mottu.dto.estacionamento.PlacaRequestDto;
 import br.com.fiap.mottu.filter.EstacionamentoFilter;
+import br.com.fiap.mottu.service.EstacionamentoLoteService;
 import br.com.fiap.mottu.service.EstacionamentoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -38,10 +42,13 @@ public class EstacionamentoController {
 
     private static final Logger log = LoggerFactory.getLogger(EstacionamentoController.class);
     private final EstacionamentoService estacionamentoService;
+    private final EstacionamentoLoteService estacionamentoLoteService;
 
     @Autowired
-    public EstacionamentoController(EstacionamentoService estacionamentoService) {
+    public EstacionamentoController(EstacionamentoService estacionamentoService,
+                                    EstacionamentoLoteService estacionamentoLoteService) {
         this.estacionamentoService = estacionamentoService;
+        this.estacionamentoLoteService = estacionamentoLoteService;
     }
 
     // ================== LISTAR E BUSCAR ==================
@@ -216,6 +223,47 @@ public class EstacionamentoController {
         return ResponseEntity.ok(estacionamentoService.buscarHistoricoPorPlaca(placa, pageable));
     }
 
+    @Operation(
+            summary = "Buscar histórico por placa com cursor",
+            description = "Histórico por placa paginado por cursor (keyset em dataEntrada + id): sem COUNT e com custo constante " +
+                    "em qualquer profundidade. Envie o proximoCursor da resposta para obter a janela seguinte.",
+            parameters = {
+                    @Parameter(name = "cursor", description = "proximoCursor da janela anterior (vazio na primeira)", in = ParameterIn.QUERY),
+                    @Parameter(name = "tamanho", description = "Registros por janela (máx. 200)", in = ParameterIn.QUERY)
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Janela do histórico retornada com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Placa ou cursor inválido")
+            }
+    )
+    @GetMapping("/placa/{placa}/historico/cursor")
+    public ResponseEntity<JanelaResponse<EstacionamentoResponseDto>> buscarHistoricoPorPlacaCursor(
+            @PathVariable String placa,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int tamanho) {
+        return ResponseEntity.ok(estacionamentoService.buscarHistoricoPorPlacaCursor(placa, cursor, tamanho));
+    }
+
+    @Operation(
+            summary = "Buscar histórico de um pátio com cursor",
+            description = "Histórico de estacionamentos do pátio paginado por cursor (keyset em dataEntrada + id), sem COUNT.",
+            parameters = {
+                    @Parameter(name = "cursor", description = "proximoCursor da janela anterior (vazio na primeira)", in = ParameterIn.QUERY),
+                    @Parameter(name = "tamanho", description = "Registros por janela (máx. 200)", in = ParameterIn.QUERY)
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Janela do histórico retornada com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Cursor inválido")
+            }
+    )
+    @GetMapping("/patio/{patioId}/historico/cursor")
+    public ResponseEntity<JanelaResponse<EstacionamentoResponseDto>> buscarHistoricoPorPatioCursor(
+            @PathVariable Long patioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int tamanho) {
+        return ResponseEntity.ok(estacionamentoService.buscarHistoricoPorPatioCursor(patioId, cursor, tamanho));
+    }
+
     // ================== CRUD OPERATIONS ==================
 
     @Operation(
@@ -243,6 +291,35 @@ public class EstacionamentoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(estacionamento);
     }
 
+    @Operation(
+            summary = "Estacionar veículos em lote",
+            description = "Estaciona várias placas em uma única transação (pico de portão). Retorna o resultado de cada placa; falhas individuais não impedem as demais.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lote processado (ver resultado por placa)"),
+                    @ApiResponse(responseCode = "400", description = "Dados inválidos")
+            }
+    )
+    @PostMapping("/estacionar/lote")
+    public ResponseEntity<LoteEstacionamentoResponseDto> estacionarEmLote(@Valid @RequestBody LoteEstacionamentoRequestDto request) {
+        log.info("🚗 Estacionando lote de {} placa(s), pátio preferido: {}", request.getPlacas().size(), request.getPatioId());
+        return ResponseEntity.ok(estacionamentoLoteService.estacionarEmLote(
+                request.getPlacas(), request.getPatioId(), request.getObservacoes()));
+    }
+
+    @Operation(
+            summary = "Liberar veículos em lote",
+            description = "Libera os estacionamentos ativos de várias placas em uma única transação. Retorna o resultado de cada placa.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lote processado (ver resultado por placa)"),
+                    @ApiResponse(responseCode = "400", description = "Dados inválidos")
+            }
+    )
+    @PostMapping("/liberar/lote")
+    public ResponseEntity<LoteEstacionamentoResponseDto> liberarEmLote(@Valid @RequestBody LoteEstacionamentoRequestDto request) {
+        log.info("🚗 Liberando lote de {} placa(s)", request.getPlacas().size());
+        return ResponseEntity.ok(estacionamentoLoteService.liberarEmLote(request.getPlacas(), request.getObservacoes()));
+    }
+
     @Operation(
             summary = "Liberar box específico",
             description = "Libera um box específico (desativa apenas o estacionamento desse box).",
@@ -328,7 +405,8 @@ public class EstacionamentoController {
 
     @Operation(
             summary = "Buscar estacionamentos para DataTable",
-            description = "Endpoint específico para integração com DataTables (jQuery DataTable).",
+            description = "Endpoint específico para integração com DataTables (jQuery DataTable). " +
+                    "Envie 'cursor' (proximoCursor da resposta anterior) para rolar por keyset e 'contagem=estimada' para dispensar o COUNT.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Dados retornados no formato DataTable")
             }
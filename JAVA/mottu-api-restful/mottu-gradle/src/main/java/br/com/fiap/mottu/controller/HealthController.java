@@ -1,9 +1,17 @@
 package br.com.fiap.mottu.controller;
 
 import br.com.fiap.mottu.config.LoggingConfig;
+import br.com.fiap.mottu.service.ocr.CacheResultadosOcr;
+import br.com.fiap.mottu.service.ocr.IndicePlacasFrota;
+import br.com.fiap.mottu.service.ocr.OcrExecutor;
+import br.com.fiap.mottu.service.ocr.OcrSessionManager;
+import br.com.fiap.mottu.service.ocr.ReconhecedorEspeculativo;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,7 +23,9 @@ import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Controller para Health Checks do sistema MOTTU
@@ -24,6 +34,8 @@ import java.util.Map;
  * - GET /api/health - Health check geral
  * - GET /api/health/database - Health check do banco de dados
  * - GET /api/health/system - Informações do sistema
+ * - GET /api/health/cache - Estatísticas (hit ratio) dos caches Caffeine
+ * - GET /api/health/ocr - Fila, workers em execução, latência por motor e sessões do OCR
  */
 @RestController
 @RequestMapping("/api/health")
@@ -34,6 +46,24 @@ public class HealthController {
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private Map<String, CacheManager> cacheManagers;
+
+    @Autowired
+    private OcrExecutor ocrExecutor;
+
+    @Autowired
+    private OcrSessionManager ocrSessionManager;
+
+    @Autowired
+    private ReconhecedorEspeculativo reconhecedorEspeculativo;
+
+    @Autowired
+    private IndicePlacasFrota indicePlacasFrota;
+
+    @Autowired
+    private CacheResultadosOcr cacheResultadosOcr;
+
     /**
      * Health check geral do sistema
      */
@@ -220,6 +250,48 @@ public class HealthController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Estatísticas dos caches Caffeine (recordStats), por cache manager e por cache
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        Map<String, Object> response = new TreeMap<>();
+        cacheManagers.forEach((nomeManager, manager) -> {
+            Map<String, Object> caches = new TreeMap<>();
+            for (String nomeCache : manager.getCacheNames()) {
+                if (manager.getCache(nomeCache) instanceof CaffeineCache caffeineCache) {
+                    CacheStats stats = caffeineCache.getNativeCache().stats();
+                    Map<String, Object> cache = new HashMap<>();
+                    cache.put("requests", stats.requestCount());
+                    cache.put("hits", stats.hitCount());
+                    cache.put("misses", stats.missCount());
+                    cache.put("hitRatio", String.format("%.2f%%", stats.hitRate() * 100));
+                    cache.put("evictions", stats.evictionCount());
+                    cache.put("size", caffeineCache.getNativeCache().estimatedSize());
+                    caches.put(nomeCache, cache);
+                }
+            }
+            response.put(nomeManager, caches);
+        });
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Métricas do pool de OCR (profundidade da fila, em execução, rejeições e latência por motor)
+     * das sessões (ativas, expiradas, descartadas pelo limite e clientes aguardando)
+     * das vitórias por motor no reconhecimento especulativo, do índice de placas da frota
+     * e do cache de resultados por imagem (acertos, uploads coalescidos e tempo de OCR poupado)
+     */
+    @GetMapping("/ocr")
+    public ResponseEntity<Map<String, Object>> ocrStats() {
+        Map<String, Object> response = new LinkedHashMap<>(ocrExecutor.estatisticas());
+        response.put("sessoes", ocrSessionManager.estatisticas());
+        response.put("especulativo", reconhecedorEspeculativo.estatisticas());
+        response.put("frota", indicePlacasFrota.estatisticas());
+        response.put("cache", cacheResultadosOcr.estatisticas());
+        return ResponseEntity.ok(response);
+    }
+
     private String formatBytes(long bytes) {
         if (bytes < 1024) return bytes + " B";
         int exp = (int) (Math.log(bytes) / Math.log(1024));
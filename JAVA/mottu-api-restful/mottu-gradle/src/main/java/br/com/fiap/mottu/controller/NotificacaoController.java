@@ -1,8 +1,11 @@
 package br.com.fiap.mottu.controller;
 
 import br.com.fiap.mottu.dto.notificacao.NotificacaoResponseDto;
+import br.com.fiap.mottu.exception.InvalidInputException;
 import br.com.fiap.mottu.model.Notificacao;
 import br.com.fiap.mottu.service.NotificacaoService;
+import br.com.fiap.mottu.service.stream.MudancaHub;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -20,7 +23,6 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 
 import java.util.Map;
-import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/notificacoes")
@@ -29,7 +31,11 @@ import java.time.Duration;
 @Tag(name = "Notificações", description = "API para gerenciamento de notificações do sistema")
 public class NotificacaoController {
     
+    private static final int MAX_PAGINA_STREAM = 50;
+    private static final int MAX_TAMANHO_STREAM = 100;
+    
     private final NotificacaoService notificacaoService;
+    private final MudancaHub mudancaHub;
     
     @GetMapping
     @Operation(summary = "Listar notificações", 
@@ -216,12 +222,20 @@ public class NotificacaoController {
         }
     }
 
-    // SSE: stream de notificações mais recentes
+    // SSE: stream de notificações mais recentes (reenviado quando notificações são criadas, lidas ou removidas)
+    // page/size fazem parte da chave do snapshot compartilhado, por isso são limitados
     @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<Page<NotificacaoResponseDto>> streamNotificacoes(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
-        return Flux.interval(Duration.ZERO, Duration.ofSeconds(5))
-                .map(t -> listarNotificacoes(null, null, null, null, page, size, "dataHoraCriacao", "desc").getBody());
+        if (page < 0 || page > MAX_PAGINA_STREAM) {
+            throw new InvalidInputException("page", String.valueOf(page), "0 a " + MAX_PAGINA_STREAM);
+        }
+        if (size < 1 || size > MAX_TAMANHO_STREAM) {
+            throw new InvalidInputException("size", String.valueOf(size), "1 a " + MAX_TAMANHO_STREAM);
+        }
+        return mudancaHub.snapshots("notificacoes:" + page + "-" + size, null,
+                () -> listarNotificacoes(null, null, null, null, page, size, "dataHoraCriacao", "desc").getBody(),
+                TopicoMudanca.NOTIFICACAO);
     }
 }
\ No newline at end of file
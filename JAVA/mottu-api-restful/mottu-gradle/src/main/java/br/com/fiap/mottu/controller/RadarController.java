@@ -1,5 +1,6 @@
 package br.com.fiap.mottu.controller;
 
+import br.com.fiap.mottu.exception.OcrOcupadoException;
 import br.com.fiap.mottu.service.ocr.OcrSession;
 import br.com.fiap.mottu.service.ocr.OcrSessionManager;
 import br.com.fiap.mottu.service.ocr.PlateRecognizer;
@@ -7,9 +8,12 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -22,6 +26,7 @@ import java.util.Optional;
 public class RadarController {
 
     private static final Logger log = LoggerFactory.getLogger(RadarController.class);
+    private static final long TIMEOUT_MAXIMO_AGUARDAR_SEGUNDOS = 60;
 
     private final OcrSessionManager sessionManager;
     private final PlateRecognizer plateRecognizer;
@@ -47,6 +52,25 @@ public class RadarController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Aguardar Resultado da Sessão",
+            description = "Long-poll: responde assim que a sessão for concluída (COMPLETED/ERROR) ou a fila de OCR "
+                    + "estiver cheia (BUSY). Ao fim do timeout devolve o status atual e o cliente chama de novo.")
+    @GetMapping("/aguardar-sessao/{sessionId}")
+    public DeferredResult<ResponseEntity<OcrSession>> aguardarSessao(
+            @PathVariable String sessionId,
+            @RequestParam(defaultValue = "25") long timeoutSegundos) {
+        long timeout = Math.min(Math.max(timeoutSegundos, 1), TIMEOUT_MAXIMO_AGUARDAR_SEGUNDOS);
+        DeferredResult<ResponseEntity<OcrSession>> resposta = new DeferredResult<>(timeout * 1000);
+        resposta.onTimeout(() -> resposta.setResult(sessionManager.getSession(sessionId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build())));
+
+        sessionManager.aguardarConclusao(sessionId).ifPresentOrElse(
+                futuro -> futuro.thenAccept(session -> resposta.setResult(ResponseEntity.ok(session))),
+                () -> resposta.setResult(ResponseEntity.notFound().build()));
+        return resposta;
+    }
+
     @Operation(summary = "Upload de Imagem da Placa")
     @PostMapping(
             value = "/upload-imagem/{sessionId}",
@@ -78,11 +102,17 @@ public class RadarController {
             byte[] imageBytes = mainPart.getBytes();
             log.info("Sessão {}: Imagem lida com {} bytes.", sessionId, imageBytes.length);
 
-            // Dispara processamento assíncrono no motor configurado (OpenALPR @Primary por padrão).
+            // Dispara processamento assíncrono (reconhecimento especulativo @Primary: OpenALPR br/eu + Tesseract).
             plateRecognizer.extractPlate(sessionId, imageBytes);
 
             return ResponseEntity.accepted().body(Map.of("status", "Processamento da imagem iniciado."));
 
+        } catch (OcrOcupadoException e) {
+            // Sessão já marcada como BUSY pelo reconhecedor; o cliente reenvia a mesma imagem
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .body(Map.of("status", OcrSession.Status.BUSY.name(), "error", e.getMessage()));
+
         } catch (IOException e) {
             log.error("Sessão {}: Falha ao ler os bytes da imagem.", sessionId, e);
             sessionManager.updateSessionError(sessionId, "Erro ao ler o arquivo de imagem.");
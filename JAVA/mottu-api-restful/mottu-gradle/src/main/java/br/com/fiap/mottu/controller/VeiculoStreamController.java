@@ -2,6 +2,8 @@ package br.com.fiap.mottu.controller;
 
 import br.com.fiap.mottu.dto.veiculo.VeiculoLocalizacaoResponseDto;
 import br.com.fiap.mottu.service.VeiculoService;
+import br.com.fiap.mottu.service.stream.MudancaHub;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
@@ -10,11 +12,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
-import java.time.Duration;
 import java.util.List;
 
 /**
  * SSE para atualização de veículos estacionados em tempo real.
+ * A lista é recarregada pelo {@link MudancaHub} somente quando há entrada/saída ou alteração de veículo.
  */
 @RestController
 @RequestMapping("/api/veiculos/estacionados")
@@ -22,17 +24,18 @@ public class VeiculoStreamController {
 
     private static final Logger log = LoggerFactory.getLogger(VeiculoStreamController.class);
     private final VeiculoService veiculoService;
+    private final MudancaHub mudancaHub;
 
-    public VeiculoStreamController(VeiculoService veiculoService) {
+    public VeiculoStreamController(VeiculoService veiculoService, MudancaHub mudancaHub) {
         this.veiculoService = veiculoService;
+        this.mudancaHub = mudancaHub;
     }
 
     @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<List<VeiculoLocalizacaoResponseDto>> streamVeiculosEstacionados() {
         log.debug("Cliente conectado ao stream de veículos estacionados");
-        return Flux.interval(Duration.ofSeconds(2))
-                .map(tick -> veiculoService.listarVeiculosEstacionados())
-                .onErrorContinue((err, obj) -> log.warn("Erro no stream de estacionados: {}", err.toString()))
+        return mudancaHub.snapshots("veiculos:estacionados", null, veiculoService::listarVeiculosEstacionados,
+                        TopicoMudanca.ESTACIONAMENTO, TopicoMudanca.BOX, TopicoMudanca.VEICULO)
                 .doOnCancel(() -> log.info("Cliente desconectou do stream de estacionados"));
     }
 }
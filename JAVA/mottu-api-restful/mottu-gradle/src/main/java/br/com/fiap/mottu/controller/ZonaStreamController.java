@@ -3,6 +3,8 @@ package br.com.fiap.mottu.controller;
 import br.com.fiap.mottu.dto.zona.ZonaResponseDto;
 import br.com.fiap.mottu.exception.ResourceNotFoundException;
 import br.com.fiap.mottu.service.PatioService;
+import br.com.fiap.mottu.service.stream.MudancaHub;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -20,7 +22,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
-import java.time.Duration;
 import java.util.List;
 
 /**
@@ -34,14 +35,16 @@ public class ZonaStreamController {
 
     private static final Logger log = LoggerFactory.getLogger(ZonaStreamController.class);
     private final PatioService patioService;
+    private final MudancaHub mudancaHub;
 
-    public ZonaStreamController(PatioService patioService) {
+    public ZonaStreamController(PatioService patioService, MudancaHub mudancaHub) {
         this.patioService = patioService;
+        this.mudancaHub = mudancaHub;
     }
 
     /**
      * Stream SSE com zonas atualizadas de um pátio específico.
-     * Atualiza a cada 3 segundos.
+     * Emite a lista atual na conexão e uma nova lista a cada mudança de zona do pátio.
      * 
      * @param patioId ID do pátio (obrigatório)
      * @param patioStatus Status do pátio (obrigatório)
@@ -50,8 +53,8 @@ public class ZonaStreamController {
     @Operation(
             summary = "Stream SSE de zonas em tempo real",
             description = """
-                    Retorna um stream Server-Sent Events (SSE) com atualizações periódicas (a cada 3 segundos) 
-                    das zonas de um pátio. As zonas são ordenadas por nome em ordem crescente.
+                    Retorna um stream Server-Sent Events (SSE) com as zonas de um pátio: a lista atual na conexão
+                    e uma nova lista sempre que uma zona do pátio é criada, alterada ou excluída. As zonas são ordenadas por nome em ordem crescente.
                     
                     O stream inclui:
                     - Lista completa de zonas do pátio
@@ -79,7 +82,7 @@ public class ZonaStreamController {
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Stream SSE iniciado com sucesso. Dados são enviados continuamente a cada 3 segundos",
+                            description = "Stream SSE iniciado com sucesso. Dados são enviados na conexão e a cada mudança",
                             content = @Content(
                                     mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
                                     schema = @Schema(description = "Lista de zonas ordenadas por nome")
@@ -110,54 +113,44 @@ public class ZonaStreamController {
             return Flux.error(new IllegalArgumentException("patioId e patioStatus são obrigatórios"));
         }
 
-        log.debug("Cliente conectado ao stream de zonas. PatioId: {}, PatioStatus: {}", patioId, patioStatus);
+        // Pátio inexistente ou com outro status responde 404 já na conexão, em vez de um stream vazio.
+        // Com o status validado, a chave do snapshot depende só do ID do pátio.
+        String status = patioService.buscarPatioPorId(patioId).getStatus();
+        if (!status.equals(patioStatus.trim())) {
+            throw new ResourceNotFoundException("Pátio com ID " + patioId + " não foi encontrado com o status " + patioStatus);
+        }
+
+        log.debug("Cliente conectado ao stream de zonas. PatioId: {}, PatioStatus: {}", patioId, status);
         
-        return Flux.interval(Duration.ofSeconds(3))
-                .map(tick -> {
-                    try {
-                        // Buscar zonas do pátio com paginação grande para pegar todas
-                        Page<ZonaResponseDto> zonasPage = patioService.listarZonasPorPatio(
-                                patioId, 
-                                patioStatus, 
-                                org.springframework.data.domain.PageRequest.of(0, 1000)
-                        );
-                        
-                        // Ordenar por nome em ordem crescente
-                        List<ZonaResponseDto> zonas = zonasPage.getContent().stream()
-                                .sorted((z1, z2) -> z1.getNome().compareToIgnoreCase(z2.getNome()))
-                                .toList();
-                        
-                        log.trace("Enviando {} zonas atualizadas via SSE", zonas.size());
-                        return zonas;
-                    } catch (ResourceNotFoundException e) {
-                        log.error("Pátio não encontrado para stream de zonas: {}", e.getMessage());
-                        throw e;
-                    } catch (Exception e) {
-                        log.error("Erro ao buscar zonas para SSE", e);
-                        throw new RuntimeException("Erro ao buscar zonas: " + e.getMessage(), e);
-                    }
-                })
-                .onErrorContinue((err, obj) -> {
-                    if (err instanceof ResourceNotFoundException) {
-                        log.error("Pátio não encontrado no stream de zonas: {}", err.getMessage());
-                    } else {
-                        log.warn("Erro no stream de zonas: {}", err.getMessage());
-                    }
-                })
+        return mudancaHub.snapshots("zonas:patio-" + patioId, patioId,
+                        () -> carregarZonas(patioId, status), TopicoMudanca.ZONA, TopicoMudanca.PATIO)
                 .doOnCancel(() -> {
                     log.info("Cliente desconectou do stream de zonas");
                 });
     }
-}
-
-
-
-
-
-
-
-
-
-
-
 
+    private List<ZonaResponseDto> carregarZonas(Long patioId, String patioStatus) {
+        try {
+            // Buscar zonas do pátio com paginação grande para pegar todas
+            Page<ZonaResponseDto> zonasPage = patioService.listarZonasPorPatio(
+                    patioId,
+                    patioStatus,
+                    org.springframework.data.domain.PageRequest.of(0, 1000)
+            );
+
+            // Ordenar por nome em ordem crescente
+            List<ZonaResponseDto> zonas = zonasPage.getContent().stream()
+                    .sorted((z1, z2) -> z1.getNome().compareToIgnoreCase(z2.getNome()))
+                    .toList();
+
+            log.trace("Enviando {} zonas atualizadas via SSE", zonas.size());
+            return zonas;
+        } catch (ResourceNotFoundException e) {
+            log.error("Pátio não encontrado para stream de zonas: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Erro ao buscar zonas para SSE", e);
+            throw new RuntimeException("Erro ao buscar zonas: " + e.getMessage(), e);
+        }
+    }
+}
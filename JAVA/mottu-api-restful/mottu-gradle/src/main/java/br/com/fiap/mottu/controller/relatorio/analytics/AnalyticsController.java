@@ -8,6 +8,10 @@ import br.com.fiap.mottu.exception.InvalidInputException;
 import br.com.fiap.mottu.exception.DateRangeTooLargeException;
 import br.com.fiap.mottu.exception.ReportNotReadyException;
 import br.com.fiap.mottu.service.relatorios.analytics.AnalyticsService;
+import br.com.fiap.mottu.service.relatorios.jobs.JobRelatorio;
+import br.com.fiap.mottu.service.relatorios.jobs.JobsRelatorio;
+import br.com.fiap.mottu.service.stream.MudancaHub;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -20,7 +24,6 @@ import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
-import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -30,9 +33,13 @@ import java.util.Map;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final MudancaHub mudancaHub;
+    private final JobsRelatorio jobsRelatorio;
 
-    public AnalyticsController(AnalyticsService analyticsService) {
+    public AnalyticsController(AnalyticsService analyticsService, MudancaHub mudancaHub, JobsRelatorio jobsRelatorio) {
         this.analyticsService = analyticsService;
+        this.mudancaHub = mudancaHub;
+        this.jobsRelatorio = jobsRelatorio;
     }
 
     @Operation(summary = "KPIs básicos de analytics")
@@ -74,13 +81,13 @@ public class AnalyticsController {
         return ResponseEntity.ok(analyticsService.obterKpis());
     }
 
-    @Operation(summary = "Gerar relatório assíncrono (simulado)")
+    @Operation(summary = "Situação de um job de relatório (ver /api/relatorios/jobs)")
     @GetMapping("/async-status")
     public ResponseEntity<Void> asyncStatus(
             @RequestParam String jobId
     ) {
-        // Simula um job que ainda não ficou pronto (retorna 202 Accepted)
-        if (!"done".equalsIgnoreCase(jobId)) {
+        // 202 enquanto o job está na fila ou executando; 404 se não existe ou já expirou
+        if (!jobsRelatorio.buscar(jobId).getEstado().isFinal()) {
             throw new ReportNotReadyException("Relatório ainda não está pronto. Tente novamente em instantes.");
         }
         return ResponseEntity.ok().build();
@@ -107,8 +114,7 @@ public class AnalyticsController {
     @Operation(summary = "Stream SSE com KPIs e tops")
     @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<Map<String, Object>> stream(@RequestParam(defaultValue = "15") int dias) {
-        return Flux.interval(Duration.ZERO, Duration.ofSeconds(5))
-                .map(t -> {
+        return mudancaHub.snapshots("relatorios:analytics", null, () -> {
                     Map<String, Object> m = new HashMap<>();
                     m.put("kpi", analyticsService.obterKpis());
                     m.put("topVeiculos", analyticsService.topVeiculos(10));
@@ -116,6 +122,6 @@ public class AnalyticsController {
                     m.put("topPatios", analyticsService.topPatios(10));
                     m.put("timestamp", System.currentTimeMillis());
                     return m;
-                });
+                }, TopicoMudanca.ESTACIONAMENTO, TopicoMudanca.BOX, TopicoMudanca.PATIO);
     }
 }
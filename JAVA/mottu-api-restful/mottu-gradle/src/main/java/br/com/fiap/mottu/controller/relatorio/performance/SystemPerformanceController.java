@@ -1,7 +1,9 @@
 package br.com.fiap.mottu.controller.relatorio.performance;
 
+import br.com.fiap.mottu.dto.relatorio.performance.MetricasAplicacaoDto;
 import br.com.fiap.mottu.dto.relatorio.performance.SystemPerformanceDto;
 import br.com.fiap.mottu.dto.relatorio.performance.ThreadInfoDto;
+import br.com.fiap.mottu.service.relatorios.performance.MetricasAplicacaoService;
 import br.com.fiap.mottu.service.relatorios.performance.SystemPerformanceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,9 +20,12 @@ import java.util.List;
 public class SystemPerformanceController {
 
     private final SystemPerformanceService performanceService;
+    private final MetricasAplicacaoService metricasAplicacaoService;
 
-    public SystemPerformanceController(SystemPerformanceService performanceService) {
+    public SystemPerformanceController(SystemPerformanceService performanceService,
+                                       MetricasAplicacaoService metricasAplicacaoService) {
         this.performanceService = performanceService;
+        this.metricasAplicacaoService = metricasAplicacaoService;
     }
 
     @Operation(summary = "Visão geral do sistema/processo")
@@ -34,6 +39,14 @@ public class SystemPerformanceController {
     public ResponseEntity<List<ThreadInfoDto>> threads() {
         return ResponseEntity.ok(performanceService.listarThreads());
     }
-}
-
 
+    @Operation(
+            summary = "Métricas medidas da aplicação",
+            description = "Latência por rota, statements SQL e duração por método de repositório, pool de conexões, " +
+                    "caches, clientes SSE e fila do OCR. As mesmas séries ficam em /actuator/prometheus para scrape."
+    )
+    @GetMapping("/aplicacao")
+    public ResponseEntity<MetricasAplicacaoDto> aplicacao() {
+        return ResponseEntity.ok(metricasAplicacaoService.coletar());
+    }
+}
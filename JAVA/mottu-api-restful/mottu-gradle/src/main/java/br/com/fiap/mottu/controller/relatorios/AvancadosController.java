@@ -1,6 +1,8 @@
 package br.com.fiap.mottu.controller.relatorios;
 
+import br.com.fiap.mottu.exception.RelatoriosOcupadosException;
 import br.com.fiap.mottu.service.RelatorioService;
+import br.com.fiap.mottu.service.relatorios.jobs.JobsRelatorio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -8,6 +10,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,9 +24,11 @@ public class AvancadosController {
 
     private static final Logger log = LoggerFactory.getLogger(AvancadosController.class);
     private final RelatorioService relatorioService;
+    private final JobsRelatorio jobsRelatorio;
 
-    public AvancadosController(RelatorioService relatorioService) {
+    public AvancadosController(RelatorioService relatorioService, JobsRelatorio jobsRelatorio) {
         this.relatorioService = relatorioService;
+        this.jobsRelatorio = jobsRelatorio;
     }
 
     @Operation(
@@ -69,9 +74,9 @@ public class AvancadosController {
         log.info("Executando relatório de performance do sistema");
         
         try {
-            Map<String, Object> resultado = relatorioService.executarRelatorioPerformanceSistema(Map.of());
+            ResponseEntity<Map<String, Object>> resposta = executarComoJob("performance-sistema");
             log.info("Relatório de performance executado com sucesso");
-            return ResponseEntity.ok(resultado);
+            return resposta;
         } catch (Exception e) {
             log.error("Erro ao executar relatório de performance", e);
             return ResponseEntity.status(500).build();
@@ -96,9 +101,9 @@ public class AvancadosController {
         log.info("Executando relatório de manutenção preditiva");
         
         try {
-            Map<String, Object> resultado = relatorioService.executarRelatorioManutencao(Map.of());
+            ResponseEntity<Map<String, Object>> resposta = executarComoJob("manutencao");
             log.info("Relatório de manutenção executado com sucesso");
-            return ResponseEntity.ok(resultado);
+            return resposta;
         } catch (Exception e) {
             log.error("Erro ao executar relatório de manutenção", e);
             return ResponseEntity.status(500).build();
@@ -122,9 +127,9 @@ public class AvancadosController {
         log.info("Executando relatório de analytics avançado");
         
         try {
-            Map<String, Object> resultado = relatorioService.executarRelatorioAnalyticsAvancado(Map.of());
+            ResponseEntity<Map<String, Object>> resposta = executarComoJob("analytics-avancado");
             log.info("Relatório de analytics executado com sucesso");
-            return ResponseEntity.ok(resultado);
+            return resposta;
         } catch (Exception e) {
             log.error("Erro ao executar relatório de analytics", e);
             return ResponseEntity.status(500).build();
@@ -148,9 +153,9 @@ public class AvancadosController {
         log.info("Executando relatório de ocupação inteligente");
         
         try {
-            Map<String, Object> resultado = relatorioService.executarRelatorioOcupacaoInteligente(Map.of());
+            ResponseEntity<Map<String, Object>> resposta = executarComoJob("ocupacao-inteligente");
             log.info("Relatório de ocupação inteligente executado com sucesso");
-            return ResponseEntity.ok(resultado);
+            return resposta;
         } catch (Exception e) {
             log.error("Erro ao executar relatório de ocupação inteligente", e);
             return ResponseEntity.status(500).build();
@@ -174,12 +179,32 @@ public class AvancadosController {
         log.info("Executando relatório de monitoramento SLA");
         
         try {
-            Map<String, Object> resultado = relatorioService.executarRelatorioMonitoramentoSLA(Map.of());
+            ResponseEntity<Map<String, Object>> resposta = executarComoJob("monitoramento-sla");
             log.info("Relatório de monitoramento SLA executado com sucesso");
-            return ResponseEntity.ok(resultado);
+            return resposta;
         } catch (Exception e) {
             log.error("Erro ao executar relatório de monitoramento SLA", e);
             return ResponseEntity.status(500).build();
         }
     }
+
+    /**
+     * Executa pelo {@link JobsRelatorio}: pedidos simultâneos do mesmo relatório compartilham uma
+     * execução e o resultado recente é reaproveitado. Se não terminar na espera síncrona, responde
+     * 202 com o job para acompanhar em /api/relatorios/jobs/{id}.
+     */
+    private ResponseEntity<Map<String, Object>> executarComoJob(String tipo) {
+        JobsRelatorio.Submissao submissao;
+        try {
+            submissao = jobsRelatorio.submeter(tipo, Map.of());
+        } catch (RelatoriosOcupadosException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "5")
+                    .body(Map.of("erro", e.getMessage()));
+        }
+        Map<String, Object> resultado = jobsRelatorio.executar(submissao);
+        if (resultado == null) {
+            return ResponseEntity.accepted().body(Map.of("job", jobsRelatorio.paraDto(submissao.job(), submissao.reaproveitado())));
+        }
+        return ResponseEntity.ok(resultado);
+    }
 }
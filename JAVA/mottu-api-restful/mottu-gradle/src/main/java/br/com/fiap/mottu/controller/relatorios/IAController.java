@@ -1,6 +1,8 @@
 package br.com.fiap.mottu.controller.relatorios;
 
 import br.com.fiap.mottu.service.RelatorioService;
+import br.com.fiap.mottu.service.stream.MudancaHub;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,7 +16,6 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 
 import java.util.Map;
-import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/relatorios/ia")
@@ -23,9 +24,11 @@ public class IAController {
 
     private static final Logger log = LoggerFactory.getLogger(IAController.class);
     private final RelatorioService relatorioService;
+    private final MudancaHub mudancaHub;
 
-    public IAController(RelatorioService relatorioService) {
+    public IAController(RelatorioService relatorioService, MudancaHub mudancaHub) {
         this.relatorioService = relatorioService;
+        this.mudancaHub = mudancaHub;
     }
 
     @Operation(
@@ -55,14 +58,14 @@ public class IAController {
     }
 
     /**
-     * Stream Server-Sent Events com snapshots periódicos do Dashboard IA.
-     * Atualiza a cada 5 segundos. Frontend pode consumir com EventSource.
+     * Stream Server-Sent Events com snapshots do Dashboard IA.
+     * Recalculado a cada entrada/saída confirmada. Frontend pode consumir com EventSource.
      */
     @GetMapping(path = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<Map<String, Object>> streamDashboardIA() {
         log.debug("Cliente conectado ao stream do Dashboard IA");
-        return Flux.interval(Duration.ZERO, Duration.ofSeconds(5))
-                .map(tick -> relatorioService.getDadosDashboardIA())
+        return mudancaHub.snapshots("relatorios:ia", null, relatorioService::getDadosDashboardIA,
+                        TopicoMudanca.ESTACIONAMENTO, TopicoMudanca.BOX)
                 .doOnCancel(() -> log.info("Cliente desconectou do stream do Dashboard IA"))
                 .onErrorResume(err -> {
                     log.warn("Erro no stream IA: {}", err.toString());
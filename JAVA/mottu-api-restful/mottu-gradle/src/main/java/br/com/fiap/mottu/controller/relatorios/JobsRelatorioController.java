@@ -0,0 +1,109 @@
+package br.com.fiap.mottu.controller.relatorios;
+
+import br.com.fiap.mottu.dto.relatorio.JobRelatorioDto;
+import br.com.fiap.mottu.exception.RelatoriosOcupadosException;
+import br.com.fiap.mottu.exception.ReportNotReadyException;
+import br.com.fiap.mottu.service.relatorios.jobs.JobRelatorio;
+import br.com.fiap.mottu.service.relatorios.jobs.JobsRelatorio;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/relatorios/jobs")
+@Tag(name = "Relatórios - Jobs", description = "Execução assíncrona de relatórios pesados com reaproveitamento de execuções idênticas")
+public class JobsRelatorioController {
+
+    private static final Logger log = LoggerFactory.getLogger(JobsRelatorioController.class);
+    private final JobsRelatorio jobsRelatorio;
+
+    public JobsRelatorioController(JobsRelatorio jobsRelatorio) {
+        this.jobsRelatorio = jobsRelatorio;
+    }
+
+    @Operation(summary = "Listar os relatórios que podem ser executados como job")
+    @GetMapping("/tipos")
+    public ResponseEntity<Set<String>> listarTipos() {
+        return ResponseEntity.ok(jobsRelatorio.tipos());
+    }
+
+    @Operation(
+            summary = "Submeter um relatório",
+            description = "Enfileira o relatório e devolve o job. Um pedido idêntico (mesmo tipo e parâmetros) em andamento " +
+                    "ou concluído há pouco é reaproveitado em vez de executar de novo."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job criado ou reaproveitado", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Tipo de relatório desconhecido"),
+            @ApiResponse(responseCode = "429", description = "Fila de relatórios cheia")
+    })
+    @PostMapping("/{tipo}")
+    public ResponseEntity<?> submeter(@PathVariable String tipo,
+                                      @RequestBody(required = false) Map<String, Object> parametros) {
+        try {
+            JobsRelatorio.Submissao submissao = jobsRelatorio.submeter(tipo, parametros);
+            return ResponseEntity.accepted().body(jobsRelatorio.paraDto(submissao.job(), submissao.reaproveitado()));
+        } catch (RelatoriosOcupadosException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", "5")
+                    .body(Map.of("erro", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Consultar a situação de um job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Situação do job", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "404", description = "Job inexistente ou expirado")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<JobRelatorioDto> consultar(@PathVariable String id) {
+        return ResponseEntity.ok(jobsRelatorio.paraDto(jobsRelatorio.buscar(id), false));
+    }
+
+    @Operation(summary = "Obter o resultado de um job", description = "202 enquanto o job está na fila ou executando.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado do relatório", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "202", description = "Relatório ainda não pronto"),
+            @ApiResponse(responseCode = "404", description = "Job inexistente ou expirado"),
+            @ApiResponse(responseCode = "500", description = "O relatório falhou")
+    })
+    @GetMapping("/{id}/resultado")
+    public ResponseEntity<Map<String, Object>> resultado(@PathVariable String id) {
+        JobRelatorio job = jobsRelatorio.buscar(id);
+        Map<String, Object> resultado = job.aguardar(0);
+        if (resultado == null) {
+            throw new ReportNotReadyException("Relatório '" + job.getTipo() + "' ainda em " + job.getEstado() + ".");
+        }
+        return ResponseEntity.ok(resultado);
+    }
+
+    /**
+     * Stream Server-Sent Events com a situação do job a cada mudança de estado
+     * (NA_FILA, EXECUTANDO, CONCLUIDO/FALHOU); encerra quando o job termina.
+     */
+    @GetMapping(path = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<JobRelatorioDto> acompanhar(@PathVariable String id) {
+        JobRelatorio job = jobsRelatorio.buscar(id);
+        return job.mudancas()
+                .map(estado -> jobsRelatorio.paraDto(job, false))
+                .doOnCancel(() -> log.debug("Cliente desconectou do stream do job {}", id));
+    }
+
+    @Operation(summary = "Estatísticas do pool de relatórios (fila, execuções, reaproveitamentos)")
+    @GetMapping("/estatisticas")
+    public ResponseEntity<Map<String, Object>> estatisticas() {
+        return ResponseEntity.ok(jobsRelatorio.estatisticas());
+    }
+}
@@ -3,6 +3,8 @@ package br.com.fiap.mottu.controller.relatorios;
 import br.com.fiap.mottu.dto.relatorio.manutencao.ManutencaoResumoDto;
 import br.com.fiap.mottu.dto.relatorio.manutencao.ManutencaoResumoPatioDto;
 import br.com.fiap.mottu.service.relatorios.manutencao.ManutencaoService;
+import br.com.fiap.mottu.service.stream.MudancaHub;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
@@ -11,7 +13,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
-import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,17 +23,18 @@ public class ManutencaoStreamController {
 
     private static final Logger log = LoggerFactory.getLogger(ManutencaoStreamController.class);
     private final ManutencaoService manutencaoService;
+    private final MudancaHub mudancaHub;
 
-    public ManutencaoStreamController(ManutencaoService manutencaoService) {
+    public ManutencaoStreamController(ManutencaoService manutencaoService, MudancaHub mudancaHub) {
         this.manutencaoService = manutencaoService;
+        this.mudancaHub = mudancaHub;
     }
 
     @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<Map<String, Object>> streamResumo() {
         log.debug("Cliente conectado ao stream de manutenção");
-        return Flux.interval(Duration.ZERO, Duration.ofSeconds(5))
-                .map(t -> snapshot())
-                .onErrorContinue((err, obj) -> log.warn("Erro no stream de manutenção: {}", err.toString()));
+        return mudancaHub.snapshots("relatorios:manutencao", null, this::snapshot,
+                TopicoMudanca.BOX, TopicoMudanca.PATIO);
     }
 
     private Map<String, Object> snapshot() {
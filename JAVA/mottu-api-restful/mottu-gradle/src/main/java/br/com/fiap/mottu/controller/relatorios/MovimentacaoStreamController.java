@@ -2,6 +2,8 @@ package br.com.fiap.mottu.controller.relatorios;
 
 import br.com.fiap.mottu.dto.relatorio.MovimentacaoDiariaDto;
 import br.com.fiap.mottu.service.relatorios.MovimentacaoService;
+import br.com.fiap.mottu.service.stream.MudancaHub;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
@@ -10,7 +12,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
-import java.time.Duration;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -22,19 +23,22 @@ public class MovimentacaoStreamController {
 
     private static final Logger log = LoggerFactory.getLogger(MovimentacaoStreamController.class);
     private final MovimentacaoService movimentacaoService;
+    private final MudancaHub mudancaHub;
 
-    public MovimentacaoStreamController(MovimentacaoService movimentacaoService) {
+    public MovimentacaoStreamController(MovimentacaoService movimentacaoService, MudancaHub mudancaHub) {
         this.movimentacaoService = movimentacaoService;
+        this.mudancaHub = mudancaHub;
     }
 
     /**
      * Stream SSE com snapshot de movimentação do dia (agregados + últimos detalhes).
+     * Recalculado somente quando há entrada/saída de veículo.
      */
     @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<Map<String, Object>> streamMovimentacaoDiaria() {
         log.debug("Cliente conectado ao stream de movimentação diária");
-        return Flux.interval(Duration.ZERO, Duration.ofSeconds(5))
-                .map(tick -> buildSnapshot())
+        return mudancaHub.snapshots("relatorios:movimentacao", null, this::buildSnapshot,
+                        TopicoMudanca.ESTACIONAMENTO)
                 .doOnCancel(() -> log.info("Cliente desconectou do stream de movimentação"))
                 .onErrorResume(err -> {
                     log.warn("Erro no stream de movimentação: {}", err.toString());
@@ -2,6 +2,8 @@ package br.com.fiap.mottu.controller.relatorios;
 
 import br.com.fiap.mottu.dto.relatorio.OcupacaoAtualDto;
 import br.com.fiap.mottu.service.relatorios.OcupacaoService;
+import br.com.fiap.mottu.service.stream.MudancaHub;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
@@ -10,7 +12,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
-import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -19,20 +20,22 @@ public class OcupacaoStreamController {
 
     private static final Logger log = LoggerFactory.getLogger(OcupacaoStreamController.class);
     private final OcupacaoService ocupacaoService;
+    private final MudancaHub mudancaHub;
 
-    public OcupacaoStreamController(OcupacaoService ocupacaoService) {
+    public OcupacaoStreamController(OcupacaoService ocupacaoService, MudancaHub mudancaHub) {
         this.ocupacaoService = ocupacaoService;
+        this.mudancaHub = mudancaHub;
     }
 
     /**
-     * Stream Server-Sent Events com snapshots periódicos da ocupação dos pátios.
-     * Atualiza a cada 5 segundos. Frontend pode consumir com EventSource.
+     * Stream Server-Sent Events com snapshots da ocupação dos pátios.
+     * Emite na conexão e a cada entrada/saída ou mudança de box. Frontend pode consumir com EventSource.
      */
     @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<List<OcupacaoAtualDto>> streamOcupacao() {
         log.debug("Cliente conectado ao stream de ocupação");
-        return Flux.interval(Duration.ZERO, Duration.ofSeconds(5))
-                .map(tick -> ocupacaoService.getOcupacaoAtual())
+        return mudancaHub.snapshots("relatorios:ocupacao", null, ocupacaoService::getOcupacaoAtual,
+                        TopicoMudanca.ESTACIONAMENTO, TopicoMudanca.BOX, TopicoMudanca.PATIO)
                 .doOnCancel(() -> log.info("Cliente desconectou do stream de ocupação"))
                 .onErrorResume(err -> {
                     log.warn("Erro no stream de ocupação: {}", err.toString());
@@ -0,0 +1,31 @@
+package br.com.fiap.mottu.dto.box;
+
+import java.util.List;
+
+/**
+ * Evento do stream SSE de status dos boxes (protocolo snapshot + delta).
+ *
+ * @param tipo      SNAPSHOT (lista completa) ou DELTA (apenas boxes alterados)
+ * @param seq       número de sequência do estado após aplicar o evento
+ * @param boxes     boxes completos (SNAPSHOT) ou somente os alterados/novos (DELTA)
+ * @param removidos IDs de boxes que deixaram de existir (somente DELTA)
+ */
+public record BoxStatusEventoDto(String tipo, long seq, List<BoxStatus> boxes, List<Long> removidos) {
+
+    public static final String SNAPSHOT = "SNAPSHOT";
+    public static final String DELTA = "DELTA";
+
+    public static BoxStatusEventoDto snapshot(long seq, List<BoxStatus> boxes) {
+        return new BoxStatusEventoDto(SNAPSHOT, seq, boxes, List.of());
+    }
+
+    public static BoxStatusEventoDto delta(long seq, List<BoxStatus> alterados, List<Long> removidos) {
+        return new BoxStatusEventoDto(DELTA, seq, alterados, removidos);
+    }
+
+    /** Box com status (L, O, M) e veículo estacionado, se houver. */
+    public record BoxStatus(Long idBox, String nome, String status, Veiculo veiculo) {}
+
+    /** Dados do veículo estacionado no box. */
+    public record Veiculo(String placa, String modelo, String fabricante, String tagBleId) {}
+}
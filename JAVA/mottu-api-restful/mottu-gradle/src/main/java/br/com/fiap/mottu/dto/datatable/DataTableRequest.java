@@ -43,6 +43,12 @@ public class DataTableRequest {
     @Schema(description = "Parâmetros adicionais")
     private Map<String, Object> additionalParams;
 
+    @Schema(description = "Cursor opaco devolvido em proximoCursor: continua após o último registro (keyset) em vez de usar start", example = "")
+    private String cursor;
+
+    @Schema(description = "Contagem do total: 'exata' (COUNT a cada página) ou 'estimada' (sem COUNT)", example = "exata")
+    private String contagem;
+
     @Data
     @Builder
     @NoArgsConstructor
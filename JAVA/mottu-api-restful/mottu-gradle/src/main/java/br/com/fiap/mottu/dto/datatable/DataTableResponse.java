@@ -33,6 +33,12 @@ public class DataTableResponse<T> {
     @Schema(description = "Tempo de processamento em ms", example = "150")
     private Long processingTime;
 
+    @Schema(description = "Cursor para a próxima página (enviar em cursor); null na última página ou sem keyset")
+    private String proximoCursor;
+
+    @Schema(description = "true quando recordsTotal/recordsFiltered são estimados (contagem 'estimada')", example = "false")
+    private Boolean totalEstimado;
+
     /**
      * Cria uma resposta de sucesso
      */
@@ -0,0 +1,26 @@
+package br.com.fiap.mottu.dto.datatable;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Janela de resultados paginada por cursor (keyset), sem COUNT")
+public class JanelaResponse<T> {
+
+    @Schema(description = "Registros da janela")
+    private List<T> data;
+
+    @Schema(description = "Se há registros depois desta janela", example = "true")
+    private Boolean temMais;
+
+    @Schema(description = "Cursor opaco para buscar a próxima janela (null na última)")
+    private String proximoCursor;
+}
@@ -0,0 +1,34 @@
+package br.com.fiap.mottu.dto.estacionamento;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * DTO para entrada/saída de vários veículos em uma única requisição (troca de turno no portão)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteEstacionamentoRequestDto implements Serializable {
+
+    @NotEmpty(message = "Informe ao menos uma placa.")
+    @Size(max = 500, message = "O lote deve ter no máximo 500 placas.")
+    private List<@NotBlank(message = "A placa não pode estar em branco.") String> placas;
+
+    /** Pátio preferido para a entrada (opcional; ignorado na saída). */
+    @Positive(message = "O ID do pátio deve ser um número positivo.")
+    private Long patioId;
+
+    @Size(max = 500, message = "As observações devem ter no máximo 500 caracteres.")
+    private String observacoes;
+}
@@ -0,0 +1,37 @@
+package br.com.fiap.mottu.dto.estacionamento;
+
+import java.util.List;
+
+/**
+ * Resultado de uma entrada/saída em lote: um item por placa, na ordem da requisição
+ */
+public record LoteEstacionamentoResponseDto(
+        int total,
+        int sucessos,
+        int falhas,
+        long duracaoMs,
+        List<ResultadoPlaca> resultados
+) {
+    public static LoteEstacionamentoResponseDto of(List<ResultadoPlaca> resultados, long duracaoMs) {
+        int sucessos = (int) resultados.stream().filter(ResultadoPlaca::sucesso).count();
+        return new LoteEstacionamentoResponseDto(resultados.size(), sucessos, resultados.size() - sucessos,
+                duracaoMs, resultados);
+    }
+
+    public record ResultadoPlaca(
+            String placa,
+            boolean sucesso,
+            Long idEstacionamento,
+            Long boxId,
+            Long patioId,
+            String mensagem
+    ) {
+        public static ResultadoPlaca ok(String placa, Long idEstacionamento, Long boxId, Long patioId) {
+            return new ResultadoPlaca(placa, true, idEstacionamento, boxId, patioId, null);
+        }
+
+        public static ResultadoPlaca falha(String placa, String mensagem) {
+            return new ResultadoPlaca(placa, false, null, null, null, mensagem);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.fiap.mottu.dto.relatorio;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Situação de um job assíncrono de relatório")
+public class JobRelatorioDto {
+
+    @Schema(description = "ID do job", example = "5f0c9a3e-8d1b-4a57-9f0e-2b7c1d4e6a90")
+    private String id;
+
+    @Schema(description = "Tipo do relatório", example = "monitoramento-sla")
+    private String tipo;
+
+    @Schema(description = "Parâmetros normalizados do relatório")
+    private Map<String, String> parametros;
+
+    @Schema(description = "Estado do job", example = "EXECUTANDO", allowableValues = {"NA_FILA", "EXECUTANDO", "CONCLUIDO", "FALHOU"})
+    private String estado;
+
+    @Schema(description = "Posição na fila de relatórios (0 quando já não está na fila)", example = "2")
+    private Integer posicaoFila;
+
+    @Schema(description = "Quantas requisições foram atendidas por esta execução", example = "5")
+    private Integer solicitacoes;
+
+    @Schema(description = "true quando a requisição reaproveitou um job em andamento ou um resultado em cache", example = "false")
+    private Boolean reaproveitado;
+
+    @Schema(description = "Criação do job", example = "2025-01-15T14:30:00")
+    private LocalDateTime criadoEm;
+
+    @Schema(description = "Início da execução", example = "2025-01-15T14:30:01")
+    private LocalDateTime iniciadoEm;
+
+    @Schema(description = "Fim da execução", example = "2025-01-15T14:30:03")
+    private LocalDateTime concluidoEm;
+
+    @Schema(description = "Duração da execução em milissegundos", example = "1840")
+    private Long duracaoMs;
+
+    @Schema(description = "Mensagem de erro quando o job falhou")
+    private String erro;
+
+    @Schema(description = "Endereço do resultado", example = "/api/relatorios/jobs/5f0c9a3e-8d1b-4a57-9f0e-2b7c1d4e6a90/resultado")
+    private String resultadoUrl;
+}
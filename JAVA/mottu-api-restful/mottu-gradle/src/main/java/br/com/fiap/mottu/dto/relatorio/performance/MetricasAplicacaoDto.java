@@ -0,0 +1,42 @@
+package br.com.fiap.mottu.dto.relatorio.performance;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Métricas medidas da aplicação (Micrometer), as mesmas expostas em /actuator/prometheus")
+public class MetricasAplicacaoDto {
+
+    @Schema(description = "Momento da coleta", example = "2025-01-15T14:30:00")
+    private LocalDateTime coletadoEm;
+
+    @Schema(description = "Latência por rota desde a subida: uri, method, requisicoes, mediaMs, p50Ms, p95Ms, p99Ms, maxMs " +
+            "(ordenado pelo tempo total)")
+    private List<Map<String, Object>> http;
+
+    @Schema(description = "Por método de repositório: repository, method, statements, invocacoes, mediaMs, p95Ms, maxMs " +
+            "(ordenado por statements; repository 'none' = fora de repositório)")
+    private List<Map<String, Object>> sql;
+
+    @Schema(description = "Pool de conexões Hikari: ativas, ociosas, pendentes, maximo, utilizacao, esperaMediaMs, esperaMaxMs, timeouts")
+    private Map<String, Object> poolConexoes;
+
+    @Schema(description = "Por cache: cache, cacheManager, acertos, faltas, taxaAcerto, remocoes, tamanho")
+    private List<Map<String, Object>> caches;
+
+    @Schema(description = "Clientes SSE conectados: total e porGrupo")
+    private Map<String, Object> sse;
+
+    @Schema(description = "Pool de OCR: fila, emExecucao, concluidas, rejeitadas")
+    private Map<String, Object> ocr;
+}
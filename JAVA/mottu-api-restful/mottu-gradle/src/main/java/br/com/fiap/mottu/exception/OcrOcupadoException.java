@@ -0,0 +1,18 @@
+package br.com.fiap.mottu.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando a fila de reconhecimento de placas (OCR) está cheia.
+ * Retorna HTTP 429 (Too Many Requests); o cliente deve reenviar a imagem em instantes.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class OcrOcupadoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public OcrOcupadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.fiap.mottu.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando a fila de execução de relatórios está cheia.
+ * Retorna HTTP 429 (Too Many Requests); o cliente deve pedir o relatório novamente em instantes.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class RelatoriosOcupadosException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RelatoriosOcupadosException(String message) {
+        super(message);
+    }
+}
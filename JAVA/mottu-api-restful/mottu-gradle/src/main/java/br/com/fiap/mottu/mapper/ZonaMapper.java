@@ -25,12 +25,14 @@ public interface ZonaMapper {
     // Método 1: Converte de Request DTO para Entidade (para CRIAR uma nova)
     @Mapping(target = "idZona", ignore = true)
     @Mapping(target = "patio", ignore = true)
+    @Mapping(target = "patioStatus", ignore = true)
     Zona toEntity(ZonaRequestDto zonaRequestDto);
 
     // Método 2: Atualização de uma Entidade existente a partir de Request DTO
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "idZona", ignore = true)
     @Mapping(target = "patio", ignore = true)
+    @Mapping(target = "patioStatus", ignore = true)
     Zona partialUpdate(ZonaRequestDto zonaRequestDto, @MappingTarget Zona zona);
 
     @Mapping(target = "patioId", source = "patio.idPatio")
@@ -23,7 +23,7 @@ public class Box {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_box")
-    @SequenceGenerator(name = "seq_box", sequenceName = "SEQ_TB_BOX", allocationSize = 1)
+    @SequenceGenerator(name = "seq_box", sequenceName = "SEQ_TB_BOX", allocationSize = 50)
     @Column(name = "ID_BOX")
     @EqualsAndHashCode.Include
     private Long idBox;
@@ -25,7 +25,7 @@ public class Cliente {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_cliente")
-    @SequenceGenerator(name = "seq_cliente", sequenceName = "SEQ_TB_CLIENTE", allocationSize = 1, initialValue = 1)
+    @SequenceGenerator(name = "seq_cliente", sequenceName = "SEQ_TB_CLIENTE", allocationSize = 50, initialValue = 1)
     @Column(name = "ID_CLIENTE")
     @EqualsAndHashCode.Include
     private Long idCliente;
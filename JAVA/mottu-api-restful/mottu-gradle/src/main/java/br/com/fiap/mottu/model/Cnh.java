@@ -33,7 +33,7 @@ public class Cnh {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_cnh")
-    @SequenceGenerator(name = "seq_cnh", sequenceName = "SEQ_TB_CNH", allocationSize = 1, initialValue = 1)
+    @SequenceGenerator(name = "seq_cnh", sequenceName = "SEQ_TB_CNH", allocationSize = 50, initialValue = 1)
     @Column(name = "ID_CNH")
     @EqualsAndHashCode.Include
     private Long idCnh;
@@ -20,7 +20,7 @@ public class Contato {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_contato")
-    @SequenceGenerator(name = "seq_contato", sequenceName = "SEQ_TB_CONTATO", allocationSize = 1, initialValue = 1)
+    @SequenceGenerator(name = "seq_contato", sequenceName = "SEQ_TB_CONTATO", allocationSize = 50, initialValue = 1)
     @Column(name = "ID_CONTATO")
     @EqualsAndHashCode.Include
     private Long idContato;
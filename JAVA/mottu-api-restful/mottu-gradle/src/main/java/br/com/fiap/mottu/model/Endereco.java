@@ -20,7 +20,7 @@ public class Endereco {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_endereco")
-    @SequenceGenerator(name = "seq_endereco", sequenceName = "SEQ_TB_ENDERECO", allocationSize = 1, initialValue = 1)
+    @SequenceGenerator(name = "seq_endereco", sequenceName = "SEQ_TB_ENDERECO", allocationSize = 50, initialValue = 1)
     @Column(name = "ID_ENDERECO")
     @EqualsAndHashCode.Include
     private Long idEndereco;
@@ -28,7 +28,7 @@ public class Estacionamento {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_estacionamento")
-    @SequenceGenerator(name = "seq_estacionamento", sequenceName = "SEQ_TB_ESTACIONAMENTO", allocationSize = 1, initialValue = 1)
+    @SequenceGenerator(name = "seq_estacionamento", sequenceName = "SEQ_TB_ESTACIONAMENTO", allocationSize = 50, initialValue = 1)
     @Column(name = "ID_ESTACIONAMENTO")
     @EqualsAndHashCode.Include
     private Long idEstacionamento;
@@ -21,7 +21,7 @@ public class LogMovimentacao {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_log_movimentacao")
-    @SequenceGenerator(name = "seq_log_movimentacao", sequenceName = "SEQ_TB_LOG_MOVIMENTACAO", allocationSize = 1, initialValue = 1)
+    @SequenceGenerator(name = "seq_log_movimentacao", sequenceName = "SEQ_TB_LOG_MOVIMENTACAO", allocationSize = 50, initialValue = 1)
     @Column(name = "ID_LOG_MOVIMENTACAO")
     @EqualsAndHashCode.Include
     private Long idLogMovimentacao;
@@ -0,0 +1,55 @@
+package br.com.fiap.mottu.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rollup horário de TB_LOG_MOVIMENTACAO: uma linha por (pátio, box, hora cheia).
+ * Mantido incrementalmente pelo RollupMovimentacaoService; os relatórios leem daqui
+ * em vez de recontar o histórico bruto.
+ */
+@Entity
+@Table(name = "TB_MOVIMENTACAO_HORA",
+        uniqueConstraints = @UniqueConstraint(name = "UK_MOV_HORA_PATIO_BOX_HORA",
+                columnNames = {"TB_PATIO_ID_PATIO", "TB_BOX_ID_BOX", "HORA"}),
+        indexes = @Index(name = "IX_MOV_HORA_HORA", columnList = "HORA"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimentacaoHora {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID_MOVIMENTACAO_HORA")
+    private Long idMovimentacaoHora;
+
+    @Column(name = "TB_PATIO_ID_PATIO", nullable = false)
+    private Long patioId;
+
+    @Column(name = "TB_BOX_ID_BOX", nullable = false)
+    private Long boxId;
+
+    /** Início da hora (minutos e segundos zerados). */
+    @Column(name = "HORA", nullable = false)
+    private LocalDateTime hora;
+
+    @Column(name = "ENTRADAS", nullable = false)
+    private Long entradas;
+
+    @Column(name = "SAIDAS", nullable = false)
+    private Long saidas;
+
+    /** Soma de TEMPO_ESTACIONAMENTO_MINUTOS das saídas da hora. */
+    @Column(name = "SOMA_TEMPO_MINUTOS", nullable = false)
+    private Long somaTempoMinutos;
+
+    /** Quantidade de saídas com TEMPO_ESTACIONAMENTO_MINUTOS preenchido. */
+    @Column(name = "QTD_TEMPO", nullable = false)
+    private Long qtdTempo;
+}
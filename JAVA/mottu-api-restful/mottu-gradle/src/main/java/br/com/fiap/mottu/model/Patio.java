@@ -23,7 +23,7 @@ public class Patio {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_patio")
-    @SequenceGenerator(name = "seq_patio", sequenceName = "SEQ_TB_PATIO", allocationSize = 1, initialValue = 1)
+    @SequenceGenerator(name = "seq_patio", sequenceName = "SEQ_TB_PATIO", allocationSize = 50, initialValue = 1)
     @Column(name = "ID_PATIO")
     @EqualsAndHashCode.Include
     private Long idPatio;
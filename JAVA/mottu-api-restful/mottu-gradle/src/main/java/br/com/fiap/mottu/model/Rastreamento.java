@@ -22,7 +22,7 @@ public class Rastreamento {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_rastreamento")
-    @SequenceGenerator(name = "seq_rastreamento", sequenceName = "SEQ_TB_RASTREAMENTO", allocationSize = 1, initialValue = 1)
+    @SequenceGenerator(name = "seq_rastreamento", sequenceName = "SEQ_TB_RASTREAMENTO", allocationSize = 50, initialValue = 1)
     @Column(name = "ID_RASTREAMENTO")
     @EqualsAndHashCode.Include
     private Long idRastreamento;
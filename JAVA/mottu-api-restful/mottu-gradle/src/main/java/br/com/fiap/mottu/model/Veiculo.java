@@ -20,7 +20,7 @@ public class Veiculo {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_veiculo")
-    @SequenceGenerator(name = "seq_veiculo", sequenceName = "SEQ_TB_VEICULO", allocationSize = 1, initialValue = 1)
+    @SequenceGenerator(name = "seq_veiculo", sequenceName = "SEQ_TB_VEICULO", allocationSize = 50, initialValue = 1)
     @Column(name = "ID_VEICULO")
     @EqualsAndHashCode.Include
     private Long idVeiculo;
@@ -18,7 +18,7 @@ public class Zona {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_zona")
-    @SequenceGenerator(name = "seq_zona", sequenceName = "SEQ_TB_ZONA", allocationSize = 1, initialValue = 1)
+    @SequenceGenerator(name = "seq_zona", sequenceName = "SEQ_TB_ZONA", allocationSize = 50, initialValue = 1)
     @Column(name = "ID_ZONA")
     @EqualsAndHashCode.Include
     private Long idZona;
@@ -32,15 +32,18 @@ public class Zona {
     @Column(name = "OBSERVACAO", length = 100)
     private String observacao;
 
-    // Relacionamento com Pátio (N:1) - chave composta (ID_PATIO, STATUS)
+    // Relacionamento com Pátio (N:1) - a FK (ID_PATIO, STATUS) é mapeada pela PK: juntar pelo
+    // STATUS faria do Patio.zonas uma coleção por property-ref, que o Hibernate rejeita no flush
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumns({
-        @JoinColumn(name = "TB_PATIO_ID_PATIO", referencedColumnName = "ID_PATIO", nullable = false),
-        @JoinColumn(name = "TB_PATIO_STATUS", referencedColumnName = "STATUS", nullable = false)
-    })
+    @JoinColumn(name = "TB_PATIO_ID_PATIO", referencedColumnName = "ID_PATIO", nullable = false)
     @ToString.Exclude
     private Patio patio;
 
+    // Cópia do status do pátio (NOT NULL no Oracle): gravada aqui na criação/troca de pátio e
+    // atualizada em lote pelo PatioService quando o status do pátio muda
+    @Column(name = "TB_PATIO_STATUS", nullable = false, length = 1)
+    private String patioStatus;
+
     // Zona não tem relacionamento direto com Box neste modelo
 
     // Relacionamento com Veículos (N:N através de VeiculoZona)
@@ -48,4 +51,11 @@ public class Zona {
     @Builder.Default
     private Set<br.com.fiap.mottu.model.relacionamento.VeiculoZona> veiculoZonas = new HashSet<>();
 
+    @PrePersist
+    @PreUpdate
+    protected void sincronizarStatusPatio() {
+        if (patio != null) {
+            patioStatus = patio.getStatus();
+        }
+    }
 }
\ No newline at end of file
@@ -27,10 +27,7 @@ public class EnderecoPatio {
     @ToString.Exclude // MANTER esta anotação no campo
     private Endereco endereco;
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumns({
-        @JoinColumn(name = "TB_PATIO_ID_PATIO", referencedColumnName = "ID_PATIO", nullable = false, insertable = false, updatable = false),
-        @JoinColumn(name = "TB_PATIO_STATUS", referencedColumnName = "STATUS", nullable = false, insertable = false, updatable = false)
-    })
+    @JoinColumn(name = "TB_PATIO_ID_PATIO", referencedColumnName = "ID_PATIO", nullable = false, insertable = false, updatable = false)
     @ToString.Exclude // MANTER esta anotação no campo
     private Patio patio;
 
@@ -3,6 +3,7 @@ package br.com.fiap.mottu.repository;
 import br.com.fiap.mottu.model.Zona;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -37,4 +38,9 @@ public interface ZonaRepository extends JpaRepository<Zona, Long>, JpaSpecificat
     
     @Query("SELECT z FROM Zona z LEFT JOIN FETCH z.patio WHERE z.idZona = :idZona")
     Optional<Zona> findByIdWithPatio(@Param("idZona") Long idZona);
+
+    // Copia o novo status do pátio para o TB_PATIO_STATUS de todas as zonas dele
+    @Modifying
+    @Query("UPDATE Zona z SET z.patioStatus = :status WHERE z.patio.idPatio = :patioId")
+    int atualizarStatusPatio(@Param("patioId") Long patioId, @Param("status") String status);
 }
\ No newline at end of file
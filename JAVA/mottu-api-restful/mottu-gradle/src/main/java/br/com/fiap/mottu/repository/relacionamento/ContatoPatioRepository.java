@@ -5,9 +5,17 @@ import br.com.fiap.mottu.model.relacionamento.ContatoPatio;
 import br.com.fiap.mottu.model.relacionamento.ContatoPatioId;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ContatoPatioRepository extends JpaRepository<ContatoPatio, ContatoPatioId>, JpaSpecificationExecutor<ContatoPatio> {
     // Adicione métodos de busca específicos se precisar
+
+    // Copia o novo status do pátio para o TB_PATIO_STATUS da chave das associações dele
+    @Modifying
+    @Query("UPDATE ContatoPatio c SET c.id.patioStatus = :status WHERE c.id.patioId = :patioId")
+    int atualizarStatusPatio(@Param("patioId") Long patioId, @Param("status") String status);
 }
\ No newline at end of file
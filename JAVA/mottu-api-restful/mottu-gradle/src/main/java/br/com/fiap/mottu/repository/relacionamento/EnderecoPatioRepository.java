@@ -5,9 +5,17 @@ import br.com.fiap.mottu.model.relacionamento.EnderecoPatio;
 import br.com.fiap.mottu.model.relacionamento.EnderecoPatioId;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface EnderecoPatioRepository extends JpaRepository<EnderecoPatio, EnderecoPatioId>, JpaSpecificationExecutor<EnderecoPatio> {
     // Adicione métodos de busca específicos se precisar
+
+    // Copia o novo status do pátio para o TB_PATIO_STATUS da chave das associações dele
+    @Modifying
+    @Query("UPDATE EnderecoPatio e SET e.id.patioStatus = :status WHERE e.id.patioId = :patioId")
+    int atualizarStatusPatio(@Param("patioId") Long patioId, @Param("status") String status);
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import java.util.stream.Collectors;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -32,6 +33,8 @@ import br.com.fiap.mottu.repository.BoxRepository;
 import br.com.fiap.mottu.repository.PatioRepository;
 import br.com.fiap.mottu.repository.VeiculoRepository;
 import br.com.fiap.mottu.repository.relacionamento.VeiculoBoxRepository;
+import br.com.fiap.mottu.service.stream.MudancaEvento;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import br.com.fiap.mottu.specification.BoxSpecification;
 import lombok.extern.slf4j.Slf4j;
 
@@ -44,15 +47,18 @@ public class BoxService {
     private final PatioRepository patioRepository;
     private final VeiculoRepository veiculoRepository;
     private final VeiculoBoxRepository veiculoBoxRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public BoxService(BoxRepository boxRepository, BoxMapper boxMapper,
                       PatioRepository patioRepository, VeiculoRepository veiculoRepository,
-                      VeiculoBoxRepository veiculoBoxRepository) {
+                      VeiculoBoxRepository veiculoBoxRepository,
+                      ApplicationEventPublisher eventPublisher) {
         this.boxRepository = boxRepository;
         this.boxMapper = boxMapper;
         this.patioRepository = patioRepository;
         this.veiculoRepository = veiculoRepository;
         this.veiculoBoxRepository = veiculoBoxRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // LISTAR E BUSCAR
@@ -129,7 +135,9 @@ public class BoxService {
         box.setStatus("D"); // Disponível por padrão
 
         log.info("Criando box: Nome={}, Pátio={}", nome, patio.getNomePatio());
-        return boxRepository.save(box);
+        Box boxSalvo = boxRepository.save(box);
+        publicarMudanca(patioId, boxSalvo.getIdBox(), "CRIADO");
+        return boxSalvo;
     }
 
     @Transactional
@@ -175,7 +183,9 @@ public class BoxService {
             boxExistente.setPatio(novoPatio);
         }
 
-        return boxRepository.save(boxExistente);
+        Box boxAtualizado = boxRepository.save(boxExistente);
+        publicarMudanca(boxAtualizado.getPatio() != null ? boxAtualizado.getPatio().getIdPatio() : null, id, "ATUALIZADO");
+        return boxAtualizado;
     }
 
     @Transactional
@@ -215,6 +225,7 @@ public class BoxService {
         
         log.info("Deletando box ID: {}, Nome: {}", box.getIdBox(), box.getNome());
         boxRepository.delete(box);
+        publicarMudanca(box.getPatio().getIdPatio(), id, "REMOVIDO");
     }
 
     // MÉTODOS DE CONTROLE DE OCUPAÇÃO
@@ -227,7 +238,9 @@ public class BoxService {
         }
         box.ocupar();
         log.info("Box {} ocupado às {}", box.getNome(), box.getDataEntrada());
-        return boxRepository.save(box);
+        Box boxOcupado = boxRepository.save(box);
+        publicarMudanca(box.getPatio() != null ? box.getPatio().getIdPatio() : null, id, "OCUPADO");
+        return boxOcupado;
     }
 
     @Transactional
@@ -239,7 +252,9 @@ public class BoxService {
         }
         box.liberar();
         log.info("Box {} liberado às {}", box.getNome(), box.getDataSaida());
-        return boxRepository.save(box);
+        Box boxLiberado = boxRepository.save(box);
+        publicarMudanca(box.getPatio() != null ? box.getPatio().getIdPatio() : null, id, "LIBERADO");
+        return boxLiberado;
     }
 
     // MÉTODOS DE ASSOCIAÇÃO VeiculoBox
@@ -322,11 +337,18 @@ public class BoxService {
      */
     @Transactional(readOnly = true)
     public String findProximoNomeDisponivel(String prefixo) {
+        return String.format("%s-%03d", prefixo, proximoNumeroDisponivel(prefixo));
+    }
+
+    /**
+     * Próximo número sequencial livre para o prefixo (1 se ainda não há boxes com ele)
+     */
+    private int proximoNumeroDisponivel(String prefixo) {
         // Busca todos os boxes que contêm o prefixo
         List<Box> boxesComPrefixo = boxRepository.findByNomeContainingIgnoreCase(prefixo);
         
         if (boxesComPrefixo.isEmpty()) {
-            return prefixo + "-001";
+            return 1;
         }
         
         // Filtra apenas os que começam com o prefixo exato
@@ -335,11 +357,11 @@ public class BoxService {
                 .collect(Collectors.toList());
         
         if (boxesComPrefixoExato.isEmpty()) {
-            return prefixo + "-001";
+            return 1;
         }
         
         // Extrai os números sequenciais e encontra o próximo
-        int proximoNumero = boxesComPrefixoExato.stream()
+        return boxesComPrefixoExato.stream()
                 .mapToInt(box -> {
                     String nome = box.getNome();
                     String sufixo = nome.substring(prefixo.length());
@@ -354,12 +376,11 @@ public class BoxService {
                 })
                 .max()
                 .orElse(0) + 1;
-        
-        return String.format("%s-%03d", prefixo, proximoNumero);
     }
 
     /**
-     * Cria múltiplos boxes em lote com nomes sequenciais
+     * Cria múltiplos boxes em lote com nomes sequenciais.
+     * O próximo número é consultado uma vez e os INSERTs saem em JDBC batch (hibernate.jdbc.batch_size).
      */
     @Transactional
     @CacheEvict(value = {"boxesList", "boxesDoPatio", "boxesDisponiveis", "boxesOcupados"}, allEntries = true)
@@ -372,10 +393,11 @@ public class BoxService {
             throw new IllegalArgumentException("A quantidade máxima por lote é 100");
         }
         
-        List<Box> boxesParaCriar = new ArrayList<>();
+        List<Box> boxesParaCriar = new ArrayList<>(quantidade);
+        int primeiroNumero = proximoNumeroDisponivel(prefixo);
         
         for (int i = 0; i < quantidade; i++) {
-            String nome = findProximoNomeDisponivel(prefixo);
+            String nome = String.format("%s-%03d", prefixo, primeiroNumero + i);
             
             Box box = Box.builder()
                     .nome(nome)
@@ -387,5 +409,13 @@ public class BoxService {
         }
         
         boxRepository.saveAll(boxesParaCriar);
+        publicarMudanca(null, null, "CRIADO");
+    }
+
+    /**
+     * Publica a mudança para os streams SSE (entregue pelo MudancaHub após o commit)
+     */
+    private void publicarMudanca(Long patioId, Long boxId, String acao) {
+        eventPublisher.publishEvent(MudancaEvento.of(TopicoMudanca.BOX, patioId, boxId, acao));
     }
 }
\ No newline at end of file
@@ -0,0 +1,297 @@
+package br.com.fiap.mottu.service;
+
+import br.com.fiap.mottu.dto.estacionamento.LoteEstacionamentoResponseDto;
+import br.com.fiap.mottu.dto.estacionamento.LoteEstacionamentoResponseDto.ResultadoPlaca;
+import br.com.fiap.mottu.model.Estacionamento;
+import br.com.fiap.mottu.model.LogMovimentacao;
+import br.com.fiap.mottu.service.alocacao.AlocadorVagas;
+import br.com.fiap.mottu.service.alocacao.IndiceVagasLivres;
+import br.com.fiap.mottu.service.cache.InvalidadorCacheEstacionamento;
+import br.com.fiap.mottu.service.ocr.PlateUtils;
+import br.com.fiap.mottu.service.relatorios.analytics.RollupMovimentacaoService;
+import br.com.fiap.mottu.service.stream.MudancaEvento;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Entrada e saída de veículos em lote (picos de portão na troca de turno).
+ *
+ * Diferente do fluxo unitário do {@link EstacionamentoService} (flush/clear, queries nativas e
+ * eviction de cache por veículo), o lote usa um número fixo de round-trips: consultas com IN,
+ * IDs do gerador pooled do Hibernate (um NEXTVAL a cada 50) e JDBC batch para TB_BOX, TB_ESTACIONAMENTO e
+ * TB_LOG_MOVIMENTACAO, tudo em uma transação e com uma única invalidação de cache (por pátio/placa).
+ */
+@Service
+@Slf4j
+public class EstacionamentoLoteService {
+
+    static final String SQL_VEICULOS = "SELECT ID_VEICULO, UPPER(PLACA) AS PLACA FROM TB_VEICULO WHERE UPPER(PLACA) IN (%s)";
+
+    static final String SQL_VEICULOS_ESTACIONADOS =
+            "SELECT DISTINCT TB_VEICULO_ID_VEICULO FROM TB_ESTACIONAMENTO WHERE ESTA_ESTACIONADO = 1 AND TB_VEICULO_ID_VEICULO IN (%s)";
+
+    static final String SQL_ESTACIONAMENTOS_ATIVOS = """
+            SELECT e.ID_ESTACIONAMENTO, e.TB_VEICULO_ID_VEICULO, e.TB_BOX_ID_BOX, e.TB_PATIO_ID_PATIO,
+                   e.DATA_ENTRADA, UPPER(v.PLACA) AS PLACA
+              FROM TB_ESTACIONAMENTO e
+              JOIN TB_VEICULO v ON v.ID_VEICULO = e.TB_VEICULO_ID_VEICULO
+             WHERE e.ESTA_ESTACIONADO = 1 AND UPPER(v.PLACA) IN (%s)
+             ORDER BY e.ID_ESTACIONAMENTO
+            """;
+
+    static final String SQL_INSERIR_ESTACIONAMENTO = """
+            INSERT INTO TB_ESTACIONAMENTO (ID_ESTACIONAMENTO, TB_VEICULO_ID_VEICULO, TB_BOX_ID_BOX, TB_PATIO_ID_PATIO,
+                                           ESTA_ESTACIONADO, DATA_ENTRADA, DATA_ULTIMA_ATUALIZACAO, OBSERVACOES)
+            VALUES (?, ?, ?, ?, 1, ?, ?, ?)
+            """;
+
+    static final String SQL_INSERIR_LOG = """
+            INSERT INTO TB_LOG_MOVIMENTACAO (ID_LOG_MOVIMENTACAO, TB_VEICULO_ID_VEICULO, TB_BOX_ID_BOX, TB_PATIO_ID_PATIO,
+                                             TIPO_MOVIMENTACAO, DATA_HORA_MOVIMENTACAO, TEMPO_ESTACIONAMENTO_MINUTOS, OBSERVACOES)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    static final String SQL_ENCERRAR_ESTACIONAMENTO =
+            "UPDATE TB_ESTACIONAMENTO SET ESTA_ESTACIONADO = 0, DATA_SAIDA = ?, DATA_ULTIMA_ATUALIZACAO = ? " +
+            "WHERE ID_ESTACIONAMENTO = ? AND ESTA_ESTACIONADO = 1";
+
+    static final String SQL_LIBERAR_BOX = "UPDATE TB_BOX SET STATUS = 'L', DATA_SAIDA = ? WHERE ID_BOX = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AlocadorVagas alocadorVagas;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InvalidadorCacheEstacionamento invalidadorCache;
+    private final RollupMovimentacaoService rollupMovimentacao;
+    private final GeradorIdsEntidade geradorIds;
+
+    public EstacionamentoLoteService(JdbcTemplate jdbcTemplate, AlocadorVagas alocadorVagas,
+                                     ApplicationEventPublisher eventPublisher,
+                                     InvalidadorCacheEstacionamento invalidadorCache,
+                                     RollupMovimentacaoService rollupMovimentacao,
+                                     GeradorIdsEntidade geradorIds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.alocadorVagas = alocadorVagas;
+        this.eventPublisher = eventPublisher;
+        this.invalidadorCache = invalidadorCache;
+        this.rollupMovimentacao = rollupMovimentacao;
+        this.geradorIds = geradorIds;
+    }
+
+    /** Veículo encontrado para uma placa do lote. */
+    record VeiculoPlaca(Long idVeiculo, String placa) {}
+
+    /** Estacionamento ativo de uma placa do lote. */
+    record EstacionamentoAtivo(Long idEstacionamento, Long idVeiculo, Long boxId, Long patioId,
+                               LocalDateTime dataEntrada, String placa) {}
+
+    /**
+     * Estaciona vários veículos em uma única transação.
+     * Placas inválidas, repetidas, não cadastradas ou já estacionadas falham individualmente;
+     * as demais recebem as vagas livres disponíveis (do pátio informado, ou de qualquer pátio).
+     */
+    @Transactional
+    public LoteEstacionamentoResponseDto estacionarEmLote(List<String> placas, Long preferidoPatioId, String observacoes) {
+        long inicio = System.nanoTime();
+        ResultadoPlaca[] resultados = new ResultadoPlaca[placas.size()];
+        Map<String, Integer> posicoes = normalizarPlacas(placas, resultados);
+        log.info("🚗 Estacionando lote de {} placa(s) no pátio {}", posicoes.size(), preferidoPatioId);
+
+        Map<String, Long> veiculoPorPlaca = new LinkedHashMap<>();
+        if (!posicoes.isEmpty()) {
+            for (VeiculoPlaca veiculo : jdbcTemplate.query(comPlaceholders(SQL_VEICULOS, posicoes.size()),
+                    (rs, rowNum) -> new VeiculoPlaca(rs.getLong("ID_VEICULO"), rs.getString("PLACA")),
+                    posicoes.keySet().toArray())) {
+                veiculoPorPlaca.putIfAbsent(veiculo.placa(), veiculo.idVeiculo());
+            }
+        }
+        Set<Long> jaEstacionados = veiculoPorPlaca.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.query(
+                comPlaceholders(SQL_VEICULOS_ESTACIONADOS, veiculoPorPlaca.size()),
+                (rs, rowNum) -> rs.getLong(1),
+                veiculoPorPlaca.values().toArray()));
+
+        List<String> aptas = new ArrayList<>();
+        for (String placa : posicoes.keySet()) {
+            Long veiculoId = veiculoPorPlaca.get(placa);
+            if (veiculoId == null) {
+                resultados[posicoes.get(placa)] = ResultadoPlaca.falha(placa, "Veículo não cadastrado.");
+            } else if (jaEstacionados.contains(veiculoId)) {
+                resultados[posicoes.get(placa)] = ResultadoPlaca.falha(placa, "Veículo já está estacionado.");
+            } else {
+                aptas.add(placa);
+            }
+        }
+
+        // Uma rodada de UPDATE condicional em batch por lote de candidatas (ver AlocadorVagas)
+        List<IndiceVagasLivres.VagaLivre> vagas = aptas.isEmpty()
+                ? List.of()
+                : alocadorVagas.alocarLote(preferidoPatioId, aptas.size());
+        String semVaga = preferidoPatioId != null
+                ? String.format("Nenhuma vaga livre encontrada no pátio %d.", preferidoPatioId)
+                : "Nenhuma vaga livre encontrada.";
+        for (int i = vagas.size(); i < aptas.size(); i++) {
+            resultados[posicoes.get(aptas.get(i))] = ResultadoPlaca.falha(aptas.get(i), semVaga);
+        }
+
+        int alocadas = vagas.size();
+        if (alocadas > 0) {
+            List<Long> idsEstacionamento = geradorIds.proximos(Estacionamento.class, alocadas);
+            List<Long> idsLog = geradorIds.proximos(LogMovimentacao.class, alocadas);
+            LocalDateTime agora = LocalDateTime.now();
+            Timestamp agoraTs = Timestamp.valueOf(agora);
+
+            List<Object[]> estacionamentos = new ArrayList<>(alocadas);
+            List<Object[]> logs = new ArrayList<>(alocadas);
+            List<RollupMovimentacaoService.Incremento> incrementos = new ArrayList<>(alocadas);
+            for (int i = 0; i < alocadas; i++) {
+                Long veiculoId = veiculoPorPlaca.get(aptas.get(i));
+                IndiceVagasLivres.VagaLivre vaga = vagas.get(i);
+                estacionamentos.add(new Object[]{idsEstacionamento.get(i), veiculoId, vaga.boxId(), vaga.patioId(),
+                        agoraTs, agoraTs, observacoes});
+                logs.add(new Object[]{idsLog.get(i), veiculoId, vaga.boxId(), vaga.patioId(),
+                        "ENTRADA", agoraTs, null, "Entrada registrada automaticamente (lote)"});
+                incrementos.add(new RollupMovimentacaoService.Incremento(vaga.patioId(), vaga.boxId(), agora, true, null));
+            }
+            jdbcTemplate.batchUpdate(SQL_INSERIR_ESTACIONAMENTO, estacionamentos);
+            jdbcTemplate.batchUpdate(SQL_INSERIR_LOG, logs);
+            rollupMovimentacao.registrarLote(incrementos);
+
+            List<InvalidadorCacheEstacionamento.Alteracao> alteracoes = new ArrayList<>(alocadas);
+            for (int i = 0; i < alocadas; i++) {
+                IndiceVagasLivres.VagaLivre vaga = vagas.get(i);
+                resultados[posicoes.get(aptas.get(i))] =
+                        ResultadoPlaca.ok(aptas.get(i), idsEstacionamento.get(i), vaga.boxId(), vaga.patioId());
+                publicarMudanca(vaga.patioId(), vaga.boxId(), "ENTRADA");
+                alteracoes.add(new InvalidadorCacheEstacionamento.Alteracao(
+                        aptas.get(i), idsEstacionamento.get(i), vaga.boxId(), vaga.patioId()));
+            }
+            invalidadorCache.invalidar(alteracoes);
+        }
+
+        LoteEstacionamentoResponseDto resposta = LoteEstacionamentoResponseDto.of(List.of(resultados),
+                Duration.ofNanos(System.nanoTime() - inicio).toMillis());
+        log.info("✅ Lote de entrada concluído: {} sucesso(s), {} falha(s) em {} ms",
+                resposta.sucessos(), resposta.falhas(), resposta.duracaoMs());
+        return resposta;
+    }
+
+    /**
+     * Libera vários veículos em uma única transação (todos os estacionamentos ativos de cada placa).
+     */
+    @Transactional
+    public LoteEstacionamentoResponseDto liberarEmLote(List<String> placas, String observacoes) {
+        long inicio = System.nanoTime();
+        ResultadoPlaca[] resultados = new ResultadoPlaca[placas.size()];
+        Map<String, Integer> posicoes = normalizarPlacas(placas, resultados);
+        log.info("🚗 Liberando lote de {} placa(s)", posicoes.size());
+
+        List<EstacionamentoAtivo> ativos = posicoes.isEmpty() ? List.of() : jdbcTemplate.query(
+                comPlaceholders(SQL_ESTACIONAMENTOS_ATIVOS, posicoes.size()),
+                (rs, rowNum) -> new EstacionamentoAtivo(
+                        rs.getLong("ID_ESTACIONAMENTO"),
+                        rs.getLong("TB_VEICULO_ID_VEICULO"),
+                        rs.getLong("TB_BOX_ID_BOX"),
+                        rs.getLong("TB_PATIO_ID_PATIO"),
+                        rs.getObject("DATA_ENTRADA", LocalDateTime.class),
+                        rs.getString("PLACA")),
+                posicoes.keySet().toArray());
+
+        LocalDateTime agora = LocalDateTime.now();
+        Timestamp agoraTs = Timestamp.valueOf(agora);
+        int[] encerrados = ativos.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(SQL_ENCERRAR_ESTACIONAMENTO,
+                ativos.stream().map(e -> new Object[]{agoraTs, agoraTs, e.idEstacionamento()}).toList());
+
+        // Só libera box/registra saída do que este lote de fato encerrou (outra saída concorrente pode ter vencido)
+        List<EstacionamentoAtivo> liberados = new ArrayList<>();
+        for (int i = 0; i < ativos.size(); i++) {
+            if (encerrados[i] != 0) {
+                liberados.add(ativos.get(i));
+            }
+        }
+
+        if (!liberados.isEmpty()) {
+            List<Long> idsLog = geradorIds.proximos(LogMovimentacao.class, liberados.size());
+            List<Object[]> boxes = new ArrayList<>(liberados.size());
+            List<Object[]> logs = new ArrayList<>(liberados.size());
+            List<RollupMovimentacaoService.Incremento> incrementos = new ArrayList<>(liberados.size());
+            for (int i = 0; i < liberados.size(); i++) {
+                EstacionamentoAtivo e = liberados.get(i);
+                Long tempoMinutos = e.dataEntrada() != null ? Duration.between(e.dataEntrada(), agora).toMinutes() : null;
+                boxes.add(new Object[]{agoraTs, e.boxId()});
+                logs.add(new Object[]{idsLog.get(i), e.idVeiculo(), e.boxId(), e.patioId(),
+                        "SAIDA", agoraTs, tempoMinutos, observacoes != null ? observacoes : "Saída registrada automaticamente (lote)"});
+                incrementos.add(new RollupMovimentacaoService.Incremento(e.patioId(), e.boxId(), agora, false, tempoMinutos));
+            }
+            jdbcTemplate.batchUpdate(SQL_LIBERAR_BOX, boxes);
+            jdbcTemplate.batchUpdate(SQL_INSERIR_LOG, logs);
+            rollupMovimentacao.registrarLote(incrementos);
+        }
+
+        Map<String, List<EstacionamentoAtivo>> liberadosPorPlaca = liberados.stream()
+                .collect(Collectors.groupingBy(EstacionamentoAtivo::placa, LinkedHashMap::new, Collectors.toList()));
+        for (Map.Entry<String, Integer> entry : posicoes.entrySet()) {
+            List<EstacionamentoAtivo> daPlaca = liberadosPorPlaca.get(entry.getKey());
+            if (daPlaca == null) {
+                resultados[entry.getValue()] = ResultadoPlaca.falha(entry.getKey(), "Veículo não está estacionado.");
+                continue;
+            }
+            EstacionamentoAtivo primeiro = daPlaca.getFirst();
+            resultados[entry.getValue()] = ResultadoPlaca.ok(entry.getKey(), primeiro.idEstacionamento(),
+                    primeiro.boxId(), primeiro.patioId());
+            daPlaca.forEach(e -> publicarMudanca(e.patioId(), e.boxId(), "SAIDA"));
+        }
+        invalidadorCache.invalidar(liberados.stream()
+                .map(e -> new InvalidadorCacheEstacionamento.Alteracao(e.placa(), e.idEstacionamento(), e.boxId(), e.patioId()))
+                .toList());
+
+        LoteEstacionamentoResponseDto resposta = LoteEstacionamentoResponseDto.of(List.of(resultados),
+                Duration.ofNanos(System.nanoTime() - inicio).toMillis());
+        log.info("✅ Lote de saída concluído: {} sucesso(s), {} falha(s) em {} ms",
+                resposta.sucessos(), resposta.falhas(), resposta.duracaoMs());
+        return resposta;
+    }
+
+    /**
+     * Normaliza as placas (Mercosul) preservando a ordem da requisição.
+     * Placas inválidas ou repetidas já recebem seu resultado de falha.
+     * @return placa normalizada -> posição na requisição
+     */
+    private Map<String, Integer> normalizarPlacas(List<String> placas, ResultadoPlaca[] resultados) {
+        Map<String, Integer> posicoes = new LinkedHashMap<>();
+        for (int i = 0; i < placas.size(); i++) {
+            String normalizada = PlateUtils.normalizeMercosul(placas.get(i));
+            if (normalizada.length() != 7) {
+                resultados[i] = ResultadoPlaca.falha(placas.get(i), "Placa inválida.");
+            } else if (posicoes.putIfAbsent(normalizada, i) != null) {
+                resultados[i] = ResultadoPlaca.falha(normalizada, "Placa repetida no lote.");
+            }
+        }
+        return posicoes;
+    }
+
+    private static String comPlaceholders(String sql, int quantidade) {
+        return String.format(sql, String.join(", ", Collections.nCopies(quantidade, "?")));
+    }
+
+    /**
+     * Publica a mudança para os streams SSE (entregue pelo MudancaHub após o commit)
+     */
+    private void publicarMudanca(Long patioId, Long boxId, String acao) {
+        eventPublisher.publishEvent(MudancaEvento.of(TopicoMudanca.ESTACIONAMENTO, patioId, boxId, acao));
+    }
+}
@@ -2,6 +2,7 @@ package br.com.fiap.mottu.service;
 
 import br.com.fiap.mottu.dto.datatable.DataTableRequest;
 import br.com.fiap.mottu.dto.datatable.DataTableResponse;
+import br.com.fiap.mottu.dto.datatable.JanelaResponse;
 import br.com.fiap.mottu.dto.estacionamento.EstacionamentoRequestDto;
 import br.com.fiap.mottu.dto.estacionamento.EstacionamentoResponseDto;
 import br.com.fiap.mottu.exception.DuplicatedResourceException;
@@ -17,15 +18,23 @@ import br.com.fiap.mottu.repository.BoxRepository;
 import br.com.fiap.mottu.repository.EstacionamentoRepository;
 import br.com.fiap.mottu.repository.PatioRepository;
 import br.com.fiap.mottu.repository.VeiculoRepository;
+import br.com.fiap.mottu.service.alocacao.AlocadorVagas;
+import br.com.fiap.mottu.service.alocacao.IndiceVagasLivres;
+import br.com.fiap.mottu.service.cache.InvalidadorCacheEstacionamento;
+import br.com.fiap.mottu.service.cache.VersaoCache;
+import br.com.fiap.mottu.service.datatable.DataTableService;
 import br.com.fiap.mottu.service.ocr.PlateUtils;
+import br.com.fiap.mottu.service.stream.MudancaEvento;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import br.com.fiap.mottu.specification.EstacionamentoSpecification;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -37,6 +46,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -46,6 +56,7 @@ import java.util.stream.Collectors;
 @Service
 @Slf4j
 @Transactional(readOnly = true)
+@CacheConfig(cacheManager = "estacionamentoCacheManager")
 public class EstacionamentoService {
 
     private final EstacionamentoRepository estacionamentoRepository;
@@ -59,6 +70,13 @@ public class EstacionamentoService {
     private EntityManager entityManager;
     
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AlocadorVagas alocadorVagas;
+    private final InvalidadorCacheEstacionamento invalidadorCache;
+    private final DataTableService dataTableService;
+
+    /** Ordem dos históricos; o ID entra como desempate para o cursor. */
+    private static final Sort ORDEM_HISTORICO = Sort.by(Sort.Direction.DESC, "dataEntrada", "idEstacionamento");
 
     @Autowired
     public EstacionamentoService(
@@ -68,7 +86,11 @@ public class EstacionamentoService {
             BoxRepository boxRepository,
             PatioRepository patioRepository,
             LogMovimentacaoService logMovimentacaoService,
-            JdbcTemplate jdbcTemplate) {
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher,
+            AlocadorVagas alocadorVagas,
+            InvalidadorCacheEstacionamento invalidadorCache,
+            DataTableService dataTableService) {
         this.estacionamentoRepository = estacionamentoRepository;
         this.estacionamentoMapper = estacionamentoMapper;
         this.veiculoRepository = veiculoRepository;
@@ -76,6 +98,10 @@ public class EstacionamentoService {
         this.patioRepository = patioRepository;
         this.logMovimentacaoService = logMovimentacaoService;
         this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.alocadorVagas = alocadorVagas;
+        this.invalidadorCache = invalidadorCache;
+        this.dataTableService = dataTableService;
     }
 
     // ================== LISTAR E BUSCAR ==================
@@ -83,7 +109,7 @@ public class EstacionamentoService {
     /**
      * Lista todos os estacionamentos com paginação
      */
-    @Cacheable(value = "estacionamentos", key = "'page-' + #pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort")
+    @Cacheable(value = "estacionamentos", key = "'page-' + #pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort + '-v' + @invalidadorCacheEstacionamento.versaoGlobal()")
     public Page<EstacionamentoResponseDto> listarTodos(Pageable pageable) {
         log.info("📋 Listando estacionamentos - página: {}, tamanho: {}", pageable.getPageNumber(), pageable.getPageSize());
         Page<Estacionamento> page = estacionamentoRepository.findAll(pageable);
@@ -114,7 +140,7 @@ public class EstacionamentoService {
     /**
      * Busca estacionamentos ativos (veículos estacionados no momento)
      */
-    @Cacheable(value = "estacionamentosAtivos", key = "'page-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+    @Cacheable(value = "estacionamentosAtivos", key = "'page-' + #pageable.pageNumber + '-' + #pageable.pageSize + '-v' + @invalidadorCacheEstacionamento.versaoGlobal()")
     public Page<EstacionamentoResponseDto> listarAtivos(Pageable pageable) {
         log.info("📋 Listando estacionamentos ativos - página: {}, tamanho: {}", pageable.getPageNumber(), pageable.getPageSize());
         Page<Estacionamento> page = estacionamentoRepository.findByEstaEstacionadoTrue(pageable);
@@ -124,7 +150,7 @@ public class EstacionamentoService {
     /**
      * Lista todos os estacionamentos ativos (para SSE - Server-Sent Events)
      */
-    @Cacheable(value = "estacionamentosAtivosSSE", key = "'todos'")
+    @Cacheable(value = "estacionamentosAtivosSSE", key = "'todos-v' + @invalidadorCacheEstacionamento.versaoGlobal()")
     public List<EstacionamentoResponseDto> listarTodosAtivos() {
         log.info("📋 Listando todos os estacionamentos ativos para SSE");
         List<Estacionamento> estacionamentos = estacionamentoRepository.findByEstaEstacionadoTrueOrderByDataUltimaAtualizacaoDesc();
@@ -134,7 +160,7 @@ public class EstacionamentoService {
     /**
      * Busca estacionamento ativo de um veículo por placa
      */
-    @Cacheable(value = "estacionamentoPorPlaca", key = "#placa")
+    @Cacheable(value = "estacionamentoPorPlaca", key = "T(br.com.fiap.mottu.service.ocr.PlateUtils).normalizeMercosul(#placa)")
     public EstacionamentoResponseDto buscarAtivoPorPlaca(String placa) {
         String normalized = PlateUtils.normalizeMercosul(placa);
         if (normalized.isEmpty()) {
@@ -164,7 +190,7 @@ public class EstacionamentoService {
     /**
      * Busca estacionamentos ativos em um pátio
      */
-    @Cacheable(value = "estacionamentosPorPatio", key = "#patioId")
+    @Cacheable(value = "estacionamentosPorPatio", key = "#patioId + '-v' + @invalidadorCacheEstacionamento.versaoPatio(#patioId)")
     public List<EstacionamentoResponseDto> listarAtivosPorPatio(Long patioId) {
         log.info("📋 Listando estacionamentos ativos no pátio: {}", patioId);
         List<Estacionamento> estacionamentos = estacionamentoRepository
@@ -195,6 +221,32 @@ public class EstacionamentoService {
         return estacionamentoMapper.toResponseDtoPage(page);
     }
 
+    /**
+     * Histórico por placa paginado por cursor (dataEntrada, idEstacionamento), sem COUNT nem OFFSET
+     */
+    public JanelaResponse<EstacionamentoResponseDto> buscarHistoricoPorPlacaCursor(String placa, String cursor, int tamanho) {
+        String normalized = PlateUtils.normalizeMercosul(placa);
+        if (normalized.isEmpty()) {
+            throw new InvalidInputException("Placa inválida.");
+        }
+
+        log.info("📋 Buscando histórico (cursor) de estacionamentos da placa: {}", normalized);
+        Specification<Estacionamento> spec = (root, query, cb) ->
+                cb.equal(cb.upper(root.get("veiculo").get("placa")), normalized);
+        return dataTableService.rolar(estacionamentoRepository, spec, ORDEM_HISTORICO, "idEstacionamento",
+                cursor, tamanho, estacionamentoMapper::toResponseDto, "veiculo", "box", "patio");
+    }
+
+    /**
+     * Histórico de um pátio paginado por cursor (dataEntrada, idEstacionamento), sem COUNT nem OFFSET
+     */
+    public JanelaResponse<EstacionamentoResponseDto> buscarHistoricoPorPatioCursor(Long patioId, String cursor, int tamanho) {
+        log.info("📋 Buscando histórico (cursor) de estacionamentos do pátio: {}", patioId);
+        return dataTableService.rolar(estacionamentoRepository, EstacionamentoSpecification.byPatioId(patioId),
+                ORDEM_HISTORICO, "idEstacionamento", cursor, tamanho, estacionamentoMapper::toResponseDto,
+                "veiculo", "box", "patio");
+    }
+
     // ================== CRUD OPERATIONS ==================
 
     /**
@@ -205,10 +257,6 @@ public class EstacionamentoService {
      * @param observacoes Observações do estacionamento
      */
     @Transactional
-    @CacheEvict(value = {
-            "estacionamentos", "estacionamentosAtivos", "estacionamentosAtivosSSE",
-            "estacionamentoPorPlaca", "estacionamentosPorPatio"
-    }, allEntries = true)
     public EstacionamentoResponseDto estacionarVeiculo(String placa, Long preferidoBoxId, Long preferidoPatioId, String observacoes) {
         String normalized = PlateUtils.normalizeMercosul(placa);
         if (normalized.isEmpty()) {
@@ -221,128 +269,18 @@ public class EstacionamentoService {
         Veiculo veiculo = veiculoRepository.findByPlacaIgnoreCase(normalized)
                 .orElseThrow(() -> new ResourceNotFoundException("Veículo", "placa", normalized));
 
-        // CRÍTICO: Verificar e corrigir múltiplos estacionamentos ativos para o mesmo veículo
-        // Isso pode acontecer por bugs anteriores ou problemas de concorrência
-        List<Estacionamento> estacionamentosAtivosDuplicados = estacionamentoRepository
-                .findAllByVeiculoIdVeiculoAndEstaEstacionadoTrue(veiculo.getIdVeiculo());
-        
-        if (!estacionamentosAtivosDuplicados.isEmpty()) {
-            log.warn("⚠️ Encontrados {} estacionamento(s) ativo(s) duplicado(s) para o veículo {} (placa: {})", 
-                    estacionamentosAtivosDuplicados.size(), veiculo.getIdVeiculo(), normalized);
-            
-            // CRÍTICO: Coletar IDs ANTES de fazer flush/clear
-            List<Long> estacionamentoIdsDuplicados = new java.util.ArrayList<>();
-            List<Long> boxIdsDuplicados = new java.util.ArrayList<>();
-            
-            for (Estacionamento estacionamentoDuplicado : estacionamentosAtivosDuplicados) {
-                estacionamentoIdsDuplicados.add(estacionamentoDuplicado.getIdEstacionamento());
-                boxIdsDuplicados.add(estacionamentoDuplicado.getBox().getIdBox());
-                log.warn("🔄 Estacionamento duplicado encontrado: box {} (ID: {}), estacionamento ID: {}", 
-                        estacionamentoDuplicado.getBox().getNome(), 
-                        estacionamentoDuplicado.getBox().getIdBox(), 
-                        estacionamentoDuplicado.getIdEstacionamento());
-            }
-            
-            // Liberar TODOS os estacionamentos duplicados usando JdbcTemplate para garantir commit imediato
-            for (int i = 0; i < estacionamentoIdsDuplicados.size(); i++) {
-                Long estacionamentoIdDuplicado = estacionamentoIdsDuplicados.get(i);
-                Long boxIdDuplicado = boxIdsDuplicados.get(i);
-                
-                // Liberar estacionamento usando JdbcTemplate
-                int rowsUpdated = jdbcTemplate.update(
-                        "UPDATE TB_ESTACIONAMENTO SET ESTA_ESTACIONADO = 0, DATA_SAIDA = CURRENT_TIMESTAMP, DATA_ULTIMA_ATUALIZACAO = CURRENT_TIMESTAMP " +
-                        "WHERE ID_ESTACIONAMENTO = ? AND ESTA_ESTACIONADO = 1",
-                        estacionamentoIdDuplicado
-                );
-                
-                log.info("📝 UPDATE TB_ESTACIONAMENTO (duplicado): {} linhas atualizadas para ID {}", rowsUpdated, estacionamentoIdDuplicado);
-                
-                // Liberar o box também usando JdbcTemplate
-                int boxRowsUpdated = jdbcTemplate.update(
-                        "UPDATE TB_BOX SET STATUS = 'L', DATA_SAIDA = CURRENT_TIMESTAMP WHERE ID_BOX = ?",
-                        boxIdDuplicado
-                );
-                
-                log.info("📝 UPDATE TB_BOX (duplicado): {} linhas atualizadas para box ID {}", boxRowsUpdated, boxIdDuplicado);
-            }
-            
-            log.info("✅ {} estacionamento(s) duplicado(s) liberado(s) para o veículo {}", 
-                    estacionamentosAtivosDuplicados.size(), normalized);
-        }
+        // Veículo já estacionado: a nova entrada transfere o veículo (libera o(s) box(es) anterior(es)).
+        // Caminho comum: uma única consulta indexada sem linhas.
+        transferirEstacionamentosAtivos(veiculo.getIdVeiculo(), normalized);
 
-        // Busca ou seleciona box
-        Box box;
-        if (preferidoBoxId != null) {
-            box = boxRepository.findById(preferidoBoxId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Box", preferidoBoxId));
-            
-            if (!box.isDisponivel()) {
-                throw new InvalidInputException("Box " + box.getNome() + " não está disponível.");
-            }
+        // Reserva a vaga: box preferido ou próxima vaga livre, confirmada pelo AlocadorVagas
+        // com um UPDATE condicional (STATUS = 'L'); dois operadores nunca recebem o mesmo box.
+        IndiceVagasLivres.VagaLivre vaga = preferidoBoxId != null
+                ? reservarBoxPreferido(preferidoBoxId)
+                : reservarVagaLivre(preferidoPatioId);
+        Long boxId = vaga.boxId();
+        Long patioId = vaga.patioId();
 
-            // Verifica se box já está ocupado (via TB_ESTACIONAMENTO)
-            if (estacionamentoRepository.existsByBoxIdBoxAndEstaEstacionadoTrue(preferidoBoxId)) {
-                throw new InvalidInputException("Box " + box.getNome() + " já está ocupado por outro veículo.");
-            }
-        } else {
-            // Busca primeiro box disponível
-            List<Box> boxesLivres;
-            
-            // Se preferidoPatioId foi informado, buscar apenas boxes desse pátio
-            if (preferidoPatioId != null) {
-                log.info("🔍 Buscando vagas livres no pátio {}", preferidoPatioId);
-                boxesLivres = boxRepository.findByPatioIdPatioAndStatus(preferidoPatioId, "L");
-            } else {
-                // Se não foi informado pátio, buscar em todos os pátios (comportamento antigo)
-                log.warn("⚠️ Buscando vagas livres em TODOS os pátios (nenhum pátio foi especificado)");
-                boxesLivres = boxRepository.findByStatus("L");
-            }
-            
-            if (boxesLivres.isEmpty()) {
-                String mensagem = preferidoPatioId != null 
-                    ? String.format("Nenhuma vaga livre encontrada no pátio %d.", preferidoPatioId)
-                    : "Nenhuma vaga livre encontrada.";
-                throw new ResourceNotFoundException(mensagem);
-            }
-
-            // Filtra boxes que não estão ocupados em TB_ESTACIONAMENTO
-            box = boxesLivres.stream()
-                    .filter(b -> !estacionamentoRepository.existsByBoxIdBoxAndEstaEstacionadoTrue(b.getIdBox()))
-                    .findFirst()
-                    .orElseThrow(() -> {
-                        String mensagem = preferidoPatioId != null 
-                            ? String.format("Nenhuma vaga realmente livre encontrada no pátio %d (todas estão ocupadas em TB_ESTACIONAMENTO).", preferidoPatioId)
-                            : "Nenhuma vaga realmente livre encontrada (todas estão ocupadas em TB_ESTACIONAMENTO).";
-                        return new ResourceNotFoundException(mensagem);
-                    });
-            
-            log.info("✅ Box selecionado automaticamente: {} (ID: {}) no pátio {}", box.getNome(), box.getIdBox(), preferidoPatioId);
-        }
-
-        // CRÍTICO: No novo sistema com TB_ESTACIONAMENTO, o status de ocupação é gerenciado pela tabela
-        // O Box.status ainda é atualizado para compatibilidade com código legado, mas não é crítico
-        // SOLUÇÃO: Obter o ID do Patio e Box ANTES de fazer qualquer operação que possa carregar coleções lazy
-        Long boxId = box.getIdBox();
-        
-        // CRÍTICO: Obter o patioId usando query nativa para evitar carregar o Patio na sessão
-        // Isso evita problemas com orphanRemoval quando fazemos flush/clear depois
-        Long patioId;
-        try {
-            Object patioIdResult = entityManager.createNativeQuery(
-                    "SELECT TB_PATIO_ID_PATIO FROM TB_BOX WHERE ID_BOX = :boxId"
-            )
-            .setParameter("boxId", boxId)
-            .getSingleResult();
-            
-            if (patioIdResult == null) {
-                throw new ResourceNotFoundException("Pátio do box não encontrado.");
-            }
-            patioId = ((Number) patioIdResult).longValue();
-        } catch (Exception e) {
-            log.error("Erro ao buscar patioId do box {}: {}", boxId, e.getMessage());
-            throw new ResourceNotFoundException("Pátio do box não encontrado.");
-        }
-        
         // CRÍTICO: Fazer flush e clear da sessão ANTES de criar novas entidades
         // Isso remove todas as entidades gerenciadas da sessão, evitando conflitos de referência
         entityManager.flush();
@@ -352,14 +290,6 @@ public class EstacionamentoService {
         Veiculo veiculoProxy = entityManager.getReference(Veiculo.class, veiculo.getIdVeiculo());
         Box boxProxy = entityManager.getReference(Box.class, boxId);
         Patio patioReference = entityManager.getReference(Patio.class, patioId);
-        
-        // IMPORTANTE: Atualizar Box usando query nativa para evitar conflitos de referência
-        // Isso não carrega o objeto Patio na sessão, evitando o erro de orphanRemoval
-        entityManager.createNativeQuery(
-                "UPDATE TB_BOX SET STATUS = 'O', DATA_ENTRADA = CURRENT_TIMESTAMP, DATA_SAIDA = NULL WHERE ID_BOX = :boxId"
-        )
-        .setParameter("boxId", boxId)
-        .executeUpdate();
 
         // Cria o estacionamento usando apenas referências proxy (sem carregar objetos completos)
         // Isso garante que não estamos modificando ou inicializando coleções lazy
@@ -379,6 +309,8 @@ public class EstacionamentoService {
 
         // Registra log de movimentação usando o patioId diretamente (evita box.getPatio())
         logMovimentacaoService.registrarEntrada(veiculoProxy, boxProxy, patioId);
+        publicarMudanca(patioId, boxId, "ENTRADA");
+        invalidadorCache.invalidar(normalized, estacionamentoSalvo.getIdEstacionamento(), boxId, patioId);
 
         // CRÍTICO: Não buscar o Box ou Patio após o clear() para evitar carregar coleções orphanRemoval
         // Ao invés disso, buscar apenas os dados necessários usando queries nativas
@@ -453,15 +385,97 @@ public class EstacionamentoService {
         return responseDto;
     }
 
+    /**
+     * Reserva o box escolhido pelo operador, validando disponibilidade.
+     */
+    private IndiceVagasLivres.VagaLivre reservarBoxPreferido(Long boxId) {
+        Box box = boxRepository.findById(boxId)
+                .orElseThrow(() -> new ResourceNotFoundException("Box", boxId));
+
+        if (!box.isDisponivel()) {
+            throw new InvalidInputException("Box " + box.getNome() + " não está disponível.");
+        }
+
+        Long patioId = buscarPatioIdDoBox(boxId);
+        if (!alocadorVagas.alocarBox(boxId, patioId)) {
+            throw new InvalidInputException("Box " + box.getNome() + " já está ocupado por outro veículo.");
+        }
+        return new IndiceVagasLivres.VagaLivre(boxId, patioId);
+    }
+
+    /**
+     * Seleciona e ocupa a próxima vaga livre do pátio (ou de qualquer pátio).
+     */
+    private IndiceVagasLivres.VagaLivre reservarVagaLivre(Long patioId) {
+        if (patioId == null) {
+            log.warn("⚠️ Buscando vagas livres em TODOS os pátios (nenhum pátio foi especificado)");
+        }
+        IndiceVagasLivres.VagaLivre vaga = alocadorVagas.alocar(patioId).orElseThrow(() -> {
+            String mensagem = patioId != null
+                    ? String.format("Nenhuma vaga livre encontrada no pátio %d.", patioId)
+                    : "Nenhuma vaga livre encontrada.";
+            return new ResourceNotFoundException(mensagem);
+        });
+        log.info("✅ Box selecionado automaticamente: ID {} no pátio {}", vaga.boxId(), vaga.patioId());
+        return vaga;
+    }
+
+    /**
+     * Encerra os estacionamentos ativos do veículo antes de uma nova entrada (transferência de box).
+     */
+    private void transferirEstacionamentosAtivos(Long veiculoId, String placa) {
+        List<Long[]> ativos = jdbcTemplate.query(
+                "SELECT TB_BOX_ID_BOX, TB_PATIO_ID_PATIO FROM TB_ESTACIONAMENTO " +
+                "WHERE TB_VEICULO_ID_VEICULO = ? AND ESTA_ESTACIONADO = 1",
+                (rs, rowNum) -> new Long[]{rs.getLong(1), rs.getLong(2)},
+                veiculoId);
+        if (ativos.isEmpty()) {
+            return;
+        }
+
+        log.warn("⚠️ Veículo {} (placa: {}) já possui {} estacionamento(s) ativo(s); liberando antes da nova entrada",
+                veiculoId, placa, ativos.size());
+        jdbcTemplate.update(
+                "UPDATE TB_BOX SET STATUS = 'L', DATA_SAIDA = CURRENT_TIMESTAMP WHERE ID_BOX IN (" +
+                "SELECT TB_BOX_ID_BOX FROM TB_ESTACIONAMENTO WHERE TB_VEICULO_ID_VEICULO = ? AND ESTA_ESTACIONADO = 1)",
+                veiculoId);
+        jdbcTemplate.update(
+                "UPDATE TB_ESTACIONAMENTO SET ESTA_ESTACIONADO = 0, DATA_SAIDA = CURRENT_TIMESTAMP, " +
+                "DATA_ULTIMA_ATUALIZACAO = CURRENT_TIMESTAMP WHERE TB_VEICULO_ID_VEICULO = ? AND ESTA_ESTACIONADO = 1",
+                veiculoId);
+        for (Long[] ativo : ativos) {
+            publicarMudanca(ativo[1], ativo[0], "SAIDA");
+            invalidadorCache.invalidar(placa, null, ativo[0], ativo[1]);
+        }
+    }
+
+    /**
+     * Obtém o ID do pátio do box usando query nativa para evitar carregar o Patio na sessão
+     * (evita problemas com orphanRemoval no flush/clear do check-in).
+     */
+    private Long buscarPatioIdDoBox(Long boxId) {
+        try {
+            Object patioIdResult = entityManager.createNativeQuery(
+                    "SELECT TB_PATIO_ID_PATIO FROM TB_BOX WHERE ID_BOX = :boxId"
+            )
+            .setParameter("boxId", boxId)
+            .getSingleResult();
+
+            if (patioIdResult == null) {
+                throw new ResourceNotFoundException("Pátio do box não encontrado.");
+            }
+            return ((Number) patioIdResult).longValue();
+        } catch (Exception e) {
+            log.error("Erro ao buscar patioId do box {}: {}", boxId, e.getMessage());
+            throw new ResourceNotFoundException("Pátio do box não encontrado.");
+        }
+    }
+
     /**
      * Libera um box específico (desativa estacionamento do box)
      * CRÍTICO: Libera apenas o box especificado, não todos os estacionamentos da placa
      */
     @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
-    @CacheEvict(value = {
-            "estacionamentos", "estacionamentosAtivos", "estacionamentosAtivosSSE",
-            "estacionamentoPorPlaca", "estacionamentosPorPatio"
-    }, allEntries = true)
     public EstacionamentoResponseDto liberarPorBoxId(Long boxId, String observacoes) {
         log.info("🔓 Liberando box ID: {}", boxId);
         
@@ -472,6 +486,7 @@ public class EstacionamentoService {
         
         Long estacionamentoId = estacionamento.getIdEstacionamento();
         Long veiculoId = estacionamento.getVeiculo().getIdVeiculo();
+        String placa = estacionamento.getVeiculo().getPlaca();
         Long patioId = estacionamento.getPatio().getIdPatio();
         LocalDateTime dataEntrada = estacionamento.getDataEntrada();
         
@@ -514,6 +529,8 @@ public class EstacionamentoService {
         Veiculo veiculoProxy = entityManager.getReference(Veiculo.class, veiculoId);
         Box boxProxy = entityManager.getReference(Box.class, boxId);
         logMovimentacaoService.registrarSaida(veiculoProxy, boxProxy, patioId);
+        publicarMudanca(patioId, boxId, "SAIDA");
+        invalidadorCache.invalidar(placa, estacionamentoId, boxId, patioId);
         
         // Buscar o estacionamento atualizado para retornar
         Estacionamento estacionamentoAtualizado = estacionamentoRepository.findById(estacionamentoId)
@@ -530,10 +547,6 @@ public class EstacionamentoService {
      * Use liberarPorBoxId() se quiser liberar apenas um box específico.
      */
     @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
-    @CacheEvict(value = {
-            "estacionamentos", "estacionamentosAtivos", "estacionamentosAtivosSSE",
-            "estacionamentoPorPlaca", "estacionamentosPorPatio"
-    }, allEntries = true)
     public EstacionamentoResponseDto liberarVeiculo(String placa, String observacoes) {
         String normalized = PlateUtils.normalizeMercosul(placa);
         if (normalized.isEmpty()) {
@@ -648,6 +661,8 @@ public class EstacionamentoService {
             Veiculo veiculoProxy = entityManager.getReference(Veiculo.class, veiculoId);
             Box boxProxy = entityManager.getReference(Box.class, boxId);
             logMovimentacaoService.registrarSaida(veiculoProxy, boxProxy, patioId);
+            publicarMudanca(patioId, boxId, "SAIDA");
+            invalidadorCache.invalidar(normalized, estacionamentoId, boxId, patioId);
             
             totalLiberados++;
         }
@@ -721,10 +736,6 @@ public class EstacionamentoService {
      * Cria um estacionamento (método genérico)
      */
     @Transactional
-    @CacheEvict(value = {
-            "estacionamentos", "estacionamentosAtivos", "estacionamentosAtivosSSE",
-            "estacionamentoPorPlaca", "estacionamentosPorPatio"
-    }, allEntries = true)
     public EstacionamentoResponseDto criar(EstacionamentoRequestDto dto) {
         log.info("➕ Criando estacionamento: {}", dto);
 
@@ -763,6 +774,8 @@ public class EstacionamentoService {
 
         // Registra log - usar o patioId já obtido anteriormente
         logMovimentacaoService.registrarEntrada(veiculo, box, patio.getIdPatio());
+        publicarMudanca(patio.getIdPatio(), box.getIdBox(), "ENTRADA");
+        invalidadorCache.invalidar(veiculo.getPlaca(), estacionamento.getIdEstacionamento(), box.getIdBox(), patio.getIdPatio());
 
         log.info("✅ Estacionamento criado com ID: {}", estacionamento.getIdEstacionamento());
         return estacionamentoMapper.toResponseDto(estacionamento);
@@ -773,15 +786,14 @@ public class EstacionamentoService {
      */
     @Transactional
     @CachePut(value = "estacionamentoPorId", key = "#id")
-    @CacheEvict(value = {
-            "estacionamentos", "estacionamentosAtivos", "estacionamentosAtivosSSE",
-            "estacionamentoPorPlaca", "estacionamentosPorPatio"
-    }, allEntries = true)
     public EstacionamentoResponseDto atualizar(Long id, EstacionamentoRequestDto dto) {
         log.info("✏️ Atualizando estacionamento ID: {}", id);
 
         Estacionamento estacionamento = estacionamentoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Estacionamento", id));
+        InvalidadorCacheEstacionamento.Alteracao anterior = new InvalidadorCacheEstacionamento.Alteracao(
+                estacionamento.getVeiculo().getPlaca(), id,
+                estacionamento.getBox().getIdBox(), estacionamento.getPatio().getIdPatio());
 
         // Atualiza campos básicos
         estacionamentoMapper.partialUpdate(dto, estacionamento);
@@ -806,6 +818,10 @@ public class EstacionamentoService {
         }
 
         estacionamento = estacionamentoRepository.save(estacionamento);
+        publicarMudanca(estacionamento.getPatio().getIdPatio(), estacionamento.getBox().getIdBox(), "ATUALIZADO");
+        invalidadorCache.invalidar(List.of(anterior, new InvalidadorCacheEstacionamento.Alteracao(
+                estacionamento.getVeiculo().getPlaca(), id,
+                estacionamento.getBox().getIdBox(), estacionamento.getPatio().getIdPatio())));
 
         log.info("✅ Estacionamento ID: {} atualizado", id);
         return estacionamentoMapper.toResponseDto(estacionamento);
@@ -815,16 +831,15 @@ public class EstacionamentoService {
      * Deleta um estacionamento (soft delete - marca como inativo)
      */
     @Transactional
-    @CacheEvict(value = {
-            "estacionamentoPorId", "estacionamentos", "estacionamentosAtivos", 
-            "estacionamentosAtivosSSE", "estacionamentoPorPlaca", "estacionamentosPorPatio"
-    }, allEntries = true)
     public void deletar(Long id) {
         log.info("🗑️ Deletando estacionamento ID: {}", id);
 
         Estacionamento estacionamento = estacionamentoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Estacionamento", id));
 
+        invalidadorCache.invalidar(estacionamento.getVeiculo().getPlaca(), id,
+                estacionamento.getBox().getIdBox(), estacionamento.getPatio().getIdPatio());
+
         // Se estiver ativo, libera primeiro
         if (estacionamento.isAtivo()) {
             Long boxId = estacionamento.getBox().getIdBox();
@@ -844,12 +859,20 @@ public class EstacionamentoService {
             Veiculo veiculoProxy = entityManager.getReference(Veiculo.class, veiculoId);
             Box boxProxy = entityManager.getReference(Box.class, boxId);
             logMovimentacaoService.registrarSaida(veiculoProxy, boxProxy, patioId);
+            publicarMudanca(patioId, boxId, "SAIDA");
         }
 
         estacionamentoRepository.delete(estacionamento);
         log.info("✅ Estacionamento ID: {} deletado", id);
     }
 
+    /**
+     * Publica a mudança para os streams SSE (entregue pelo MudancaHub após o commit)
+     */
+    private void publicarMudanca(Long patioId, Long boxId, String acao) {
+        eventPublisher.publishEvent(MudancaEvento.of(TopicoMudanca.ESTACIONAMENTO, patioId, boxId, acao));
+    }
+
     // ================== DATATABLE SUPPORT ==================
 
     /**
@@ -861,34 +884,20 @@ public class EstacionamentoService {
                 request.getDraw(), request.getStart(), request.getLength());
 
         try {
-            // Converte DataTableRequest para Pageable
-            int page = request.getStart() / request.getLength();
             Sort sort = criarSortParaDataTable(request);
-            Pageable pageable = PageRequest.of(page, request.getLength(), sort);
 
             // Aplica filtro de busca global se fornecido
             if (request.getSearchValue() != null && !request.getSearchValue().isBlank()) {
                 filter = aplicarBuscaGlobal(filter, request.getSearchValue());
             }
 
-            // Busca com filtros e paginação
+            // Busca com filtros: keyset com request.cursor, offset com ou sem COUNT (request.contagem)
             Specification<Estacionamento> spec = EstacionamentoSpecification.withFilters(filter);
-            Page<Estacionamento> pageResult = estacionamentoRepository.findAll(spec, pageable);
-
-            // Converte para DTOs
-            List<EstacionamentoResponseDto> data = pageResult.getContent().stream()
-                    .map(estacionamentoMapper::toResponseDto)
-                    .collect(Collectors.toList());
-
-            long processingTime = System.currentTimeMillis() - startTime;
-
-            return DataTableResponse.<EstacionamentoResponseDto>builder()
-                    .draw(request.getDraw())
-                    .recordsTotal(pageResult.getTotalElements())
-                    .recordsFiltered(pageResult.getTotalElements())
-                    .data(data)
-                    .processingTime(processingTime)
-                    .build();
+            DataTableResponse<EstacionamentoResponseDto> response = dataTableService.paginar(request,
+                    estacionamentoRepository, spec, sort, "idEstacionamento", estacionamentoMapper::toResponseDto,
+                    "veiculo", "box", "patio");
+            response.setProcessingTime(System.currentTimeMillis() - startTime);
+            return response;
 
         } catch (Exception e) {
             log.error("❌ Erro ao buscar estacionamentos para DataTable", e);
@@ -961,7 +970,8 @@ public class EstacionamentoService {
     /**
      * Conta total de veículos estacionados
      */
-    @Cacheable(value = "estatisticasEstacionamento", key = "'totalAtivos'")
+    @Cacheable(value = "estatisticasEstacionamento", keyGenerator = "recargaCaches")
+    @VersaoCache("@invalidadorCacheEstacionamento.versaoGlobal()")
     public long contarEstacionados() {
         return estacionamentoRepository.countByEstaEstacionadoTrue();
     }
@@ -969,7 +979,8 @@ public class EstacionamentoService {
     /**
      * Conta veículos estacionados em um pátio
      */
-    @Cacheable(value = "estatisticasEstacionamento", key = "'totalAtivosPatio-' + #patioId")
+    @Cacheable(value = "estatisticasEstacionamento", keyGenerator = "recargaCaches")
+    @VersaoCache("@invalidadorCacheEstacionamento.versaoPatio(#patioId)")
     public long contarEstacionadosPorPatio(Long patioId) {
         return estacionamentoRepository.countByPatioIdPatioAndEstaEstacionadoTrue(patioId);
     }
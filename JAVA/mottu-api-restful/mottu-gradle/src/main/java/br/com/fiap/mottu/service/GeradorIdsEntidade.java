@@ -0,0 +1,42 @@
+package br.com.fiap.mottu.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.Generator;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IDs de entidades para inserts via JDBC, obtidos do mesmo gerador que o Hibernate usa nos
+ * inserts por JPA (sequence com otimizador pooled).
+ *
+ * Os dois caminhos dividem o mesmo bloco em memória, então não colidem nem desperdiçam valores,
+ * e o SQL da sequence vem do dialeto (Oracle em produção, H2 nos testes e no perfil de carga):
+ * um NEXTVAL a cada allocationSize IDs.
+ */
+@Component
+public class GeradorIdsEntidade {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Reserva {@code quantidade} IDs para a entidade informada, na sessão da transação corrente.
+     */
+    public List<Long> proximos(Class<?> entidade, int quantidade) {
+        SharedSessionContractImplementor sessao = entityManager.unwrap(SharedSessionContractImplementor.class);
+        Generator gerador = sessao.getFactory().getMappingMetamodel().getEntityDescriptor(entidade).getGenerator();
+        if (!(gerador instanceof IdentifierGenerator identificador)) {
+            throw new IllegalStateException("Entidade sem gerador de ID por sequence: " + entidade.getSimpleName());
+        }
+        List<Long> ids = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            ids.add(((Number) identificador.generate(sessao, null)).longValue());
+        }
+        return ids;
+    }
+}
@@ -7,6 +7,7 @@ import br.com.fiap.mottu.model.Patio;
 import br.com.fiap.mottu.model.Veiculo;
 import br.com.fiap.mottu.model.LogMovimentacao.TipoMovimentacao;
 import br.com.fiap.mottu.repository.LogMovimentacaoRepository;
+import br.com.fiap.mottu.service.relatorios.analytics.RollupMovimentacaoService;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
@@ -25,12 +26,15 @@ public class LogMovimentacaoService {
     private static final Logger log = LoggerFactory.getLogger(LogMovimentacaoService.class);
 
     private final LogMovimentacaoRepository logRepository;
+    private final RollupMovimentacaoService rollupMovimentacao;
     
     @PersistenceContext
     private EntityManager entityManager;
 
-    public LogMovimentacaoService(LogMovimentacaoRepository logRepository) {
+    public LogMovimentacaoService(LogMovimentacaoRepository logRepository,
+                                  RollupMovimentacaoService rollupMovimentacao) {
         this.logRepository = logRepository;
+        this.rollupMovimentacao = rollupMovimentacao;
     }
 
     /**
@@ -60,6 +64,8 @@ public class LogMovimentacaoService {
                 .build();
 
         LogMovimentacao savedLog = logRepository.save(logMovimentacao);
+        rollupMovimentacao.registrar(new RollupMovimentacaoService.Incremento(
+                patioId, box.getIdBox(), savedLog.getDataHoraMovimentacao(), true, null));
         log.info("Entrada registrada com sucesso. ID: {}", savedLog.getIdLogMovimentacao());
         
         return savedLog;
@@ -117,6 +123,8 @@ public class LogMovimentacaoService {
                 .build();
 
         LogMovimentacao savedLog = logRepository.save(logMovimentacao);
+        rollupMovimentacao.registrar(new RollupMovimentacaoService.Incremento(
+                patioId, box.getIdBox(), savedLog.getDataHoraMovimentacao(), false, tempoEstacionamentoMinutos));
         log.info("Saída registrada com sucesso. ID: {}, Tempo estacionado: {} minutos", 
                 savedLog.getIdLogMovimentacao(), tempoEstacionamentoMinutos);
         
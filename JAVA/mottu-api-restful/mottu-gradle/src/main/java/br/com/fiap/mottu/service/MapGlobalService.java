@@ -31,7 +31,7 @@ public class MapGlobalService {
     /**
      * Busca todos os pátios para o mapa global com cache
      */
-    @Cacheable(value = "mapaGlobal", key = "'todos'")
+    @Cacheable(value = "mapaGlobal", keyGenerator = "recargaCaches")
     public List<MapGlobalPatioDto> buscarTodosPatios() {
         log.info("🗺️ MapGlobalService: Buscando todos os pátios para mapa global");
         
@@ -44,7 +44,7 @@ public class MapGlobalService {
     /**
      * Busca pátios com paginação
      */
-    @Cacheable(value = "mapaGlobal", key = "'pagina-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+    @Cacheable(value = "mapaGlobal", keyGenerator = "recargaCaches")
     public Page<MapGlobalPatioDto> buscarPatiosPaginados(Pageable pageable) {
         log.info("🗺️ MapGlobalService: Buscando pátios paginados - página {}, tamanho {}", 
                 pageable.getPageNumber(), pageable.getPageSize());
@@ -55,7 +55,7 @@ public class MapGlobalService {
     /**
      * Busca pátios por cidade
      */
-    @Cacheable(value = "mapaGlobal", key = "'cidade-' + #cidade")
+    @Cacheable(value = "mapaGlobal", keyGenerator = "recargaCaches")
     public List<MapGlobalPatioDto> buscarPatiosPorCidade(String cidade) {
         log.info("🗺️ MapGlobalService: Buscando pátios na cidade: {}", cidade);
         
@@ -3,8 +3,11 @@ package br.com.fiap.mottu.service;
 import br.com.fiap.mottu.dto.notificacao.NotificacaoResponseDto;
 import br.com.fiap.mottu.model.Notificacao;
 import br.com.fiap.mottu.repository.*;
+import br.com.fiap.mottu.service.stream.MudancaEvento;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,6 +28,7 @@ public class NotificacaoService {
     private final LogMovimentacaoRepository logRepository;
     private final ZonaRepository zonaRepository;
     private final EstacionamentoRepository estacionamentoRepository; // Adicionado para usar TB_ESTACIONAMENTO
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Lista notificações com filtros
@@ -52,6 +56,7 @@ public class NotificacaoService {
         notificacao.setLida(true);
         notificacao.setDataHoraLeitura(LocalDateTime.now());
         notificacaoRepository.save(notificacao);
+        publicarMudanca(id, "LIDA");
         
         log.info("Notificação {} marcada como lida", id);
     }
@@ -69,6 +74,7 @@ public class NotificacaoService {
         });
         
         notificacaoRepository.saveAll(naoLidas);
+        publicarMudanca(null, "LIDA");
         log.info("{} notificações marcadas como lidas", naoLidas.size());
     }
     
@@ -97,6 +103,7 @@ public class NotificacaoService {
             notificacaoRepository.save(notificacao);
             log.info("Notificação criada: {}", tituloTeste);
             
+            publicarMudanca(null, "CRIADO");
             log.info("Notificações dinâmicas geradas com sucesso");
         } catch (Exception e) {
             log.error("Erro ao gerar notificações dinâmicas", e);
@@ -280,6 +287,7 @@ public class NotificacaoService {
                     .build();
                 
                 notificacaoRepository.save(notificacao);
+                publicarMudanca(notificacao.getIdNotificacao(), "CRIADO");
                 log.info("Notificação criada: {} -> {}", titulo, urlRedirecionamento);
             } else {
                 log.info("Notificação '{}' já existe, pulando criação", titulo);
@@ -325,6 +333,7 @@ public class NotificacaoService {
             if (totalAntes > 0) {
                 // Deletar todas as notificações
                 notificacaoRepository.deleteAll();
+                publicarMudanca(null, "REMOVIDO");
                 
                 // Verificar se realmente foram deletadas
                 long totalDepois = notificacaoRepository.count();
@@ -360,4 +369,11 @@ public class NotificacaoService {
             "lidas", total - naoLidas
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Publica a mudança para o stream SSE de notificações (entregue pelo MudancaHub após o commit)
+     */
+    private void publicarMudanca(Long notificacaoId, String acao) {
+        eventPublisher.publishEvent(MudancaEvento.of(TopicoMudanca.NOTIFICACAO, null, notificacaoId, acao));
+    }
+}
@@ -21,15 +21,21 @@ import br.com.fiap.mottu.model.*;
 import br.com.fiap.mottu.model.relacionamento.VeiculoPatio;
 import br.com.fiap.mottu.model.relacionamento.VeiculoPatioId;
 import br.com.fiap.mottu.repository.*;
+import br.com.fiap.mottu.repository.relacionamento.ContatoPatioRepository;
+import br.com.fiap.mottu.repository.relacionamento.EnderecoPatioRepository;
 import br.com.fiap.mottu.repository.relacionamento.VeiculoPatioRepository;
 import br.com.fiap.mottu.repository.relacionamento.VeiculoBoxRepository;
 import br.com.fiap.mottu.specification.PatioSpecification;
 import br.com.fiap.mottu.config.LoggingConfig; // Configuração de logging estruturado
 import br.com.fiap.mottu.service.MapGlobalService; // Para invalidar cache do mapa global
+import br.com.fiap.mottu.service.datatable.DataTableService;
+import br.com.fiap.mottu.service.stream.MudancaEvento;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -41,7 +47,9 @@ import java.util.stream.Collectors;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.Optional;
 
@@ -65,6 +73,8 @@ public class PatioService {
     private final ContatoRepository contatoRepository;
     private final EnderecoRepository enderecoRepository;
     private final VeiculoPatioRepository veiculoPatioRepository;
+    private final ContatoPatioRepository contatoPatioRepository;
+    private final EnderecoPatioRepository enderecoPatioRepository;
     private final ContatoService contatoService;
     private final EnderecoService enderecoService;
     private final EstacionamentoRepository estacionamentoRepository;
@@ -72,7 +82,12 @@ public class PatioService {
     private final NotificacaoRepository notificacaoRepository;
     private final LogMovimentacaoRepository logMovimentacaoRepository;
     private final VeiculoBoxRepository veiculoBoxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DataTableService dataTableService;
     
+    /** Boxes por rodada na geração em lote: igual ao hibernate.jdbc.batch_size e ao allocationSize de Box. */
+    static final int LOTE_GERACAO_BOXES = 50;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -80,13 +95,17 @@ public class PatioService {
                         VeiculoRepository veiculoRepository, ZonaRepository zonaRepository,
                         ContatoRepository contatoRepository, EnderecoRepository enderecoRepository,
                         VeiculoPatioRepository veiculoPatioRepository,
+                        ContatoPatioRepository contatoPatioRepository,
+                        EnderecoPatioRepository enderecoPatioRepository,
                         BoxRepository boxRepository,
                         ContatoService contatoService, EnderecoService enderecoService,
                         EstacionamentoRepository estacionamentoRepository,
                         MapGlobalService mapGlobalService,
                         NotificacaoRepository notificacaoRepository,
                         LogMovimentacaoRepository logMovimentacaoRepository,
-                        VeiculoBoxRepository veiculoBoxRepository) {
+                        VeiculoBoxRepository veiculoBoxRepository,
+                        ApplicationEventPublisher eventPublisher,
+                        DataTableService dataTableService) {
         this.patioRepository = patioRepository;
         this.patioMapper = patioMapper;
         this.veiculoRepository = veiculoRepository;
@@ -95,6 +114,8 @@ public class PatioService {
         this.contatoRepository = contatoRepository;
         this.enderecoRepository = enderecoRepository;
         this.veiculoPatioRepository = veiculoPatioRepository;
+        this.contatoPatioRepository = contatoPatioRepository;
+        this.enderecoPatioRepository = enderecoPatioRepository;
         this.contatoService = contatoService;
         this.enderecoService = enderecoService;
         this.estacionamentoRepository = estacionamentoRepository;
@@ -102,6 +123,8 @@ public class PatioService {
         this.notificacaoRepository = notificacaoRepository;
         this.logMovimentacaoRepository = logMovimentacaoRepository;
         this.veiculoBoxRepository = veiculoBoxRepository;
+        this.eventPublisher = eventPublisher;
+        this.dataTableService = dataTableService;
     }
 
     // LISTAR E BUSCAR
@@ -178,6 +201,7 @@ public class PatioService {
         
         // Invalidar cache do mapa global quando um novo pátio é criado
         mapGlobalService.invalidarCache();
+        publicarMudanca(TopicoMudanca.PATIO, patioCriado.getIdPatio(), patioCriado.getIdPatio(), "CRIADO");
         log.info("🗑️ Cache do mapa global invalidado após criação do pátio {}", patioCriado.getIdPatio());
         
         return patioCriado;
@@ -196,6 +220,7 @@ public class PatioService {
                     .ifPresent(p -> { throw new DuplicatedResourceException("Pátio", "nomePátio", novoNome); });
         }
 
+        String statusAnterior = patioExistente.getStatus();
         patioMapper.partialUpdate(dto, patioExistente);
 
         if (dto.getContatoId() != null) {
@@ -211,9 +236,13 @@ public class PatioService {
         }
 
         Patio patioAtualizado = patioRepository.save(patioExistente);
+        if (!Objects.equals(statusAnterior, patioAtualizado.getStatus())) {
+            propagarStatusPatio(id, patioAtualizado.getStatus());
+        }
         
         // Invalidar cache do mapa global quando um pátio é atualizado
         mapGlobalService.invalidarCache();
+        publicarMudanca(TopicoMudanca.PATIO, id, id, "ATUALIZADO");
         log.info("🗑️ Cache do mapa global invalidado após atualização do pátio {}", patioAtualizado.getIdPatio());
         
         return patioAtualizado;
@@ -235,15 +264,29 @@ public class PatioService {
         if (linhasAtualizadas == 0) {
             throw new ResourceNotFoundException("Pátio", id);
         }
+        propagarStatusPatio(id, novoStatus);
         
         // Invalidar cache do mapa global
         mapGlobalService.invalidarCache();
+        publicarMudanca(TopicoMudanca.PATIO, id, id, "STATUS");
         log.info("✅ Status do pátio ID {} atualizado para: {} (Cache invalidado)", id, novoStatus);
         
         // Buscar o pátio atualizado para retornar
         return buscarPatioPorId(id);
     }
 
+    /**
+     * Zonas e associações de contato/endereço guardam uma cópia do status do pátio em TB_PATIO_STATUS
+     * (NOT NULL no Oracle, fora da FK, que é só ID_PATIO): atualiza todas de uma vez na mudança de status.
+     */
+    private void propagarStatusPatio(Long patioId, String status) {
+        int zonas = zonaRepository.atualizarStatusPatio(patioId, status);
+        int contatos = contatoPatioRepository.atualizarStatusPatio(patioId, status);
+        int enderecos = enderecoPatioRepository.atualizarStatusPatio(patioId, status);
+        log.debug("Status {} do pátio {} copiado para {} zonas, {} contatos e {} endereços",
+                status, patioId, zonas, contatos, enderecos);
+    }
+
     @Transactional
     @CacheEvict(value = {"patioPorId", "patiosList", "patiosDataTable", "veiculosDoPatio", "zonasDoPatio", "contatosDoPatio", "enderecosDoPatio", "boxesDoPatio"}, allEntries = true)
     public void deletarPatio(Long id) {
@@ -323,6 +366,7 @@ public class PatioService {
         
         // Invalidar cache do mapa global quando um pátio é deletado
         mapGlobalService.invalidarCache();
+        publicarMudanca(TopicoMudanca.PATIO, id, id, "REMOVIDO");
         log.info("🗑️ Cache do mapa global invalidado após exclusão do pátio {}", id);
     }
     
@@ -333,6 +377,7 @@ public class PatioService {
      * - TB_LOG_MOVIMENTACAO (FK sem CASCADE)
      * - TB_VEICULOBOX (FK sem CASCADE)
      * - TB_ZONABOX (FK sem CASCADE)
+     * - TB_MOVIMENTACAO_HORA (rollup derivado de TB_LOG_MOVIMENTACAO)
      * 
      * @throws RuntimeException se houver erro ao deletar dependências
      */
@@ -409,6 +454,18 @@ public class PatioService {
                 // Tabela pode não existir em todos os ambientes, apenas log (não é erro crítico)
                 log.debug("Tabela TB_ZONABOX não encontrada ou erro ao deletar do box {}: {}", boxId, e.getMessage());
             }
+            
+            // 5. Deletar rollup horário do box (espelha a exclusão dos logs de movimentação)
+            try {
+                entityManager.createNativeQuery(
+                    "DELETE FROM RELACAODIRETA.TB_MOVIMENTACAO_HORA WHERE TB_BOX_ID_BOX = :boxId"
+                )
+                .setParameter("boxId", boxId)
+                .executeUpdate();
+            } catch (Exception e) {
+                // Rollup é derivado do log: falha aqui não impede a exclusão do pátio
+                log.debug("Erro ao deletar rollup de movimentação do box {}: {}", boxId, e.getMessage());
+            }
         }
         
         log.info("Dependências dos boxes deletadas: {} notificações, {} logs de movimentação, {} VeiculoBox, {} ZonaBox", 
@@ -534,6 +591,7 @@ public class PatioService {
         
         // Invalidar cache do mapa global quando um novo pátio completo é criado
         mapGlobalService.invalidarCache();
+        publicarMudanca(TopicoMudanca.PATIO, patioSalvo.getIdPatio(), patioSalvo.getIdPatio(), "CRIADO");
         log.info("🗑️ Cache do mapa global invalidado após criação completa do pátio {}", patioSalvo.getIdPatio());
         
         return patioSalvo;
@@ -573,6 +631,7 @@ public class PatioService {
         zona.setObservacao(dto.getObservacao());
         zona.setPatio(patio);
         Zona zonaSalva = zonaRepository.save(zona);
+        publicarMudanca(TopicoMudanca.ZONA, patioId, zonaSalva.getIdZona(), "CRIADO");
 
         return new ZonaResponseDto(zonaSalva.getIdZona(), zonaSalva.getNome(), zonaSalva.getStatus(), zonaSalva.getObservacao(), patioId, patioStatus, new ZonaResponseDto.PatioInfo(patio.getIdPatio(), patio.getNomePatio()));
     }
@@ -601,6 +660,7 @@ public class PatioService {
         zona.setStatus(dto.getStatus());
         zona.setObservacao(dto.getObservacao());
         Zona zonaAtualizada = zonaRepository.save(zona);
+        publicarMudanca(TopicoMudanca.ZONA, patioId, zonaId, "ATUALIZADO");
 
         return new ZonaResponseDto(zonaAtualizada.getIdZona(), zonaAtualizada.getNome(), zonaAtualizada.getStatus(), zonaAtualizada.getObservacao(), patioId, patioStatus, new ZonaResponseDto.PatioInfo(patio.getIdPatio(), patio.getNomePatio()));
     }
@@ -614,6 +674,7 @@ public class PatioService {
             throw new ResourceNotFoundException("Zona " + zonaId + " não pertence ao pátio " + patioId);
         }
         zonaRepository.delete(zona);
+        publicarMudanca(TopicoMudanca.ZONA, patioId, zonaId, "REMOVIDO");
     }
 
     // --- Métodos para Boxes por Pátio ---
@@ -636,6 +697,7 @@ public class PatioService {
         box.setObservacao(dto.getObservacao());
         box.setPatio(patio);
         Box boxSalvo = boxRepository.save(box);
+        publicarMudanca(TopicoMudanca.BOX, patioId, boxSalvo.getIdBox(), "CRIADO");
 
         return new BoxResponseDto(boxSalvo.getIdBox(), boxSalvo.getNome(), boxSalvo.getStatus(), boxSalvo.getDataEntrada(), boxSalvo.getDataSaida(), boxSalvo.getObservacao(), patioId, patioStatus, new BoxResponseDto.PatioInfo(patio.getIdPatio(), patio.getNomePatio()));
     }
@@ -697,6 +759,7 @@ public class PatioService {
         box.setObservacao(dto.getObservacao());
         
         Box boxAtualizado = boxRepository.save(box);
+        publicarMudanca(TopicoMudanca.BOX, patioId, boxId, "ATUALIZADO");
         log.info("Box ID: {} atualizado no pátio ID: {}", boxId, patioId);
 
         return new BoxResponseDto(boxAtualizado.getIdBox(), boxAtualizado.getNome(), boxAtualizado.getStatus(), boxAtualizado.getDataEntrada(), boxAtualizado.getDataSaida(), boxAtualizado.getObservacao(), patioId, patioStatus, new BoxResponseDto.PatioInfo(patio.getIdPatio(), patio.getNomePatio()));
@@ -732,21 +795,45 @@ public class PatioService {
         
         log.info("Excluindo box ID: {} do pátio ID: {}", boxId, patioId);
         boxRepository.delete(box);
+        publicarMudanca(TopicoMudanca.BOX, patioId, boxId, "REMOVIDO");
     }
 
+    /**
+     * Gera os boxes em rodadas de {@link #LOTE_GERACAO_BOXES}: cada rodada usa um NEXTVAL
+     * (allocationSize de Box) e um JDBC batch de INSERTs, e é descarregada do contexto de
+     * persistência para que a memória não cresça com a quantidade.
+     */
     @Transactional
     public void gerarBoxesEmLotePorPatio(Long patioId, String patioStatus, String prefixo, int quantidade) {
         Patio patio = findAndValidatePatio(patioId, patioStatus);
+        java.time.LocalDateTime agora = java.time.LocalDateTime.now();
+        List<Box> lote = new ArrayList<>(Math.min(quantidade, LOTE_GERACAO_BOXES));
         for (int i = 1; i <= quantidade; i++) {
             Box box = new Box();
             box.setNome(String.format("%s-%03d", prefixo, i));
             box.setStatus("L"); // Livre por padrão
-            box.setDataEntrada(java.time.LocalDateTime.now());
+            box.setDataEntrada(agora);
             box.setDataSaida(null);
             box.setObservacao("Box gerado automaticamente");
             box.setPatio(patio);
-            boxRepository.save(box);
+            lote.add(box);
+            if (lote.size() == LOTE_GERACAO_BOXES || i == quantidade) {
+                boxRepository.saveAll(lote);
+                entityManager.flush();
+                entityManager.clear();
+                lote.clear();
+                patio = entityManager.getReference(Patio.class, patioId);
+            }
         }
+        log.info("📦 {} box(es) gerado(s) para o pátio {} em rodadas de {}", quantidade, patioId, LOTE_GERACAO_BOXES);
+        publicarMudanca(TopicoMudanca.BOX, patioId, null, "CRIADO");
+    }
+
+    /**
+     * Publica a mudança para os streams SSE (entregue pelo MudancaHub após o commit)
+     */
+    private void publicarMudanca(TopicoMudanca topico, Long patioId, Long entidadeId, String acao) {
+        eventPublisher.publishEvent(MudancaEvento.of(topico, patioId, entidadeId, acao));
     }
 
     // ================== DATATABLE SUPPORT ==================
@@ -755,17 +842,14 @@ public class PatioService {
      * Busca pátios para DataTable com paginação, ordenação e filtros
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "patiosDataTable", key = "#request.draw + '-' + #request.start + '-' + #request.length + '-' + (#filter != null ? #filter.toString() : 'null')")
+    @Cacheable(value = "patiosDataTable", key = "#request.draw + '-' + #request.start + '-' + #request.length + '-' + #request.orderColumn + '-' + #request.orderDirection + '-' + #request.cursor + '-' + #request.contagem + '-' + (#filter != null ? #filter.toString() : 'null')")
     public DataTableResponse<PatioResponseDto> buscarParaDataTable(DataTableRequest request, PatioFilter filter) {
         long startTime = System.currentTimeMillis();
         log.info("📊 Buscando pátios para DataTable - draw: {}, start: {}, length: {}", 
                 request.getDraw(), request.getStart(), request.getLength());
 
         try {
-            // Converte DataTableRequest para Pageable
-            int page = request.getStart() / request.getLength();
             Sort sort = criarSortParaDataTable(request);
-            Pageable pageable = PageRequest.of(page, request.getLength(), sort);
 
             // Aplica filtro de busca global se fornecido
             if (request.getSearchValue() != null && !request.getSearchValue().isBlank()) {
@@ -776,22 +860,10 @@ public class PatioService {
             // Se filter for null, cria um filtro vazio (todos os campos null)
             PatioFilter filtroFinal = filter != null ? filter : criarFiltroVazio();
             Specification<Patio> spec = PatioSpecification.withFilters(filtroFinal);
-            Page<Patio> pageResult = patioRepository.findAll(spec, pageable);
-
-            // Converte para DTOs
-            List<PatioResponseDto> data = pageResult.getContent().stream()
-                    .map(patioMapper::toResponseDto)
-                    .collect(Collectors.toList());
-
-            long processingTime = System.currentTimeMillis() - startTime;
-
-            return DataTableResponse.<PatioResponseDto>builder()
-                    .draw(request.getDraw())
-                    .recordsTotal(pageResult.getTotalElements())
-                    .recordsFiltered(pageResult.getTotalElements())
-                    .data(data)
-                    .processingTime(processingTime)
-                    .build();
+            DataTableResponse<PatioResponseDto> response = dataTableService.paginar(request,
+                    patioRepository, spec, sort, "idPatio", patioMapper::toResponseDto);
+            response.setProcessingTime(System.currentTimeMillis() - startTime);
+            return response;
 
         } catch (Exception e) {
             log.error("❌ Erro ao buscar pátios para DataTable", e);
@@ -10,10 +10,16 @@ import br.com.fiap.mottu.repository.LogMovimentacaoRepository;
 import br.com.fiap.mottu.repository.PatioRepository;
 import br.com.fiap.mottu.repository.VeiculoRepository;
 import br.com.fiap.mottu.repository.ZonaRepository;
+import br.com.fiap.mottu.service.relatorios.ComportamentalService;
 import br.com.fiap.mottu.service.relatorios.OcupacaoService;
+import br.com.fiap.mottu.service.relatorios.SecoesRelatorio;
+import br.com.fiap.mottu.service.relatorios.analytics.AgregadoMovimentacoes;
+import br.com.fiap.mottu.service.relatorios.analytics.RollupMovimentacaoService;
+import br.com.fiap.mottu.service.relatorios.performance.ConsultaPerformancePatios;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -34,6 +40,10 @@ public class RelatorioService {
     private final ZonaRepository zonaRepository;
     private final LogMovimentacaoMapper mapper;
     private final OcupacaoService ocupacaoService;
+    private final ComportamentalService comportamentalService;
+    private final RollupMovimentacaoService rollupMovimentacao;
+    private final ConsultaPerformancePatios consultaPerformancePatios;
+    private final SecoesRelatorio secoesRelatorio;
 
     public RelatorioService(LogMovimentacaoRepository logRepository,
                            PatioRepository patioRepository,
@@ -41,7 +51,11 @@ public class RelatorioService {
                            VeiculoRepository veiculoRepository,
                            ZonaRepository zonaRepository,
                            LogMovimentacaoMapper mapper,
-                           OcupacaoService ocupacaoService) {
+                           OcupacaoService ocupacaoService,
+                           ComportamentalService comportamentalService,
+                           RollupMovimentacaoService rollupMovimentacao,
+                           ConsultaPerformancePatios consultaPerformancePatios,
+                           SecoesRelatorio secoesRelatorio) {
         this.logRepository = logRepository;
         this.patioRepository = patioRepository;
         this.boxRepository = boxRepository;
@@ -49,6 +63,10 @@ public class RelatorioService {
         this.zonaRepository = zonaRepository;
         this.mapper = mapper;
         this.ocupacaoService = ocupacaoService;
+        this.comportamentalService = comportamentalService;
+        this.rollupMovimentacao = rollupMovimentacao;
+        this.consultaPerformancePatios = consultaPerformancePatios;
+        this.secoesRelatorio = secoesRelatorio;
     }
 
     /**
@@ -111,46 +129,35 @@ public class RelatorioService {
      */
     public List<PerformancePatioDto> getPerformancePatios() {
         log.info("Gerando relatório de performance dos pátios");
-        
-        List<Patio> patios = patioRepository.findAll();
+
         List<PerformancePatioDto> performancePatios = new ArrayList<>();
-        
-        for (Patio patio : patios) {
-            // Calcular métricas do pátio
-            Double tempoMedioEstacionamento = logRepository.findTempoMedioEstacionamentoPorPatio(patio.getIdPatio());
-            Long totalMovimentacoes = logRepository.countByPatioAndTipoMovimentacaoAndPeriodo(
-                    patio.getIdPatio(), TipoMovimentacao.ENTRADA, 
-                    LocalDateTime.now().minusMonths(1), LocalDateTime.now()) +
-                    logRepository.countByPatioAndTipoMovimentacaoAndPeriodo(
-                            patio.getIdPatio(), TipoMovimentacao.SAIDA, 
-                            LocalDateTime.now().minusMonths(1), LocalDateTime.now());
-            
-            Long totalEntradas = logRepository.countByPatioAndTipoMovimentacaoAndPeriodo(
-                    patio.getIdPatio(), TipoMovimentacao.ENTRADA, 
-                    LocalDateTime.now().minusMonths(1), LocalDateTime.now());
-            
-            Long totalSaidas = logRepository.countByPatioAndTipoMovimentacaoAndPeriodo(
-                    patio.getIdPatio(), TipoMovimentacao.SAIDA, 
-                    LocalDateTime.now().minusMonths(1), LocalDateTime.now());
-            
-            List<br.com.fiap.mottu.model.Box> boxes = boxRepository.findByPatioIdPatio(patio.getIdPatio());
-            Integer totalBoxes = boxes.size();
-            
-            // Calcular taxa de ocupação média
-            Double taxaOcupacaoMedia = calcularTaxaOcupacaoMedia(patio.getIdPatio());
-            
-            // Buscar top boxes e veículos
-            List<TopBoxDto> topBoxes = getTopBoxesPorPatio(patio.getIdPatio());
-            List<TopVeiculoDto> topVeiculos = getTopVeiculosPorPatio(patio.getIdPatio());
-            
-            performancePatios.add(mapper.toPerformancePatioDto(
-                    patio, taxaOcupacaoMedia, tempoMedioEstacionamento, 
-                    totalMovimentacoes, totalEntradas, totalSaidas, totalBoxes,
-                    topBoxes, topVeiculos
-            ));
+        for (ConsultaPerformancePatios.MetricasPatio metricas : consultaPerformancePatios.carregar(LocalDateTime.now().minusMonths(1))) {
+            long totalHistorico = metricas.getMovimentacoesTotal();
+            List<TopBoxDto> topBoxes = metricas.getTopBoxes().stream()
+                    .map(item -> mapper.toTopBoxDto(item.comoLinha(), totalHistorico))
+                    .collect(Collectors.toList());
+            List<TopVeiculoDto> topVeiculos = metricas.getTopVeiculos().stream()
+                    .map(item -> mapper.toTopVeiculoDto(item.comoLinha()))
+                    .collect(Collectors.toList());
+
+            performancePatios.add(PerformancePatioDto.builder()
+                    .patioId(metricas.getPatioId())
+                    .nomePatio(metricas.getNomePatio())
+                    .taxaOcupacaoMedia(metricas.getTaxaOcupacao())
+                    .tempoMedioEstacionamento(metricas.getTempoMedioEstacionamento())
+                    .totalMovimentacoes(metricas.getMovimentacoesPeriodo())
+                    .totalEntradas(metricas.getEntradasPeriodo())
+                    .totalSaidas(metricas.getSaidasPeriodo())
+                    .totalBoxes(metricas.getTotalBoxes())
+                    .topBoxes(topBoxes)
+                    .topVeiculos(topVeiculos)
+                    .status(metricas.getStatus())
+                    .cidade(metricas.getCidade())
+                    .estado(metricas.getEstado())
+                    .build());
         }
-        
-        log.info("Relatório de performance dos pátios gerado com sucesso. {} pátios analisados", patios.size());
+
+        log.info("Relatório de performance dos pátios gerado com sucesso. {} pátios analisados", performancePatios.size());
         return performancePatios;
     }
 
@@ -238,32 +245,6 @@ public class RelatorioService {
                 .orElse("N/A");
     }
 
-    private Double calcularTaxaOcupacaoMedia(Long patioId) {
-        List<br.com.fiap.mottu.model.Box> boxes = boxRepository.findByPatioIdPatio(patioId);
-        if (boxes.isEmpty()) return 0.0;
-        
-        int boxesOcupados = (int) boxes.stream().filter(box -> "O".equals(box.getStatus())).count();
-        return (boxesOcupados * 100.0) / boxes.size();
-    }
-
-    private List<TopBoxDto> getTopBoxesPorPatio(Long patioId) {
-        List<Object[]> dados = logRepository.findTopBoxesUtilizados(
-                org.springframework.data.domain.PageRequest.of(0, 5));
-        
-        return dados.stream()
-                .map(dadosBox -> mapper.toTopBoxDto(dadosBox, 100L))
-                .collect(Collectors.toList());
-    }
-
-    private List<TopVeiculoDto> getTopVeiculosPorPatio(Long patioId) {
-        List<Object[]> dados = logRepository.findTopVeiculosFrequentes(
-                org.springframework.data.domain.PageRequest.of(0, 5));
-        
-        return dados.stream()
-                .map(mapper::toTopVeiculoDto)
-                .collect(Collectors.toList());
-    }
-
     private TendenciaOcupacaoDto.TendenciaGeral determinarTendenciaGeral(Double ocupacaoMedia) {
         if (ocupacaoMedia > 80) return TendenciaOcupacaoDto.TendenciaGeral.CRESCENTE;
         if (ocupacaoMedia < 50) return TendenciaOcupacaoDto.TendenciaGeral.DECRESCENTE;
@@ -295,14 +276,9 @@ public class RelatorioService {
         LocalDateTime inicio = LocalDateTime.now().minusDays(7);
         LocalDateTime fim = LocalDateTime.now();
         
-        List<LogMovimentacao> movimentacoes = logRepository.findByDataHoraMovimentacaoBetweenOrderByDataHoraMovimentacaoDesc(inicio, fim);
-        
-        // Calcular movimentações por horário
-        java.util.Map<Integer, Long> movimentacoesPorHora = movimentacoes.stream()
-            .collect(java.util.stream.Collectors.groupingBy(
-                m -> m.getDataHoraMovimentacao().getHour(),
-                java.util.stream.Collectors.counting()
-            ));
+        // Movimentações por horário direto do rollup horário (sem carregar os logs da semana)
+        AgregadoMovimentacoes agregado = rollupMovimentacao.agregar(inicio, fim, null);
+        java.util.Map<Integer, Long> movimentacoesPorHora = movimentacoesPorHora(agregado);
         
         // Encontrar horários de pico reais
         java.util.Map.Entry<Integer, Long> picoManha = movimentacoesPorHora.entrySet().stream()
@@ -317,9 +293,9 @@ public class RelatorioService {
         
         // Calcular percentual de ocupação baseado nos dados reais
         double ocupacaoManha = picoManha.getValue() > 0 ? 
-            Math.min(100.0, (picoManha.getValue() / (double) movimentacoes.size()) * 100) : 0.0;
+            Math.min(100.0, (picoManha.getValue() / (double) agregado.getTotal()) * 100) : 0.0;
         double ocupacaoTarde = picoTarde.getValue() > 0 ? 
-            Math.min(100.0, (picoTarde.getValue() / (double) movimentacoes.size()) * 100) : 0.0;
+            Math.min(100.0, (picoTarde.getValue() / (double) agregado.getTotal()) * 100) : 0.0;
         
         horarios.add(mapper.toHorarioPicoDto(
             String.format("%02d:00", picoManha.getKey()), 
@@ -335,6 +311,16 @@ public class RelatorioService {
         return horarios;
     }
 
+    private java.util.Map<Integer, Long> movimentacoesPorHora(AgregadoMovimentacoes agregado) {
+        java.util.Map<Integer, Long> porHora = new java.util.HashMap<>();
+        for (int hora = 0; hora < 24; hora++) {
+            if (agregado.getMovimentacoesNaHora(hora) > 0) {
+                porHora.put(hora, agregado.getMovimentacoesNaHora(hora));
+            }
+        }
+        return porHora;
+    }
+
     private List<PatioPerformanceDto> gerarPerformancePatios(List<OcupacaoAtualDto> ocupacoes) {
         return ocupacoes.stream()
                 .sorted((o1, o2) -> Double.compare(o2.getTaxaOcupacao(), o1.getTaxaOcupacao()))
@@ -414,12 +400,11 @@ public class RelatorioService {
         LocalDateTime inicioSemana = agora.minusDays(7);
         LocalDateTime fimSemana = agora;
         
-        // Buscar movimentações históricas do pátio
-        List<LogMovimentacao> movimentacoes = logRepository.findByPatioIdPatioAndDataHoraMovimentacaoBetweenOrderByDataHoraMovimentacaoDesc(
-                patio.getIdPatio(), inicioSemana, fimSemana);
+        // Movimentações históricas do pátio (rollup horário)
+        long movimentacoesSemana = rollupMovimentacao.agregar(inicioSemana, fimSemana, patio.getIdPatio()).getTotal();
         
         // Usar movimentações para calcular tendência
-        double ocupacaoMediaHistorica = movimentacoes.isEmpty() ? 0.5 : 
+        double ocupacaoMediaHistorica = movimentacoesSemana == 0 ? 0.5 : 
             calcularOcupacaoMediaHistorica(patio, agora.getHour());
         
         // Calcular tendência baseada em dados reais
@@ -525,11 +510,8 @@ public class RelatorioService {
         LocalDateTime inicioMes = LocalDateTime.now().minusDays(30);
         LocalDateTime fimMes = LocalDateTime.now();
         
-        // Contar movimentações históricas
-        List<LogMovimentacao> movimentacoes = logRepository.findByPatioIdPatioAndDataHoraMovimentacaoBetweenOrderByDataHoraMovimentacaoDesc(
-                patio.getIdPatio(), inicioMes, fimMes);
-        
-        int totalMovimentacoes = movimentacoes.size();
+        // Contar movimentações históricas (rollup horário)
+        long totalMovimentacoes = rollupMovimentacao.agregar(inicioMes, fimMes, patio.getIdPatio()).getTotal();
         List<br.com.fiap.mottu.model.Box> boxes = boxRepository.findByPatioIdPatio(patio.getIdPatio());
         int totalBoxes = boxes.size();
         
@@ -586,14 +568,9 @@ public class RelatorioService {
         LocalDateTime inicioSemana = LocalDateTime.now().minusDays(7);
         LocalDateTime fimSemana = LocalDateTime.now();
         
-        // Buscar movimentações no mesmo horário nos últimos 7 dias
-        List<LogMovimentacao> movimentacoes = logRepository.findByPatioIdPatioAndDataHoraMovimentacaoBetweenOrderByDataHoraMovimentacaoDesc(
-                patio.getIdPatio(), inicioSemana, fimSemana);
-        
-        // Calcular ocupação média no horário específico
-        long movimentacoesNoHorario = movimentacoes.stream()
-                .filter(m -> m.getDataHoraMovimentacao().getHour() == hora)
-                .count();
+        // Movimentações no mesmo horário nos últimos 7 dias (rollup horário do pátio)
+        long movimentacoesNoHorario = rollupMovimentacao.agregar(inicioSemana, fimSemana, patio.getIdPatio())
+                .getMovimentacoesNaHora(hora);
         
         List<br.com.fiap.mottu.model.Box> boxes = boxRepository.findByPatioIdPatio(patio.getIdPatio());
         int totalBoxes = boxes.size();
@@ -914,18 +891,24 @@ public class RelatorioService {
     }
 
     /**
-     * Executa relatório de Manutenção - DADOS REAIS baseados no status dos veículos
+     * Executa relatório de Manutenção - DADOS REAIS baseados no status dos veículos.
+     * Veículos, boxes e a quebra por pátio são carregados em paralelo ({@link SecoesRelatorio}).
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public java.util.Map<String, Object> executarRelatorioManutencao(java.util.Map<String, Object> parametros) {
         log.info("Executando relatório de manutenção com dados reais");
         
         java.util.Map<String, Object> resultado = new java.util.HashMap<>();
         
-        try {
+        try (SecoesRelatorio.Execucao execucao = secoesRelatorio.iniciar("manutencao")) {
             LocalDateTime agora = LocalDateTime.now();
+            var secaoVeiculos = execucao.secao("veiculos", veiculoRepository::findAll, List.<br.com.fiap.mottu.model.Veiculo>of());
+            var secaoBoxes = execucao.secao("boxes", boxRepository::findAll, List.<br.com.fiap.mottu.model.Box>of());
+            var secaoPatios = execucao.secao("utilizacaoPorPatio", this::calcularUtilizacaoPorPatio,
+                    new UtilizacaoPatios(0, new java.util.HashMap<>()));
             
             // 1. Status dos Veículos (OPERACIONAL, EM_MANUTENCAO, INATIVO)
-            List<br.com.fiap.mottu.model.Veiculo> todosVeiculos = this.veiculoRepository.findAll();
+            List<br.com.fiap.mottu.model.Veiculo> todosVeiculos = secaoVeiculos.obter();
             
             Long veiculosOperacionais = todosVeiculos.stream()
                 .filter(veiculo -> "OPERACIONAL".equals(veiculo.getStatus()))
@@ -940,7 +923,7 @@ public class RelatorioService {
                 .count();
             
             // 2. Status dos Boxes (L=Livre, O=Ocupado, M=Manutenção)
-            List<br.com.fiap.mottu.model.Box> todosBoxes = boxRepository.findAll();
+            List<br.com.fiap.mottu.model.Box> todosBoxes = secaoBoxes.obter();
             
             Long boxesLivres = todosBoxes.stream()
                 .filter(box -> "L".equals(box.getStatus()))
@@ -955,40 +938,11 @@ public class RelatorioService {
                 .count();
             
             // 3. Análise por Pátio - GARANTIR QUE TODOS OS PÁTIOS SEJAM INCLUÍDOS
-            List<Patio> patios = patioRepository.findAll();
-            java.util.Map<String, Object> utilizacaoPorPatio = new java.util.HashMap<>();
-            
-            log.info("Processando {} pátios encontrados no banco", patios.size());
-            
-            for (Patio patio : patios) {
-                List<br.com.fiap.mottu.model.Box> boxesPatio = boxRepository.findByPatioIdPatio(patio.getIdPatio());
-                Long boxesOcupadosPatio = boxesPatio.stream()
-                    .filter(box -> "O".equals(box.getStatus()))
-                    .count();
-                Long boxesManutencaoPatio = boxesPatio.stream()
-                    .filter(box -> "M".equals(box.getStatus()))
-                    .count();
-                Long boxesLivresPatio = boxesPatio.stream()
-                    .filter(box -> "L".equals(box.getStatus()))
-                    .count();
-                
-                java.util.Map<String, Object> dadosPatio = new java.util.HashMap<>();
-                dadosPatio.put("totalBoxes", boxesPatio.size());
-                dadosPatio.put("boxesOcupados", boxesOcupadosPatio);
-                dadosPatio.put("boxesManutencao", boxesManutencaoPatio);
-                dadosPatio.put("boxesLivres", boxesLivresPatio);
-                dadosPatio.put("taxaUtilizacao", boxesPatio.size() > 0 ? 
-                    (double) boxesOcupadosPatio / boxesPatio.size() : 0.0);
-                
-                utilizacaoPorPatio.put(patio.getNomePatio(), dadosPatio);
-                
-                log.info("Pátio {}: {} boxes total, {} ocupados, {} manutenção, {} livres", 
-                    patio.getNomePatio(), boxesPatio.size(), boxesOcupadosPatio, 
-                    boxesManutencaoPatio, boxesLivresPatio);
-            }
+            UtilizacaoPatios utilizacao = secaoPatios.obter();
+            java.util.Map<String, Object> utilizacaoPorPatio = utilizacao.porPatio();
             
             // Se não há pátios cadastrados, criar dados de exemplo
-            if (patios.isEmpty()) {
+            if (utilizacao.totalPatios() == 0 && secaoPatios.isConcluida()) {
                 log.warn("Nenhum pátio encontrado no banco, criando dados de exemplo");
                 utilizacaoPorPatio.put("Pátio Central", java.util.Map.of(
                     "totalBoxes", 100,
@@ -1054,11 +1008,12 @@ public class RelatorioService {
                 "boxesLivres", boxesLivres,
                 "boxesOcupados", boxesOcupados,
                 "boxesManutencao", boxesManutencao,
-                "patiosAtivos", patios.size()
+                "patiosAtivos", utilizacao.totalPatios()
             ));
             resultado.put("utilizacaoPorPatio", utilizacaoPorPatio);
             resultado.put("agendamentos", agendamentos);
             resultado.put("historicoManutencoes", historicoManutencoes);
+            resultado.put("metadados", execucao.metadados());
             
             log.info("Relatório de manutenção executado com sucesso. {} veículos operacionais, {} em manutenção, {} inativos", 
                 veiculosOperacionais, veiculosEmManutencao, veiculosInativos);
@@ -1072,37 +1027,73 @@ public class RelatorioService {
         return resultado;
     }
 
+    /**
+     * Quebra de boxes por pátio do relatório de manutenção (seção própria, em paralelo às demais).
+     */
+    private UtilizacaoPatios calcularUtilizacaoPorPatio() {
+        List<Patio> patios = patioRepository.findAll();
+        java.util.Map<String, Object> utilizacaoPorPatio = new java.util.HashMap<>();
+        
+        log.info("Processando {} pátios encontrados no banco", patios.size());
+        
+        for (Patio patio : patios) {
+            List<br.com.fiap.mottu.model.Box> boxesPatio = boxRepository.findByPatioIdPatio(patio.getIdPatio());
+            Long boxesOcupadosPatio = boxesPatio.stream()
+                .filter(box -> "O".equals(box.getStatus()))
+                .count();
+            Long boxesManutencaoPatio = boxesPatio.stream()
+                .filter(box -> "M".equals(box.getStatus()))
+                .count();
+            Long boxesLivresPatio = boxesPatio.stream()
+                .filter(box -> "L".equals(box.getStatus()))
+                .count();
+            
+            java.util.Map<String, Object> dadosPatio = new java.util.HashMap<>();
+            dadosPatio.put("totalBoxes", boxesPatio.size());
+            dadosPatio.put("boxesOcupados", boxesOcupadosPatio);
+            dadosPatio.put("boxesManutencao", boxesManutencaoPatio);
+            dadosPatio.put("boxesLivres", boxesLivresPatio);
+            dadosPatio.put("taxaUtilizacao", boxesPatio.size() > 0 ? 
+                (double) boxesOcupadosPatio / boxesPatio.size() : 0.0);
+            
+            utilizacaoPorPatio.put(patio.getNomePatio(), dadosPatio);
+            
+            log.info("Pátio {}: {} boxes total, {} ocupados, {} manutenção, {} livres", 
+                patio.getNomePatio(), boxesPatio.size(), boxesOcupadosPatio, 
+                boxesManutencaoPatio, boxesLivresPatio);
+        }
+        return new UtilizacaoPatios(patios.size(), utilizacaoPorPatio);
+    }
+
+    private record UtilizacaoPatios(int totalPatios, java.util.Map<String, Object> porPatio) {
+    }
+
     /**
      * Executa relatório de Analytics Avançado
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public java.util.Map<String, Object> executarRelatorioAnalyticsAvancado(java.util.Map<String, Object> parametros) {
         log.info("Executando relatório de analytics avançado");
         
         java.util.Map<String, Object> resultado = new java.util.HashMap<>();
         
-        try {
+        try (SecoesRelatorio.Execucao execucao = secoesRelatorio.iniciar("analytics-avancado")) {
             LocalDateTime agora = LocalDateTime.now();
             LocalDateTime inicio = agora.minusDays(30);
+            var secaoMovimentacoes = execucao.secao("movimentacoes",
+                    () -> rollupMovimentacao.agregar(inicio, agora, null), new AgregadoMovimentacoes());
+            var secaoTempoMedio = execucao.secao("tempoMedio", rollupMovimentacao::tempoMedioEstacionamentoGlobal, null);
             
-            // 1. Análise Preditiva (baseada em dados históricos)
-            List<LogMovimentacao> movimentacoes = logRepository.findByDataHoraMovimentacaoBetweenOrderByDataHoraMovimentacaoDesc(inicio, agora);
+            // 1. Análise Preditiva (baseada no rollup horário dos últimos 30 dias)
+            AgregadoMovimentacoes movimentacoes = secaoMovimentacoes.obter();
             
             // 2. Padrões de Comportamento
-            java.util.Map<Integer, Long> movimentacoesPorHora = movimentacoes.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                    m -> m.getDataHoraMovimentacao().getHour(),
-                    java.util.stream.Collectors.counting()
-                ));
+            java.util.Map<Integer, Long> movimentacoesPorHora = movimentacoesPorHora(movimentacoes);
             
             // 3. Análise de Tendências
-            Double tempoMedioGlobal = logRepository.findTempoMedioEstacionamentoGlobal();
-            List<Object[]> topBoxes = logRepository.findTopBoxesUtilizados(
-                org.springframework.data.domain.PageRequest.of(0, 10));
-            List<Object[]> topVeiculos = logRepository.findTopVeiculosFrequentes(
-                org.springframework.data.domain.PageRequest.of(0, 10));
+            Double tempoMedioGlobal = secaoTempoMedio.obter();
             
-            // 4. Previsões (simplificadas)
-            Double previsaoOcupacao = calcularPrevisaoOcupacao(movimentacoes);
+            // 4. Insights
             List<java.util.Map<String, Object>> insights = gerarInsights(movimentacoes);
             
             resultado.put("status", "sucesso");
@@ -1124,12 +1115,13 @@ public class RelatorioService {
                 "previsoesHoje", previsoesHoje,
                 "confiancaMedia", Math.round(confiancaMedia * 100.0) / 100.0,
                 "insightsGerados", insightsGerados,
-                "totalMovimentacoes", movimentacoes.size(),
+                "totalMovimentacoes", movimentacoes.getTotal(),
                 "tempoMedioEstacionamento", tempoMedioGlobal != null ? tempoMedioGlobal : 0.0
             ));
             resultado.put("graficoPrevisoes", graficoPrevisoes);
             resultado.put("distribuicaoInsights", distribuicaoInsights);
             resultado.put("insights", insights);
+            resultado.put("metadados", execucao.metadados());
             
             log.info("Relatório de analytics avançado executado com sucesso");
             
@@ -1145,18 +1137,15 @@ public class RelatorioService {
     /**
      * Calcula precisão do modelo baseada em dados históricos
      */
-    private double calcularPrecisaoModelo(List<LogMovimentacao> movimentacoes) {
-        if (movimentacoes.isEmpty()) return 85.0;
+    private double calcularPrecisaoModelo(AgregadoMovimentacoes movimentacoes) {
+        if (movimentacoes.getTotal() == 0) return 85.0;
         
         // Simular precisão baseada na quantidade de dados e padrões
         double basePrecisao = 80.0;
-        double bonusDados = Math.min(15.0, movimentacoes.size() / 10.0);
+        double bonusDados = Math.min(15.0, movimentacoes.getTotal() / 10.0);
         
         // Bonus por diversidade de horários
-        long horariosDistintos = movimentacoes.stream()
-            .mapToInt(m -> m.getDataHoraMovimentacao().getHour())
-            .distinct()
-            .count();
+        long horariosDistintos = movimentacoes.getHorasComMovimento();
         double bonusHorarios = Math.min(5.0, horariosDistintos * 0.5);
         
         return Math.min(98.0, basePrecisao + bonusDados + bonusHorarios);
@@ -1165,47 +1154,24 @@ public class RelatorioService {
     /**
      * Calcula previsões para hoje baseadas em padrões históricos
      */
-    private int calcularPrevisoesHoje(List<LogMovimentacao> movimentacoes, LocalDateTime agora) {
-        if (movimentacoes.isEmpty()) return 0;
-        
-        // Contar movimentações por dia da semana
-        java.util.Map<java.time.DayOfWeek, Long> movimentacoesPorDia = movimentacoes.stream()
-            .collect(java.util.stream.Collectors.groupingBy(
-                m -> m.getDataHoraMovimentacao().getDayOfWeek(),
-                java.util.stream.Collectors.counting()
-            ));
-        
-        java.time.DayOfWeek diaAtual = agora.getDayOfWeek();
-        Long mediaMovimentacoes = movimentacoesPorDia.getOrDefault(diaAtual, 0L);
-        
-        // Calcular média dos últimos 7 dias para o mesmo dia da semana
-        long totalDias = movimentacoes.stream()
-            .mapToLong(m -> 1L)
-            .sum();
-        
-        if (totalDias > 0) {
-            return (int) Math.max(0, mediaMovimentacoes);
-        }
-        
-        return 0;
+    private int calcularPrevisoesHoje(AgregadoMovimentacoes movimentacoes, LocalDateTime agora) {
+        // Movimentações do período no mesmo dia da semana de hoje
+        return (int) movimentacoes.getMovimentacoesNoDia(agora.getDayOfWeek());
     }
     
     /**
      * Calcula confiança média dos analytics
      */
-    private double calcularConfiancaAnalytics(List<LogMovimentacao> movimentacoes) {
-        if (movimentacoes.isEmpty()) return 70.0;
+    private double calcularConfiancaAnalytics(AgregadoMovimentacoes movimentacoes) {
+        if (movimentacoes.getTotal() == 0) return 70.0;
         
         double baseConfianca = 75.0;
         
         // Bonus por quantidade de dados
-        double bonusVolume = Math.min(15.0, Math.log(movimentacoes.size() + 1) * 2);
+        double bonusVolume = Math.min(15.0, Math.log(movimentacoes.getTotal() + 1) * 2);
         
         // Bonus por diversidade de pátios
-        long patiosDistintos = movimentacoes.stream()
-            .map(m -> m.getPatio().getIdPatio())
-            .distinct()
-            .count();
+        long patiosDistintos = movimentacoes.getPatiosComMovimento();
         double bonusPatios = Math.min(10.0, patiosDistintos * 2);
         
         return Math.min(95.0, baseConfianca + bonusVolume + bonusPatios);
@@ -1316,29 +1282,31 @@ public class RelatorioService {
     /**
      * Executa relatório de Monitoramento de SLA
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public java.util.Map<String, Object> executarRelatorioMonitoramentoSLA(java.util.Map<String, Object> parametros) {
         log.info("Executando relatório de monitoramento de SLA");
         
         java.util.Map<String, Object> resultado = new java.util.HashMap<>();
         
-        try {
+        try (SecoesRelatorio.Execucao execucao = secoesRelatorio.iniciar("sla")) {
             LocalDateTime agora = LocalDateTime.now();
             LocalDateTime inicio = agora.minusDays(1); // Últimas 24h
+            var secaoMovimentacoes = execucao.secao("movimentacoes",
+                    () -> rollupMovimentacao.agregar(inicio, agora, null).getTotal(), 0L);
+            var secaoPatios = execucao.secao("patios", patioRepository::findAll, List.<Patio>of());
+            var secaoTempoMedio = execucao.secao("tempoMedio", rollupMovimentacao::tempoMedioEstacionamentoGlobal, null);
             
-            // 1. Métricas de SLA
-            Long totalMovimentacoes = logRepository.countByTipoMovimentacaoAndPeriodo(
-                TipoMovimentacao.ENTRADA, inicio, agora) +
-                logRepository.countByTipoMovimentacaoAndPeriodo(
-                TipoMovimentacao.SAIDA, inicio, agora);
+            // 1. Métricas de SLA (rollup horário das últimas 24h)
+            Long totalMovimentacoes = secaoMovimentacoes.obter();
             
             // 2. Disponibilidade do Sistema
-            List<Patio> patios = patioRepository.findAll();
+            List<Patio> patios = secaoPatios.obter();
             Long patiosAtivos = patios.stream()
                 .filter(p -> "A".equals(p.getStatus()))
                 .count();
             
             // 3. Tempo de Resposta (baseado em tempo de estacionamento)
-            Double tempoMedioEstacionamento = logRepository.findTempoMedioEstacionamentoGlobal();
+            Double tempoMedioEstacionamento = secaoTempoMedio.obter();
             
             // 4. SLA Metrics
             Double disponibilidade = patios.size() > 0 ? (double) patiosAtivos / patios.size() : 0.0;
@@ -1355,6 +1323,7 @@ public class RelatorioService {
                 "patiosAtivos", patiosAtivos,
                 "patiosTotal", patios.size()
             ));
+            resultado.put("metadados", execucao.metadados());
             
             log.info("Relatório de monitoramento de SLA executado com sucesso");
             
@@ -1368,24 +1337,10 @@ public class RelatorioService {
     }
 
     // Métodos auxiliares para analytics avançado
-    private Double calcularPrevisaoOcupacao(List<LogMovimentacao> movimentacoes) {
-        if (movimentacoes.isEmpty()) return 0.0;
-        
-        // Análise simples de tendência
-        Long entradas = movimentacoes.stream()
-            .filter(m -> m.getTipoMovimentacao() == TipoMovimentacao.ENTRADA)
-            .count();
-        Long saidas = movimentacoes.stream()
-            .filter(m -> m.getTipoMovimentacao() == TipoMovimentacao.SAIDA)
-            .count();
-        
-        return entradas > saidas ? 75.0 : 45.0; // Previsão simplificada
-    }
-
-    private List<java.util.Map<String, Object>> gerarInsights(List<LogMovimentacao> movimentacoes) {
+    private List<java.util.Map<String, Object>> gerarInsights(AgregadoMovimentacoes movimentacoes) {
         List<java.util.Map<String, Object>> insights = new ArrayList<>();
         
-        if (!movimentacoes.isEmpty()) {
+        if (movimentacoes.getTotal() > 0) {
             insights.add(java.util.Map.of(
                 "tipo", "Padrão de Uso",
                 "descricao", "Pico de movimentação detectado entre 8h-10h",
@@ -1439,14 +1394,18 @@ public class RelatorioService {
     }
 
     /**
-     * Obtém dados do Dashboard IA com análise preditiva e insights
+     * Obtém dados do Dashboard IA com análise preditiva e insights.
+     * Todas as seções derivam da ocupação atual: ela é a única consulta, feita sob o prazo
+     * do {@link SecoesRelatorio}; o restante é cálculo em memória.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public java.util.Map<String, Object> getDadosDashboardIA() {
         log.info("Gerando dados do Dashboard IA");
         
-        try {
+        try (SecoesRelatorio.Execucao execucao = secoesRelatorio.iniciar("dashboard-ia")) {
             // Obter dados de ocupação atual
-            List<OcupacaoAtualDto> ocupacaoAtual = ocupacaoService.getOcupacaoAtual();
+            List<OcupacaoAtualDto> ocupacaoAtual = execucao.secao("ocupacao",
+                    () -> ocupacaoService.getOcupacaoAtual(), List.<OcupacaoAtualDto>of()).obter();
             
             // Calcular métricas de IA
             double previsao1h = calcularPrevisao1h(ocupacaoAtual);
@@ -1472,6 +1431,7 @@ public class RelatorioService {
             dadosIA.put("insights", insights);
             dadosIA.put("previsoes", previsoes);
             dadosIA.put("timestamp", LocalDateTime.now());
+            dadosIA.put("metadados", execucao.metadados());
             
             log.info("Dados do Dashboard IA gerados com sucesso");
             return dadosIA;
@@ -1645,79 +1605,8 @@ public class RelatorioService {
     }
     
     public java.util.Map<String, Object> getAnaliseComportamental() {
-        log.info("Gerando análise comportamental");
-        
-        try {
-            // Buscar dados reais de movimentação
-            List<LogMovimentacao> movimentacoes = logRepository.findAll();
-            
-            // Análise de horários de pico
-            java.util.Map<String, Integer> horariosPico = new java.util.HashMap<>();
-            java.util.Map<String, Integer> diasSemana = new java.util.HashMap<>();
-            java.util.Map<String, Integer> tiposVeiculo = new java.util.HashMap<>();
-            
-            for (LogMovimentacao mov : movimentacoes) {
-                // Horários de pico
-                String hora = mov.getDataHoraMovimentacao().getHour() + ":00";
-                horariosPico.put(hora, horariosPico.getOrDefault(hora, 0) + 1);
-                
-                // Dias da semana
-                String diaSemana = mov.getDataHoraMovimentacao().getDayOfWeek().toString();
-                diasSemana.put(diaSemana, diasSemana.getOrDefault(diaSemana, 0) + 1);
-                
-                // Tipos de veículo (se disponível)
-                if (mov.getVeiculo() != null) {
-                    String tipo = mov.getVeiculo().getFabricante();
-                    tiposVeiculo.put(tipo, tiposVeiculo.getOrDefault(tipo, 0) + 1);
-                }
-            }
-            
-            // Calcular insights
-            String horarioPico = horariosPico.entrySet().stream()
-                .max(java.util.Map.Entry.comparingByValue())
-                .map(java.util.Map.Entry::getKey)
-                .orElse("N/A");
-                
-            String diaMaisMovimentado = diasSemana.entrySet().stream()
-                .max(java.util.Map.Entry.comparingByValue())
-                .map(java.util.Map.Entry::getKey)
-                .orElse("N/A");
-            
-            // Gerar recomendações
-            List<java.util.Map<String, Object>> recomendacoes = new ArrayList<>();
-            if (horariosPico.containsKey("08:00") || horariosPico.containsKey("09:00")) {
-                recomendacoes.add(java.util.Map.of(
-                    "tipo", "Horário de Pico",
-                    "descricao", "Maior movimento no período da manhã",
-                    "acao", "Considere aumentar a capacidade nos horários de pico"
-                ));
-            }
-            
-            if (diasSemana.getOrDefault("MONDAY", 0) > diasSemana.getOrDefault("SUNDAY", 0)) {
-                recomendacoes.add(java.util.Map.of(
-                    "tipo", "Padrão Semanal",
-                    "descricao", "Maior movimento em dias úteis",
-                    "acao", "Otimize recursos para dias de semana"
-                ));
-            }
-            
-            java.util.Map<String, Object> resultado = new java.util.HashMap<>();
-            resultado.put("horariosPico", horariosPico);
-            resultado.put("diasSemana", diasSemana);
-            resultado.put("tiposVeiculo", tiposVeiculo);
-            resultado.put("horarioPico", horarioPico);
-            resultado.put("diaMaisMovimentado", diaMaisMovimentado);
-            resultado.put("totalMovimentacoes", movimentacoes.size());
-            resultado.put("recomendacoes", recomendacoes);
-            resultado.put("timestamp", LocalDateTime.now());
-            
-            log.info("Análise comportamental gerada com sucesso");
-            return resultado;
-            
-        } catch (Exception e) {
-            log.error("Erro ao gerar análise comportamental", e);
-            throw new RuntimeException("Erro ao gerar análise comportamental", e);
-        }
+        // Agregação em uma passada movida para ComportamentalService
+        return comportamentalService.getAnaliseComportamental();
     }
     
     private double calcularFatorHorario(int hora) {
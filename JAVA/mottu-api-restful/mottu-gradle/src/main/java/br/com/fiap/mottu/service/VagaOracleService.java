@@ -1,5 +1,10 @@
 package br.com.fiap.mottu.service;
 
+import br.com.fiap.mottu.service.alocacao.AlocadorVagas;
+import br.com.fiap.mottu.service.alocacao.IndiceVagasLivres;
+import br.com.fiap.mottu.service.stream.MudancaEvento;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -16,9 +21,13 @@ import java.util.*;
 public class VagaOracleService {
 
     private final JdbcTemplate jdbc;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AlocadorVagas alocadorVagas;
 
-    public VagaOracleService(JdbcTemplate jdbc) {
+    public VagaOracleService(JdbcTemplate jdbc, ApplicationEventPublisher eventPublisher, AlocadorVagas alocadorVagas) {
         this.jdbc = jdbc;
+        this.eventPublisher = eventPublisher;
+        this.alocadorVagas = alocadorVagas;
     }
 
     @Transactional(readOnly = true)
@@ -66,26 +75,6 @@ public class VagaOracleService {
         return key.longValue();
     }
 
-    @Transactional(readOnly = true)
-    public Optional<Long> firstBoxLivreId() {
-        String sql = """
-            SELECT b.ID_BOX
-              FROM TB_BOX b
-              LEFT JOIN TB_VEICULOBOX vb ON vb.TB_BOX_ID_BOX = b.ID_BOX
-             WHERE b.STATUS = 'L'
-               AND vb.TB_BOX_ID_BOX IS NULL
-             ORDER BY b.ID_BOX
-            """;
-        List<Long> ids = jdbc.query(sql, (rs, i) -> rs.getLong(1));
-        return ids.isEmpty() ? Optional.empty() : Optional.of(ids.getFirst());
-    }
-
-    @Transactional
-    public void ocuparBox(Long boxId) {
-        // CORREÇÃO: No modelo atual, STATUS='O' significa ocupado
-        jdbc.update("UPDATE TB_BOX SET STATUS = 'O' WHERE ID_BOX = ?", boxId);
-    }
-
     @Transactional
     public void vincularVeiculoBox(Long veiculoId, Long boxId) {
         jdbc.update("INSERT INTO TB_VEICULOBOX (TB_VEICULO_ID_VEICULO, TB_BOX_ID_BOX) VALUES (?, ?)", veiculoId, boxId);
@@ -141,6 +130,7 @@ public class VagaOracleService {
             log.info("✅ VagaOracleService: {} vínculo(s) removido(s) de TB_VEICULOBOX", rowsVeiculoBox);
         }
         
+        eventPublisher.publishEvent(MudancaEvento.of(TopicoMudanca.BOX, null, boxId, "LIBERADO"));
         log.info("✅ VagaOracleService: Box {} liberado com sucesso", boxId);
     }
 
@@ -159,21 +149,37 @@ public class VagaOracleService {
             throw new IllegalStateException("Placa já alocada no box " + ja.get().idBox() + " (" + ja.get().nomeBox() + ")");
         }
 
-        Long boxId = (preferidoBoxId != null) ? preferidoBoxId
-                : firstBoxLivreId().orElseThrow(() -> new IllegalStateException("Não há boxes livres."));
-
-        Integer ocupados = jdbc.queryForObject(
-                "SELECT COUNT(1) FROM TB_VEICULOBOX WHERE TB_BOX_ID_BOX = ?",
-                Integer.class, boxId
-        );
-        if (ocupados != null && ocupados > 0) throw new IllegalStateException("Box já ocupado: " + boxId);
+        // Ocupação atômica (UPDATE condicional): dois operadores nunca recebem o mesmo box
+        Long boxId;
+        Long patioId;
+        if (preferidoBoxId != null) {
+            // O pátio define a faixa de lock do alocador e o conjunto do índice de vagas
+            patioId = buscarPatioDoBox(preferidoBoxId)
+                    .orElseThrow(() -> new IllegalStateException("Box não encontrado ou sem pátio: " + preferidoBoxId));
+            if (!alocadorVagas.alocarBox(preferidoBoxId, patioId)) {
+                throw new IllegalStateException("Box já ocupado: " + preferidoBoxId);
+            }
+            boxId = preferidoBoxId;
+        } else {
+            IndiceVagasLivres.VagaLivre vaga = alocadorVagas.alocar(null)
+                    .orElseThrow(() -> new IllegalStateException("Não há boxes livres."));
+            boxId = vaga.boxId();
+            patioId = vaga.patioId();
+        }
 
-        ocuparBox(boxId);
         vincularVeiculoBox(veiculoId, boxId);
+        eventPublisher.publishEvent(MudancaEvento.of(TopicoMudanca.BOX, patioId, boxId, "OCUPADO"));
 
         return new AlocacaoResult(veiculoId, boxId, p);
     }
 
+    /** Pátio ao qual o box pertence (vazio se o box não existe ou não tem pátio). */
+    private Optional<Long> buscarPatioDoBox(Long boxId) {
+        List<Long> patios = jdbc.query("SELECT TB_PATIO_ID_PATIO FROM TB_BOX WHERE ID_BOX = ? AND TB_PATIO_ID_PATIO IS NOT NULL",
+                (rs, i) -> rs.getLong(1), boxId);
+        return patios.stream().findFirst();
+    }
+
     /** NOVO: retorna o box atual da placa, se houver (id e nome do box). */
     @Transactional(readOnly = true)
     public Optional<BuscaBox> buscarBoxPorPlaca(String placa) {
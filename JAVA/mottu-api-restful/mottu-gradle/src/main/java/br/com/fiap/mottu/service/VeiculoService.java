@@ -16,11 +16,15 @@ import br.com.fiap.mottu.repository.VeiculoRepository;
 import br.com.fiap.mottu.repository.BoxRepository;
 import br.com.fiap.mottu.exception.DuplicatedResourceException;
 import br.com.fiap.mottu.exception.ResourceNotFoundException;
+import br.com.fiap.mottu.service.ocr.PlacaFrotaAlterada;
+import br.com.fiap.mottu.service.stream.MudancaEvento;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import br.com.fiap.mottu.specification.VeiculoSpecification;
 import br.com.fiap.mottu.config.LoggingConfig; // Configuração de logging estruturado
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -30,6 +34,7 @@ import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.stream.Collectors;
 import java.util.List;
+import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -43,6 +48,7 @@ public class VeiculoService {
     private final ZonaMapper zonaMapper;
     private final BoxMapper boxMapper;
     private final BoxRepository boxRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public VeiculoService(VeiculoRepository veiculoRepository,
                           VeiculoMapper veiculoMapper,
@@ -50,7 +56,8 @@ public class VeiculoService {
                           PatioMapper patioMapper,
                           ZonaMapper zonaMapper,
                           BoxMapper boxMapper,
-                          BoxRepository boxRepository) {
+                          BoxRepository boxRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.veiculoRepository = veiculoRepository;
         this.veiculoMapper = veiculoMapper;
         this.rastreamentoMapper = rastreamentoMapper;
@@ -58,6 +65,7 @@ public class VeiculoService {
         this.zonaMapper = zonaMapper;
         this.boxMapper = boxMapper;
         this.boxRepository = boxRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -181,6 +189,8 @@ public class VeiculoService {
             }
             
             Veiculo veiculoSalvo = veiculoRepository.save(veiculo);
+            publicarMudanca(veiculoSalvo.getIdVeiculo(), "CRIADO");
+            eventPublisher.publishEvent(new PlacaFrotaAlterada(null, veiculoSalvo.getPlaca()));
             
             log.info("Veículo criado com sucesso", 
                 LoggingConfig.LogContext.create()
@@ -236,8 +246,14 @@ public class VeiculoService {
         }
 
         // O mapper cuidará da atualização dos campos, incluindo tagBleId e status
+        String placaAnterior = existente.getPlaca();
         veiculoMapper.partialUpdate(dto, existente);
-        return veiculoRepository.save(existente);
+        Veiculo veiculoAtualizado = veiculoRepository.save(existente);
+        publicarMudanca(id, "ATUALIZADO");
+        if (!Objects.equals(placaAnterior, veiculoAtualizado.getPlaca())) {
+            eventPublisher.publishEvent(new PlacaFrotaAlterada(placaAnterior, veiculoAtualizado.getPlaca()));
+        }
+        return veiculoAtualizado;
     }
 
     @Transactional
@@ -256,6 +272,8 @@ public class VeiculoService {
         });
         
         veiculoRepository.deleteById(id);
+        publicarMudanca(id, "REMOVIDO");
+        eventPublisher.publishEvent(new PlacaFrotaAlterada(veiculo.getPlaca(), null));
     }
 
     @Transactional(readOnly = true)
@@ -372,5 +390,11 @@ public class VeiculoService {
         // Formata o número com 3 dígitos (001, 002, 003, etc.)
         return String.format("TAG%03d", proximoNumero);
     }
-}
 
+    /**
+     * Publica a mudança para os streams SSE (entregue pelo MudancaHub após o commit)
+     */
+    private void publicarMudanca(Long veiculoId, String acao) {
+        eventPublisher.publishEvent(MudancaEvento.of(TopicoMudanca.VEICULO, null, veiculoId, acao));
+    }
+}
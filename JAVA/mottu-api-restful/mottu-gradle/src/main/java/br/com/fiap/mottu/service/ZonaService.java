@@ -12,12 +12,15 @@ import br.com.fiap.mottu.repository.PatioRepository;
 import br.com.fiap.mottu.repository.VeiculoRepository;
 import br.com.fiap.mottu.repository.ZonaRepository;
 import br.com.fiap.mottu.repository.relacionamento.VeiculoZonaRepository;
+import br.com.fiap.mottu.service.stream.MudancaEvento;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import br.com.fiap.mottu.exception.DuplicatedResourceException;
 import br.com.fiap.mottu.exception.ResourceNotFoundException;
 import br.com.fiap.mottu.specification.ZonaSpecification;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -37,15 +40,18 @@ public class ZonaService {
     private final PatioRepository patioRepository;
     private final VeiculoRepository veiculoRepository;
     private final VeiculoZonaRepository veiculoZonaRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ZonaService(ZonaRepository zonaRepository, ZonaMapper zonaMapper,
                        PatioRepository patioRepository, VeiculoRepository veiculoRepository,
-                       VeiculoZonaRepository veiculoZonaRepository) {
+                       VeiculoZonaRepository veiculoZonaRepository,
+                       ApplicationEventPublisher eventPublisher) {
         this.zonaRepository = zonaRepository;
         this.zonaMapper = zonaMapper;
         this.patioRepository = patioRepository;
         this.veiculoRepository = veiculoRepository;
         this.veiculoZonaRepository = veiculoZonaRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // LISTAR E BUSCAR
@@ -100,7 +106,9 @@ public class ZonaService {
         zona.setPatio(patio);
 
         log.info("Criando zona: Nome={}, Pátio={}", nome, patio.getNomePatio());
-        return zonaRepository.save(zona);
+        Zona zonaSalva = zonaRepository.save(zona);
+        publicarMudanca(patioId, zonaSalva.getIdZona(), "CRIADO");
+        return zonaSalva;
     }
 
     @Transactional
@@ -128,7 +136,9 @@ public class ZonaService {
             zonaExistente.setPatio(novoPatio);
         }
 
-        return zonaRepository.save(zonaExistente);
+        Zona zonaAtualizada = zonaRepository.save(zonaExistente);
+        publicarMudanca(zonaAtualizada.getPatio().getIdPatio(), id, "ATUALIZADO");
+        return zonaAtualizada;
     }
 
     @Transactional
@@ -136,6 +146,7 @@ public class ZonaService {
     public void deletarZona(Long id) {
         Zona zona = buscarZonaPorId(id);
         zonaRepository.delete(zona);
+        publicarMudanca(zona.getPatio() != null ? zona.getPatio().getIdPatio() : null, id, "REMOVIDO");
     }
 
     // MÉTODOS DE ASSOCIAÇÃO VeiculoZona
@@ -185,4 +196,11 @@ public class ZonaService {
     public Long contarVeiculosPorZona(Long zonaId) {
         return veiculoZonaRepository.countByZonaIdZona(zonaId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Publica a mudança para os streams SSE (entregue pelo MudancaHub após o commit)
+     */
+    private void publicarMudanca(Long patioId, Long zonaId, String acao) {
+        eventPublisher.publishEvent(MudancaEvento.of(TopicoMudanca.ZONA, patioId, zonaId, acao));
+    }
+}
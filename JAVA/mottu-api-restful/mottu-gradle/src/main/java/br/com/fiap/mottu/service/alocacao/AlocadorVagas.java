@@ -0,0 +1,230 @@
+package br.com.fiap.mottu.service.alocacao;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Motor de alocação de vagas seguro sob concorrência.
+ *
+ * Cada candidata (do índice em memória ou, como reserva, do banco) só é entregue se:
+ * 1) nenhuma outra alocação em andamento neste nó a reservou ({@code emReserva}); e
+ * 2) o UPDATE condicional {@code STATUS = 'L'} afetou exatamente uma linha.
+ * Se a candidata perder a disputa, tenta-se a próxima. Os locks são por faixa de pátio
+ * (lock striping): check-ins do mesmo pátio são serializados, pátios diferentes seguem em paralelo.
+ */
+@Component
+@Slf4j
+public class AlocadorVagas {
+
+    /** Candidatas testadas antes de desistir quando o índice ou o banco estão disputados. */
+    static final int MAX_TENTATIVAS = 20;
+    private static final int MAX_RODADAS_BANCO = 3;
+    private static final int FAIXAS_DE_LOCK = 32;
+
+    private final IndiceVagasLivres indice;
+    private final ReivindicadorBox reivindicador;
+    private final ReentrantLock[] faixas = new ReentrantLock[FAIXAS_DE_LOCK];
+    /** Boxes ocupados por transações ainda não concluídas (invisíveis às outras sessões do banco). */
+    private final Set<Long> emReserva = ConcurrentHashMap.newKeySet();
+
+    public AlocadorVagas(IndiceVagasLivres indice, ReivindicadorBox reivindicador) {
+        this.indice = indice;
+        this.reivindicador = reivindicador;
+        for (int i = 0; i < faixas.length; i++) {
+            faixas[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Aloca a próxima vaga livre do pátio (ou de qualquer pátio quando patioId é null).
+     */
+    public Optional<IndiceVagasLivres.VagaLivre> alocar(Long patioId) {
+        ReentrantLock lock = faixa(patioId);
+        lock.lock();
+        try {
+            if (indice.isPronto()) {
+                for (int tentativa = 0; tentativa < MAX_TENTATIVAS; tentativa++) {
+                    Optional<IndiceVagasLivres.VagaLivre> candidata = indice.reservar(patioId);
+                    if (candidata.isEmpty()) {
+                        break;
+                    }
+                    if (reivindicar(candidata.get())) {
+                        return candidata;
+                    }
+                    // Entrada desatualizada: o box já não está livre no banco e sai do índice
+                    log.debug("Box ID {} do índice não estava livre no banco; tentando o próximo", candidata.get().boxId());
+                }
+            }
+
+            // Reserva pelo banco: as reservas pendentes ainda aparecem como livres para outras
+            // sessões, então a busca traz folga suficiente para pulá-las. Se todo o lote for
+            // perdido para check-ins de outros pátios/nós, busca um novo lote.
+            for (int rodada = 0; rodada < MAX_RODADAS_BANCO; rodada++) {
+                List<IndiceVagasLivres.VagaLivre> candidatas =
+                        reivindicador.buscarCandidatas(patioId, MAX_TENTATIVAS + emReserva.size());
+                if (candidatas.isEmpty()) {
+                    break;
+                }
+                for (IndiceVagasLivres.VagaLivre candidata : candidatas) {
+                    indice.remover(candidata.boxId());
+                    if (reivindicar(candidata)) {
+                        return Optional.of(candidata);
+                    }
+                }
+            }
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aloca até {@code quantidade} vagas de uma vez (check-in em lote).
+     * As candidatas de cada rodada são confirmadas com um único UPDATE condicional em batch;
+     * as que perderem a disputa são substituídas na rodada seguinte.
+     * @return vagas alocadas (pode ter menos itens que o pedido se o pátio lotar)
+     */
+    public List<IndiceVagasLivres.VagaLivre> alocarLote(Long patioId, int quantidade) {
+        List<IndiceVagasLivres.VagaLivre> alocadas = new ArrayList<>(quantidade);
+        ReentrantLock lock = faixa(patioId);
+        lock.lock();
+        try {
+            if (indice.isPronto()) {
+                while (alocadas.size() < quantidade) {
+                    List<IndiceVagasLivres.VagaLivre> rodada = new ArrayList<>();
+                    while (rodada.size() < quantidade - alocadas.size()) {
+                        Optional<IndiceVagasLivres.VagaLivre> candidata = indice.reservar(patioId);
+                        if (candidata.isEmpty()) {
+                            break;
+                        }
+                        rodada.add(candidata.get());
+                    }
+                    if (rodada.isEmpty()) {
+                        break;
+                    }
+                    alocadas.addAll(reivindicarLote(rodada, rodada.size()));
+                }
+            }
+
+            for (int rodada = 0; rodada < MAX_RODADAS_BANCO && alocadas.size() < quantidade; rodada++) {
+                int faltam = quantidade - alocadas.size();
+                List<IndiceVagasLivres.VagaLivre> candidatas =
+                        reivindicador.buscarCandidatas(patioId, faltam + emReserva.size());
+                if (candidatas.isEmpty()) {
+                    break;
+                }
+                alocadas.addAll(reivindicarLote(candidatas, faltam));
+            }
+            return alocadas;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aloca um box específico (escolhido pelo operador).
+     * @return false se outro check-in ficou com o box
+     */
+    public boolean alocarBox(Long boxId, Long patioId) {
+        ReentrantLock lock = faixa(patioId);
+        lock.lock();
+        try {
+            indice.remover(boxId);
+            return reivindicar(new IndiceVagasLivres.VagaLivre(boxId, patioId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean reivindicar(IndiceVagasLivres.VagaLivre vaga) {
+        if (!emReserva.add(vaga.boxId())) {
+            return false;
+        }
+        boolean ocupado;
+        try {
+            ocupado = reivindicador.ocuparSeLivre(vaga.boxId());
+        } catch (RuntimeException e) {
+            emReserva.remove(vaga.boxId());
+            throw e;
+        }
+        if (!ocupado) {
+            emReserva.remove(vaga.boxId());
+            return false;
+        }
+        concluirAoFimDaTransacao(vaga);
+        return true;
+    }
+
+    private List<IndiceVagasLivres.VagaLivre> reivindicarLote(List<IndiceVagasLivres.VagaLivre> candidatas, int limite) {
+        List<IndiceVagasLivres.VagaLivre> tentativas = new ArrayList<>();
+        for (IndiceVagasLivres.VagaLivre candidata : candidatas) {
+            if (tentativas.size() == limite) {
+                break;
+            }
+            indice.remover(candidata.boxId());
+            if (emReserva.add(candidata.boxId())) {
+                tentativas.add(candidata);
+            }
+        }
+        if (tentativas.isEmpty()) {
+            return List.of();
+        }
+
+        boolean[] ocupados;
+        try {
+            ocupados = reivindicador.ocuparSeLivres(tentativas.stream().map(IndiceVagasLivres.VagaLivre::boxId).toList());
+        } catch (RuntimeException e) {
+            tentativas.forEach(v -> emReserva.remove(v.boxId()));
+            throw e;
+        }
+        List<IndiceVagasLivres.VagaLivre> alocadas = new ArrayList<>();
+        for (int i = 0; i < tentativas.size(); i++) {
+            IndiceVagasLivres.VagaLivre vaga = tentativas.get(i);
+            if (ocupados[i]) {
+                concluirAoFimDaTransacao(vaga);
+                alocadas.add(vaga);
+            } else {
+                emReserva.remove(vaga.boxId());
+            }
+        }
+        return alocadas;
+    }
+
+    /**
+     * Mantém o box em reserva até o commit/rollback; no rollback ele volta ao índice.
+     * Sem transação ativa o UPDATE já foi confirmado e a reserva é liberada na hora.
+     */
+    private void concluirAoFimDaTransacao(IndiceVagasLivres.VagaLivre vaga) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            emReserva.remove(vaga.boxId());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                emReserva.remove(vaga.boxId());
+                if (status != STATUS_COMMITTED) {
+                    if (vaga.patioId() != null) {
+                        indice.devolver(vaga.boxId(), vaga.patioId());
+                    } else {
+                        indice.sincronizarBox(vaga.boxId());
+                    }
+                }
+            }
+        });
+    }
+
+    private ReentrantLock faixa(Long patioId) {
+        return faixas[Math.floorMod(Objects.hashCode(patioId), FAIXAS_DE_LOCK)];
+    }
+}
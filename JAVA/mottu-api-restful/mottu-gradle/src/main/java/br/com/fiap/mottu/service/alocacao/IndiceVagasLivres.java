@@ -0,0 +1,267 @@
+package br.com.fiap.mottu.service.alocacao;
+
+import br.com.fiap.mottu.service.stream.MudancaEvento;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice em memória das vagas livres por pátio.
+ *
+ * Substitui a varredura "busca todos os boxes livres + existsBy... por box" do check-in:
+ * cada pátio tem um conjunto ordenado e concorrente de IDs de box livres, e reservar uma vaga
+ * é um único pollFirst() atômico. O índice é aquecido a partir de TB_BOX/TB_ESTACIONAMENTO na
+ * subida da aplicação e mantido pelos eventos de mudança publicados após o commit. A reserva
+ * nunca substitui a confirmação no banco: quem reserva ainda executa o UPDATE condicional.
+ *
+ * A recarga monta mapas novos fora do caminho do check-in e os publica com uma única troca de
+ * referência; os ajustes feitos enquanto a consulta rodava são reaplicados no estado novo antes da troca.
+ */
+@Component
+@Slf4j
+public class IndiceVagasLivres {
+
+    public static final String SQL_VAGAS_LIVRES = """
+            SELECT b.ID_BOX, b.TB_PATIO_ID_PATIO
+            FROM TB_BOX b
+            WHERE b.STATUS = 'L'
+              AND b.TB_PATIO_ID_PATIO IS NOT NULL
+              AND NOT EXISTS (
+                  SELECT 1 FROM TB_ESTACIONAMENTO e
+                  WHERE e.TB_BOX_ID_BOX = b.ID_BOX AND e.ESTA_ESTACIONADO = 1
+              )
+              AND NOT EXISTS (SELECT 1 FROM TB_VEICULOBOX vb WHERE vb.TB_BOX_ID_BOX = b.ID_BOX)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Estado estado = new Estado();
+    /** Ajustes feitos durante uma recarga em andamento (null fora da recarga). */
+    private volatile Queue<Consumer<Estado>> ajustesDuranteRecarga;
+    /** Ajustes usam o lock de leitura (seguem em paralelo); só a troca do estado usa o de escrita. */
+    private final ReentrantReadWriteLock troca = new ReentrantReadWriteLock();
+
+    private volatile boolean pronto;
+
+    public IndiceVagasLivres(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Vaga reservada no índice (box + pátio).
+     */
+    public record VagaLivre(Long boxId, Long patioId) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        recarregar();
+    }
+
+    /**
+     * Reconstrói o índice a partir do banco. Em caso de falha o índice fica indisponível
+     * e o check-in volta a consultar o banco diretamente.
+     */
+    public synchronized void recarregar() {
+        long inicio = System.currentTimeMillis();
+        Queue<Consumer<Estado>> ajustes = new ConcurrentLinkedQueue<>();
+        comLockDeEscrita(() -> ajustesDuranteRecarga = ajustes);
+        try {
+            List<VagaLivre> vagas = jdbcTemplate.query(SQL_VAGAS_LIVRES,
+                    (rs, rowNum) -> new VagaLivre(rs.getLong("ID_BOX"), rs.getLong("TB_PATIO_ID_PATIO")));
+            Estado novo = new Estado();
+            for (VagaLivre vaga : vagas) {
+                novo.devolver(vaga.boxId(), vaga.patioId());
+            }
+            comLockDeEscrita(() -> {
+                ajustes.forEach(ajuste -> ajuste.accept(novo));
+                estado = novo;
+                ajustesDuranteRecarga = null;
+            });
+            pronto = true;
+            log.info("🅿️ Índice de vagas livres carregado: {} vaga(s) em {} pátio(s) ({} ms)",
+                    vagas.size(), novo.livresPorPatio.size(), System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            comLockDeEscrita(() -> ajustesDuranteRecarga = null);
+            pronto = false;
+            log.warn("⚠️ Não foi possível carregar o índice de vagas livres; check-in usará o banco: {}", e.getMessage());
+        }
+    }
+
+    private void comLockDeEscrita(Runnable acao) {
+        troca.writeLock().lock();
+        try {
+            acao.run();
+        } finally {
+            troca.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica o ajuste no estado atual e, durante uma recarga, guarda-o para o estado novo.
+     */
+    private void ajustar(Consumer<Estado> ajuste) {
+        troca.readLock().lock();
+        try {
+            ajuste.accept(estado);
+            Queue<Consumer<Estado>> ajustes = ajustesDuranteRecarga;
+            if (ajustes != null) {
+                ajustes.add(ajuste);
+            }
+        } finally {
+            troca.readLock().unlock();
+        }
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Reserva atomicamente a próxima vaga livre do pátio (ou de qualquer pátio quando patioId é null).
+     */
+    public Optional<VagaLivre> reservar(Long patioId) {
+        troca.readLock().lock();
+        try {
+            Optional<VagaLivre> vaga = estado.reservar(patioId);
+            Queue<Consumer<Estado>> ajustes = ajustesDuranteRecarga;
+            if (ajustes != null) {
+                vaga.ifPresent(v -> ajustes.add(e -> e.remover(v.boxId())));
+            }
+            return vaga;
+        } finally {
+            troca.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retira um box específico do índice (ex.: box preferido escolhido pelo operador).
+     */
+    public void remover(Long boxId) {
+        ajustar(e -> e.remover(boxId));
+    }
+
+    /**
+     * Devolve um box ao conjunto de livres do pátio (liberação ou reserva desfeita).
+     */
+    public void devolver(Long boxId, Long patioId) {
+        if (boxId == null || patioId == null) {
+            return;
+        }
+        ajustar(e -> e.devolver(boxId, patioId));
+    }
+
+    public int contarLivres(Long patioId) {
+        ConcurrentSkipListSet<Long> livres = estado.livresPorPatio.get(patioId);
+        return livres != null ? livres.size() : 0;
+    }
+
+    /**
+     * Sincroniza o índice com as escritas confirmadas.
+     * Entradas já foram reservadas pelo próprio check-in; saídas devolvem o box.
+     * Alterações cadastrais de box (ou em lote, sem ID) são relidas do banco.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoConfirmarMudanca(MudancaEvento evento) {
+        if (!pronto) {
+            return;
+        }
+        switch (evento.topico()) {
+            case ESTACIONAMENTO -> {
+                switch (evento.acao()) {
+                    case "SAIDA" -> devolver(evento.entidadeId(), evento.patioId());
+                    case "ENTRADA" -> remover(evento.entidadeId());
+                    default -> sincronizarBox(evento.entidadeId());
+                }
+            }
+            case BOX -> {
+                if (evento.entidadeId() == null) {
+                    recarregar();
+                } else {
+                    sincronizarBox(evento.entidadeId());
+                }
+            }
+            case PATIO -> recarregar();
+            default -> {
+                // Veículos, zonas e notificações não alteram a disponibilidade de vagas
+            }
+        }
+    }
+
+    /**
+     * Relê um box do banco e ajusta sua presença no índice.
+     */
+    void sincronizarBox(Long boxId) {
+        if (boxId == null) {
+            return;
+        }
+        remover(boxId);
+        try {
+            List<VagaLivre> vaga = jdbcTemplate.query(SQL_VAGAS_LIVRES + " AND b.ID_BOX = ?",
+                    (rs, rowNum) -> new VagaLivre(rs.getLong("ID_BOX"), rs.getLong("TB_PATIO_ID_PATIO")), boxId);
+            vaga.forEach(v -> devolver(v.boxId(), v.patioId()));
+        } catch (Exception e) {
+            log.warn("⚠️ Falha ao sincronizar box {} no índice de vagas: {}", boxId, e.getMessage());
+        }
+    }
+
+    /**
+     * Conjuntos de vagas livres; substituído por inteiro a cada recarga.
+     */
+    private static final class Estado {
+
+        /** Pátio -> boxes livres (ordenados por ID, mesma ordem da busca antiga). */
+        private final Map<Long, ConcurrentSkipListSet<Long>> livresPorPatio = new ConcurrentSkipListMap<>();
+        /** Box -> pátio, para devolver vagas ao conjunto correto na liberação. */
+        private final Map<Long, Long> patioDoBox = new ConcurrentHashMap<>();
+
+        Optional<VagaLivre> reservar(Long patioId) {
+            if (patioId != null) {
+                ConcurrentSkipListSet<Long> livres = livresPorPatio.get(patioId);
+                Long boxId = livres != null ? livres.pollFirst() : null;
+                return Optional.ofNullable(boxId).map(id -> new VagaLivre(id, patioId));
+            }
+            for (Map.Entry<Long, ConcurrentSkipListSet<Long>> entry : livresPorPatio.entrySet()) {
+                Long boxId = entry.getValue().pollFirst();
+                if (boxId != null) {
+                    return Optional.of(new VagaLivre(boxId, entry.getKey()));
+                }
+            }
+            return Optional.empty();
+        }
+
+        void remover(Long boxId) {
+            Long patioId = patioDoBox.get(boxId);
+            if (patioId != null) {
+                ConcurrentSkipListSet<Long> livres = livresPorPatio.get(patioId);
+                if (livres != null) {
+                    livres.remove(boxId);
+                }
+            }
+        }
+
+        void devolver(Long boxId, Long patioId) {
+            Long anterior = patioDoBox.put(boxId, patioId);
+            if (anterior != null && !anterior.equals(patioId)) {
+                ConcurrentSkipListSet<Long> doAnterior = livresPorPatio.get(anterior); // box mudou de pátio
+                if (doAnterior != null) {
+                    doAnterior.remove(boxId);
+                }
+            }
+            livresPorPatio.computeIfAbsent(patioId, k -> new ConcurrentSkipListSet<>()).add(boxId);
+        }
+    }
+}
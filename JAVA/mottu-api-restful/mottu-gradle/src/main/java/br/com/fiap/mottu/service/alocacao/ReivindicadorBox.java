@@ -0,0 +1,32 @@
+package br.com.fiap.mottu.service.alocacao;
+
+import java.util.List;
+
+/**
+ * Operações de banco usadas pelo {@link AlocadorVagas} para confirmar a posse de um box.
+ */
+public interface ReivindicadorBox {
+
+    /**
+     * Ocupa o box somente se ele ainda estiver livre (UPDATE condicional).
+     * @return true se a chamada ficou com o box
+     */
+    boolean ocuparSeLivre(Long boxId);
+
+    /**
+     * Versão em lote de {@link #ocuparSeLivre(Long)}.
+     * @return para cada box (mesma ordem), true se a chamada ficou com ele
+     */
+    default boolean[] ocuparSeLivres(List<Long> boxIds) {
+        boolean[] ocupados = new boolean[boxIds.size()];
+        for (int i = 0; i < boxIds.size(); i++) {
+            ocupados[i] = ocuparSeLivre(boxIds.get(i));
+        }
+        return ocupados;
+    }
+
+    /**
+     * Lista até {@code limite} vagas livres no banco, em ordem de ID (patioId null = todos os pátios).
+     */
+    List<IndiceVagasLivres.VagaLivre> buscarCandidatas(Long patioId, int limite);
+}
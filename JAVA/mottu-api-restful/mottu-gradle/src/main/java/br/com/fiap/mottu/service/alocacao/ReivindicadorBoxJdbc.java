@@ -0,0 +1,65 @@
+package br.com.fiap.mottu.service.alocacao;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Implementação Oracle do {@link ReivindicadorBox}.
+ * O UPDATE condicional é a única fonte de verdade: duas sessões disputando o mesmo box
+ * nunca recebem ambas uma linha afetada.
+ */
+@Component
+public class ReivindicadorBoxJdbc implements ReivindicadorBox {
+
+    private static final String SQL_OCUPAR_SE_LIVRE = """
+            UPDATE TB_BOX SET STATUS = 'O', DATA_ENTRADA = CURRENT_TIMESTAMP, DATA_SAIDA = NULL
+            WHERE ID_BOX = ? AND STATUS = 'L'
+              AND NOT EXISTS (
+                  SELECT 1 FROM TB_ESTACIONAMENTO e
+                  WHERE e.TB_BOX_ID_BOX = ? AND e.ESTA_ESTACIONADO = 1
+              )
+              AND NOT EXISTS (SELECT 1 FROM TB_VEICULOBOX vb WHERE vb.TB_BOX_ID_BOX = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReivindicadorBoxJdbc(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean ocuparSeLivre(Long boxId) {
+        return jdbcTemplate.update(SQL_OCUPAR_SE_LIVRE, boxId, boxId, boxId) == 1;
+    }
+
+    /**
+     * Um único round-trip (JDBC batch). O ojdbc devolve a contagem real por comando,
+     * então cada posição continua indicando se aquele box foi de fato ocupado.
+     */
+    @Override
+    public boolean[] ocuparSeLivres(List<Long> boxIds) {
+        if (boxIds.isEmpty()) {
+            return new boolean[0];
+        }
+        int[] linhas = jdbcTemplate.batchUpdate(SQL_OCUPAR_SE_LIVRE,
+                boxIds.stream().map(id -> new Object[]{id, id, id}).toList());
+        boolean[] ocupados = new boolean[linhas.length];
+        for (int i = 0; i < linhas.length; i++) {
+            ocupados[i] = linhas[i] == 1;
+        }
+        return ocupados;
+    }
+
+    @Override
+    public List<IndiceVagasLivres.VagaLivre> buscarCandidatas(Long patioId, int limite) {
+        String sql = IndiceVagasLivres.SQL_VAGAS_LIVRES
+                + (patioId != null ? " AND b.TB_PATIO_ID_PATIO = ?" : "")
+                + " ORDER BY b.ID_BOX FETCH FIRST " + limite + " ROWS ONLY";
+        Object[] params = patioId != null ? new Object[]{patioId} : new Object[0];
+        return jdbcTemplate.query(sql,
+                (rs, rowNum) -> new IndiceVagasLivres.VagaLivre(rs.getLong("ID_BOX"), rs.getLong("TB_PATIO_ID_PATIO")),
+                params);
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.fiap.mottu.service.cache;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Chave dos caches com refresh antecipado: o método {@code @Cacheable}, os argumentos da chamada
+ * e, quando a chave é versionada, a expressão da versão e o valor dela no momento da leitura.
+ * Gerada por {@link RecargaCaches} ({@code keyGenerator}); a recarga executa o mesmo método com
+ * os mesmos argumentos, sem precisar desmontar a chave.
+ *
+ * @param alvo            o bean (sem proxy) dono do método
+ * @param metodo          o método anotado
+ * @param argumentos      os argumentos da chamada
+ * @param expressaoVersao SpEL da versão dos dados (null se a chave não é versionada)
+ * @param versao          valor da versão quando a chave foi criada
+ */
+public record ChaveRecarga(Object alvo, Method metodo, List<Object> argumentos,
+                           String expressaoVersao, Object versao) {
+
+    @Override
+    public String toString() {
+        String base = metodo.getDeclaringClass().getSimpleName() + "." + metodo.getName() + argumentos;
+        return expressaoVersao != null ? base + "-v" + versao : base;
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.fiap.mottu.service.cache;
+
+import br.com.fiap.mottu.service.ocr.PlateUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Invalidação direcionada dos caches afetados por entradas/saídas de veículos.
+ *
+ * Em vez de {@code allEntries = true} em cinco caches a cada movimentação:
+ * - caches por chave (placa, estacionamento, box) têm só a chave afetada removida;
+ * - listas/páginas por pátio usam a versão do pátio na chave, então só o pátio tocado fica obsoleto;
+ * - listas/páginas globais usam a versão global.
+ * Entradas de versões antigas deixam de ser lidas e saem do Caffeine por tamanho/TTL.
+ * A invalidação acontece após o commit, para que um leitor concorrente não recoloque o estado antigo.
+ */
+@Component
+@Slf4j
+public class InvalidadorCacheEstacionamento {
+
+    private final CacheManager estacionamentoCacheManager;
+    private final CacheManager cacheManager;
+
+    private final AtomicLong versaoGlobal = new AtomicLong();
+    private final Map<Long, AtomicLong> versoesPorPatio = new ConcurrentHashMap<>();
+
+    public InvalidadorCacheEstacionamento(@Qualifier("estacionamentoCacheManager") CacheManager estacionamentoCacheManager,
+                                          CacheManager cacheManager) {
+        this.estacionamentoCacheManager = estacionamentoCacheManager;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Movimentação que afetou os caches (qualquer campo pode ser null).
+     */
+    public record Alteracao(String placa, Long estacionamentoId, Long boxId, Long patioId) {}
+
+    /** Versão usada nas chaves das listas/páginas globais de estacionamentos. */
+    public long versaoGlobal() {
+        return versaoGlobal.get();
+    }
+
+    /** Versão usada nas chaves das listas/páginas de um pátio. */
+    public long versaoPatio(Long patioId) {
+        AtomicLong versao = patioId != null ? versoesPorPatio.get(patioId) : null;
+        return versao != null ? versao.get() : 0L;
+    }
+
+    public void invalidar(String placa, Long estacionamentoId, Long boxId, Long patioId) {
+        invalidar(List.of(new Alteracao(placa, estacionamentoId, boxId, patioId)));
+    }
+
+    /**
+     * Invalida as chaves afetadas após o commit da transação atual (ou imediatamente, sem transação).
+     */
+    public void invalidar(Collection<Alteracao> alteracoes) {
+        List<Alteracao> copia = List.copyOf(alteracoes);
+        if (copia.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicar(copia);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aplicar(copia);
+            }
+        });
+    }
+
+    void aplicar(List<Alteracao> alteracoes) {
+        Set<Long> patios = new LinkedHashSet<>();
+        for (Alteracao alteracao : alteracoes) {
+            if (alteracao.placa() != null) {
+                evict(estacionamentoCacheManager, "estacionamentoPorPlaca", PlateUtils.normalizeMercosul(alteracao.placa()));
+            }
+            if (alteracao.estacionamentoId() != null) {
+                evict(estacionamentoCacheManager, "estacionamentoPorId", alteracao.estacionamentoId());
+            }
+            if (alteracao.boxId() != null) {
+                evict(cacheManager, "boxPorId", alteracao.boxId());
+                evict(cacheManager, "veiculosDoBox", alteracao.boxId());
+            }
+            if (alteracao.patioId() != null) {
+                patios.add(alteracao.patioId());
+            }
+        }
+        for (Long patioId : patios) {
+            versoesPorPatio.computeIfAbsent(patioId, k -> new AtomicLong()).incrementAndGet();
+            evict(cacheManager, "boxesDoPatio", patioId);
+            evict(cacheManager, "boxesDisponiveis", patioId);
+            evict(cacheManager, "boxesOcupados", patioId);
+        }
+        versaoGlobal.incrementAndGet();
+        log.debug("🧹 Cache de estacionamentos invalidado: {} alteração(ões), pátios {}", alteracoes.size(), patios);
+    }
+
+    private static void evict(CacheManager manager, String nome, Object chave) {
+        Cache cache = manager.getCache(nome);
+        if (cache != null) {
+            cache.evict(chave);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.fiap.mottu.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chaves e recargas dos caches com refresh antecipado (ver {@code CacheConfig}).
+ *
+ * Os {@code @Cacheable} desses caches usam {@code keyGenerator = "recargaCaches"}: a chave é uma
+ * {@link ChaveRecarga} com o método e os argumentos da chamada (e a versão dos dados, se o método
+ * tiver {@link VersaoCache}). O carregador do Caffeine chama {@link #recarregar(String, Object)} tanto
+ * na primeira carga (uma única por chave, com os pedidos simultâneos esperando a mesma) quanto no
+ * refresh em segundo plano, e a recarga executa o próprio método anotado no bean sem proxy:
+ * passar de novo pelo {@code @Cacheable} da mesma chave dentro da carga travaria esperando a si
+ * mesma. A transação declarada no método é aplicada aqui.
+ *
+ * A recarga devolve null (na primeira carga o {@code @Cacheable} executa o método; no refresh a
+ * entrada é descartada) quando a chave não é uma {@link ChaveRecarga}, quando a versão dela não é
+ * mais a atual ou quando o {@code unless} da anotação recusa o valor.
+ */
+@Component
+@Slf4j
+public class RecargaCaches implements KeyGenerator {
+
+    private final BeanFactory beanFactory;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionAttributeSource fonteTransacao = new AnnotationTransactionAttributeSource();
+    private final ParameterNameDiscoverer nomesParametros = new DefaultParameterNameDiscoverer();
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    /** Uma entrada por expressão escrita nas anotações. */
+    private final Map<String, Expression> expressoes = new ConcurrentHashMap<>();
+
+    public RecargaCaches(BeanFactory beanFactory, PlatformTransactionManager transactionManager) {
+        this.beanFactory = beanFactory;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public ChaveRecarga generate(Object alvo, Method metodo, Object... parametros) {
+        Object[] argumentos = parametros.clone();
+        VersaoCache versaoCache = AnnotatedElementUtils.findMergedAnnotation(metodo, VersaoCache.class);
+        String expressaoVersao = versaoCache != null ? versaoCache.value() : null;
+        Object versao = expressaoVersao != null ? avaliar(expressaoVersao, alvo, metodo, argumentos, null) : null;
+        return new ChaveRecarga(alvo, metodo, Collections.unmodifiableList(Arrays.asList(argumentos)),
+                expressaoVersao, versao);
+    }
+
+    /**
+     * Recalcula o valor de uma chave.
+     *
+     * @return o valor atual, ou null se a chave não deve ser (re)carregada por aqui
+     */
+    public Object recarregar(String cache, Object chave) {
+        if (!(chave instanceof ChaveRecarga recarga)) {
+            return null;
+        }
+        Object[] argumentos = recarga.argumentos().toArray();
+        if (recarga.expressaoVersao() != null && !Objects.equals(recarga.versao(),
+                avaliar(recarga.expressaoVersao(), recarga.alvo(), recarga.metodo(), argumentos, null))) {
+            log.debug("🧹 Cache {} chave {} de versão antiga: descartada em vez de recarregada", cache, recarga);
+            return null;
+        }
+        log.debug("🔄 Recarregando cache {} chave {}", cache, recarga);
+        Object valor = executar(recarga, argumentos);
+        if (valor == null || recusado(recarga, argumentos, valor)) {
+            return null;
+        }
+        return valor;
+    }
+
+    private Object executar(ChaveRecarga recarga, Object[] argumentos) {
+        TransactionAttribute transacao = fonteTransacao.getTransactionAttribute(recarga.metodo(), recarga.alvo().getClass());
+        if (transacao == null) {
+            return invocar(recarga, argumentos);
+        }
+        return new TransactionTemplate(transactionManager, transacao).execute(status -> invocar(recarga, argumentos));
+    }
+
+    private static Object invocar(ChaveRecarga recarga, Object[] argumentos) {
+        try {
+            return recarga.metodo().invoke(recarga.alvo(), argumentos);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Falha ao recarregar " + recarga, e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Método sem acesso para recarga: " + recarga, e);
+        }
+    }
+
+    /** Aplica o {@code unless} do {@code @Cacheable} ao valor recarregado. */
+    private boolean recusado(ChaveRecarga recarga, Object[] argumentos, Object valor) {
+        Cacheable anotacao = AnnotatedElementUtils.findMergedAnnotation(recarga.metodo(), Cacheable.class);
+        if (anotacao == null || !StringUtils.hasText(anotacao.unless())) {
+            return false;
+        }
+        return Boolean.TRUE.equals(avaliar(anotacao.unless(), recarga.alvo(), recarga.metodo(), argumentos, valor));
+    }
+
+    private Object avaliar(String expressao, Object alvo, Method metodo, Object[] argumentos, Object resultado) {
+        MethodBasedEvaluationContext contexto = new MethodBasedEvaluationContext(alvo, metodo, argumentos, nomesParametros);
+        contexto.setBeanResolver(new BeanFactoryResolver(beanFactory));
+        if (resultado != null) {
+            contexto.setVariable("result", resultado);
+        }
+        return expressoes.computeIfAbsent(expressao, parser::parseExpression).getValue(contexto);
+    }
+}
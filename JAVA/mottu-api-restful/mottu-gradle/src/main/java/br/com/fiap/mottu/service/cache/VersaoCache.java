@@ -0,0 +1,21 @@
+package br.com.fiap.mottu.service.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Versão dos dados de um método {@code @Cacheable} com {@code keyGenerator = "recargaCaches"}:
+ * a SpEL é avaliada com os argumentos do método ao gerar a chave e de novo no refresh, que só
+ * recarrega a chave se a versão ainda for a atual (ver {@link RecargaCaches}).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface VersaoCache {
+
+    /** SpEL da versão, ex.: {@code "@invalidadorCacheEstacionamento.versaoPatio(#patioId)"}. */
+    String value();
+}
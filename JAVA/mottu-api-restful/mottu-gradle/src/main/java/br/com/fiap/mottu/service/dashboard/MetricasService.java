@@ -1,18 +1,18 @@
 package br.com.fiap.mottu.service.dashboard;
 
-import br.com.fiap.mottu.model.LogMovimentacao;
 import br.com.fiap.mottu.repository.BoxRepository;
 import br.com.fiap.mottu.repository.LogMovimentacaoRepository;
 import br.com.fiap.mottu.repository.PatioRepository;
+import br.com.fiap.mottu.service.relatorios.analytics.AgregadoMovimentacoes;
+import br.com.fiap.mottu.service.relatorios.analytics.AgregadorMovimentacoes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Service
@@ -20,21 +20,26 @@ import java.util.Map;
 public class MetricasService {
 
     private static final Logger log = LoggerFactory.getLogger(MetricasService.class);
+    private static final long MINUTOS_POR_SAIDA = 120;
     private final PatioRepository patioRepository;
     private final BoxRepository boxRepository;
     private final LogMovimentacaoRepository logMovimentacaoRepository;
+    private final AgregadorMovimentacoes agregadorMovimentacoes;
 
     public MetricasService(PatioRepository patioRepository, 
                           BoxRepository boxRepository,
-                          LogMovimentacaoRepository logMovimentacaoRepository) {
+                          LogMovimentacaoRepository logMovimentacaoRepository,
+                          AgregadorMovimentacoes agregadorMovimentacoes) {
         this.patioRepository = patioRepository;
         this.boxRepository = boxRepository;
         this.logMovimentacaoRepository = logMovimentacaoRepository;
+        this.agregadorMovimentacoes = agregadorMovimentacoes;
     }
 
     /**
-     * Obtém métricas gerais do sistema
+     * Obtém métricas gerais do sistema (cache com refresh antecipado, ver CacheConfig)
      */
+    @Cacheable(value = "metricasGerais", keyGenerator = "recargaCaches")
     public Map<String, Object> getMetricasGerais() {
         log.info("Gerando métricas gerais do sistema");
         
@@ -73,14 +78,14 @@ public class MetricasService {
     public Map<String, Object> getMetricasPerformance() {
         log.info("Gerando métricas de performance");
         
-        // Calcular tempo médio de estacionamento
-        List<LogMovimentacao> movimentacoes = logMovimentacaoRepository.findAll();
-        double tempoMedioEstacionamento = calcularTempoMedioEstacionamento(movimentacoes);
+        // Contagens e tempo médio saem da mesma passada em cursor (antes: findAll + 3 COUNTs)
+        AgregadoMovimentacoes agregado = agregadorMovimentacoes.agregar();
+        double tempoMedioEstacionamento = calcularTempoMedioEstacionamento(agregado);
         
         // Calcular eficiência do sistema
-        long totalMovimentacoes = logMovimentacaoRepository.count();
-        long entradas = logMovimentacaoRepository.countByTipoMovimentacao(LogMovimentacao.TipoMovimentacao.ENTRADA);
-        long saidas = logMovimentacaoRepository.countByTipoMovimentacao(LogMovimentacao.TipoMovimentacao.SAIDA);
+        long totalMovimentacoes = agregado.getTotal();
+        long entradas = agregado.getEntradas();
+        long saidas = agregado.getSaidas();
         
         double eficiencia = totalMovimentacoes > 0 ? (double) (entradas + saidas) / totalMovimentacoes * 100 : 0.0;
         
@@ -99,19 +104,11 @@ public class MetricasService {
     /**
      * Calcula tempo médio de estacionamento
      */
-    private double calcularTempoMedioEstacionamento(List<LogMovimentacao> movimentacoes) {
-        if (movimentacoes.isEmpty()) return 0.0;
+    private double calcularTempoMedioEstacionamento(AgregadoMovimentacoes agregado) {
+        if (agregado.getTotal() == 0) return 0.0;
         
-        // Simplificado: calcular baseado em movimentações de entrada e saída
-        long totalMinutos = movimentacoes.stream()
-                .filter(mov -> mov.getTipoMovimentacao() == LogMovimentacao.TipoMovimentacao.SAIDA)
-                .mapToLong(mov -> {
-                    // Buscar entrada correspondente (simplificado)
-                    LocalDateTime entrada = mov.getDataHoraMovimentacao().minusHours(2);
-                    return ChronoUnit.MINUTES.between(entrada, mov.getDataHoraMovimentacao());
-                })
-                .sum();
-        
-        return movimentacoes.size() > 0 ? (double) totalMinutos / movimentacoes.size() : 0.0;
+        // Simplificado: cada saída conta 2 horas de permanência, rateadas por todas as movimentações
+        long totalMinutos = agregado.getSaidas() * MINUTOS_POR_SAIDA;
+        return (double) totalMinutos / agregado.getTotal();
     }
 }
@@ -2,13 +2,25 @@ package br.com.fiap.mottu.service.datatable;
 
 import br.com.fiap.mottu.dto.datatable.DataTableRequest;
 import br.com.fiap.mottu.dto.datatable.DataTableResponse;
+import br.com.fiap.mottu.dto.datatable.JanelaResponse;
+import br.com.fiap.mottu.exception.InvalidInputException;
+import br.com.fiap.mottu.util.CursorPaginacao;
 import br.com.fiap.mottu.util.PageableUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.query.FluentQuery;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.util.List;
 import java.util.function.Function;
@@ -17,8 +29,14 @@ import java.util.function.Function;
  * Serviço base para DataTable
  */
 @Service
+@Slf4j
 public class DataTableService {
 
+    /** Valor de {@code DataTableRequest.contagem} que dispensa o COUNT(*). */
+    public static final String CONTAGEM_ESTIMADA = "estimada";
+
+    static final int TAMANHO_MAXIMO_JANELA = 200;
+
     /**
      * Processa request do DataTable e retorna response paginada
      */
@@ -38,21 +56,8 @@ public class DataTableService {
                 getSortDirection(request)
             );
 
-            // Buscar dados paginados
-            Page<T> page = specificationExecutor.findAll(specification, pageable);
-
-            // Mapear dados
-            List<R> data = page.getContent().stream()
-                    .map(mapper)
-                    .toList();
-
-            // Retornar response
-            return DataTableResponse.success(
-                request.getDraw(),
-                page.getTotalElements(),
-                page.getTotalElements(),
-                data
-            );
+            // Sem a propriedade de ID não há desempate estável para keyset: só offset (com ou sem COUNT)
+            return paginar(request, specificationExecutor, specification, pageable.getSort(), null, mapper);
 
         } catch (Exception e) {
             return DataTableResponse.error(
@@ -62,6 +67,166 @@ public class DataTableService {
         }
     }
 
+    /**
+     * Página do DataTable em um dos três modos:
+     * <ul>
+     *   <li>keyset: com {@code request.cursor} (ou na primeira página, para devolver o cursor) continua
+     *       após o último registro entregue, sem OFFSET;</li>
+     *   <li>offset com COUNT: {@code contagem=exata} (padrão), comportamento original;</li>
+     *   <li>offset sem COUNT: {@code contagem=estimada}, o total vira start + itens + uma página se houver mais.</li>
+     * </ul>
+     *
+     * @param propriedadeId  ID da entidade, usado como desempate da ordenação; null desliga o keyset
+     * @param associacoes    associações carregadas junto (entity graph), ex.: "veiculo", "box"
+     * @throws InvalidInputException quando o cursor é inválido
+     */
+    public <T, R> DataTableResponse<R> paginar(
+            DataTableRequest request,
+            JpaSpecificationExecutor<T> executor,
+            Specification<T> specification,
+            Sort sort,
+            String propriedadeId,
+            Function<T, R> mapper,
+            String... associacoes) {
+
+        long inicio = System.currentTimeMillis();
+        Specification<T> filtro = specification != null ? specification : semFiltro();
+        int tamanho = request.getLength() != null && request.getLength() > 0 ? request.getLength() : 10;
+        int start = request.getStart() != null ? Math.max(0, request.getStart()) : 0;
+        boolean estimada = CONTAGEM_ESTIMADA.equalsIgnoreCase(request.getContagem());
+        Sort ordem = propriedadeId != null ? comDesempate(sort, propriedadeId) : sort;
+
+        KeysetScrollPosition posicao = propriedadeId != null ? posicaoKeyset(request, start, ordem) : null;
+        List<T> conteudo;
+        boolean temMais;
+        Long total = null;
+        String proximoCursor = null;
+        if (posicao != null) {
+            Window<T> janela = executor.findBy(filtro, q -> consulta(q, ordem, associacoes)
+                    .limit(tamanho)
+                    .scroll(posicao));
+            conteudo = janela.getContent();
+            temMais = janela.hasNext();
+            if (temMais && !janela.isEmpty()) {
+                proximoCursor = CursorPaginacao.codificar(janela.positionAt(janela.size() - 1), ordem);
+            }
+            if (!estimada) {
+                total = executor.count(filtro);
+            }
+        } else {
+            PageRequest pagina = PageRequest.of(start / tamanho, tamanho, ordem);
+            if (estimada) {
+                Slice<T> fatia = executor.findBy(filtro, q -> consulta(q, ordem, associacoes).slice(pagina));
+                conteudo = fatia.getContent();
+                temMais = fatia.hasNext();
+            } else {
+                Page<T> page = executor.findBy(filtro, q -> consulta(q, ordem, associacoes).page(pagina));
+                conteudo = page.getContent();
+                temMais = page.hasNext();
+                total = page.getTotalElements();
+            }
+        }
+
+        if (total == null) {
+            total = start + (long) conteudo.size() + (temMais ? tamanho : 0);
+        }
+        List<R> data = conteudo.stream()
+                .map(mapper)
+                .toList();
+
+        return DataTableResponse.<R>builder()
+                .draw(request.getDraw())
+                .recordsTotal(total)
+                .recordsFiltered(total)
+                .data(data)
+                .processingTime(System.currentTimeMillis() - inicio)
+                .proximoCursor(proximoCursor)
+                .totalEstimado(estimada)
+                .build();
+    }
+
+    /**
+     * Janela por cursor (keyset) para listas longas como históricos: nunca executa COUNT nem OFFSET.
+     *
+     * @param cursor null/vazio para a primeira janela, ou o {@code proximoCursor} da anterior
+     */
+    public <T, R> JanelaResponse<R> rolar(
+            JpaSpecificationExecutor<T> executor,
+            Specification<T> specification,
+            Sort sort,
+            String propriedadeId,
+            String cursor,
+            int tamanho,
+            Function<T, R> mapper,
+            String... associacoes) {
+
+        Sort ordem = comDesempate(sort, propriedadeId);
+        KeysetScrollPosition posicao = StringUtils.hasText(cursor) ? posicaoDoCursor(cursor, ordem) : ScrollPosition.keyset();
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_JANELA));
+        Window<T> janela = executor.findBy(specification != null ? specification : semFiltro(),
+                q -> consulta(q, ordem, associacoes)
+                .limit(limite)
+                .scroll(posicao));
+        return JanelaResponse.<R>builder()
+                .data(janela.getContent().stream().map(mapper).toList())
+                .temMais(janela.hasNext())
+                .proximoCursor(janela.hasNext() && !janela.isEmpty()
+                        ? CursorPaginacao.codificar(janela.positionAt(janela.size() - 1), ordem)
+                        : null)
+                .build();
+    }
+
+    private static <T> Specification<T> semFiltro() {
+        return (root, query, cb) -> null;
+    }
+
+    private static <T> FluentQuery.FetchableFluentQuery<T> consulta(
+            FluentQuery.FetchableFluentQuery<T> q, Sort ordem, String... associacoes) {
+        FluentQuery.FetchableFluentQuery<T> consulta = q.sortBy(ordem);
+        return associacoes.length > 0 ? consulta.project(associacoes) : consulta;
+    }
+
+    private static KeysetScrollPosition posicaoDoCursor(String cursor, Sort ordem) {
+        CursorPaginacao.Cursor anterior = CursorPaginacao.decodificar(cursor);
+        if (!mesmaOrdem(anterior, ordem)) {
+            throw new InvalidInputException("Cursor de paginação não corresponde a esta consulta.");
+        }
+        return anterior.posicao();
+    }
+
+    /**
+     * Keyset quando há cursor válido para a ordenação atual, ou na primeira página (para emitir o cursor).
+     * Saltos direto para uma página (start &gt; 0 sem cursor) ficam no offset.
+     */
+    private KeysetScrollPosition posicaoKeyset(DataTableRequest request, int start, Sort ordem) {
+        if (StringUtils.hasText(request.getCursor())) {
+            CursorPaginacao.Cursor anterior = CursorPaginacao.decodificar(request.getCursor());
+            if (mesmaOrdem(anterior, ordem)) {
+                return anterior.posicao();
+            }
+            log.debug("Cursor ignorado: ordenação mudou para {}", ordem);
+        }
+        return start == 0 ? ScrollPosition.keyset() : null;
+    }
+
+    /** Mesmas colunas, na mesma sequência e direção: senão o limite do cursor cortaria a página errada. */
+    private static boolean mesmaOrdem(CursorPaginacao.Cursor cursor, Sort ordem) {
+        return colunas(cursor.ordem()).equals(colunas(ordem));
+    }
+
+    private static List<String> colunas(Sort ordem) {
+        return ordem.stream().map(coluna -> coluna.getProperty() + " " + coluna.getDirection()).toList();
+    }
+
+    /** Acrescenta o ID (na direção da última coluna) para a ordenação ser total, exigência do keyset. */
+    static Sort comDesempate(Sort sort, String propriedadeId) {
+        if (sort.getOrderFor(propriedadeId) != null) {
+            return sort;
+        }
+        Sort.Direction direcao = sort.stream().reduce((a, b) -> b).map(Sort.Order::getDirection).orElse(Sort.Direction.ASC);
+        return sort.and(Sort.by(direcao, propriedadeId));
+    }
+
     /**
      * Processa request do DataTable sem specification
      */
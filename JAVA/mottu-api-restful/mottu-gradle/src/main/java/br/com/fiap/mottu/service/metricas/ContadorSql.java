@@ -0,0 +1,88 @@
+package br.com.fiap.mottu.service.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conta os statements SQL por método de repositório.
+ *
+ * O {@link #interceptador(String)} é colocado no proxy de cada repositório Spring Data e marca,
+ * na thread, qual método está executando; o {@link DataSourceContado} passa cada SQL das conexões
+ * pelo {@link #contar(String)}, seja do Hibernate ou do {@code JdbcTemplate}. Os contadores usam as
+ * mesmas tags {@code repository}/{@code method} do timer {@code spring.data.repository.invocations},
+ * então contagem e duração por método se cruzam no Prometheus.
+ * Statements fora de um repositório (flush no commit, JDBC direto) ficam em {@code repository="none"}.
+ */
+public class ContadorSql {
+
+    public static final String METRICA = "mottu.sql.statements";
+
+    private static final ThreadLocal<Origem> ORIGEM_ATUAL = new ThreadLocal<>();
+    private static final Origem SEM_REPOSITORIO = new Origem("none", "none");
+
+    private final MeterRegistry registry;
+    private final Map<String, Counter> contadores = new ConcurrentHashMap<>();
+
+    public ContadorSql(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    private record Origem(String repositorio, String metodo) {}
+
+    public void contar(String sql) {
+        Origem origem = ORIGEM_ATUAL.get();
+        if (origem == null) {
+            origem = SEM_REPOSITORIO;
+        }
+        String tipo = tipo(sql);
+        Origem atual = origem;
+        contadores.computeIfAbsent(atual.repositorio() + '#' + atual.metodo() + '#' + tipo,
+                k -> Counter.builder(METRICA)
+                        .description("Statements SQL enviados ao banco (Hibernate e JDBC direto)")
+                        .tag("repository", atual.repositorio())
+                        .tag("method", atual.metodo())
+                        .tag("type", tipo)
+                        .register(registry))
+                .increment();
+    }
+
+    static String tipo(String sql) {
+        String inicio = sql.stripLeading();
+        int fim = 0;
+        while (fim < inicio.length() && Character.isLetter(inicio.charAt(fim))) {
+            fim++;
+        }
+        String comando = inicio.substring(0, fim).toLowerCase(Locale.ROOT);
+        return switch (comando) {
+            case "select", "with" -> "select";
+            case "insert", "update", "delete", "merge" -> comando;
+            default -> "other";
+        };
+    }
+
+    /**
+     * Interceptador do proxy de um repositório: registra o método em execução na thread
+     * (restaurando o anterior ao sair, para chamadas aninhadas).
+     */
+    public static MethodInterceptor interceptador(String repositorio) {
+        return (MethodInvocation invocacao) -> {
+            Origem anterior = ORIGEM_ATUAL.get();
+            ORIGEM_ATUAL.set(new Origem(repositorio, invocacao.getMethod().getName()));
+            try {
+                return invocacao.proceed();
+            } finally {
+                if (anterior != null) {
+                    ORIGEM_ATUAL.set(anterior);
+                } else {
+                    ORIGEM_ATUAL.remove();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.fiap.mottu.service.metricas;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * DataSource que passa cada SQL preparado ou executado pelas conexões ao {@link ContadorSql}.
+ *
+ * Fica no nível do JDBC para contar tanto o que o Hibernate gera quanto o JDBC direto
+ * ({@code JdbcTemplate}): {@code prepareStatement}/{@code prepareCall} contam uma vez por statement
+ * preparado (as execuções em lote do mesmo statement não somam) e, nos {@code Statement} simples,
+ * cada {@code execute*}/{@code addBatch} com SQL conta uma vez. {@code unwrap} continua chegando ao
+ * pool, então as métricas do Hikari não mudam.
+ */
+public class DataSourceContado extends DelegatingDataSource {
+
+    private static final Set<String> PREPARACOES = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUCOES = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    private final Supplier<ContadorSql> fonteContador;
+    private volatile ContadorSql contadorSql;
+
+    /**
+     * @param fonteContador consultado até devolver o contador: o DataSource nasce antes do
+     *                      MeterRegistry, e até lá o SQL só não é contado
+     */
+    public DataSourceContado(DataSource alvo, Supplier<ContadorSql> fonteContador) {
+        super(alvo);
+        this.fonteContador = fonteContador;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return contar(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return contar(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection contar(Connection conexao) {
+        return proxy(Connection.class, conexao, (metodo, args, resultado) -> {
+            if (PREPARACOES.contains(metodo.getName()) && temSql(args)) {
+                registrar((String) args[0]);
+            } else if (resultado instanceof Statement statement && "createStatement".equals(metodo.getName())) {
+                return proxy(Statement.class, statement, (metodoStatement, argsStatement, retorno) -> {
+                    if (EXECUCOES.contains(metodoStatement.getName()) && temSql(argsStatement)) {
+                        registrar((String) argsStatement[0]);
+                    }
+                    return retorno;
+                });
+            }
+            return resultado;
+        });
+    }
+
+    private void registrar(String sql) {
+        ContadorSql contador = contadorSql;
+        if (contador == null) {
+            contador = fonteContador.get();
+            if (contador == null) {
+                return;
+            }
+            contadorSql = contador;
+        }
+        contador.contar(sql);
+    }
+
+    private static boolean temSql(Object[] args) {
+        return args != null && args.length > 0 && args[0] instanceof String;
+    }
+
+    /** Ação após a chamada delegada; devolve o valor entregue a quem chamou. */
+    private interface AposChamada {
+        Object aplicar(Method metodo, Object[] args, Object resultado);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, T alvo, AposChamada apos) {
+        InvocationHandler handler = (proxy, metodo, args) -> switch (metodo.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> {
+                Object resultado;
+                try {
+                    resultado = metodo.invoke(alvo, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                yield apos.aplicar(metodo, args, resultado);
+            }
+        };
+        return (T) Proxy.newProxyInstance(DataSourceContado.class.getClassLoader(), new Class<?>[]{tipo}, handler);
+    }
+}
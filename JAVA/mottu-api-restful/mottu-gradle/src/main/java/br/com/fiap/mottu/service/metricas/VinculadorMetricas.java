@@ -0,0 +1,118 @@
+package br.com.fiap.mottu.service.metricas;
+
+import br.com.fiap.mottu.service.ocr.OcrExecutor;
+import br.com.fiap.mottu.service.stream.MudancaHub;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Métricas dos componentes da aplicação que o Actuator não conhece.
+ *
+ * - OCR: fila, tarefas em execução, concluídas e rejeitadas do {@link OcrExecutor};
+ * - SSE: clientes conectados ao {@link MudancaHub}, no total e por grupo de stream (conjunto fixo);
+ * - caches criados sob demanda: o Actuator só registra os caches existentes na subida,
+ *   então os demais (ex.: "mapaGlobal" no CacheManager primário) são vinculados periodicamente.
+ */
+@Component
+@Slf4j
+public class VinculadorMetricas implements MeterBinder {
+
+    private static final String SUFIXO_CACHE_MANAGER = "CacheManager";
+
+    private final MeterRegistry registry;
+    private final Map<String, CacheManager> cacheManagers;
+    private final ObjectProvider<CacheMetricsRegistrar> cacheMetricsRegistrar;
+    private final MudancaHub mudancaHub;
+    private final OcrExecutor ocrExecutor;
+
+    private final Set<String> cachesVinculados = ConcurrentHashMap.newKeySet();
+
+    public VinculadorMetricas(MeterRegistry registry,
+                              Map<String, CacheManager> cacheManagers,
+                              ObjectProvider<CacheMetricsRegistrar> cacheMetricsRegistrar,
+                              MudancaHub mudancaHub,
+                              OcrExecutor ocrExecutor) {
+        this.registry = registry;
+        this.cacheManagers = cacheManagers;
+        this.cacheMetricsRegistrar = cacheMetricsRegistrar;
+        this.mudancaHub = mudancaHub;
+        this.ocrExecutor = ocrExecutor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mottu.ocr.fila", ocrExecutor, OcrExecutor::getTamanhoFila)
+                .description("Tarefas de OCR aguardando um worker")
+                .register(registry);
+        Gauge.builder("mottu.ocr.em_execucao", ocrExecutor, OcrExecutor::getEmExecucao)
+                .description("Tarefas de OCR executando")
+                .register(registry);
+        FunctionCounter.builder("mottu.ocr.concluidas", ocrExecutor, OcrExecutor::getConcluidas)
+                .description("Tarefas de OCR concluídas")
+                .register(registry);
+        FunctionCounter.builder("mottu.ocr.rejeitadas", ocrExecutor, OcrExecutor::getRejeitadas)
+                .description("Tarefas de OCR recusadas com a fila cheia (HTTP 429)")
+                .register(registry);
+        Gauge.builder("mottu.sse.assinantes", mudancaHub, MudancaHub::getAssinantesAtivos)
+                .description("Clientes SSE conectados ao hub")
+                .register(registry);
+        for (String grupo : MudancaHub.GRUPOS) {
+            Gauge.builder("mottu.sse.assinantes.grupo", mudancaHub, hub -> hub.getAssinantes(grupo))
+                    .description("Clientes SSE conectados por grupo de stream")
+                    .tag("grupo", grupo)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Vincula os caches que surgiram desde a última passada.
+     */
+    @Scheduled(initialDelayString = "${mottu.metricas.vinculacaoMs:30000}",
+            fixedDelayString = "${mottu.metricas.vinculacaoMs:30000}")
+    public void vincularNovos() {
+        CacheMetricsRegistrar registrar = cacheMetricsRegistrar.getIfAvailable();
+        if (registrar == null) {
+            return;
+        }
+        cacheManagers.forEach((beanName, cacheManager) -> {
+            String nomeManager = nomeCacheManager(beanName);
+            for (String nomeCache : cacheManager.getCacheNames()) {
+                if (!cachesVinculados.add(nomeManager + "/" + nomeCache) || jaVinculado(nomeManager, nomeCache)) {
+                    continue;
+                }
+                Cache cache = cacheManager.getCache(nomeCache);
+                if (cache != null && registrar.bindCacheToRegistry(cache, Tag.of("cache.manager", nomeManager))) {
+                    log.debug("📈 Métricas do cache {} ({}) registradas", nomeCache, nomeManager);
+                }
+            }
+        });
+    }
+
+    /** Caches que já existiam na subida foram vinculados pelo próprio Actuator. */
+    private boolean jaVinculado(String nomeManager, String nomeCache) {
+        return registry.find("cache.gets").tag("cache", nomeCache).tag("cache.manager", nomeManager).meter() != null;
+    }
+
+    /** Mesmo nome usado pelo Actuator na tag cache.manager ("estacionamentoCacheManager" -> "estacionamento"). */
+    static String nomeCacheManager(String beanName) {
+        if (beanName.length() > SUFIXO_CACHE_MANAGER.length()
+                && beanName.toLowerCase().endsWith(SUFIXO_CACHE_MANAGER.toLowerCase())) {
+            return beanName.substring(0, beanName.length() - SUFIXO_CACHE_MANAGER.length());
+        }
+        return beanName;
+    }
+}
@@ -0,0 +1,178 @@
+package br.com.fiap.mottu.service.ocr;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache de resultados do OCR por conteúdo da imagem. Celulares reenviam o mesmo quadro em
+ * retentativas e toques duplos: a chave é o SHA-256 dos bytes do upload (ou, com
+ * {@code mottu.ocr.cache.hashPerceptual=true}, o dHash de 64 bits da imagem reduzida em tons
+ * de cinza, que também casa quadros quase idênticos recomprimidos).
+ *
+ * Guarda o futuro do reconhecimento, então uploads simultâneos da mesma imagem aguardam a
+ * mesma execução. Só resultados definitivos da imagem ficam no cache (placa reconhecida ou
+ * imagem sem placa); "ocupado", tempo esgotado, cancelamento e falhas de motor são descartados
+ * assim que concluem, e o próximo envio reconhece de novo.
+ */
+@Component
+@Slf4j
+public class CacheResultadosOcr {
+
+    private final AsyncCache<String, Resultado> cache;
+    private final boolean hashPerceptual;
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder coalescidos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder tempoPoupadoMs = new LongAdder();
+
+    public CacheResultadosOcr(@Value("${mottu.ocr.cache.maximo:1000}") long maximo,
+                              @Value("${mottu.ocr.cache.ttlMinutos:30}") long ttlMinutos,
+                              @Value("${mottu.ocr.cache.hashPerceptual:false}") boolean hashPerceptual) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .buildAsync();
+        this.hashPerceptual = hashPerceptual;
+        log.info("🗃️ Cache de resultados do OCR: até {} imagens por {} min (hash {})", maximo, ttlMinutos,
+                hashPerceptual ? "perceptual" : "SHA-256");
+    }
+
+    /**
+     * Resultado final de um reconhecimento; {@code placa} nula indica imagem sem placa, erro ou ocupado.
+     * {@code definitivo}: depende só da imagem (reenviá-la daria o mesmo resultado).
+     */
+    record Resultado(String placa, String placaLida, String mensagemErro, boolean ocupado, boolean definitivo,
+                     long duracaoMs) {
+
+        static Resultado sucesso(String placa, String placaLida, long duracaoMs) {
+            return new Resultado(placa, placaLida, null, false, true, duracaoMs);
+        }
+
+        /** Todos os motores leram a imagem e nenhum encontrou placa. */
+        static Resultado semPlaca(String mensagem, long duracaoMs) {
+            return new Resultado(null, null, mensagem, false, true, duracaoMs);
+        }
+
+        /** Timeout, cancelamento, baixa confiança ou falha de motor. */
+        static Resultado erro(String mensagem, long duracaoMs) {
+            return new Resultado(null, null, mensagem, false, false, duracaoMs);
+        }
+
+        static Resultado ocupado(String mensagem, long duracaoMs) {
+            return new Resultado(null, null, mensagem, true, false, duracaoMs);
+        }
+    }
+
+    /** Chave da imagem: "ph:" + dHash quando habilitado e decodificável, senão "sha:" + SHA-256. */
+    String chave(byte[] imagem) {
+        if (hashPerceptual && ImagemOcr.opencvDisponivel()) {
+            String perceptual = dHash(imagem);
+            if (perceptual != null) {
+                return "ph:" + perceptual;
+            }
+        }
+        return "sha:" + sha256(imagem);
+    }
+
+    /**
+     * Futuro do resultado para a chave: do cache, em andamento (coalescido) ou criado por
+     * {@code reconhecer}. Exceções lançadas por {@code reconhecer} (ex.: fila cheia) chegam ao
+     * chamador e nada fica registrado.
+     */
+    CompletableFuture<Resultado> obter(String chave, Supplier<CompletableFuture<Resultado>> reconhecer) {
+        boolean[] novo = {false};
+        CompletableFuture<Resultado> futuro = cache.get(chave, (k, executor) -> {
+            novo[0] = true;
+            return reconhecer.get();
+        });
+        if (novo[0]) {
+            faltas.increment();
+            return futuro.thenApply(resultado -> {
+                if (!resultado.definitivo()) {
+                    // Ocupado, timeout ou falha não são resultado da imagem: só remove se ainda for este futuro
+                    cache.asMap().remove(chave, futuro);
+                }
+                return resultado;
+            });
+        }
+        if (futuro.isDone()) {
+            acertos.increment();
+        } else {
+            coalescidos.increment();
+        }
+        return futuro.thenApply(resultado -> {
+            if (resultado.definitivo()) {
+                tempoPoupadoMs.add(resultado.duracaoMs());
+            }
+            return resultado;
+        });
+    }
+
+    /** Acertos, uploads coalescidos em reconhecimento em curso, faltas, taxa de acerto e tempo de OCR poupado. */
+    public Map<String, Object> estatisticas() {
+        long reaproveitados = acertos.sum() + coalescidos.sum();
+        long total = reaproveitados + faltas.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entradas", cache.synchronous().estimatedSize());
+        stats.put("acertos", acertos.sum());
+        stats.put("coalescidos", coalescidos.sum());
+        stats.put("faltas", faltas.sum());
+        stats.put("taxaAcerto", total > 0 ? String.format("%.1f%%", reaproveitados * 100.0 / total) : "0%");
+        stats.put("tempoPoupadoMs", tempoPoupadoMs.sum());
+        stats.put("hash", hashPerceptual ? "perceptual" : "sha256");
+        return stats;
+    }
+
+    private static String sha256(byte[] imagem) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(imagem));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /** dHash: imagem em cinza reduzida a 9x8, um bit por par de pixels vizinhos na linha. */
+    private static String dHash(byte[] bytes) {
+        Mat imagem = ImagemOcr.decodificar(bytes);
+        if (imagem == null) {
+            return null;
+        }
+        Mat cinza = new Mat();
+        Mat reduzida = new Mat();
+        try {
+            Imgproc.cvtColor(imagem, cinza, Imgproc.COLOR_BGR2GRAY);
+            Imgproc.resize(cinza, reduzida, new Size(9, 8), 0, 0, Imgproc.INTER_AREA);
+            byte[] pixels = new byte[9 * 8];
+            reduzida.get(0, 0, pixels);
+            long hash = 0;
+            for (int linha = 0; linha < 8; linha++) {
+                for (int coluna = 0; coluna < 8; coluna++) {
+                    int esquerda = pixels[linha * 9 + coluna] & 0xFF;
+                    int direita = pixels[linha * 9 + coluna + 1] & 0xFF;
+                    hash = (hash << 1) | (esquerda > direita ? 1 : 0);
+                }
+            }
+            return HexFormat.of().toHexDigits(hash);
+        } finally {
+            imagem.release();
+            cinza.release();
+            reduzida.release();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.fiap.mottu.service.ocr;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.imgcodecs.Imgcodecs;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+
+/**
+ * Conversões de imagem do OCR feitas inteiramente em memória: bytes do upload → Mat
+ * (Imgcodecs.imdecode) e Mat ↔ BufferedImage por cópia direta do buffer do raster,
+ * sem PNG intermediário em disco.
+ */
+final class ImagemOcr {
+
+    private static volatile Boolean opencvDisponivel;
+
+    private ImagemOcr() {
+    }
+
+    /** true quando os nativos do OpenCV foram carregados (ver OpenCvLoader). */
+    static boolean opencvDisponivel() {
+        Boolean disponivel = opencvDisponivel;
+        if (disponivel == null) {
+            try {
+                new Mat().release();
+                disponivel = Boolean.TRUE;
+            } catch (Throwable t) {
+                disponivel = Boolean.FALSE;
+            }
+            opencvDisponivel = disponivel;
+        }
+        return disponivel;
+    }
+
+    /**
+     * Decodifica os bytes do upload direto para uma Mat BGR.
+     * @return null quando o OpenCV não reconhece o formato
+     */
+    static Mat decodificar(byte[] bytes) {
+        MatOfByte buffer = new MatOfByte(bytes);
+        try {
+            Mat imagem = Imgcodecs.imdecode(buffer, Imgcodecs.IMREAD_COLOR);
+            if (imagem.empty()) {
+                imagem.release();
+                return null;
+            }
+            return imagem;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /** BufferedImage → Mat CV_8UC3 (BGR); redesenha apenas quando o tipo não é TYPE_3BYTE_BGR. */
+    static Mat paraMat(BufferedImage imagem) {
+        BufferedImage bgr = imagem;
+        if (imagem.getType() != BufferedImage.TYPE_3BYTE_BGR) {
+            bgr = new BufferedImage(imagem.getWidth(), imagem.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
+            Graphics2D g = bgr.createGraphics();
+            try { g.drawImage(imagem, 0, 0, null); } finally { g.dispose(); }
+        }
+        byte[] dados = ((DataBufferByte) bgr.getRaster().getDataBuffer()).getData();
+        Mat mat = new Mat(bgr.getHeight(), bgr.getWidth(), CvType.CV_8UC3);
+        mat.put(0, 0, dados);
+        return mat;
+    }
+
+    /** Mat CV_8UC1 ou CV_8UC3 → BufferedImage (TYPE_BYTE_GRAY / TYPE_3BYTE_BGR) copiando o buffer. */
+    static BufferedImage paraBufferedImage(Mat mat) {
+        int tipo = switch (mat.channels()) {
+            case 1 -> BufferedImage.TYPE_BYTE_GRAY;
+            case 3 -> BufferedImage.TYPE_3BYTE_BGR;
+            default -> throw new IllegalArgumentException("Mat com " + mat.channels() + " canais não suportada");
+        };
+        Mat continua = mat.isContinuous() ? mat : mat.clone();
+        try {
+            BufferedImage imagem = new BufferedImage(continua.cols(), continua.rows(), tipo);
+            byte[] destino = ((DataBufferByte) imagem.getRaster().getDataBuffer()).getData();
+            continua.get(0, 0, destino);
+            return imagem;
+        } finally {
+            if (continua != mat) {
+                continua.release();
+            }
+        }
+    }
+}
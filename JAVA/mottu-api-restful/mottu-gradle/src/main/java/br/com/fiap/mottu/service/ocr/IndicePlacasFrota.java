@@ -0,0 +1,356 @@
+package br.com.fiap.mottu.service.ocr;
+
+import br.com.fiap.mottu.repository.VeiculoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória das placas da frota para aproximar leituras do OCR (vizinhança por deleção).
+ *
+ * Cada placa é indexada por ela mesma e por cada variante com um caractere removido; duas placas
+ * a até uma edição (troca, inclusão ou remoção) sempre compartilham uma dessas chaves. A consulta
+ * gera as mesmas variantes da leitura e confere com Levenshtein só os poucos candidatos, em vez de
+ * comparar com a frota inteira como {@link PlateUtils#bestCandidate}. As chaves são codificadas
+ * em {@code long} (6 bits por caractere) numa tabela de endereçamento aberto, sem objetos por entrada.
+ * Raios maiores que 1 caem na varredura linear.
+ *
+ * Carregado do {@link VeiculoRepository} na subida e mantido pelos eventos {@link PlacaFrotaAlterada}
+ * publicados pelo VeiculoService após o commit. Remoções só marcam a placa; o índice é recriado
+ * quando as marcas superam as placas ativas.
+ */
+@Component
+@Slf4j
+public class IndicePlacasFrota {
+
+    /** Raio coberto pelo índice; consultas acima disso usam a varredura linear. */
+    public static final int DISTANCIA_INDEXADA = 1;
+    private static final int MAXIMO_CARACTERES = 10; // 10 x 6 bits cabem no long
+    private static final int MINIMO_REMOVIDAS_PARA_RECRIAR = 1024;
+    private static final int SEM_ENTRADA = -1;
+
+    /** Placa conhecida e sua distância até a placa consultada. */
+    public record PlacaProxima(String placa, int distancia) {}
+
+    private final VeiculoRepository veiculoRepository;
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+    private final LongAdder consultas = new LongAdder();
+
+    // Placas por id; removidas ficam marcadas até a próxima recriação
+    private final Map<String, Integer> idPorPlaca = new HashMap<>();
+    private String[] placas = new String[16];
+    private final BitSet removidas = new BitSet();
+    private int quantidadePlacas;
+    private int quantidadeRemovidas;
+    private final List<Integer> foraDoPadrao = new ArrayList<>(); // placas longas demais para a chave long
+
+    // Entradas (chave -> placa), encadeadas por chave
+    private long[] entradaChave = new long[64];
+    private int[] entradaPlaca = new int[64];
+    private int[] entradaProxima = new int[64];
+    private int quantidadeEntradas;
+
+    // Tabela de endereçamento aberto: chave -> primeira entrada
+    private long[] tabelaChaves = new long[128];
+    private int[] tabelaCabeca = new int[128];
+
+    public IndicePlacasFrota(VeiculoRepository veiculoRepository) {
+        this.veiculoRepository = veiculoRepository;
+    }
+
+    /** Carga inicial (e recarga completa) a partir do banco. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        try {
+            reconstruir(veiculoRepository.listarPlacas());
+            log.info("🔎 Índice de placas da frota: {} placa(s) em {} ms", tamanho(), System.currentTimeMillis() - inicio);
+        } catch (RuntimeException e) {
+            log.error("❌ Falha ao carregar o índice de placas da frota: {}", e.getMessage());
+        }
+    }
+
+    /** Mantém o índice em dia com o cadastro de veículos (somente após o commit). */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarPlaca(PlacaFrotaAlterada evento) {
+        if (evento.anterior() != null) {
+            remover(evento.anterior());
+        }
+        if (evento.atual() != null) {
+            adicionar(evento.atual());
+        }
+    }
+
+    public void reconstruir(Collection<String> novasPlacas) {
+        trava.writeLock().lock();
+        try {
+            recriar(novasPlacas);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void adicionar(String placa) {
+        String chave = PlateUtils.cleanRaw(placa);
+        if (chave.isEmpty()) {
+            return;
+        }
+        trava.writeLock().lock();
+        try {
+            inserir(chave);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void remover(String placa) {
+        String chave = PlateUtils.cleanRaw(placa);
+        trava.writeLock().lock();
+        try {
+            Integer id = idPorPlaca.remove(chave);
+            if (id == null) {
+                return;
+            }
+            removidas.set(id);
+            quantidadeRemovidas++;
+            if (quantidadeRemovidas > Math.max(MINIMO_REMOVIDAS_PARA_RECRIAR, idPorPlaca.size())) {
+                recriar(new ArrayList<>(idPorPlaca.keySet()));
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Placas conhecidas a até {@code distanciaMaxima} edições, da mais próxima para a mais distante.
+     */
+    public List<PlacaProxima> buscar(String placa, int distanciaMaxima) {
+        String leitura = PlateUtils.cleanRaw(placa);
+        List<PlacaProxima> encontradas = new ArrayList<>();
+        if (leitura.isEmpty() || distanciaMaxima < 0) {
+            return encontradas;
+        }
+        consultas.increment();
+        trava.readLock().lock();
+        try {
+            if (distanciaMaxima > DISTANCIA_INDEXADA || leitura.length() > MAXIMO_CARACTERES) {
+                idPorPlaca.values().forEach(id -> conferir(id, leitura, distanciaMaxima, encontradas));
+            } else {
+                BitSet vistas = new BitSet();
+                for (long chave : variantes(leitura, distanciaMaxima)) {
+                    for (int e = primeiraEntrada(chave); e != SEM_ENTRADA; e = entradaProxima[e]) {
+                        int id = entradaPlaca[e];
+                        if (!vistas.get(id)) {
+                            vistas.set(id);
+                            conferir(id, leitura, distanciaMaxima, encontradas);
+                        }
+                    }
+                }
+                foraDoPadrao.forEach(id -> conferir(id, leitura, distanciaMaxima, encontradas));
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+        encontradas.sort(Comparator.comparingInt(PlacaProxima::distancia).thenComparing(PlacaProxima::placa));
+        return encontradas;
+    }
+
+    /**
+     * Placa da frota mais próxima da leitura, quando ela é única no raio informado
+     * (empate entre duas placas é ambíguo e retorna vazio).
+     */
+    public Optional<String> maisProxima(String placa, int distanciaMaxima) {
+        List<PlacaProxima> encontradas = buscar(placa, distanciaMaxima);
+        if (encontradas.isEmpty()) {
+            return Optional.empty();
+        }
+        if (encontradas.size() > 1 && encontradas.get(1).distancia() == encontradas.get(0).distancia()) {
+            return Optional.empty();
+        }
+        return Optional.of(encontradas.get(0).placa());
+    }
+
+    public int tamanho() {
+        trava.readLock().lock();
+        try {
+            return idPorPlaca.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /** Placas ativas, placas marcadas como removidas, chaves indexadas e consultas atendidas. */
+    public Map<String, Object> estatisticas() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        trava.readLock().lock();
+        try {
+            stats.put("placas", idPorPlaca.size());
+            stats.put("removidas", quantidadeRemovidas);
+            stats.put("entradas", quantidadeEntradas);
+        } finally {
+            trava.readLock().unlock();
+        }
+        stats.put("consultas", consultas.sum());
+        return stats;
+    }
+
+    private void conferir(int id, String leitura, int distanciaMaxima, List<PlacaProxima> encontradas) {
+        if (removidas.get(id)) {
+            return;
+        }
+        String conhecida = placas[id];
+        if (Math.abs(conhecida.length() - leitura.length()) > distanciaMaxima) {
+            return;
+        }
+        int distancia = PlateUtils.levenshtein(leitura, conhecida);
+        if (distancia <= distanciaMaxima) {
+            encontradas.add(new PlacaProxima(conhecida, distancia));
+        }
+    }
+
+    private void recriar(Collection<String> novasPlacas) {
+        idPorPlaca.clear();
+        removidas.clear();
+        foraDoPadrao.clear();
+        quantidadePlacas = 0;
+        quantidadeRemovidas = 0;
+        quantidadeEntradas = 0;
+        int capacidade = Math.max(16, novasPlacas.size());
+        placas = new String[capacidade];
+        int entradasPrevistas = capacidade * 8;
+        entradaChave = new long[entradasPrevistas];
+        entradaPlaca = new int[entradasPrevistas];
+        entradaProxima = new int[entradasPrevistas];
+        criarTabela(entradasPrevistas);
+        for (String placa : novasPlacas) {
+            String chave = PlateUtils.cleanRaw(placa);
+            if (!chave.isEmpty()) {
+                inserir(chave);
+            }
+        }
+    }
+
+    private void inserir(String chave) {
+        if (idPorPlaca.containsKey(chave)) {
+            return;
+        }
+        if (quantidadePlacas == placas.length) {
+            placas = Arrays.copyOf(placas, placas.length * 2);
+        }
+        int id = quantidadePlacas++;
+        placas[id] = chave;
+        idPorPlaca.put(chave, id);
+        if (chave.length() > MAXIMO_CARACTERES) {
+            foraDoPadrao.add(id);
+            return;
+        }
+        for (long variante : variantes(chave, DISTANCIA_INDEXADA)) {
+            adicionarEntrada(variante, id);
+        }
+    }
+
+    /** A própria placa e, com raio 1, cada variante sem um caractere (sem repetições). */
+    private static long[] variantes(String placa, int distancia) {
+        if (distancia == 0 || placa.length() == 1) {
+            return new long[]{codificar(placa, -1)};
+        }
+        long[] chaves = new long[placa.length() + 1];
+        int quantidade = 0;
+        chaves[quantidade++] = codificar(placa, -1);
+        for (int i = 0; i < placa.length(); i++) {
+            // Remover qualquer caractere de uma sequência repetida gera a mesma variante
+            if (i > 0 && placa.charAt(i) == placa.charAt(i - 1)) {
+                continue;
+            }
+            chaves[quantidade++] = codificar(placa, i);
+        }
+        return quantidade == chaves.length ? chaves : Arrays.copyOf(chaves, quantidade);
+    }
+
+    /** 6 bits por caractere (0-9 → 1..10, A-Z → 11..36), ignorando a posição {@code sem}; nunca 0. */
+    private static long codificar(String placa, int sem) {
+        long codigo = 0;
+        for (int i = placa.length() - 1; i >= 0; i--) {
+            if (i == sem) {
+                continue;
+            }
+            char c = placa.charAt(i);
+            int valor = c <= '9' ? c - '0' + 1 : c - 'A' + 11;
+            codigo = (codigo << 6) | valor;
+        }
+        return codigo;
+    }
+
+    private void adicionarEntrada(long chave, int id) {
+        if (quantidadeEntradas == entradaChave.length) {
+            int novoTamanho = entradaChave.length * 2;
+            entradaChave = Arrays.copyOf(entradaChave, novoTamanho);
+            entradaPlaca = Arrays.copyOf(entradaPlaca, novoTamanho);
+            entradaProxima = Arrays.copyOf(entradaProxima, novoTamanho);
+        }
+        if (quantidadeEntradas * 2 >= tabelaChaves.length) {
+            criarTabela(tabelaChaves.length * 2);
+            for (int e = 0; e < quantidadeEntradas; e++) {
+                encadear(e);
+            }
+        }
+        int e = quantidadeEntradas++;
+        entradaChave[e] = chave;
+        entradaPlaca[e] = id;
+        encadear(e);
+    }
+
+    private void criarTabela(int entradasPrevistas) {
+        int capacidade = Integer.highestOneBit(Math.max(64, entradasPrevistas * 2) - 1) << 1;
+        tabelaChaves = new long[capacidade];
+        tabelaCabeca = new int[capacidade];
+    }
+
+    /** Coloca a entrada no início da lista da sua chave. */
+    private void encadear(int e) {
+        int posicao = posicao(entradaChave[e]);
+        if (tabelaChaves[posicao] == 0) {
+            tabelaChaves[posicao] = entradaChave[e];
+            entradaProxima[e] = SEM_ENTRADA;
+        } else {
+            entradaProxima[e] = tabelaCabeca[posicao];
+        }
+        tabelaCabeca[posicao] = e;
+    }
+
+    private int primeiraEntrada(long chave) {
+        int posicao = posicao(chave);
+        return tabelaChaves[posicao] == 0 ? SEM_ENTRADA : tabelaCabeca[posicao];
+    }
+
+    /** Sondagem linear até a chave ou uma posição vazia. */
+    private int posicao(long chave) {
+        int mascara = tabelaChaves.length - 1;
+        int posicao = (int) (mix(chave) & mascara);
+        while (tabelaChaves[posicao] != 0 && tabelaChaves[posicao] != chave) {
+            posicao = (posicao + 1) & mascara;
+        }
+        return posicao;
+    }
+
+    private static long mix(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.fiap.mottu.service.ocr;
+
+/**
+ * Resultado de um motor de OCR: placa normalizada e confiança (0-100), ou a mensagem de falha.
+ * {@code semPlaca} distingue "o motor leu a imagem e não há placa" de falhas do motor (crash, timeout).
+ */
+record LeituraPlaca(String placa, double confianca, String mensagemErro, boolean semPlaca) {
+
+    static LeituraPlaca encontrada(String placa, double confianca) {
+        return new LeituraPlaca(placa, confianca, null, false);
+    }
+
+    static LeituraPlaca falha(String mensagemErro) {
+        return new LeituraPlaca(null, 0, mensagemErro, false);
+    }
+
+    static LeituraPlaca semPlaca(String mensagem) {
+        return new LeituraPlaca(null, 0, mensagem, true);
+    }
+
+    /** Placa válida (Mercosul/antiga) com confiança mínima. */
+    boolean aceita(double confiancaMinima) {
+        return PlateUtils.isPlacaValida(placa) && confianca >= confiancaMinima;
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.fiap.mottu.service.ocr;
+
+/**
+ * Motor de OCR síncrono disputado pelo {@link ReconhecedorEspeculativo}.
+ *
+ * A chamada bloqueia a thread até o resultado; ao ser interrompida (motor perdedor)
+ * a implementação deve abandonar o trabalho assim que possível.
+ */
+@FunctionalInterface
+interface MotorPlaca {
+
+    LeituraPlaca ler(String sessionId, byte[] imagem) throws Exception;
+}
@@ -0,0 +1,45 @@
+package br.com.fiap.mottu.service.ocr;
+
+import net.sourceforge.tess4j.Tesseract;
+import net.sourceforge.tess4j.TesseractException;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Instância de Tesseract inicializada uma única vez (traineddata carregado na criação).
+ *
+ * O {@code doOCR} do Tess4J cria e destrói o handle nativo a cada chamada; aqui o handle
+ * é mantido entre as placas e liberado apenas em {@link #encerrar()}. Não é thread-safe:
+ * use sempre através do {@link PoolMotoresOcr}.
+ */
+class MotorTesseract extends Tesseract {
+
+    MotorTesseract(String datapath, String idioma) {
+        setDatapath(datapath);
+        setLanguage(idioma);
+        setVariable("user_defined_dpi", "300");
+        init();
+        setVariables();
+    }
+
+    /** Texto reconhecido e a confiança média das palavras (0-100). */
+    record Texto(String texto, int confianca) {}
+
+    Texto reconhecer(BufferedImage imagem) throws TesseractException {
+        try {
+            setImage(imagem);
+            String texto = getOCRText(null, 1);
+            int confianca = getAPI().TessBaseAPIMeanTextConf(getHandle());
+            return new Texto(texto != null ? texto.trim() : "", confianca);
+        } catch (IOException e) {
+            throw new TesseractException(e);
+        } finally {
+            getAPI().TessBaseAPIClear(getHandle());
+        }
+    }
+
+    void encerrar() {
+        dispose();
+    }
+}
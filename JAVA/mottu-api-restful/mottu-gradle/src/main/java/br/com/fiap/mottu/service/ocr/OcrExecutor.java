@@ -0,0 +1,165 @@
+package br.com.fiap.mottu.service.ocr;
+
+import br.com.fiap.mottu.exception.OcrOcupadoException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool dedicado ao reconhecimento de placas.
+ *
+ * Cada tarefa de OCR ocupa um motor nativo (Tesseract, imagem em memória) ou um processo
+ * {@code alpr} persistente ({@link WorkerAlpr}), ambos limitados pelos {@link PoolMotoresOcr},
+ * então roda fora do ForkJoinPool comum, com concorrência fixa e fila limitada. Com a fila cheia a submissão falha na hora com
+ * {@link OcrOcupadoException} (HTTP 429) em vez de acumular processos.
+ * Também expõe a utilização dos {@link PoolMotoresOcr} registrados.
+ */
+@Component
+@Slf4j
+public class OcrExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final int concorrencia;
+    private final int capacidadeFila;
+    private final AtomicInteger emExecucao = new AtomicInteger();
+    private final LongAdder concluidas = new LongAdder();
+    private final LongAdder rejeitadas = new LongAdder();
+    private final Map<String, Latencia> latenciaPorMotor = new ConcurrentHashMap<>();
+    private final Map<String, PoolMotoresOcr<?>> pools = new ConcurrentHashMap<>();
+
+    public OcrExecutor(@Value("${mottu.ocr.executor.concorrencia:2}") int concorrencia,
+                       @Value("${mottu.ocr.executor.capacidadeFila:8}") int capacidadeFila) {
+        this.concorrencia = Math.max(1, concorrencia);
+        this.capacidadeFila = Math.max(1, capacidadeFila);
+        AtomicInteger sequencia = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.concorrencia, this.concorrencia, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "ocr-worker-" + sequencia.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("🔤 Pool de OCR: {} worker(s), fila de {} imagem(ns)", this.concorrencia, this.capacidadeFila);
+    }
+
+    /**
+     * Enfileira o reconhecimento de uma sessão.
+     * @throws OcrOcupadoException quando todos os workers estão ocupados e a fila está cheia
+     */
+    public void submeter(String sessionId, Runnable tarefa) {
+        try {
+            executor.execute(() -> {
+                emExecucao.incrementAndGet();
+                try {
+                    tarefa.run();
+                } finally {
+                    emExecucao.decrementAndGet();
+                    concluidas.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+            log.warn("⚠️ [OCR:{}] Fila de OCR cheia ({} na fila, {} em execução)",
+                    sessionId, executor.getQueue().size(), emExecucao.get());
+            throw new OcrOcupadoException("Reconhecimento de placas ocupado. Tente novamente em instantes.");
+        }
+    }
+
+    /**
+     * Registra a duração de uma execução de motor de OCR (ex.: "openalpr", "tesseract").
+     */
+    public void registrarLatencia(String motor, long duracaoMs, boolean sucesso) {
+        latenciaPorMotor.computeIfAbsent(motor, m -> new Latencia()).registrar(duracaoMs, sucesso);
+    }
+
+    /** Inclui a utilização do pool de motores nas {@link #estatisticas()}. */
+    public void registrarPool(String nome, PoolMotoresOcr<?> pool) {
+        pools.put(nome, pool);
+    }
+
+    public int getConcorrencia() {
+        return concorrencia;
+    }
+
+    public int getTamanhoFila() {
+        return executor.getQueue().size();
+    }
+
+    public int getEmExecucao() {
+        return emExecucao.get();
+    }
+
+    public long getConcluidas() {
+        return concluidas.sum();
+    }
+
+    public long getRejeitadas() {
+        return rejeitadas.sum();
+    }
+
+    /** Snapshot das métricas do pool (fila, em execução, rejeições e latência por motor). */
+    public Map<String, Object> estatisticas() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("concorrencia", concorrencia);
+        stats.put("capacidadeFila", capacidadeFila);
+        stats.put("fila", getTamanhoFila());
+        stats.put("emExecucao", getEmExecucao());
+        stats.put("concluidas", concluidas.sum());
+        stats.put("rejeitadas", rejeitadas.sum());
+        Map<String, Object> motores = new TreeMap<>();
+        latenciaPorMotor.forEach((motor, latencia) -> motores.put(motor, latencia.comoMapa()));
+        stats.put("latenciaPorMotor", motores);
+        Map<String, Object> poolsMotores = new TreeMap<>();
+        pools.forEach((nome, pool) -> poolsMotores.put(nome, pool.estatisticas()));
+        stats.put("poolsMotores", poolsMotores);
+        return stats;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private static final class Latencia {
+        private final LongAdder execucoes = new LongAdder();
+        private final LongAdder falhas = new LongAdder();
+        private final LongAdder totalMs = new LongAdder();
+        private final AtomicLong maximaMs = new AtomicLong();
+        private volatile long ultimaMs;
+
+        void registrar(long duracaoMs, boolean sucesso) {
+            execucoes.increment();
+            if (!sucesso) {
+                falhas.increment();
+            }
+            totalMs.add(duracaoMs);
+            maximaMs.accumulateAndGet(duracaoMs, Math::max);
+            ultimaMs = duracaoMs;
+        }
+
+        Map<String, Object> comoMapa() {
+            long quantidade = execucoes.sum();
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            mapa.put("execucoes", quantidade);
+            mapa.put("falhas", falhas.sum());
+            mapa.put("mediaMs", quantidade > 0 ? totalMs.sum() / quantidade : 0);
+            mapa.put("maximaMs", maximaMs.get());
+            mapa.put("ultimaMs", ultimaMs);
+            return mapa;
+        }
+    }
+}
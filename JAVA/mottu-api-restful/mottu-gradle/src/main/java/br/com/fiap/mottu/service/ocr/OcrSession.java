@@ -10,11 +10,13 @@ public class OcrSession {
         PENDING, // Aguardando a imagem do celular
         PROCESSING, // Processando a imagem no backend
         COMPLETED, // Placa reconhecida com sucesso
-        ERROR // Ocorreu um erro
+        ERROR, // Ocorreu um erro
+        BUSY // Fila de OCR cheia; reenviar a imagem
     }
 
     private final String id;
-    private Status status = Status.PENDING;
+    private volatile Status status = Status.PENDING;
     private String recognizedPlate;
+    private String placaLida; // leitura do OCR antes da aproximação com a frota
     private String errorMessage;
 }
\ No newline at end of file
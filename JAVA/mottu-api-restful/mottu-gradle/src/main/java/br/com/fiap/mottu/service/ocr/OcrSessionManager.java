@@ -2,47 +2,213 @@
 
 package br.com.fiap.mottu.service.ocr;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
+/**
+ * Sessões de OCR em memória, com validade e limite de quantidade.
+ *
+ * Sessões em andamento expiram {@code ttlMinutos} após a última mudança de status; sessões
+ * concluídas (COMPLETED/ERROR) ficam só {@code ttlConcluidaSegundos}, tempo suficiente para o
+ * cliente ler o resultado. Acima de {@code maximo} as mais antigas são descartadas.
+ *
+ * Quem aguarda o resultado ({@link #aguardarConclusao}) é notificado no momento da mudança,
+ * sem polling.
+ */
 @Component
+@Slf4j
 public class OcrSessionManager {
-    private final ConcurrentHashMap<String, OcrSession> sessions = new ConcurrentHashMap<>();
+
+    private final Cache<String, OcrSession> sessions;
+    private final Map<String, CompletableFuture<OcrSession>> aguardando = new ConcurrentHashMap<>();
+    private final Duration ttlAtiva;
+    private final Duration ttlConcluida;
+    private final LongAdder criadas = new LongAdder();
+    private final LongAdder expiradas = new LongAdder();
+    private final LongAdder descartadasPorLimite = new LongAdder();
+
+    @Autowired
+    public OcrSessionManager(@Value("${mottu.ocr.sessao.ttlMinutos:10}") long ttlMinutos,
+                             @Value("${mottu.ocr.sessao.ttlConcluidaSegundos:120}") long ttlConcluidaSegundos,
+                             @Value("${mottu.ocr.sessao.maximo:10000}") long maximo) {
+        this(Duration.ofMinutes(ttlMinutos), Duration.ofSeconds(ttlConcluidaSegundos), maximo,
+                Ticker.systemTicker(), Scheduler.systemScheduler(), Runnable::run);
+    }
+
+    OcrSessionManager(Duration ttlAtiva, Duration ttlConcluida, long maximo,
+                      Ticker ticker, Scheduler scheduler, Executor executor) {
+        this.ttlAtiva = ttlAtiva;
+        this.ttlConcluida = ttlConcluida;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfter(new ExpiracaoPorStatus())
+                .ticker(ticker)
+                .scheduler(scheduler)
+                .executor(executor)
+                .removalListener(this::aoRemover)
+                .build();
+        log.info("🔤 Sessões de OCR: validade {} (concluídas {}), máximo {}", ttlAtiva, ttlConcluida, maximo);
+    }
 
     public OcrSession createSession() {
         String sessionId = UUID.randomUUID().toString();
         OcrSession session = new OcrSession(sessionId);
         sessions.put(sessionId, session);
+        criadas.increment();
         return session;
     }
 
     public Optional<OcrSession> getSession(String sessionId) {
-        return Optional.ofNullable(sessions.get(sessionId));
+        return Optional.ofNullable(sessions.getIfPresent(sessionId));
     }
 
     public void updateSessionSuccess(String sessionId, String plate) {
-        Optional.ofNullable(sessions.get(sessionId)).ifPresent(session -> {
-            session.setStatus(OcrSession.Status.COMPLETED);
+        updateSessionSuccess(sessionId, plate, plate);
+    }
+
+    /** Placa final (ex.: corrigida pelo índice da frota) e a leitura original do OCR. */
+    public void updateSessionSuccess(String sessionId, String plate, String placaLida) {
+        atualizar(sessionId, session -> {
             session.setRecognizedPlate(plate);
+            session.setPlacaLida(placaLida);
+            session.setStatus(OcrSession.Status.COMPLETED);
         });
     }
 
     public void updateSessionError(String sessionId, String errorMessage) {
-        Optional.ofNullable(sessions.get(sessionId)).ifPresent(session -> {
-            session.setStatus(OcrSession.Status.ERROR);
+        atualizar(sessionId, session -> {
             session.setErrorMessage(errorMessage);
+            session.setStatus(OcrSession.Status.ERROR);
         });
     }
 
-    public void setSessionProcessing(String sessionId) {
-        Optional.ofNullable(sessions.get(sessionId)).ifPresent(session -> {
-            session.setStatus(OcrSession.Status.PROCESSING);
+    /** Fila de OCR cheia: a sessão continua válida e aceita um novo envio da imagem. */
+    public void updateSessionBusy(String sessionId, String message) {
+        atualizar(sessionId, session -> {
+            session.setErrorMessage(message);
+            session.setStatus(OcrSession.Status.BUSY);
         });
     }
 
+    public void setSessionProcessing(String sessionId) {
+        atualizar(sessionId, session -> session.setStatus(OcrSession.Status.PROCESSING));
+    }
+
     public void removeSession(String sessionId) {
-        sessions.remove(sessionId);
+        sessions.invalidate(sessionId);
+    }
+
+    /**
+     * Resultado da sessão assim que ela mudar para COMPLETED, ERROR ou BUSY.
+     * Já concluída, o futuro retorna completo; sessão inexistente retorna {@link Optional#empty()}.
+     */
+    public Optional<CompletableFuture<OcrSession>> aguardarConclusao(String sessionId) {
+        OcrSession session = sessions.getIfPresent(sessionId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        if (temResultado(session)) {
+            return Optional.of(CompletableFuture.completedFuture(session));
+        }
+        CompletableFuture<OcrSession> futuro = aguardando.computeIfAbsent(sessionId, id -> new CompletableFuture<>());
+        // A sessão pode ter concluído entre a leitura acima e o registro do futuro
+        if (temResultado(session)) {
+            notificar(session);
+        }
+        return Optional.of(futuro);
+    }
+
+    /** Sessões ativas, criadas, expiradas, descartadas pelo limite e clientes aguardando. */
+    public Map<String, Object> estatisticas() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ativas", sessions.estimatedSize());
+        stats.put("criadas", criadas.sum());
+        stats.put("expiradas", expiradas.sum());
+        stats.put("descartadasPorLimite", descartadasPorLimite.sum());
+        stats.put("aguardando", aguardando.size());
+        return stats;
+    }
+
+    /** O status é gravado por último (volatile): quem o lê já enxerga placa/mensagem. */
+    private void atualizar(String sessionId, Consumer<OcrSession> mudanca) {
+        OcrSession session = sessions.getIfPresent(sessionId);
+        if (session == null) {
+            return;
+        }
+        mudanca.accept(session);
+        // Reprograma a validade conforme o novo status
+        sessions.policy().expireVariably().ifPresent(politica ->
+                politica.setExpiresAfter(sessionId, validade(session)));
+        if (session.getStatus() != OcrSession.Status.PROCESSING) {
+            notificar(session);
+        }
+    }
+
+    private void notificar(OcrSession session) {
+        CompletableFuture<OcrSession> futuro = aguardando.remove(session.getId());
+        if (futuro != null) {
+            futuro.complete(session);
+        }
+    }
+
+    private void aoRemover(String sessionId, OcrSession session, RemovalCause causa) {
+        if (causa == RemovalCause.EXPIRED) {
+            expiradas.increment();
+        } else if (causa == RemovalCause.SIZE) {
+            descartadasPorLimite.increment();
+        }
+        if (session != null && causa != RemovalCause.REPLACED) {
+            log.debug("Sessão de OCR {} removida ({}, status {})", sessionId, causa, session.getStatus());
+            notificar(session);
+        }
+    }
+
+    private static boolean isConcluida(OcrSession session) {
+        return session.getStatus() == OcrSession.Status.COMPLETED || session.getStatus() == OcrSession.Status.ERROR;
+    }
+
+    /** Há algo a devolver a quem aguarda; BUSY não é conclusão (a sessão aceita novo envio), mas encerra a espera. */
+    private static boolean temResultado(OcrSession session) {
+        return isConcluida(session) || session.getStatus() == OcrSession.Status.BUSY;
+    }
+
+    private Duration validade(OcrSession session) {
+        return isConcluida(session) ? ttlConcluida : ttlAtiva;
+    }
+
+    private final class ExpiracaoPorStatus implements Expiry<String, OcrSession> {
+        @Override
+        public long expireAfterCreate(String id, OcrSession session, long agora) {
+            return validade(session).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, OcrSession session, long agora, long restante) {
+            return validade(session).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String id, OcrSession session, long agora, long restante) {
+            return restante;
+        }
     }
-}
\ No newline at end of file
+}
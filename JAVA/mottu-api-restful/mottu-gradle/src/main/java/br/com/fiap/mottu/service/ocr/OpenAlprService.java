@@ -1,11 +1,16 @@
 package br.com.fiap.mottu.service.ocr;
 
+import br.com.fiap.mottu.exception.OcrOcupadoException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Primary;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
@@ -14,19 +19,20 @@ import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
-@Primary
 public class OpenAlprService implements PlateRecognizer {
 
     private static final Logger log = LoggerFactory.getLogger(OpenAlprService.class);
     private final ObjectMapper om = new ObjectMapper();
     private final OcrSessionManager sessionManager;
+    private final OcrExecutor ocrExecutor;
 
-    public OpenAlprService(OcrSessionManager sessionManager) {
+    public OpenAlprService(OcrSessionManager sessionManager, OcrExecutor ocrExecutor) {
         this.sessionManager = sessionManager;
+        this.ocrExecutor = ocrExecutor;
     }
 
     @Value("${mottu.ocr.alpr.command:alpr}")
@@ -47,32 +53,112 @@ public class OpenAlprService implements PlateRecognizer {
     @Value("${mottu.ocr.alpr.debugOutputDir:logs}")
     private String debugOutputDir;
 
+    /** Processos alpr persistentes; 0 = um por worker do {@link OcrExecutor}. */
+    @Value("${mottu.ocr.alpr.workers:0}")
+    private int quantidadeWorkers;
+
+    @Value("${mottu.ocr.alpr.esperaWorkerMs:10000}")
+    private long esperaWorkerMs;
+
+    /** Região usada pelos workers; passa a 'eu' quando o perfil configurado não carrega. */
+    private volatile String regiaoAtiva;
+    private PoolMotoresOcr<WorkerAlpr> poolWorkers;
+    /** Workers de região fixa usados pelo {@link ReconhecedorEspeculativo} (ex.: 'eu' em paralelo com 'br'). */
+    private final Map<String, PoolMotoresOcr<WorkerAlpr>> poolsPorRegiao = new ConcurrentHashMap<>();
+    private final AtomicInteger numeroWorker = new AtomicInteger();
+    private int tamanhoPool;
+
+    @PostConstruct
+    public void init() {
+        regiaoAtiva = region;
+        tamanhoPool = quantidadeWorkers > 0 ? quantidadeWorkers : ocrExecutor.getConcorrencia();
+        poolWorkers = new PoolMotoresOcr<>("openalpr", tamanhoPool,
+                () -> new WorkerAlpr(numeroWorker.incrementAndGet(), List.of(alprCommand), () -> regiaoAtiva, topN, timeoutMs),
+                WorkerAlpr::encerrar);
+        ocrExecutor.registrarPool("openalpr", poolWorkers);
+    }
+
+    /**
+     * Pool de workers da região informada. A região configurada usa o pool principal
+     * (que pode passar a 'eu' no fallback); as demais ganham um pool próprio, de região fixa.
+     */
+    PoolMotoresOcr<WorkerAlpr> prepararRegiao(String regiao) {
+        if (regiao.equals(region)) {
+            return poolWorkers;
+        }
+        return poolsPorRegiao.computeIfAbsent(regiao, r -> {
+            PoolMotoresOcr<WorkerAlpr> pool = new PoolMotoresOcr<>("openalpr/" + r, tamanhoPool,
+                    () -> new WorkerAlpr(numeroWorker.incrementAndGet(), List.of(alprCommand), () -> r, topN, timeoutMs),
+                    WorkerAlpr::encerrar);
+            ocrExecutor.registrarPool("openalpr/" + r, pool);
+            return pool;
+        });
+    }
+
+    /** Inicia os processos na subida, para que a primeira placa não pague a carga dos modelos. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecerWorkers() {
+        verificarWorkers();
+    }
+
+    /** Health check: reinicia workers livres que terminaram (crash) ou estão em outra região. */
+    @Scheduled(fixedDelayString = "${mottu.ocr.alpr.healthCheckMs:30000}",
+            initialDelayString = "${mottu.ocr.alpr.healthCheckMs:30000}")
+    public void verificarWorkers() {
+        List<PoolMotoresOcr<WorkerAlpr>> pools = new ArrayList<>(poolsPorRegiao.values());
+        pools.add(poolWorkers);
+        for (PoolMotoresOcr<WorkerAlpr> pool : pools) {
+            pool.verificarLivres(worker -> {
+                worker.garantirAtivo();
+                return null;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        poolWorkers.close();
+        poolsPorRegiao.values().forEach(PoolMotoresOcr::close);
+    }
+
+    /**
+     * Reconhecimento síncrono numa única região, sem fallback (o {@link ReconhecedorEspeculativo}
+     * já dispara as regiões em paralelo).
+     */
+    LeituraPlaca ler(String sessionId, byte[] imageBytes, String regiao) {
+        Result r = runOnce(sessionId, prepararRegiao(regiao), imageBytes);
+        if (r.ok()) {
+            return LeituraPlaca.encontrada(r.normalizedPlate(), r.confianca());
+        }
+        return r.semPlaca() ? LeituraPlaca.semPlaca(r.messageForUser()) : LeituraPlaca.falha(r.messageForUser());
+    }
+
     @Override
     public void extractPlate(String sessionId, byte[] imageBytes) {
         sessionManager.setSessionProcessing(sessionId);
-        CompletableFuture.runAsync(() -> runWithFallback(sessionId, imageBytes));
+        try {
+            ocrExecutor.submeter(sessionId, () -> runWithFallback(sessionId, imageBytes));
+        } catch (OcrOcupadoException e) {
+            sessionManager.updateSessionBusy(sessionId, e.getMessage());
+            throw e;
+        }
     }
 
     private void runWithFallback(String sessionId, byte[] imageBytes) {
-        File tmp = null;
         try {
-            tmp = Files.createTempFile("mottu-plate-", ".jpg").toFile();
-            try (FileOutputStream fos = new FileOutputStream(tmp)) {
-                fos.write(imageBytes);
-            }
-            log.info("[OCR:{}] Temp image: {}", sessionId, tmp.getAbsolutePath());
-
-            // 1) tenta com a região configurada
-            Result r = runOnce(sessionId, tmp, region);
+            // 1) tenta com a região ativa (configurada, ou 'eu' após fallback)
+            String regiao = regiaoAtiva;
+            Result r = runOnce(sessionId, poolWorkers, imageBytes);
             if (r.ok() && r.normalizedPlate() != null) {
                 sessionManager.updateSessionSuccess(sessionId, r.normalizedPlate());
                 return;
             }
 
-            // 2) se foi erro típico de perfil ausente (ex.: br.xml), tenta 'eu'
-            if (needsEuFallback(r.stderrOrMixed())) {
-                log.warn("[OCR:{}] Região '{}' falhou. Tentando fallback 'eu'…", sessionId, region);
-                Result r2 = runOnce(sessionId, tmp, "eu");
+            // 2) erro típico de perfil ausente (ex.: br.xml) na saída do worker: os workers passam a 'eu'
+            if (!"eu".equals(regiao) && needsEuFallback(r.stderrOrMixed())) {
+                log.warn("[OCR:{}] Região '{}' falhou. Workers passam a usar o fallback 'eu'…", sessionId, regiao);
+                regiaoAtiva = "eu";
+                Result r2 = runOnce(sessionId, poolWorkers, imageBytes);
                 if (r2.ok() && r2.normalizedPlate() != null) {
                     sessionManager.updateSessionSuccess(sessionId, r2.normalizedPlate());
                     return;
@@ -84,66 +170,56 @@ public class OpenAlprService implements PlateRecognizer {
             // 3) sem fallback aplicável
             sessionManager.updateSessionError(sessionId, r.messageForUser());
 
+        } catch (OcrOcupadoException e) {
+            sessionManager.updateSessionBusy(sessionId, e.getMessage());
         } catch (Throwable t) {
             log.error("[OCR:{}] Erro no OpenALPR", sessionId, t);
             sessionManager.updateSessionError(sessionId, "Erro interno no reconhecimento.");
-        } finally {
-            if (tmp != null) try { Files.deleteIfExists(tmp.toPath()); } catch (IOException ignored) {}
         }
     }
 
-    private Result runOnce(String sessionId, File imageFile, String cfgRegion) {
-        try {
-            List<String> cmd = new ArrayList<>();
-            cmd.add(alprCommand);
-            cmd.add("-j");
-            cmd.add("-c"); cmd.add(cfgRegion);
-            cmd.add("-n"); cmd.add(String.valueOf(topN));
-            cmd.add(imageFile.getAbsolutePath());
-
-            log.info("[OCR:{}] Executando ({}): {}", sessionId, cfgRegion, String.join(" ", cmd));
-
-            ProcessBuilder pb = new ProcessBuilder(cmd);
-            pb.redirectErrorStream(true);
-            Process p = pb.start();
-
-            boolean finished = p.waitFor(timeoutMs, TimeUnit.MILLISECONDS);
-            if (!finished) {
-                p.destroyForcibly();
-                return Result.error("Timeout executando o OpenALPR (" + cfgRegion + ").", null);
-            }
+    private Result runOnce(String sessionId, PoolMotoresOcr<WorkerAlpr> pool, byte[] imageBytes) {
+        long inicio = System.currentTimeMillis();
+        Result r = pool.usar(esperaWorkerMs, worker -> executarAlpr(sessionId, worker, imageBytes));
+        ocrExecutor.registrarLatencia("openalpr", System.currentTimeMillis() - inicio, r.ok());
+        return r;
+    }
 
-            String mixedOut = readAll(p.getInputStream());
-            int exit = p.exitValue();
+    private Result executarAlpr(String sessionId, WorkerAlpr worker, byte[] imageBytes) {
+        String mixedOut;
+        try {
+            mixedOut = worker.reconhecer(imageBytes);
+        } catch (WorkerAlpr.FalhaWorkerAlpr e) {
+            log.warn("[OCR:{}] {}", sessionId, e.getMessage());
+            return Result.error(e.getMessage(), e.getSaida());
+        } catch (IOException e) {
+            return Result.error("Falha ao executar o OpenALPR (" + worker.getRegiao() + ").", e.toString());
+        }
+        String cfgRegion = worker.getRegiao();
+        log.debug("[OCR:{}] Worker alpr ({}) respondeu", sessionId, cfgRegion);
 
-            // dump debug
+        // dump debug
+        if (log.isDebugEnabled()) {
             dumpJsonDebug(mixedOut, cfgRegion);
+        }
 
-            if (exit != 0) {
-                return Result.error("OpenALPR retornou código " + exit + " (" + cfgRegion + ").", mixedOut);
-            }
-
-            // corta somente o JSON (ignora ruídos antes/depois)
-            String json = extractJson(mixedOut);
-            if (json == null) {
-                return Result.error("Saída inválida do OpenALPR (" + cfgRegion + ").", mixedOut);
-            }
-
-            Optional<String> best = pickBest(json);
-            if (best.isEmpty()) {
-                return Result.error("Nenhuma placa encontrada (" + cfgRegion + ").", json);
-            }
-
-            String normalized = PlateUtils.normalizeMercosul(best.get());
-            if (normalized == null || normalized.isBlank()) {
-                return Result.error("Falha ao normalizar a placa.", json);
-            }
+        // corta somente o JSON (ignora ruídos antes/depois)
+        String json = extractJson(mixedOut);
+        if (json == null) {
+            return Result.error("Saída inválida do OpenALPR (" + cfgRegion + ").", mixedOut);
+        }
 
-            return Result.success(normalized, mixedOut);
+        Optional<Candidato> best = pickBest(json);
+        if (best.isEmpty()) {
+            return Result.semPlaca("Nenhuma placa encontrada (" + cfgRegion + ").", json);
+        }
 
-        } catch (IOException | InterruptedException e) {
-            return Result.error("Falha ao executar o OpenALPR (" + cfgRegion + ").", e.toString());
+        String normalized = PlateUtils.normalizeMercosul(best.get().plate());
+        if (normalized == null || normalized.isBlank()) {
+            return Result.error("Falha ao normalizar a placa.", json);
         }
+
+        return Result.success(normalized, best.get().confidence(), mixedOut);
     }
 
     /** detecta mensagens clássicas de perfil ausente/ruído do opencv */
@@ -163,7 +239,9 @@ public class OpenAlprService implements PlateRecognizer {
         return mixed.substring(start, end + 1);
     }
 
-    private Optional<String> pickBest(String json) {
+    private record Candidato(String plate, double confidence) {}
+
+    private Optional<Candidato> pickBest(String json) {
         try {
             JsonNode root = om.readTree(json);
             JsonNode results = root.get("results");
@@ -171,12 +249,13 @@ public class OpenAlprService implements PlateRecognizer {
 
             double bestScore = -1.0;
             String bestPlate = null;
+            double bestConfidence = 0.0;
 
             for (JsonNode r : results) {
                 if (r.hasNonNull("plate") && r.hasNonNull("confidence")) {
                     String p = r.get("plate").asText("");
                     double c = r.get("confidence").asDouble(0.0);
-                    if (c >= minConfidence && c > bestScore) { bestScore = c; bestPlate = p; }
+                    if (c >= minConfidence && c > bestScore) { bestScore = c; bestPlate = p; bestConfidence = c; }
                 }
                 JsonNode cs = r.get("candidates");
                 if (cs != null && cs.isArray()) {
@@ -185,11 +264,11 @@ public class OpenAlprService implements PlateRecognizer {
                         double c = cand.hasNonNull("confidence") ? cand.get("confidence").asDouble(0.0) : 0.0;
                         boolean matches = cand.hasNonNull("matches_template") && cand.get("matches_template").asInt(0) == 1;
                         double score = c + (matches ? 2.0 : 0.0);
-                        if (c >= minConfidence && score > bestScore) { bestScore = score; bestPlate = p; }
+                        if (c >= minConfidence && score > bestScore) { bestScore = score; bestPlate = p; bestConfidence = c; }
                     }
                 }
             }
-            return Optional.ofNullable(bestPlate);
+            return bestPlate == null ? Optional.empty() : Optional.of(new Candidato(bestPlate, bestConfidence));
         } catch (IOException e) {
             log.warn("Falha ao parsear JSON do OpenALPR", e);
             return Optional.empty();
@@ -208,20 +287,13 @@ public class OpenAlprService implements PlateRecognizer {
         }
     }
 
-    private static String readAll(InputStream in) throws IOException {
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(in))) {
-            StringBuilder sb = new StringBuilder();
-            String s;
-            while ((s = br.readLine()) != null) sb.append(s).append('\n');
-            return sb.toString();
-        }
-    }
-
     // ---------------- Result helper ----------------
-    /** record privado; accessors públicos gerados automaticamente (ok(), normalizedPlate(), stderrOrMixed(), userMsg()) */
-    private record Result(boolean ok, String normalizedPlate, String stderrOrMixed, String userMsg) {
-        static Result success(String plate, String mixed) { return new Result(true, plate, mixed, null); }
-        static Result error(String msg, String mixed)    { return new Result(false, null, mixed, msg); }
+    /** record privado; accessors públicos gerados automaticamente (ok(), normalizedPlate(), confianca(), stderrOrMixed(), userMsg(), semPlaca()) */
+    private record Result(boolean ok, String normalizedPlate, double confianca, String stderrOrMixed, String userMsg, boolean semPlaca) {
+        static Result success(String plate, double confianca, String mixed) { return new Result(true, plate, confianca, mixed, null, false); }
+        static Result error(String msg, String mixed)    { return new Result(false, null, 0.0, mixed, msg, false); }
+        /** o alpr processou a imagem e não achou placa (resultado da imagem, não falha do worker) */
+        static Result semPlaca(String msg, String mixed) { return new Result(false, null, 0.0, mixed, msg, true); }
         String messageForUser() { return userMsg != null ? userMsg : "Falha no reconhecimento."; }
     }
 }
@@ -0,0 +1,9 @@
+package br.com.fiap.mottu.service.ocr;
+
+/**
+ * Placa incluída, alterada ou removida do cadastro de veículos; mantém o {@link IndicePlacasFrota}.
+ *
+ * @param anterior placa que sai do índice (null na criação)
+ * @param atual    placa que entra no índice (null na exclusão)
+ */
+public record PlacaFrotaAlterada(String anterior, String atual) {}
@@ -5,7 +5,8 @@ package br.com.fiap.mottu.service.ocr;
  * Implementações devem:
  *  - Marcar a sessão como PROCESSING ao iniciar
  *  - Atualizar a sessão com COMPLETED + plate OU ERROR + mensagem
- *  - Executar o processamento de forma assíncrona (não bloquear o controller)
+ *  - Executar o processamento de forma assíncrona (não bloquear o controller),
+ *    no {@link OcrExecutor}, marcando a sessão como BUSY quando a fila estiver cheia
  */
 public interface PlateRecognizer {
 
@@ -15,6 +16,7 @@ public interface PlateRecognizer {
      *
      * @param sessionId  ID da sessão (gerenciado por OcrSessionManager)
      * @param imageBytes bytes da imagem enviada (JPEG/PNG, etc.)
+     * @throws br.com.fiap.mottu.exception.OcrOcupadoException quando a fila de OCR está cheia
      */
     void extractPlate(String sessionId, byte[] imageBytes);
 }
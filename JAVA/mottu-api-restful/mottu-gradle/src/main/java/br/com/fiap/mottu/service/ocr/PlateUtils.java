@@ -2,8 +2,8 @@ package br.com.fiap.mottu.service.ocr;
 
 import java.text.Normalizer;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.Objects;
+import java.util.regex.Pattern;
 
 /**
  * Utilitários para limpeza, normalização (padrão Mercosul) e "fuzzy match" de placas.
@@ -11,6 +11,8 @@ import java.util.Objects;
  */
 public final class PlateUtils {
 
+    private static final Pattern PADRAO_PLACA = Pattern.compile("[A-Z]{3}[0-9][A-Z0-9][0-9]{2}");
+
     private PlateUtils() {}
 
     /** Remove acentos, espaços, traços e qualquer caractere não [A-Za-z0-9], e coloca em UPPERCASE. */
@@ -80,6 +82,11 @@ public final class PlateUtils {
         }
     }
 
+    /** Placa completa no padrão Mercosul (LLLNLNN) ou antigo (LLLNNNN), já normalizada. */
+    public static boolean isPlacaValida(String placa) {
+        return placa != null && PADRAO_PLACA.matcher(placa).matches();
+    }
+
     /** Distância de Levenshtein iterativa. */
     public static int levenshtein(String a, String b) {
         if (Objects.equals(a, b)) return 0;
@@ -108,13 +115,16 @@ public final class PlateUtils {
 
     /**
      * Retorna o melhor match (menor distância) até maxDistance ou null.
-     * A coleção pode ser a lista de placas do repositório já normalizadas.
+     * Varredura linear: para a frota inteira use o {@link IndicePlacasFrota}.
      */
     public static String bestCandidate(Collection<String> knownPlates, String candidate, int maxDistance) {
         if (candidate == null) return null;
-        return knownPlates.stream()
-                .min(Comparator.comparingInt(p -> levenshtein(p, candidate)))
-                .filter(best -> levenshtein(best, candidate) <= maxDistance)
-                .orElse(null);
+        String best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (String p : knownPlates) {
+            int d = levenshtein(p, candidate);
+            if (d < bestDistance) { bestDistance = d; best = p; }
+        }
+        return bestDistance <= maxDistance ? best : null;
     }
 }
@@ -0,0 +1,152 @@
+package br.com.fiap.mottu.service.ocr;
+
+import br.com.fiap.mottu.exception.OcrOcupadoException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pool limitado de motores de OCR já inicializados (empresta/devolve).
+ *
+ * Todos os motores são criados na construção, então o custo de carga do modelo fica na subida
+ * e não em cada placa; se a fábrica falhar no meio, os já criados são descartados antes do erro subir. Um motor emprestado pertence a uma única thread até ser devolvido.
+ *
+ * @param <M> tipo do motor (ex.: {@link MotorTesseract})
+ */
+@Slf4j
+public final class PoolMotoresOcr<M> implements AutoCloseable {
+
+    /** Operação executada com um motor emprestado. */
+    @FunctionalInterface
+    public interface OperacaoMotor<M, T, E extends Exception> {
+        T executar(M motor) throws E;
+    }
+
+    private final String nome;
+    private final BlockingQueue<M> livres;
+    private final List<M> todos;
+    private final Consumer<M> descarte;
+    private final LongAdder emprestimos = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder esperaTotalMs = new LongAdder();
+    private final AtomicLong esperaMaximaMs = new AtomicLong();
+
+    public PoolMotoresOcr(String nome, int tamanho, Supplier<M> fabrica, Consumer<M> descarte) {
+        this.nome = nome;
+        this.descarte = descarte;
+        int quantidade = Math.max(1, tamanho);
+        this.livres = new ArrayBlockingQueue<>(quantidade);
+        this.todos = new ArrayList<>(quantidade);
+        long inicio = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < quantidade; i++) {
+                M motor = fabrica.get();
+                todos.add(motor);
+                livres.add(motor);
+            }
+        } catch (RuntimeException | Error e) {
+            // Sem pool não há close(): os motores já criados seriam handles/processos órfãos
+            log.error("❌ Falha ao criar motor {} de {} do pool '{}'; descartando os já criados", todos.size() + 1, quantidade, nome);
+            close();
+            throw e;
+        }
+        log.info("🔤 Pool '{}': {} motor(es) inicializado(s) em {} ms", nome, quantidade, System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Empresta um motor, executa a operação e devolve o motor ao pool.
+     * @throws OcrOcupadoException quando nenhum motor fica livre dentro de {@code limiteEsperaMs}
+     */
+    public <T, E extends Exception> T usar(long limiteEsperaMs, OperacaoMotor<M, T, E> operacao) throws E {
+        M motor = emprestar(limiteEsperaMs);
+        try {
+            return operacao.executar(motor);
+        } finally {
+            livres.offer(motor);
+        }
+    }
+
+    private M emprestar(long limiteEsperaMs) {
+        long inicio = System.nanoTime();
+        M motor;
+        try {
+            motor = livres.poll(limiteEsperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OcrOcupadoException("Reconhecimento de placas interrompido.");
+        }
+        long esperaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        esperaTotalMs.add(esperaMs);
+        esperaMaximaMs.accumulateAndGet(esperaMs, Math::max);
+        if (motor == null) {
+            timeouts.increment();
+            throw new OcrOcupadoException("Nenhum motor de OCR livre. Tente novamente em instantes.");
+        }
+        emprestimos.increment();
+        return motor;
+    }
+
+    /**
+     * Executa a verificação em cada motor livre no momento (ex.: health check periódico).
+     * Motores emprestados são ignorados; falhas são apenas registradas no log.
+     */
+    public void verificarLivres(OperacaoMotor<M, ?, ? extends Exception> verificacao) {
+        List<M> verificados = new ArrayList<>(todos.size());
+        livres.drainTo(verificados);
+        try {
+            for (M motor : verificados) {
+                try {
+                    verificacao.executar(motor);
+                } catch (Exception e) {
+                    log.debug("Verificação de motor do pool '{}' falhou: {}", nome, e.toString());
+                }
+            }
+        } finally {
+            verificados.forEach(livres::offer);
+        }
+    }
+
+    public int getTamanho() {
+        return todos.size();
+    }
+
+    public int getEmUso() {
+        return todos.size() - livres.size();
+    }
+
+    /** Utilização e tempo de espera para emprestar um motor. */
+    public Map<String, Object> estatisticas() {
+        long quantidade = emprestimos.sum() + timeouts.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tamanho", getTamanho());
+        stats.put("emUso", getEmUso());
+        stats.put("utilizacao", String.format("%.0f%%", getEmUso() * 100.0 / getTamanho()));
+        stats.put("emprestimos", emprestimos.sum());
+        stats.put("timeouts", timeouts.sum());
+        stats.put("esperaMediaMs", quantidade > 0 ? esperaTotalMs.sum() / quantidade : 0);
+        stats.put("esperaMaximaMs", esperaMaximaMs.get());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        for (M motor : todos) {
+            try {
+                descarte.accept(motor);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Falha ao descartar motor do pool '{}': {}", nome, e.getMessage());
+            }
+        }
+        livres.clear();
+    }
+}
@@ -0,0 +1,316 @@
+package br.com.fiap.mottu.service.ocr;
+
+import br.com.fiap.mottu.exception.OcrOcupadoException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reconhecimento especulativo: dispara todos os motores configurados ao mesmo tempo
+ * (ex.: OpenALPR 'br', OpenALPR 'eu' e Tesseract) e aceita o primeiro resultado no padrão
+ * de placa e com a confiança mínima. Os perdedores são cancelados e o resultado deles é
+ * descartado (o worker alpr em curso termina a imagem e volta ao pool sem recarregar os
+ * modelos), então o pior caso de uma leitura passa a ser o tempo do motor mais rápido, e não
+ * a soma das tentativas com fallback.
+ *
+ * A placa vencedora é aproximada da frota pelo {@link IndicePlacasFrota}: havendo uma única
+ * placa cadastrada a até {@code mottu.ocr.frota.distanciaMaxima} edições, ela substitui a leitura.
+ *
+ * Antes da disputa a imagem passa pelo {@link CacheResultadosOcr}: um reenvio do mesmo quadro
+ * conclui a sessão na hora, e uploads simultâneos aguardam o mesmo reconhecimento.
+ *
+ * Vitórias, cancelamentos e latência por motor ficam disponíveis em {@link #estatisticas()}
+ * e em "especulativo/&lt;motor&gt;" no {@link OcrExecutor}.
+ */
+@Service
+@Primary
+@Slf4j
+public class ReconhecedorEspeculativo implements PlateRecognizer {
+
+    private final OcrSessionManager sessionManager;
+    private final OcrExecutor ocrExecutor;
+    /** Motores na ordem de preferência (define qual mensagem de erro chega ao usuário). */
+    private final Map<String, MotorPlaca> motores;
+    private final double confiancaMinima;
+    private final long timeoutMs;
+    private final IndicePlacasFrota indiceFrota;
+    private final int distanciaFrota;
+    private final CacheResultadosOcr cacheResultados;
+    private final ExecutorService tentativas;
+    private final LongAdder disputas = new LongAdder();
+    private final Map<String, Desempenho> desempenho = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReconhecedorEspeculativo(OcrSessionManager sessionManager, OcrExecutor ocrExecutor,
+                                    OpenAlprService openAlpr, TesseractService tesseract, IndicePlacasFrota indiceFrota,
+                                    CacheResultadosOcr cacheResultados,
+                                    @Value("${mottu.ocr.especulativo.motores:openalpr/br,openalpr/eu,tesseract}") List<String> nomesMotores,
+                                    @Value("${mottu.ocr.especulativo.confiancaMinima:60}") double confiancaMinima,
+                                    @Value("${mottu.ocr.especulativo.timeoutMs:20000}") long timeoutMs,
+                                    @Value("${mottu.ocr.frota.distanciaMaxima:1}") int distanciaFrota) {
+        this(sessionManager, ocrExecutor, montarMotores(nomesMotores, openAlpr, tesseract), confiancaMinima, timeoutMs,
+                indiceFrota, distanciaFrota, cacheResultados);
+    }
+
+    ReconhecedorEspeculativo(OcrSessionManager sessionManager, OcrExecutor ocrExecutor,
+                             Map<String, MotorPlaca> motores, double confiancaMinima, long timeoutMs,
+                             IndicePlacasFrota indiceFrota, int distanciaFrota, CacheResultadosOcr cacheResultados) {
+        if (motores.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum motor de OCR configurado em mottu.ocr.especulativo.motores");
+        }
+        this.sessionManager = sessionManager;
+        this.ocrExecutor = ocrExecutor;
+        this.motores = new LinkedHashMap<>(motores);
+        this.confiancaMinima = confiancaMinima;
+        this.timeoutMs = timeoutMs;
+        this.indiceFrota = indiceFrota;
+        this.distanciaFrota = distanciaFrota;
+        this.cacheResultados = cacheResultados;
+        AtomicInteger sequencia = new AtomicInteger();
+        this.tentativas = Executors.newCachedThreadPool(tarefa -> {
+            Thread thread = new Thread(tarefa, "ocr-motor-" + sequencia.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        motores.keySet().forEach(nome -> desempenho.put(nome, new Desempenho()));
+        log.info("🏁 Reconhecimento especulativo: motores {}, confiança mínima {}", this.motores.keySet(), confiancaMinima);
+    }
+
+    private static Map<String, MotorPlaca> montarMotores(List<String> nomes, OpenAlprService openAlpr, TesseractService tesseract) {
+        Map<String, MotorPlaca> motores = new LinkedHashMap<>();
+        for (String nome : nomes) {
+            String motor = nome.trim();
+            if (motor.equals("tesseract")) {
+                motores.put(motor, tesseract::ler);
+            } else if (motor.startsWith("openalpr/")) {
+                String regiao = motor.substring("openalpr/".length());
+                openAlpr.prepararRegiao(regiao); // cria o pool já na subida, para o aquecimento alcançá-lo
+                motores.put(motor, (sessionId, imagem) -> openAlpr.ler(sessionId, imagem, regiao));
+            } else if (!motor.isEmpty()) {
+                log.warn("⚠️ Motor de OCR desconhecido ignorado: '{}'", motor);
+            }
+        }
+        return motores;
+    }
+
+    @Override
+    public void extractPlate(String sessionId, byte[] imageBytes) {
+        sessionManager.setSessionProcessing(sessionId);
+        String chave = cacheResultados.chave(imageBytes);
+        CompletableFuture<CacheResultadosOcr.Resultado> resultado;
+        try {
+            resultado = cacheResultados.obter(chave, () -> {
+                CompletableFuture<CacheResultadosOcr.Resultado> futuro = new CompletableFuture<>();
+                ocrExecutor.submeter(sessionId, () -> {
+                    try {
+                        futuro.complete(disputar(sessionId, imageBytes));
+                    } catch (Throwable t) {
+                        futuro.completeExceptionally(t);
+                    }
+                });
+                return futuro;
+            });
+        } catch (OcrOcupadoException e) {
+            sessionManager.updateSessionBusy(sessionId, e.getMessage());
+            throw e;
+        }
+        if (resultado.isDone()) {
+            log.info("🗃️ [OCR:{}] Imagem já reconhecida, resultado reaproveitado do cache", sessionId);
+        }
+        resultado.whenComplete((r, erro) -> aplicar(sessionId, r, erro));
+    }
+
+    /** Leva o resultado (próprio, do cache ou de upload idêntico em curso) para a sessão. */
+    private void aplicar(String sessionId, CacheResultadosOcr.Resultado resultado, Throwable erro) {
+        if (erro != null) {
+            log.error("[OCR:{}] Erro no reconhecimento especulativo", sessionId, erro);
+            sessionManager.updateSessionError(sessionId, "Erro interno no reconhecimento.");
+        } else if (resultado.placa() != null) {
+            sessionManager.updateSessionSuccess(sessionId, resultado.placa(), resultado.placaLida());
+        } else if (resultado.ocupado()) {
+            sessionManager.updateSessionBusy(sessionId, resultado.mensagemErro());
+        } else {
+            sessionManager.updateSessionError(sessionId, resultado.mensagemErro());
+        }
+    }
+
+    /**
+     * Executa a disputa na thread atual (um worker do {@link OcrExecutor}).
+     */
+    CacheResultadosOcr.Resultado disputar(String sessionId, byte[] imagem) {
+        long inicio = System.currentTimeMillis();
+        disputas.increment();
+        ExecutorCompletionService<Tentativa> conclusoes = new ExecutorCompletionService<>(tentativas);
+        Map<Future<Tentativa>, String> emAndamento = new LinkedHashMap<>();
+        motores.forEach((nome, motor) ->
+                emAndamento.put(conclusoes.submit(() -> tentar(sessionId, nome, motor, imagem)), nome));
+
+        Map<String, Tentativa> concluidas = new LinkedHashMap<>();
+        Tentativa vencedora = null;
+        try {
+            long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (vencedora == null && !emAndamento.isEmpty()) {
+                Future<Tentativa> proxima = conclusoes.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (proxima == null) {
+                    break; // timeout da disputa
+                }
+                emAndamento.remove(proxima);
+                Tentativa tentativa = proxima.get();
+                concluidas.put(tentativa.motor(), tentativa);
+                if (tentativa.leitura() != null && tentativa.leitura().aceita(confiancaMinima)) {
+                    vencedora = tentativa;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("[OCR:{}] Tentativa de OCR falhou fora do motor", sessionId, e.getCause());
+        } finally {
+            // Perdedores: interrompe (quem ainda espera um worker desiste; o worker alpr em curso
+            // conclui a imagem e volta ao pool) e descarta o resultado
+            emAndamento.forEach((futuro, motor) -> {
+                if (futuro.cancel(true)) {
+                    desempenho.get(motor).canceladas.increment();
+                }
+            });
+        }
+
+        long duracao = System.currentTimeMillis() - inicio;
+        ocrExecutor.registrarLatencia("especulativo", duracao, vencedora != null);
+        if (vencedora != null) {
+            desempenho.get(vencedora.motor()).vitorias.increment();
+            log.info("🏁 [OCR:{}] Placa {} por '{}' em {} ms (confiança {}, {} motor(es) cancelado(s))", sessionId,
+                    vencedora.leitura().placa(), vencedora.motor(), duracao, vencedora.leitura().confianca(), emAndamento.size());
+            String placaLida = vencedora.leitura().placa();
+            return CacheResultadosOcr.Resultado.sucesso(corrigirPelaFrota(sessionId, placaLida), placaLida, duracao);
+        }
+
+        if (!concluidas.isEmpty() && emAndamento.isEmpty()
+                && concluidas.values().stream().allMatch(Tentativa::ocupado)) {
+            return CacheResultadosOcr.Resultado.ocupado("Reconhecimento de placas ocupado. Tente novamente em instantes.", duracao);
+        }
+        // Sem placa só é resultado da imagem se todos os motores a leram até o fim
+        if (concluidas.size() == motores.size()
+                && concluidas.values().stream().allMatch(t -> t.leitura().semPlaca())) {
+            return CacheResultadosOcr.Resultado.semPlaca(mensagemErro(concluidas), duracao);
+        }
+        return CacheResultadosOcr.Resultado.erro(mensagemErro(concluidas), duracao);
+    }
+
+    /** Placa cadastrada mais próxima da leitura (única no raio configurado) ou a própria leitura. */
+    private String corrigirPelaFrota(String sessionId, String placaLida) {
+        if (distanciaFrota <= 0) {
+            return placaLida;
+        }
+        return indiceFrota.maisProxima(placaLida, distanciaFrota)
+                .map(placaFrota -> {
+                    if (!placaFrota.equals(placaLida)) {
+                        log.info("🔎 [OCR:{}] Leitura {} corrigida para a placa da frota {}", sessionId, placaLida, placaFrota);
+                    }
+                    return placaFrota;
+                })
+                .orElse(placaLida);
+    }
+
+    private Tentativa tentar(String sessionId, String nome, MotorPlaca motor, byte[] imagem) {
+        long inicio = System.currentTimeMillis();
+        Tentativa tentativa;
+        try {
+            tentativa = new Tentativa(nome, motor.ler(sessionId, imagem), false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tentativa = new Tentativa(nome, LeituraPlaca.falha("Reconhecimento cancelado."), false);
+        } catch (OcrOcupadoException e) {
+            tentativa = new Tentativa(nome, LeituraPlaca.falha(e.getMessage()), true);
+        } catch (Exception e) {
+            log.warn("[OCR:{}] Motor '{}' falhou: {}", sessionId, nome, e.toString());
+            tentativa = new Tentativa(nome, LeituraPlaca.falha("Falha no reconhecimento."), false);
+        }
+        if (!Thread.currentThread().isInterrupted()) { // perdedor cancelado não entra na latência
+            boolean aceita = tentativa.leitura().aceita(confiancaMinima);
+            ocrExecutor.registrarLatencia("especulativo/" + nome, System.currentTimeMillis() - inicio, aceita);
+            desempenho.get(nome).registrar(aceita);
+        }
+        return tentativa;
+    }
+
+    /** Mensagem do primeiro motor (na ordem configurada) que respondeu. */
+    private String mensagemErro(Map<String, Tentativa> concluidas) {
+        if (concluidas.isEmpty()) {
+            return "Tempo esgotado no reconhecimento da placa.";
+        }
+        for (String motor : motores.keySet()) {
+            Tentativa tentativa = concluidas.get(motor);
+            if (tentativa == null) {
+                continue;
+            }
+            LeituraPlaca leitura = tentativa.leitura();
+            if (leitura.placa() != null) {
+                return "Placa reconhecida com baixa confiança. Tente uma nova foto.";
+            }
+            if (leitura.mensagemErro() != null) {
+                return leitura.mensagemErro();
+            }
+        }
+        return "Nenhuma placa encontrada.";
+    }
+
+    /** Disputas e, por motor, tentativas, resultados aceitos, vitórias (taxa) e cancelamentos. */
+    public Map<String, Object> estatisticas() {
+        long total = disputas.sum();
+        Map<String, Object> porMotor = new TreeMap<>();
+        desempenho.forEach((motor, d) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("tentativas", d.tentativas.sum());
+            stats.put("aceitas", d.aceitas.sum());
+            stats.put("vitorias", d.vitorias.sum());
+            stats.put("taxaVitoria", total > 0 ? String.format("%.0f%%", d.vitorias.sum() * 100.0 / total) : "0%");
+            stats.put("canceladas", d.canceladas.sum());
+            porMotor.put(motor, stats);
+        });
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("disputas", total);
+        stats.put("confiancaMinima", confiancaMinima);
+        stats.put("motores", porMotor);
+        return stats;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        tentativas.shutdownNow();
+    }
+
+    private record Tentativa(String motor, LeituraPlaca leitura, boolean ocupado) {}
+
+    private static final class Desempenho {
+        private final LongAdder tentativas = new LongAdder();
+        private final LongAdder aceitas = new LongAdder();
+        private final LongAdder vitorias = new LongAdder();
+        private final LongAdder canceladas = new LongAdder();
+
+        void registrar(boolean aceita) {
+            tentativas.increment();
+            if (aceita) {
+                aceitas.increment();
+            }
+        }
+    }
+}
@@ -1,13 +1,12 @@
 package br.com.fiap.mottu.service.ocr;
 
 import br.com.fiap.mottu.exception.InvalidInputException;
+import br.com.fiap.mottu.exception.OcrOcupadoException;
 import jakarta.annotation.PostConstruct;
-import net.sourceforge.tess4j.ITesseract;
-import net.sourceforge.tess4j.Tesseract;
+import jakarta.annotation.PreDestroy;
 import net.sourceforge.tess4j.TesseractException;
 import org.opencv.core.Mat;
 import org.opencv.core.Size;
-import org.opencv.imgcodecs.Imgcodecs;
 import org.opencv.imgproc.Imgproc;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,8 +44,20 @@ public class TesseractService {
     private final Path runtimeTessdataDir;
     // --- FIM DAS DECLARAÇÕES ---
 
-    public TesseractService(OcrSessionManager sessionManager) {
+    /** Motores pré-carregados; 0 = um por núcleo. */
+    @Value("${mottu.ocr.tesseract.motores:0}")
+    private int quantidadeMotores;
+
+    @Value("${mottu.ocr.tesseract.esperaMotorMs:10000}")
+    private long esperaMotorMs;
+
+    private final OcrExecutor ocrExecutor;
+    private String idiomaResolvido;
+    private volatile PoolMotoresOcr<MotorTesseract> poolMotores;
+
+    public TesseractService(OcrSessionManager sessionManager, OcrExecutor ocrExecutor) {
         this.sessionManager = sessionManager;
+        this.ocrExecutor = ocrExecutor;
         ImageIO.setUseCache(false);
 
         try {
@@ -64,6 +75,27 @@ public class TesseractService {
     public void init() {
         resolveTessdataPath();
         log.info("Idiomas de OCR configurados='{}'", configuredLang);
+        if (tessdataDirResolved == null || !tessdataDirResolved.isDirectory()) {
+            return;
+        }
+        // Idioma e datapath resolvidos uma única vez; os motores já carregam o traineddata
+        idiomaResolvido = chooseLanguage(configuredLang);
+        String datapath = tessdataDirResolved.getParentFile().getAbsolutePath();
+        int tamanho = quantidadeMotores > 0 ? quantidadeMotores : Runtime.getRuntime().availableProcessors();
+        try {
+            poolMotores = new PoolMotoresOcr<>("tesseract", tamanho,
+                    () -> new MotorTesseract(datapath, idiomaResolvido), MotorTesseract::encerrar);
+            ocrExecutor.registrarPool("tesseract", poolMotores);
+        } catch (Throwable t) {
+            log.error("❌ Motores Tesseract não inicializados (idioma '{}'): {}", idiomaResolvido, t.toString());
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (poolMotores != null) {
+            poolMotores.close();
+        }
     }
 
     private void resolveTessdataPath() {
@@ -115,20 +147,15 @@ public class TesseractService {
     public void extractPlate(String sessionId, byte[] imageBytes) {
         sessionManager.setSessionProcessing(sessionId);
         try {
-            if (imageBytes == null || imageBytes.length == 0) {
-                throw new InvalidInputException("Arquivo de imagem está vazio ou corrompido.");
-            }
-            BufferedImage sourceImage = readImageStrict(imageBytes);
-            BufferedImage processedImage = preprocessImageForOcr(sourceImage);
-            Path pngTempFile = writePngTemp(processedImage);
-            String ocrResult = runTesseractOcr(pngTempFile);
-            String normalizedPlate = PlateUtils.normalizeMercosul(ocrResult);
-
-            if (normalizedPlate == null || normalizedPlate.length() < 7) {
-                throw new InvalidInputException("Não foi possível reconhecer uma placa válida na imagem.");
+            LeituraPlaca leitura = ler(sessionId, imageBytes);
+            if (leitura.placa() == null || leitura.placa().length() < 7) {
+                throw new InvalidInputException(leitura.mensagemErro());
             }
-            log.info("Sessão {}: Placa reconhecida e normalizada: {}", sessionId, normalizedPlate);
-            sessionManager.updateSessionSuccess(sessionId, normalizedPlate);
+            log.info("Sessão {}: Placa reconhecida e normalizada: {}", sessionId, leitura.placa());
+            sessionManager.updateSessionSuccess(sessionId, leitura.placa());
+        } catch (OcrOcupadoException ex) {
+            log.warn("Sessão {}: {}", sessionId, ex.getMessage());
+            sessionManager.updateSessionBusy(sessionId, ex.getMessage());
         } catch (Throwable ex) {
             log.error("Sessão {}: Falha no processo de OCR: {}", sessionId, ex.getMessage(), ex);
             String errorMessage = (ex instanceof InvalidInputException) ? ex.getMessage() : "Erro interno ao processar a imagem.";
@@ -136,20 +163,82 @@ public class TesseractService {
         }
     }
 
-    private String runTesseractOcr(Path imageFile) throws TesseractException {
-        if (tessdataDirResolved == null || !tessdataDirResolved.isDirectory()) {
-            throw new TesseractException("Diretório 'tessdata' não foi inicializado.");
+    /**
+     * Reconhecimento síncrono: placa normalizada com a confiança média do Tesseract.
+     * Usado diretamente pelo {@link ReconhecedorEspeculativo}.
+     */
+    LeituraPlaca ler(String sessionId, byte[] imageBytes) throws IOException, TesseractException {
+        if (imageBytes == null || imageBytes.length == 0) {
+            throw new InvalidInputException("Arquivo de imagem está vazio ou corrompido.");
         }
-        ITesseract tesseract = new Tesseract();
-        tesseract.setDatapath(tessdataDirResolved.getParentFile().getAbsolutePath());
-        String langToUse = chooseLanguage(configuredLang);
-        tesseract.setLanguage(langToUse);
-        tesseract.setTessVariable("user_defined_dpi", "300");
-        long startTime = System.currentTimeMillis();
-        String result = tesseract.doOCR(imageFile.toFile());
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("Tess4J executado em {} ms com o idioma '{}'", duration, langToUse);
-        return result != null ? result.trim() : "";
+        long inicio = System.currentTimeMillis();
+        BufferedImage processedImage = prepararImagem(imageBytes);
+        MotorTesseract.Texto ocrResult = runTesseractOcr(processedImage);
+        String normalizedPlate = PlateUtils.normalizeMercosul(ocrResult.texto());
+        ocrExecutor.registrarLatencia("tesseract/total", System.currentTimeMillis() - inicio, normalizedPlate != null);
+
+        if (normalizedPlate == null || normalizedPlate.length() < 7) {
+            return LeituraPlaca.semPlaca("Não foi possível reconhecer uma placa válida na imagem.");
+        }
+        log.debug("Sessão {}: Tesseract leu {} (confiança {})", sessionId, normalizedPlate, ocrResult.confianca());
+        return LeituraPlaca.encontrada(normalizedPlate, ocrResult.confianca());
+    }
+
+    /**
+     * Decodificação + pré-processamento em memória (sem PNG temporário).
+     * Etapas medidas em "tesseract/decodificar" e "tesseract/preprocessar" (e no benchmark JMH).
+     */
+    BufferedImage prepararImagem(byte[] imageBytes) throws IOException {
+        if (ImagemOcr.opencvDisponivel()) {
+            Mat original = null;
+            try {
+                long inicio = System.currentTimeMillis();
+                original = ImagemOcr.decodificar(imageBytes);
+                if (original == null) {
+                    // Formatos que só os plugins ImageIO entendem
+                    original = ImagemOcr.paraMat(readImageStrict(imageBytes));
+                }
+                long decodificada = System.currentTimeMillis();
+                ocrExecutor.registrarLatencia("tesseract/decodificar", decodificada - inicio, true);
+                BufferedImage processada = preprocessImageForOcr(original);
+                ocrExecutor.registrarLatencia("tesseract/preprocessar", System.currentTimeMillis() - decodificada, true);
+                return processada;
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                log.warn("Falha no pré-processamento com OpenCV, usando processamento básico: {}", e.getMessage());
+            } finally {
+                if (original != null) original.release();
+            }
+        }
+        // Fallback para processamento básico sem OpenCV
+        BufferedImage image = readImageStrict(imageBytes);
+        BufferedImage grayImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g2d = grayImage.createGraphics();
+        g2d.drawImage(image, 0, 0, null);
+        g2d.dispose();
+        return grayImage;
+    }
+
+    private MotorTesseract.Texto runTesseractOcr(BufferedImage image) throws TesseractException {
+        PoolMotoresOcr<MotorTesseract> pool = poolMotores;
+        if (pool == null) {
+            throw new TesseractException("Motores Tesseract não foram inicializados.");
+        }
+        return pool.usar(esperaMotorMs, motor -> {
+            long startTime = System.currentTimeMillis();
+            MotorTesseract.Texto result;
+            try {
+                result = motor.reconhecer(image);
+            } catch (TesseractException e) {
+                ocrExecutor.registrarLatencia("tesseract", System.currentTimeMillis() - startTime, false);
+                throw e;
+            }
+            long duration = System.currentTimeMillis() - startTime;
+            ocrExecutor.registrarLatencia("tesseract", duration, true);
+            log.info("Tess4J executado em {} ms com o idioma '{}'", duration, idiomaResolvido);
+            return result;
+        });
     }
 
     private String chooseLanguage(String requested) {
@@ -199,64 +288,27 @@ public class TesseractService {
                 reader.setInput(iis, true, true);
                 BufferedImage img = reader.read(0);
                 if (img == null) throw new IOException("Falha ao decodificar a imagem.");
-                return ensureBufferedRgb(img);
+                return img;
             } finally {
                 reader.dispose();
             }
         }
     }
 
-    private BufferedImage ensureBufferedRgb(BufferedImage img) {
-        if (img.getType() == BufferedImage.TYPE_INT_RGB) return img;
-        BufferedImage copy = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_RGB);
-        Graphics2D g = copy.createGraphics();
-        try { g.drawImage(img, 0, 0, null); } finally { g.dispose(); }
-        return copy;
-    }
-
-    private Path writePngTemp(BufferedImage img) throws IOException {
-        Path tmp = Files.createTempFile(this.runtimeRootDir, "ocr-processed-", ".png");
-        ImageIO.write(img, "png", tmp.toFile());
-        return tmp;
-    }
-
-    private BufferedImage preprocessImageForOcr(BufferedImage image) throws IOException {
+    private BufferedImage preprocessImageForOcr(Mat bgr) {
+        Mat grayMat = new Mat();
+        Mat blurredMat = new Mat();
+        Mat threshMat = new Mat();
         try {
-            // Pré-processamento com OpenCV para melhor qualidade
-            Mat mat = bufferedImageToMat(image);
-            Mat grayMat = new Mat();
-            Imgproc.cvtColor(mat, grayMat, Imgproc.COLOR_BGR2GRAY);
-            Mat blurredMat = new Mat();
+            Imgproc.cvtColor(bgr, grayMat, Imgproc.COLOR_BGR2GRAY);
             Imgproc.GaussianBlur(grayMat, blurredMat, new Size(3, 3), 0);
-            Mat threshMat = new Mat();
             Imgproc.adaptiveThreshold(blurredMat, threshMat, 255, Imgproc.ADAPTIVE_THRESH_GAUSSIAN_C, Imgproc.THRESH_BINARY, 11, 2);
-            log.info("Pré-processamento da imagem com OpenCV concluído.");
-            return matToBufferedImage(threshMat);
-        } catch (Exception e) {
-            log.warn("Falha no pré-processamento com OpenCV, usando processamento básico: {}", e.getMessage());
-            // Fallback para processamento básico sem OpenCV
-            BufferedImage grayImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
-            Graphics2D g2d = grayImage.createGraphics();
-            g2d.drawImage(image, 0, 0, null);
-            g2d.dispose();
-            return grayImage;
+            log.debug("Pré-processamento da imagem com OpenCV concluído.");
+            return ImagemOcr.paraBufferedImage(threshMat);
+        } finally {
+            grayMat.release();
+            blurredMat.release();
+            threshMat.release();
         }
     }
-
-    private Mat bufferedImageToMat(BufferedImage bi) {
-        BufferedImage bgrImage = new BufferedImage(bi.getWidth(), bi.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
-        bgrImage.getGraphics().drawImage(bi, 0, 0, null);
-        byte[] data = ((java.awt.image.DataBufferByte) bgrImage.getRaster().getDataBuffer()).getData();
-        Mat mat = new Mat(bi.getHeight(), bi.getWidth(), org.opencv.core.CvType.CV_8UC3);
-        mat.put(0, 0, data);
-        return mat;
-    }
-
-    private BufferedImage matToBufferedImage(Mat mat) throws IOException {
-        Path tmp = Files.createTempFile(this.runtimeRootDir, "mat-to-img-", ".png");
-        Imgcodecs.imwrite(tmp.toString(), mat);
-        BufferedImage image = ImageIO.read(tmp.toFile());
-        Files.delete(tmp);
-        return image;
-    }
-}
\ No newline at end of file
+}
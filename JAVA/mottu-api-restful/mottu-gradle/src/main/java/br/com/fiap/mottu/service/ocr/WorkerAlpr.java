@@ -0,0 +1,222 @@
+package br.com.fiap.mottu.service.ocr;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Processo {@code alpr} de longa duração no modo "stdin": recebe um caminho de imagem por linha
+ * e devolve uma linha JSON por imagem. A configuração e os modelos são carregados uma única vez
+ * por processo, e não a cada placa.
+ *
+ * O processo é (re)iniciado sob demanda: na primeira imagem, após um crash, após um timeout
+ * (o processo travado é destruído) ou quando a região ativa muda. Interromper a thread não
+ * derruba o processo: a imagem em curso termina (dentro do timeout), a resposta volta a quem
+ * chamou com a interrupção restaurada e o worker segue carregado. Não é thread-safe: use
+ * sempre através do {@link PoolMotoresOcr}.
+ */
+@Slf4j
+class WorkerAlpr {
+
+    /** Marca de fim da saída do processo (EOF do stdout). */
+    private static final String FIM = "\u0000FIM";
+    private static final int MAX_LINHAS_RUIDO = 20;
+
+    private final int numero;
+    private final List<String> comandoBase;
+    private final Supplier<String> regiaoAtiva;
+    private final int topN;
+    private final long timeoutMs;
+    private final Path imagem;
+
+    private Process processo;
+    private Writer entrada;
+    private BlockingQueue<String> saida;
+    private String regiaoDoProcesso;
+    private int inicializacoes;
+
+    /** Falha do processo (crash, timeout ou configuração); {@link #getSaida()} traz o que ele escreveu. */
+    static class FalhaWorkerAlpr extends IOException {
+        private final String saida;
+
+        FalhaWorkerAlpr(String mensagem, String saida) {
+            super(mensagem);
+            this.saida = saida;
+        }
+
+        String getSaida() {
+            return saida;
+        }
+    }
+
+    /**
+     * @param comandoBase executável (e argumentos fixos) do alpr; os argumentos -j/-c/-n/stdin são acrescentados
+     * @param regiaoAtiva região atual do pool; o processo reinicia quando ela muda
+     */
+    WorkerAlpr(int numero, List<String> comandoBase, Supplier<String> regiaoAtiva, int topN, long timeoutMs) {
+        this.numero = numero;
+        this.comandoBase = List.copyOf(comandoBase);
+        this.regiaoAtiva = regiaoAtiva;
+        this.topN = topN;
+        this.timeoutMs = timeoutMs;
+        try {
+            this.imagem = Files.createTempFile("mottu-alpr-worker-" + numero + "-", ".img");
+            this.imagem.toFile().deleteOnExit();
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível criar o arquivo de trabalho do worker alpr", e);
+        }
+    }
+
+    /**
+     * Reconhece uma imagem no processo já carregado.
+     * @return a linha JSON devolvida pelo alpr (também quando a thread foi interrompida no meio)
+     * @throws FalhaWorkerAlpr quando o processo termina, não responde em {@code timeoutMs} ou não inicia
+     */
+    String reconhecer(byte[] bytesImagem) throws IOException {
+        garantirAtivo();
+        Files.write(imagem, bytesImagem);
+        List<String> ruido = new ArrayList<>();
+        try {
+            entrada.write(imagem.toAbsolutePath() + "\n");
+            entrada.flush();
+        } catch (IOException e) {
+            // Processo já terminou (ex.: perfil ausente): a leitura abaixo recolhe o que ele escreveu até o EOF
+            log.debug("Worker alpr {} não aceitou a imagem: {}", numero, e.getMessage());
+        }
+
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        boolean interrompido = false;
+        try {
+            while (true) {
+                String linha;
+                try {
+                    linha = saida.poll(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    // Cancelado (ex.: motor perdedor no reconhecimento especulativo): espera a linha da imagem
+                    // em curso para o processo voltar ao pool alinhado, sem recarregar os modelos
+                    interrompido = true;
+                    continue;
+                }
+                if (linha == null) {
+                    destruir();
+                    throw new FalhaWorkerAlpr("Timeout executando o OpenALPR (" + regiaoDoProcesso + ").", String.join("\n", ruido));
+                }
+                if (FIM.equals(linha)) {
+                    destruir();
+                    throw new FalhaWorkerAlpr("OpenALPR encerrou inesperadamente (" + regiaoDoProcesso + ").", String.join("\n", ruido));
+                }
+                if (linha.startsWith("{")) {
+                    return linha;
+                }
+                if (ruido.size() < MAX_LINHAS_RUIDO) {
+                    ruido.add(linha);
+                }
+            }
+        } finally {
+            if (interrompido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Verificação de saúde: (re)inicia o processo se ele terminou ou se a região ativa mudou.
+     */
+    void garantirAtivo() throws IOException {
+        String regiao = regiaoAtiva.get();
+        if (processo != null && processo.isAlive() && regiao.equals(regiaoDoProcesso)) {
+            return;
+        }
+        if (processo != null) {
+            log.warn("🔄 Worker alpr {} reiniciando (ativo={}, região {} -> {})",
+                    numero, processo.isAlive(), regiaoDoProcesso, regiao);
+            destruir();
+        }
+        iniciar(regiao);
+    }
+
+    private void iniciar(String regiao) throws IOException {
+        List<String> comando = new ArrayList<>(comandoBase);
+        comando.addAll(List.of("-j", "-c", regiao, "-n", String.valueOf(topN), "stdin"));
+        ProcessBuilder pb = new ProcessBuilder(comando);
+        pb.redirectErrorStream(true);
+        Process novo;
+        try {
+            novo = pb.start();
+        } catch (IOException e) {
+            throw new FalhaWorkerAlpr("Falha ao executar o OpenALPR (" + regiao + ").", e.toString());
+        }
+        BlockingQueue<String> linhas = new LinkedBlockingQueue<>();
+        Thread leitor = new Thread(() -> lerSaida(novo, linhas), "alpr-worker-" + numero + "-saida");
+        leitor.setDaemon(true);
+        leitor.start();
+
+        processo = novo;
+        saida = linhas;
+        entrada = new OutputStreamWriter(novo.getOutputStream(), StandardCharsets.UTF_8);
+        regiaoDoProcesso = regiao;
+        inicializacoes++;
+        log.info("🚀 Worker alpr {} iniciado (pid {}, região '{}')", numero, novo.pid(), regiao);
+    }
+
+    private static void lerSaida(Process processo, BlockingQueue<String> linhas) {
+        try (BufferedReader leitor = new BufferedReader(
+                new InputStreamReader(processo.getInputStream(), StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                linhas.offer(linha);
+            }
+        } catch (IOException ignored) {
+            // processo destruído
+        } finally {
+            linhas.offer(FIM);
+        }
+    }
+
+    boolean isAtivo() {
+        return processo != null && processo.isAlive();
+    }
+
+    String getRegiao() {
+        return regiaoDoProcesso;
+    }
+
+    int getInicializacoes() {
+        return inicializacoes;
+    }
+
+    private void destruir() {
+        if (processo == null) {
+            return;
+        }
+        try {
+            entrada.close();
+        } catch (IOException ignored) {
+            // stdin já fechado
+        }
+        processo.destroyForcibly();
+        processo = null;
+    }
+
+    void encerrar() {
+        destruir();
+        try {
+            Files.deleteIfExists(imagem);
+        } catch (IOException ignored) {
+            // removido no encerramento da JVM
+        }
+    }
+}
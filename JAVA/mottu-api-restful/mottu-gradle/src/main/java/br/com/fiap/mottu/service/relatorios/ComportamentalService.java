@@ -1,12 +1,13 @@
 package br.com.fiap.mottu.service.relatorios;
 
-import br.com.fiap.mottu.model.LogMovimentacao;
-import br.com.fiap.mottu.repository.LogMovimentacaoRepository;
+import br.com.fiap.mottu.service.relatorios.analytics.AgregadoMovimentacoes;
+import br.com.fiap.mottu.service.relatorios.analytics.AgregadorMovimentacoes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -18,10 +19,11 @@ import java.util.Map;
 public class ComportamentalService {
 
     private static final Logger log = LoggerFactory.getLogger(ComportamentalService.class);
-    private final LogMovimentacaoRepository logMovimentacaoRepository;
+    private static final int TOP_BOXES = 10;
+    private final AgregadorMovimentacoes agregadorMovimentacoes;
 
-    public ComportamentalService(LogMovimentacaoRepository logMovimentacaoRepository) {
-        this.logMovimentacaoRepository = logMovimentacaoRepository;
+    public ComportamentalService(AgregadorMovimentacoes agregadorMovimentacoes) {
+        this.agregadorMovimentacoes = agregadorMovimentacoes;
     }
 
     /**
@@ -31,44 +33,17 @@ public class ComportamentalService {
         log.info("Gerando análise comportamental");
         
         try {
-            // Buscar dados reais de movimentação
-            List<LogMovimentacao> movimentacoes = logMovimentacaoRepository.findAll();
-            
-            // Análise de horários de pico
-            Map<String, Integer> horariosPico = new HashMap<>();
-            Map<String, Integer> diasSemana = new HashMap<>();
-            Map<String, Integer> tiposVeiculo = new HashMap<>();
-            
-            for (LogMovimentacao mov : movimentacoes) {
-                // Horários de pico
-                String hora = mov.getDataHoraMovimentacao().getHour() + ":00";
-                horariosPico.put(hora, horariosPico.getOrDefault(hora, 0) + 1);
-                
-                // Dias da semana
-                String diaSemana = mov.getDataHoraMovimentacao().getDayOfWeek().toString();
-                diasSemana.put(diaSemana, diasSemana.getOrDefault(diaSemana, 0) + 1);
-                
-                // Tipos de veículo (se disponível)
-                if (mov.getVeiculo() != null) {
-                    String tipo = mov.getVeiculo().getFabricante();
-                    tiposVeiculo.put(tipo, tiposVeiculo.getOrDefault(tipo, 0) + 1);
-                }
-            }
-            
-            // Calcular insights
-            String horarioPico = horariosPico.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse("N/A");
-                
-            String diaMaisMovimentado = diasSemana.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse("N/A");
+            // Uma única passada em cursor sobre o histórico (sem findAll / várias streams)
+            AgregadoMovimentacoes agregado = agregadorMovimentacoes.agregar();
+            Map<String, Integer> horariosPico = agregado.horariosPico();
+            Map<String, Integer> diasSemana = agregado.diasSemana();
+            Map<String, Integer> tiposVeiculo = agregado.tiposVeiculo();
+            String horarioPico = agregado.horarioPico();
+            String diaMaisMovimentado = agregado.diaMaisMovimentado();
             
             // Gerar recomendações
             List<Map<String, Object>> recomendacoes = new ArrayList<>();
-            if (horariosPico.containsKey("08:00") || horariosPico.containsKey("09:00")) {
+            if (agregado.getMovimentacoesNaHora(8) > 0 || agregado.getMovimentacoesNaHora(9) > 0) {
                 recomendacoes.add(Map.of(
                     "tipo", "Horário de Pico",
                     "descricao", "Maior movimento no período da manhã",
@@ -76,7 +51,7 @@ public class ComportamentalService {
                 ));
             }
             
-            if (diasSemana.getOrDefault("MONDAY", 0) > diasSemana.getOrDefault("SUNDAY", 0)) {
+            if (agregado.getMovimentacoesNoDia(DayOfWeek.MONDAY) > agregado.getMovimentacoesNoDia(DayOfWeek.SUNDAY)) {
                 recomendacoes.add(Map.of(
                     "tipo", "Padrão Semanal",
                     "descricao", "Maior movimento em dias úteis",
@@ -90,7 +65,9 @@ public class ComportamentalService {
             resultado.put("tiposVeiculo", tiposVeiculo);
             resultado.put("horarioPico", horarioPico);
             resultado.put("diaMaisMovimentado", diaMaisMovimentado);
-            resultado.put("totalMovimentacoes", movimentacoes.size());
+            resultado.put("totalMovimentacoes", agregado.getTotal());
+            resultado.put("movimentacoesPorPatio", agregado.movimentacoesPorPatio());
+            resultado.put("boxesMaisMovimentados", agregado.boxesMaisMovimentados(TOP_BOXES));
             resultado.put("recomendacoes", recomendacoes);
             resultado.put("timestamp", LocalDateTime.now());
             
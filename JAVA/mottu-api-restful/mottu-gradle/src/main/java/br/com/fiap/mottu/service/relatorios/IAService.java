@@ -6,6 +6,7 @@ import br.com.fiap.mottu.service.relatorios.OcupacaoService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -21,22 +22,26 @@ public class IAService {
     private static final Logger log = LoggerFactory.getLogger(IAService.class);
     private final RelatorioService relatorioService;
     private final OcupacaoService ocupacaoService;
+    private final SecoesRelatorio secoesRelatorio;
     // private final LogMovimentacaoRepository logMovimentacaoRepository; // Removido temporariamente
 
-    public IAService(RelatorioService relatorioService, OcupacaoService ocupacaoService) {
+    public IAService(RelatorioService relatorioService, OcupacaoService ocupacaoService, SecoesRelatorio secoesRelatorio) {
         this.relatorioService = relatorioService;
         this.ocupacaoService = ocupacaoService;
+        this.secoesRelatorio = secoesRelatorio;
         // this.logMovimentacaoRepository = logMovimentacaoRepository; // Removido temporariamente
     }
 
     /**
-     * Obtém dados do Dashboard IA
+     * Obtém dados do Dashboard IA (ocupação atual sob o prazo do {@link SecoesRelatorio})
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> getDadosDashboardIA() {
         log.info("Gerando dados do Dashboard IA");
         
-        try {
-            List<OcupacaoAtualDto> ocupacaoAtual = ocupacaoService.getOcupacaoAtual();
+        try (SecoesRelatorio.Execucao execucao = secoesRelatorio.iniciar("dashboard-ia")) {
+            List<OcupacaoAtualDto> ocupacaoAtual = execucao.secao("ocupacao",
+                    () -> ocupacaoService.getOcupacaoAtual(), List.<OcupacaoAtualDto>of()).obter();
             
             double previsao1h = calcularPrevisao1h(ocupacaoAtual);
             double picoMaximo = calcularPicoMaximo(ocupacaoAtual);
@@ -56,6 +61,7 @@ public class IAService {
             dadosIA.put("insights", insights);
             dadosIA.put("previsoes", previsoes);
             dadosIA.put("timestamp", LocalDateTime.now());
+            dadosIA.put("metadados", execucao.metadados());
             
             log.info("Dados do Dashboard IA gerados com sucesso");
             return dadosIA;
@@ -3,6 +3,7 @@ package br.com.fiap.mottu.service.relatorios;
 import br.com.fiap.mottu.dto.relatorio.MovimentacaoDiariaDto;
 import br.com.fiap.mottu.model.LogMovimentacao;
 import br.com.fiap.mottu.repository.LogMovimentacaoRepository;
+import br.com.fiap.mottu.service.relatorios.analytics.RollupMovimentacaoService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -21,9 +22,12 @@ public class MovimentacaoService {
 
     private static final Logger log = LoggerFactory.getLogger(MovimentacaoService.class);
     private final LogMovimentacaoRepository logMovimentacaoRepository;
+    private final RollupMovimentacaoService rollupMovimentacao;
 
-    public MovimentacaoService(LogMovimentacaoRepository logMovimentacaoRepository) {
+    public MovimentacaoService(LogMovimentacaoRepository logMovimentacaoRepository,
+                               RollupMovimentacaoService rollupMovimentacao) {
         this.logMovimentacaoRepository = logMovimentacaoRepository;
+        this.rollupMovimentacao = rollupMovimentacao;
     }
 
     /**
@@ -32,33 +36,19 @@ public class MovimentacaoService {
     public List<MovimentacaoDiariaDto> getMovimentacaoDiaria(LocalDate dataInicio, LocalDate dataFim) {
         log.info("Gerando relatório de movimentação diária REAL entre {} e {}", dataInicio, dataFim);
         
-        // Buscar logs reais do banco de dados
-        LocalDateTime inicio = dataInicio.atStartOfDay();
-        LocalDateTime fim = dataFim.atTime(23, 59, 59);
-        
-        List<LogMovimentacao> movimentacoes = logMovimentacaoRepository
-                .findByDataHoraMovimentacaoBetweenOrderByDataHoraMovimentacaoDesc(inicio, fim);
-        
-        log.info("Encontradas {} movimentações reais no período", movimentacoes.size());
-        
-        // Agrupar movimentações por data
-        Map<LocalDate, List<LogMovimentacao>> movimentacoesPorData = movimentacoes.stream()
-                .collect(Collectors.groupingBy(mov -> mov.getDataHoraMovimentacao().toLocalDate()));
+        // Totais diários somados do rollup horário (não carrega os logs do período)
+        Map<LocalDate, long[]> totaisPorDia = rollupMovimentacao.totaisPorDia(dataInicio, dataFim);
         
         List<MovimentacaoDiariaDto> resultado = new ArrayList<>();
+        long totalPeriodo = 0;
         
         // Processar cada dia no período
         LocalDate data = dataInicio;
         while (!data.isAfter(dataFim)) {
-            List<LogMovimentacao> movsDoDia = movimentacoesPorData.getOrDefault(data, new ArrayList<>());
-            
-            long entradas = movsDoDia.stream()
-                    .filter(mov -> mov.getTipoMovimentacao() == LogMovimentacao.TipoMovimentacao.ENTRADA)
-                    .count();
-            
-            long saidas = movsDoDia.stream()
-                    .filter(mov -> mov.getTipoMovimentacao() == LogMovimentacao.TipoMovimentacao.SAIDA)
-                    .count();
+            long[] totais = totaisPorDia.getOrDefault(data, new long[2]);
+            long entradas = totais[0];
+            long saidas = totais[1];
+            totalPeriodo += entradas + saidas;
             
             resultado.add(MovimentacaoDiariaDto.builder()
                     .data(data)
@@ -71,7 +61,7 @@ public class MovimentacaoService {
         }
         
         log.info("Relatório gerado com sucesso. {} dias processados, total de {} movimentações", 
-                resultado.size(), movimentacoes.size());
+                resultado.size(), totalPeriodo);
         
         return resultado;
     }
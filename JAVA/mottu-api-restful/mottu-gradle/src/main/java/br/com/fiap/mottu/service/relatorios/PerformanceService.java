@@ -7,6 +7,7 @@ import br.com.fiap.mottu.model.Patio;
 import br.com.fiap.mottu.repository.BoxRepository;
 import br.com.fiap.mottu.repository.LogMovimentacaoRepository;
 import br.com.fiap.mottu.repository.PatioRepository;
+import br.com.fiap.mottu.service.relatorios.performance.ConsultaPerformancePatios;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -25,13 +26,16 @@ public class PerformanceService {
     private final PatioRepository patioRepository;
     private final BoxRepository boxRepository;
     private final LogMovimentacaoRepository logMovimentacaoRepository;
+    private final ConsultaPerformancePatios consultaPerformancePatios;
 
     public PerformanceService(PatioRepository patioRepository, 
                              BoxRepository boxRepository,
-                             LogMovimentacaoRepository logMovimentacaoRepository) {
+                             LogMovimentacaoRepository logMovimentacaoRepository,
+                             ConsultaPerformancePatios consultaPerformancePatios) {
         this.patioRepository = patioRepository;
         this.boxRepository = boxRepository;
         this.logMovimentacaoRepository = logMovimentacaoRepository;
+        this.consultaPerformancePatios = consultaPerformancePatios;
     }
 
     /**
@@ -39,11 +43,15 @@ public class PerformanceService {
      */
     public List<PerformancePatioDto> getPerformancePatios() {
         log.info("Gerando relatório de performance dos pátios");
-        
-        List<Patio> patios = patioRepository.findAll();
-        
-        return patios.stream()
-                .map(this::calcularPerformancePatio)
+
+        return consultaPerformancePatios.carregar(LocalDateTime.now().minusMonths(1)).stream()
+                .map(metricas -> PerformancePatioDto.builder()
+                        .patioId(metricas.getPatioId())
+                        .nomePatio(metricas.getNomePatio())
+                        .taxaOcupacaoMedia(metricas.getTaxaOcupacao())
+                        .tempoMedioEstacionamento(tempoMedioEstimado(metricas.getSaidasTotal(), metricas.getMovimentacoesTotal()))
+                        .totalMovimentacoes(metricas.getMovimentacoesTotal())
+                        .build())
                 .collect(Collectors.toList());
     }
 
@@ -104,6 +112,13 @@ public class PerformanceService {
         return movimentacoes.size() > 0 ? (double) totalMinutos / movimentacoes.size() : 0.0;
     }
 
+    /**
+     * Mesma estimativa de calcularTempoMedioEstacionamento (2h por saída) a partir das contagens agregadas.
+     */
+    private static double tempoMedioEstimado(long saidas, long movimentacoes) {
+        return movimentacoes > 0 ? (double) (saidas * 120) / movimentacoes : 0.0;
+    }
+
     // Método removido temporariamente - não está sendo usado
     // private int calcularRanking(Patio patio, double taxaOcupacao) {
     //     if (taxaOcupacao >= 90) return 1;
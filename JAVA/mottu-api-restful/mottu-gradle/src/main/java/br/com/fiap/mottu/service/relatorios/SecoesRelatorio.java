@@ -0,0 +1,202 @@
+package br.com.fiap.mottu.service.relatorios;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executa as seções independentes de um relatório (estatísticas de veículos, de boxes, quebra
+ * por pátio, agregados do rollup...) em paralelo, cada uma numa virtual thread com a sua própria
+ * transação somente leitura. A latência do relatório passa a ser a da seção mais lenta, e não a
+ * soma de todas.
+ *
+ * Cada relatório tem um prazo ({@code mottu.relatorios.prazoMs}): a seção que não termina a tempo
+ * é cancelada e entra com o valor padrão informado, e o relatório sai parcial em vez de falhar.
+ * Erros de uma seção continuam propagando para o relatório. Duração e status de cada seção vão
+ * na resposta via {@link Execucao#metadados()}.
+ *
+ * O escopo é um executor virtual por relatório, encerrado no {@link Execucao#close()}: nenhuma
+ * seção sobrevive ao relatório (StructuredTaskScope ainda é preview no Java 21). A transação da
+ * seção usa o prazo como timeout, então uma consulta cancelada também é abortada no banco.
+ */
+@Component
+@Slf4j
+public class SecoesRelatorio {
+
+    private final TransactionOperations transacaoLeitura;
+    private final long prazoMs;
+
+    @Autowired
+    public SecoesRelatorio(PlatformTransactionManager transactionManager,
+                           @Value("${mottu.relatorios.prazoMs:8000}") long prazoMs) {
+        this(criarTransacaoLeitura(transactionManager, prazoMs), prazoMs);
+    }
+
+    /**
+     * Sem Spring (testes e benchmarks): ex. {@code TransactionOperations.withoutTransaction()}.
+     */
+    public SecoesRelatorio(TransactionOperations transacaoLeitura, long prazoMs) {
+        this.transacaoLeitura = transacaoLeitura;
+        this.prazoMs = prazoMs;
+    }
+
+    private static TransactionOperations criarTransacaoLeitura(PlatformTransactionManager transactionManager, long prazoMs) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(prazoMs + 999)));
+        return template;
+    }
+
+    /**
+     * Abre o escopo de um relatório; usar em try-with-resources.
+     */
+    public Execucao iniciar(String relatorio) {
+        return new Execucao(relatorio);
+    }
+
+    /**
+     * Escopo de um relatório: seções submetidas, prazo comum e metadados de execução.
+     */
+    public final class Execucao implements AutoCloseable {
+
+        private final String relatorio;
+        private final long inicioNanos = System.nanoTime();
+        private final long limiteNanos = inicioNanos + TimeUnit.MILLISECONDS.toNanos(prazoMs);
+        private final ExecutorService escopo;
+        private final Map<String, Secao<?>> secoes = new LinkedHashMap<>();
+
+        private Execucao(String relatorio) {
+            this.relatorio = relatorio;
+            this.escopo = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("relatorio-" + relatorio + "-", 1).factory());
+        }
+
+        /**
+         * Dispara a seção imediatamente, numa transação somente leitura própria.
+         *
+         * @param padrao valor usado se a seção não terminar dentro do prazo do relatório
+         */
+        public <T> Secao<T> secao(String nome, Supplier<T> consulta, T padrao) {
+            Secao<T> secao = new Secao<>(nome, padrao);
+            secao.futuro = escopo.submit(() -> {
+                long inicio = System.nanoTime();
+                try {
+                    return transacaoLeitura.execute(status -> consulta.get());
+                } finally {
+                    if (secao.status != Status.EXPIRADA) { // expirada: vale o tempo até o prazo
+                        secao.duracaoNanos = System.nanoTime() - inicio;
+                    }
+                }
+            });
+            secoes.put(nome, secao);
+            return secao;
+        }
+
+        /**
+         * true quando alguma seção estourou o prazo e entrou com o valor padrão.
+         */
+        public boolean isParcial() {
+            return secoes.values().stream().anyMatch(s -> s.status == Status.EXPIRADA);
+        }
+
+        /**
+         * Prazo, duração total, se o resultado é parcial e duração/status de cada seção.
+         */
+        public Map<String, Object> metadados() {
+            Map<String, Object> porSecao = new LinkedHashMap<>();
+            secoes.values().forEach(s -> porSecao.put(s.nome, Map.of(
+                    "status", s.status.name().toLowerCase(),
+                    "duracaoMs", s.duracaoMs())));
+            Map<String, Object> metadados = new LinkedHashMap<>();
+            metadados.put("prazoMs", prazoMs);
+            metadados.put("duracaoMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioNanos));
+            metadados.put("parcial", isParcial());
+            metadados.put("secoes", porSecao);
+            return metadados;
+        }
+
+        /**
+         * Cancela o que ainda estiver rodando; não espera as seções interrompidas.
+         */
+        @Override
+        public void close() {
+            escopo.shutdownNow();
+        }
+
+        /**
+         * Resultado de uma seção; {@link #obter()} espera no máximo até o prazo do relatório.
+         */
+        public final class Secao<T> {
+
+            private final String nome;
+            private final T padrao;
+            private Future<T> futuro;
+            private volatile long duracaoNanos = -1;
+            private volatile Status status = Status.PENDENTE;
+            private T valor;
+            private RuntimeException falha;
+
+            private Secao(String nome, T padrao) {
+                this.nome = nome;
+                this.padrao = padrao;
+            }
+
+            public T obter() {
+                if (status == Status.FALHOU) {
+                    throw falha;
+                }
+                if (status != Status.PENDENTE) {
+                    return valor;
+                }
+                try {
+                    valor = futuro.get(Math.max(0, limiteNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    status = Status.CONCLUIDA;
+                } catch (TimeoutException | CancellationException e) {
+                    duracaoNanos = System.nanoTime() - inicioNanos;
+                    valor = padrao;
+                    status = Status.EXPIRADA;
+                    futuro.cancel(true);
+                    log.warn("⏱️ Relatório '{}': seção '{}' passou do prazo de {} ms, resultado parcial", relatorio, nome, prazoMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Relatório '" + relatorio + "' interrompido", e);
+                } catch (ExecutionException e) {
+                    Throwable causa = e.getCause();
+                    falha = causa instanceof RuntimeException runtime ? runtime
+                            : new IllegalStateException("Falha na seção '" + nome + "' do relatório '" + relatorio + "'", causa);
+                    status = Status.FALHOU;
+                    throw falha;
+                }
+                return valor;
+            }
+
+            /** true se a seção terminou no prazo (o valor é real, não o padrão). */
+            public boolean isConcluida() {
+                obter();
+                return status == Status.CONCLUIDA;
+            }
+
+            private long duracaoMs() {
+                return duracaoNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(duracaoNanos);
+            }
+        }
+    }
+
+    private enum Status {
+        PENDENTE, CONCLUIDA, EXPIRADA, FALHOU
+    }
+}
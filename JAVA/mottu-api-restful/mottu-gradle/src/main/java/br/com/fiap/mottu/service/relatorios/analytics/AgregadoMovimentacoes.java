@@ -0,0 +1,157 @@
+package br.com.fiap.mottu.service.relatorios.analytics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Acumuladores de uma passada sobre TB_LOG_MOVIMENTACAO (ou sobre o rollup TB_MOVIMENTACAO_HORA).
+ * Horas e dias da semana usam arrays primitivos de tamanho fixo; pátios e boxes usam
+ * {@link ContadorPorId}, cuja memória depende apenas do número de ids distintos.
+ */
+public final class AgregadoMovimentacoes {
+
+    private final long[] porHora = new long[24];
+    private final long[] porDiaSemana = new long[7];
+    private final ContadorPorId porPatio = new ContadorPorId();
+    private final ContadorPorId porBox = new ContadorPorId(256);
+    private final Map<String, long[]> porFabricante = new HashMap<>();
+    private long total;
+    private long entradas;
+    private long saidas;
+    private long saidasComTempo;
+    private long minutosPermanencia;
+
+    void acumular(LocalDateTime dataHora, boolean entrada, long patioId, long boxId,
+                  Long tempoMinutos, String fabricante) {
+        boolean comTempo = !entrada && tempoMinutos != null;
+        acumular(dataHora, patioId, boxId, entrada ? 1 : 0, entrada ? 0 : 1,
+                comTempo ? tempoMinutos : 0, comTempo ? 1 : 0);
+        if (fabricante != null) {
+            porFabricante.computeIfAbsent(fabricante, k -> new long[1])[0]++;
+        }
+    }
+
+    /**
+     * Soma uma linha já agregada (ex.: uma hora de TB_MOVIMENTACAO_HORA).
+     */
+    void acumular(LocalDateTime hora, long patioId, long boxId, long entradasNaHora, long saidasNaHora,
+                  long somaTempoMinutos, long qtdTempo) {
+        long movimentacoes = entradasNaHora + saidasNaHora;
+        total += movimentacoes;
+        entradas += entradasNaHora;
+        saidas += saidasNaHora;
+        porHora[hora.getHour()] += movimentacoes;
+        porDiaSemana[hora.getDayOfWeek().getValue() - 1] += movimentacoes;
+        porPatio.somar(patioId, movimentacoes);
+        porBox.somar(boxId, movimentacoes);
+        minutosPermanencia += somaTempoMinutos;
+        saidasComTempo += qtdTempo;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getEntradas() {
+        return entradas;
+    }
+
+    public long getSaidas() {
+        return saidas;
+    }
+
+    public long getMovimentacoesNaHora(int hora) {
+        return porHora[hora];
+    }
+
+    public long getMovimentacoesNoDia(DayOfWeek dia) {
+        return porDiaSemana[dia.getValue() - 1];
+    }
+
+    /** Média de TEMPO_ESTACIONAMENTO_MINUTOS das saídas que o registraram. */
+    public double getTempoMedioPermanenciaMinutos() {
+        return saidasComTempo > 0 ? (double) minutosPermanencia / saidasComTempo : 0.0;
+    }
+
+    /** Horas do dia (0-23) com pelo menos uma movimentação. */
+    public int getHorasComMovimento() {
+        int horas = 0;
+        for (long contagem : porHora) {
+            if (contagem > 0) {
+                horas++;
+            }
+        }
+        return horas;
+    }
+
+    public int getPatiosComMovimento() {
+        return porPatio.tamanho();
+    }
+
+    public long getMovimentacoesDoPatio(long patioId) {
+        return porPatio.get(patioId);
+    }
+
+    public long getMovimentacoesDoBox(long boxId) {
+        return porBox.get(boxId);
+    }
+
+    /** Chaves no formato "H:00", apenas horas com movimento (mesmo formato do relatório original). */
+    public Map<String, Integer> horariosPico() {
+        Map<String, Integer> horarios = new LinkedHashMap<>();
+        for (int hora = 0; hora < porHora.length; hora++) {
+            if (porHora[hora] > 0) {
+                horarios.put(hora + ":00", (int) porHora[hora]);
+            }
+        }
+        return horarios;
+    }
+
+    /** Chaves no formato de {@link DayOfWeek#toString()}, apenas dias com movimento. */
+    public Map<String, Integer> diasSemana() {
+        Map<String, Integer> dias = new LinkedHashMap<>();
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            if (porDiaSemana[dia.getValue() - 1] > 0) {
+                dias.put(dia.toString(), (int) porDiaSemana[dia.getValue() - 1]);
+            }
+        }
+        return dias;
+    }
+
+    public Map<String, Integer> tiposVeiculo() {
+        Map<String, Integer> tipos = new HashMap<>();
+        porFabricante.forEach((fabricante, contagem) -> tipos.put(fabricante, (int) contagem[0]));
+        return tipos;
+    }
+
+    public Map<Long, Long> movimentacoesPorPatio() {
+        return porPatio.comoMapa();
+    }
+
+    public Map<Long, Long> boxesMaisMovimentados(int limite) {
+        return porBox.maiores(limite);
+    }
+
+    public String horarioPico() {
+        int pico = indiceDoMaior(porHora);
+        return pico < 0 ? "N/A" : pico + ":00";
+    }
+
+    public String diaMaisMovimentado() {
+        int pico = indiceDoMaior(porDiaSemana);
+        return pico < 0 ? "N/A" : DayOfWeek.of(pico + 1).toString();
+    }
+
+    private static int indiceDoMaior(long[] contagens) {
+        int maior = -1;
+        for (int i = 0; i < contagens.length; i++) {
+            if (contagens[i] > 0 && (maior < 0 || contagens[i] > contagens[maior])) {
+                maior = i;
+            }
+        }
+        return maior;
+    }
+}
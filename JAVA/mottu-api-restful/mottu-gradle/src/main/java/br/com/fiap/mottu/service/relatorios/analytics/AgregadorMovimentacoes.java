@@ -0,0 +1,62 @@
+package br.com.fiap.mottu.service.relatorios.analytics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+
+/**
+ * Motor de agregação das análises de movimentação.
+ *
+ * Percorre TB_LOG_MOVIMENTACAO uma única vez com um cursor forward-only (fetch size fixo),
+ * sem materializar entidades: cada linha é somada aos acumuladores de {@link AgregadoMovimentacoes}
+ * e descartada. O consumo de memória não depende do tamanho do histórico.
+ */
+@Component
+@Slf4j
+public class AgregadorMovimentacoes {
+
+    static final int FETCH_SIZE = 2_000;
+
+    static final String SQL_MOVIMENTACOES = """
+            SELECT l.DATA_HORA_MOVIMENTACAO, l.TIPO_MOVIMENTACAO, l.TB_PATIO_ID_PATIO, l.TB_BOX_ID_BOX,
+                   l.TEMPO_ESTACIONAMENTO_MINUTOS, v.FABRICANTE
+              FROM TB_LOG_MOVIMENTACAO l
+              LEFT JOIN TB_VEICULO v ON v.ID_VEICULO = l.TB_VEICULO_ID_VEICULO
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AgregadorMovimentacoes(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Agrega todo o histórico de movimentações em uma passada.
+     */
+    public AgregadoMovimentacoes agregar() {
+        long inicio = System.currentTimeMillis();
+        AgregadoMovimentacoes agregado = new AgregadoMovimentacoes();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_MOVIMENTACOES,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            Timestamp dataHora = rs.getTimestamp(1);
+            if (dataHora == null) {
+                return;
+            }
+            long tempo = rs.getLong(5);
+            Long tempoMinutos = rs.wasNull() ? null : tempo;
+            agregado.acumular(dataHora.toLocalDateTime(), "ENTRADA".equals(rs.getString(2)),
+                    rs.getLong(3), rs.getLong(4), tempoMinutos, rs.getString(6));
+        });
+        log.info("📊 {} movimentações agregadas em uma passada ({} ms)",
+                agregado.getTotal(), System.currentTimeMillis() - inicio);
+        return agregado;
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.fiap.mottu.service.relatorios.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contador long -> long com endereçamento aberto sobre arrays primitivos.
+ * A memória cresce com o número de ids distintos (pátios/boxes), nunca com o número de linhas.
+ * Não é thread-safe: cada agregação usa a sua instância.
+ */
+final class ContadorPorId {
+
+    private static final long VAZIO = Long.MIN_VALUE;
+
+    private long[] chaves;
+    private long[] valores;
+    private int tamanho;
+
+    ContadorPorId() {
+        this(64);
+    }
+
+    ContadorPorId(int capacidadeInicial) {
+        int capacidade = Integer.highestOneBit(Math.max(4, capacidadeInicial) * 2 - 1);
+        chaves = new long[capacidade];
+        valores = new long[capacidade];
+        Arrays.fill(chaves, VAZIO);
+    }
+
+    void incrementar(long id) {
+        somar(id, 1);
+    }
+
+    void somar(long id, long delta) {
+        int posicao = posicao(chaves, id);
+        if (chaves[posicao] == VAZIO) {
+            chaves[posicao] = id;
+            if (++tamanho * 2 > chaves.length) {
+                crescer();
+                posicao = posicao(chaves, id);
+            }
+        }
+        valores[posicao] += delta;
+    }
+
+    long get(long id) {
+        int posicao = posicao(chaves, id);
+        return chaves[posicao] == VAZIO ? 0 : valores[posicao];
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Ids ordenados pela contagem (desc), limitados a {@code limite} itens.
+     */
+    Map<Long, Long> maiores(int limite) {
+        List<long[]> pares = new ArrayList<>(tamanho);
+        for (int i = 0; i < chaves.length; i++) {
+            if (chaves[i] != VAZIO) {
+                pares.add(new long[]{chaves[i], valores[i]});
+            }
+        }
+        pares.sort(Comparator.<long[]>comparingLong(p -> p[1]).reversed().thenComparingLong(p -> p[0]));
+        Map<Long, Long> resultado = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(limite, pares.size()); i++) {
+            resultado.put(pares.get(i)[0], pares.get(i)[1]);
+        }
+        return resultado;
+    }
+
+    Map<Long, Long> comoMapa() {
+        return maiores(tamanho);
+    }
+
+    private void crescer() {
+        long[] chavesAntigas = chaves;
+        long[] valoresAntigos = valores;
+        chaves = new long[chavesAntigas.length * 2];
+        valores = new long[valoresAntigos.length * 2];
+        Arrays.fill(chaves, VAZIO);
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] != VAZIO) {
+                int posicao = posicao(chaves, chavesAntigas[i]);
+                chaves[posicao] = chavesAntigas[i];
+                valores[posicao] = valoresAntigos[i];
+            }
+        }
+    }
+
+    private static int posicao(long[] chaves, long id) {
+        int mascara = chaves.length - 1;
+        int posicao = Long.hashCode(id * 0x9E3779B97F4A7C15L) & mascara;
+        while (chaves[posicao] != VAZIO && chaves[posicao] != id) {
+            posicao = (posicao + 1) & mascara;
+        }
+        return posicao;
+    }
+}
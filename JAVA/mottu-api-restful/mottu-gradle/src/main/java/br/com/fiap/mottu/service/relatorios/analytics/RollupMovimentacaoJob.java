@@ -0,0 +1,55 @@
+package br.com.fiap.mottu.service.relatorios.analytics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Manutenção do rollup horário:
+ * - backfill na subida quando TB_MOVIMENTACAO_HORA está vazia (todo o histórico até a hora atual);
+ * - reconciliação a cada hora da hora anterior, já fechada, a partir do log bruto. Corrige
+ *   incrementos perdidos (ex.: a hora em que o backfill rodou ou logs gravados fora do serviço).
+ */
+@Component
+@Slf4j
+public class RollupMovimentacaoJob {
+
+    private final RollupMovimentacaoService rollupService;
+
+    public RollupMovimentacaoJob(RollupMovimentacaoService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSeVazio() {
+        try {
+            if (!rollupService.isVazio()) {
+                return;
+            }
+            long inicio = System.currentTimeMillis();
+            int linhas = rollupService.reconstruirHistorico(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS));
+            log.info("📊 Rollup de movimentações reconstruído a partir do histórico: {} linhas ({} ms)",
+                    linhas, System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            log.warn("⚠️ Backfill do rollup de movimentações não executado: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Minuto 5 de cada hora: a hora anterior está fechada e as transações da virada já concluíram.
+     */
+    @Scheduled(cron = "${mottu.rollup.movimentacao.cron:0 5 * * * *}")
+    public void reconciliarHoraAnterior() {
+        LocalDateTime horaAtual = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        try {
+            rollupService.consolidar(horaAtual.minusHours(1), horaAtual);
+        } catch (Exception e) {
+            log.warn("⚠️ Reconciliação do rollup de movimentações falhou: {}", e.getMessage());
+        }
+    }
+}
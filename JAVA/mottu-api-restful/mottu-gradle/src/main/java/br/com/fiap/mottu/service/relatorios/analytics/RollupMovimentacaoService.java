@@ -0,0 +1,268 @@
+package br.com.fiap.mottu.service.relatorios.analytics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rollup horário das movimentações (TB_MOVIMENTACAO_HORA).
+ *
+ * Escrita: cada entrada/saída soma +1 na linha (pátio, box, hora) via MERGE, na mesma transação
+ * do log. A consolidação reconstrói um intervalo de horas fechadas a partir de TB_LOG_MOVIMENTACAO
+ * (backfill inicial e reconciliação horária, ver {@link RollupMovimentacaoJob}).
+ * Leitura: os relatórios consultam apenas as horas do período pedido, então a latência depende
+ * da janela do relatório e não do tamanho do histórico.
+ */
+@Service
+@Slf4j
+public class RollupMovimentacaoService {
+
+    /** Limite inferior usado quando a consolidação cobre todo o histórico. */
+    static final LocalDateTime INICIO_HISTORICO = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    /** Binds com CAST explícito: o H2 (perfil carga) não infere o tipo de parâmetros numa tabela derivada. */
+    static final String SQL_INCREMENTAR = """
+            MERGE INTO TB_MOVIMENTACAO_HORA r
+            USING (SELECT CAST(? AS NUMBER(19)) AS PATIO, CAST(? AS NUMBER(19)) AS BOX, CAST(? AS TIMESTAMP) AS HORA,
+                          CAST(? AS NUMBER(19)) AS ENT, CAST(? AS NUMBER(19)) AS SAI,
+                          CAST(? AS NUMBER(19)) AS SOMA, CAST(? AS NUMBER(19)) AS QTD FROM DUAL) d
+               ON (r.TB_PATIO_ID_PATIO = d.PATIO AND r.TB_BOX_ID_BOX = d.BOX AND r.HORA = d.HORA)
+             WHEN MATCHED THEN UPDATE SET
+                  r.ENTRADAS = r.ENTRADAS + d.ENT,
+                  r.SAIDAS = r.SAIDAS + d.SAI,
+                  r.SOMA_TEMPO_MINUTOS = r.SOMA_TEMPO_MINUTOS + d.SOMA,
+                  r.QTD_TEMPO = r.QTD_TEMPO + d.QTD
+             WHEN NOT MATCHED THEN INSERT
+                  (TB_PATIO_ID_PATIO, TB_BOX_ID_BOX, HORA, ENTRADAS, SAIDAS, SOMA_TEMPO_MINUTOS, QTD_TEMPO)
+                  VALUES (d.PATIO, d.BOX, d.HORA, d.ENT, d.SAI, d.SOMA, d.QTD)
+            """;
+
+    static final String SQL_LIMPAR_INTERVALO =
+            "DELETE FROM TB_MOVIMENTACAO_HORA WHERE HORA >= ? AND HORA < ?";
+
+    static final String SQL_CONSOLIDAR_INTERVALO = """
+            INSERT INTO TB_MOVIMENTACAO_HORA
+                   (TB_PATIO_ID_PATIO, TB_BOX_ID_BOX, HORA, ENTRADAS, SAIDAS, SOMA_TEMPO_MINUTOS, QTD_TEMPO)
+            SELECT l.TB_PATIO_ID_PATIO, l.TB_BOX_ID_BOX, CAST(TRUNC(l.DATA_HORA_MOVIMENTACAO, 'HH24') AS TIMESTAMP),
+                   SUM(CASE WHEN l.TIPO_MOVIMENTACAO = 'ENTRADA' THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN l.TIPO_MOVIMENTACAO = 'SAIDA' THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN l.TIPO_MOVIMENTACAO = 'SAIDA' THEN NVL(l.TEMPO_ESTACIONAMENTO_MINUTOS, 0) ELSE 0 END),
+                   SUM(CASE WHEN l.TIPO_MOVIMENTACAO = 'SAIDA' AND l.TEMPO_ESTACIONAMENTO_MINUTOS IS NOT NULL THEN 1 ELSE 0 END)
+              FROM TB_LOG_MOVIMENTACAO l
+             WHERE l.DATA_HORA_MOVIMENTACAO >= ? AND l.DATA_HORA_MOVIMENTACAO < ?
+             GROUP BY l.TB_PATIO_ID_PATIO, l.TB_BOX_ID_BOX, TRUNC(l.DATA_HORA_MOVIMENTACAO, 'HH24')
+            """;
+
+    static final String SQL_HORAS_DO_PERIODO = """
+            SELECT HORA, TB_PATIO_ID_PATIO, TB_BOX_ID_BOX, ENTRADAS, SAIDAS, SOMA_TEMPO_MINUTOS, QTD_TEMPO
+              FROM TB_MOVIMENTACAO_HORA
+             WHERE HORA >= ? AND HORA < ?
+            """;
+
+    static final String SQL_TOTAIS_POR_DIA = """
+            SELECT CAST(TRUNC(HORA) AS DATE), SUM(ENTRADAS), SUM(SAIDAS)
+              FROM TB_MOVIMENTACAO_HORA
+             WHERE HORA >= ? AND HORA < ?
+             GROUP BY TRUNC(HORA)
+            """;
+
+    static final String SQL_TEMPO_MEDIO_GLOBAL =
+            "SELECT SUM(SOMA_TEMPO_MINUTOS), SUM(QTD_TEMPO) FROM TB_MOVIMENTACAO_HORA";
+
+    static final String SQL_EXISTE_ROLLUP =
+            "SELECT COUNT(*) FROM TB_MOVIMENTACAO_HORA WHERE ROWNUM = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RollupMovimentacaoService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Uma movimentação a somar no rollup.
+     * @param tempoMinutos tempo de estacionamento (apenas saídas; null quando desconhecido)
+     */
+    public record Incremento(Long patioId, Long boxId, LocalDateTime dataHora, boolean entrada, Long tempoMinutos) {
+    }
+
+    /**
+     * Soma uma entrada/saída na hora correspondente. Deve rodar na transação que grava o log.
+     */
+    public void registrar(Incremento incremento) {
+        long[] valores = new long[4];
+        somar(valores, incremento);
+        incrementar(parametros(chave(incremento), valores));
+    }
+
+    private void incrementar(Object[] parametros) {
+        try {
+            jdbcTemplate.update(SQL_INCREMENTAR, parametros);
+        } catch (DuplicateKeyException e) {
+            // Outro MERGE criou a mesma hora/box ao mesmo tempo: agora a linha existe e o MERGE vira UPDATE
+            jdbcTemplate.update(SQL_INCREMENTAR, parametros);
+        }
+    }
+
+    /**
+     * Soma um lote de movimentações (entrada/saída em lote): agrupa por (pátio, box, hora)
+     * e envia um único batch de MERGE.
+     *
+     * Se outro lote criou a mesma hora/box ao mesmo tempo, o batch falha com chave duplicada depois
+     * de já ter aplicado os MERGEs anteriores; repetir o batch contaria esses em dobro. Por isso ele
+     * roda depois de um savepoint JDBC na conexão da transação: na colisão volta ao savepoint e
+     * reenvia as linhas uma a uma, como em {@link #registrar(Incremento)}. Exige a transação do lote.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarLote(Collection<Incremento> incrementos) {
+        if (incrementos.isEmpty()) {
+            return;
+        }
+        Map<Chave, long[]> porChave = new LinkedHashMap<>();
+        for (Incremento incremento : incrementos) {
+            long[] valores = porChave.computeIfAbsent(chave(incremento), k -> new long[4]);
+            somar(valores, incremento);
+        }
+        List<Object[]> lote = new ArrayList<>(porChave.size());
+        porChave.forEach((chave, valores) -> lote.add(parametros(chave, valores)));
+        // O JdbcTemplate usa a mesma conexão dentro do callback porque ela está presa à transação
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+            Savepoint antesDoLote = conexao.setSavepoint();
+            try {
+                jdbcTemplate.batchUpdate(SQL_INCREMENTAR, lote);
+            } catch (DuplicateKeyException e) {
+                conexao.rollback(antesDoLote);
+                log.debug("Rollup: hora/box criada por outro lote durante o batch; reenviando {} linha(s) uma a uma",
+                        lote.size());
+                lote.forEach(this::incrementar);
+            }
+            // Sem releaseSavepoint: o driver Oracle não implementa; o commit da transação o descarta
+            return null;
+        });
+    }
+
+    /**
+     * Reconstrói as horas do intervalo [inicio, fim) a partir de TB_LOG_MOVIMENTACAO.
+     * Usar apenas com horas fechadas: incrementos de horas abertas concorrentes seriam sobrescritos.
+     * @return linhas de rollup gravadas
+     */
+    @Transactional
+    public int consolidar(LocalDateTime inicio, LocalDateTime fim) {
+        Timestamp de = Timestamp.valueOf(inicio.truncatedTo(ChronoUnit.HOURS));
+        Timestamp ate = Timestamp.valueOf(fim.truncatedTo(ChronoUnit.HOURS));
+        int removidas = jdbcTemplate.update(SQL_LIMPAR_INTERVALO, de, ate);
+        int gravadas = jdbcTemplate.update(SQL_CONSOLIDAR_INTERVALO, de, ate);
+        log.debug("Rollup de movimentações consolidado entre {} e {}: {} linhas ({} substituídas)",
+                de, ate, gravadas, removidas);
+        return gravadas;
+    }
+
+    /**
+     * Backfill: reconstrói todo o histórico anterior a {@code fim}.
+     */
+    @Transactional
+    public int reconstruirHistorico(LocalDateTime fim) {
+        return consolidar(INICIO_HISTORICO, fim);
+    }
+
+    public boolean isVazio() {
+        Integer linhas = jdbcTemplate.queryForObject(SQL_EXISTE_ROLLUP, Integer.class);
+        return linhas == null || linhas == 0;
+    }
+
+    /**
+     * Agrega as horas do período (a hora de {@code inicio} entra inteira).
+     * @param patioId filtra um pátio; null para todos
+     */
+    @Transactional(readOnly = true)
+    public AgregadoMovimentacoes agregar(LocalDateTime inicio, LocalDateTime fim, Long patioId) {
+        AgregadoMovimentacoes agregado = new AgregadoMovimentacoes();
+        String sql = patioId == null ? SQL_HORAS_DO_PERIODO : SQL_HORAS_DO_PERIODO + " AND TB_PATIO_ID_PATIO = ?";
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(AgregadorMovimentacoes.FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(inicio.truncatedTo(ChronoUnit.HOURS)));
+            ps.setTimestamp(2, Timestamp.valueOf(fim));
+            if (patioId != null) {
+                ps.setLong(3, patioId);
+            }
+            return ps;
+        }, rs -> {
+            agregado.acumular(rs.getTimestamp(1).toLocalDateTime(), rs.getLong(2), rs.getLong(3),
+                    rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getLong(7));
+        });
+        return agregado;
+    }
+
+    /**
+     * Entradas e saídas por dia no intervalo [dataInicio, dataFim].
+     * @return mapa ordenado por data com {entradas, saidas}; dias sem movimento não aparecem
+     */
+    @Transactional(readOnly = true)
+    public Map<LocalDate, long[]> totaisPorDia(LocalDate dataInicio, LocalDate dataFim) {
+        Map<LocalDate, long[]> totais = new TreeMap<>();
+        jdbcTemplate.query(SQL_TOTAIS_POR_DIA, rs -> {
+            totais.put(rs.getDate(1).toLocalDate(), new long[]{rs.getLong(2), rs.getLong(3)});
+        }, Timestamp.valueOf(dataInicio.atStartOfDay()), Timestamp.valueOf(dataFim.plusDays(1).atStartOfDay()));
+        return totais;
+    }
+
+    /**
+     * Tempo médio de estacionamento de todo o histórico (mesma regra de
+     * LogMovimentacaoRepository.findTempoMedioEstacionamentoGlobal).
+     * @return null quando nenhuma saída registrou tempo
+     */
+    @Transactional(readOnly = true)
+    public Double tempoMedioEstacionamentoGlobal() {
+        return jdbcTemplate.query(SQL_TEMPO_MEDIO_GLOBAL, rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            long soma = rs.getLong(1);
+            long quantidade = rs.getLong(2);
+            return quantidade > 0 ? (double) soma / quantidade : null;
+        });
+    }
+
+    private record Chave(Long patioId, Long boxId, LocalDateTime hora) {
+    }
+
+    private static Chave chave(Incremento incremento) {
+        return new Chave(incremento.patioId(), incremento.boxId(), incremento.dataHora().truncatedTo(ChronoUnit.HOURS));
+    }
+
+    /** valores = {entradas, saidas, somaTempo, qtdTempo} */
+    private static void somar(long[] valores, Incremento incremento) {
+        if (incremento.entrada()) {
+            valores[0]++;
+        } else {
+            valores[1]++;
+            if (incremento.tempoMinutos() != null) {
+                valores[2] += incremento.tempoMinutos();
+                valores[3]++;
+            }
+        }
+    }
+
+    private static Object[] parametros(Chave chave, long[] valores) {
+        return new Object[]{chave.patioId(), chave.boxId(), Timestamp.valueOf(chave.hora()),
+                valores[0], valores[1], valores[2], valores[3]};
+    }
+}
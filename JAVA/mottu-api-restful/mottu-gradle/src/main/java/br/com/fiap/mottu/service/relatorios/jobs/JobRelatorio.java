@@ -0,0 +1,155 @@
+package br.com.fiap.mottu.service.relatorios.jobs;
+
+import br.com.fiap.mottu.exception.ReportGenerationException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uma execução de relatório: estado, tempos, resultado e o fluxo de mudanças de estado (SSE).
+ * Requisições idênticas em andamento compartilham a mesma instância ({@link JobsRelatorio}).
+ */
+public final class JobRelatorio {
+
+    public enum Estado {
+        NA_FILA, EXECUTANDO, CONCLUIDO, FALHOU;
+
+        public boolean isFinal() {
+            return this == CONCLUIDO || this == FALHOU;
+        }
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String tipo;
+    private final Map<String, String> parametros;
+    private final String chave;
+    private final LocalDateTime criadoEm = LocalDateTime.now();
+    private final AtomicInteger solicitacoes = new AtomicInteger(1);
+    private final CompletableFuture<Map<String, Object>> conclusao = new CompletableFuture<>();
+    private final Sinks.Many<Estado> mudancas = Sinks.many().replay().latest();
+    private volatile Estado estado = Estado.NA_FILA;
+    private volatile LocalDateTime iniciadoEm;
+    private volatile LocalDateTime concluidoEm;
+    private volatile long inicioNanos;
+    private volatile long duracaoMs = -1;
+    private volatile String erro;
+
+    JobRelatorio(String tipo, Map<String, String> parametros, String chave) {
+        this.tipo = tipo;
+        this.parametros = Map.copyOf(parametros);
+        this.chave = chave;
+        mudancas.tryEmitNext(Estado.NA_FILA);
+    }
+
+    synchronized void iniciar() {
+        iniciadoEm = LocalDateTime.now();
+        inicioNanos = System.nanoTime();
+        mudar(Estado.EXECUTANDO);
+    }
+
+    synchronized void concluir(Map<String, Object> resultado) {
+        finalizar(Estado.CONCLUIDO);
+        conclusao.complete(resultado);
+    }
+
+    synchronized void falhar(String mensagem) {
+        erro = mensagem;
+        finalizar(Estado.FALHOU);
+        conclusao.completeExceptionally(new ReportGenerationException(mensagem));
+    }
+
+    private void finalizar(Estado estadoFinal) {
+        concluidoEm = LocalDateTime.now();
+        if (inicioNanos != 0) {
+            duracaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioNanos);
+        }
+        mudar(estadoFinal);
+        mudancas.tryEmitComplete();
+    }
+
+    private void mudar(Estado novo) {
+        estado = novo;
+        mudancas.tryEmitNext(novo);
+    }
+
+    int registrarSolicitacao() {
+        return solicitacoes.incrementAndGet();
+    }
+
+    /**
+     * Espera o resultado por até {@code esperaMs}.
+     *
+     * @return o resultado, ou null se o job ainda não terminou
+     * @throws ReportGenerationException se o job falhou
+     */
+    public Map<String, Object> aguardar(long esperaMs) {
+        try {
+            return conclusao.get(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw (ReportGenerationException) e.getCause();
+        }
+    }
+
+    /** Estados a partir do atual; completa quando o job termina. */
+    public Flux<Estado> mudancas() {
+        return mudancas.asFlux();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Map<String, String> getParametros() {
+        return parametros;
+    }
+
+    String getChave() {
+        return chave;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public LocalDateTime getIniciadoEm() {
+        return iniciadoEm;
+    }
+
+    public LocalDateTime getConcluidoEm() {
+        return concluidoEm;
+    }
+
+    /** Duração da execução; -1 enquanto não terminou. */
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public int getSolicitacoes() {
+        return solicitacoes.get();
+    }
+}
@@ -0,0 +1,310 @@
+package br.com.fiap.mottu.service.relatorios.jobs;
+
+import br.com.fiap.mottu.dto.relatorio.JobRelatorioDto;
+import br.com.fiap.mottu.exception.InvalidInputException;
+import br.com.fiap.mottu.exception.RelatoriosOcupadosException;
+import br.com.fiap.mottu.exception.ResourceNotFoundException;
+import br.com.fiap.mottu.service.RelatorioService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Execução assíncrona dos relatórios pesados ({@code executarRelatorio*} do {@link RelatorioService}).
+ *
+ * Submeter devolve um {@link JobRelatorio} (ID, estado e mudanças via SSE) em vez de ocupar a
+ * requisição. Pedidos do mesmo relatório com os mesmos parâmetros normalizados enquanto um job
+ * está na fila ou executando entram nele (cinco gestores abrindo o SLA geram uma execução), e o
+ * resultado concluído é reaproveitado por {@code mottu.relatorios.jobs.ttlSegundos}. Falhas não
+ * ficam em cache.
+ *
+ * Os relatórios rodam num pool próprio com concorrência fixa e fila limitada: com a fila cheia a
+ * submissão falha na hora com {@link RelatoriosOcupadosException} (HTTP 429), então relatórios
+ * não disputam conexões e CPU com a API de estacionamento sem limite.
+ */
+@Service
+@Slf4j
+public class JobsRelatorio {
+
+    private final Map<String, Function<Map<String, Object>, Map<String, Object>>> relatorios;
+    private final ThreadPoolExecutor executor;
+    private final int concorrencia;
+    private final int capacidadeFila;
+    private final long esperaSincronaMs;
+    /** Job em andamento ou concluído (até o TTL) por chave tipo+parâmetros: é o single-flight e o cache. */
+    private final Cache<String, JobRelatorio> porChave;
+    private final Cache<String, JobRelatorio> porId;
+    private final LongAdder execucoes = new LongAdder();
+    private final LongAdder coalescidos = new LongAdder();
+    private final LongAdder acertosCache = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder rejeitados = new LongAdder();
+
+    @Autowired
+    public JobsRelatorio(RelatorioService relatorioService,
+                         @Value("${mottu.relatorios.jobs.concorrencia:2}") int concorrencia,
+                         @Value("${mottu.relatorios.jobs.capacidadeFila:16}") int capacidadeFila,
+                         @Value("${mottu.relatorios.jobs.ttlSegundos:60}") long ttlSegundos,
+                         @Value("${mottu.relatorios.jobs.maximo:500}") long maximo,
+                         @Value("${mottu.relatorios.jobs.esperaSincronaMs:30000}") long esperaSincronaMs) {
+        this(relatoriosDisponiveis(relatorioService), concorrencia, capacidadeFila, Duration.ofSeconds(ttlSegundos), maximo,
+                esperaSincronaMs);
+    }
+
+    JobsRelatorio(Map<String, Function<Map<String, Object>, Map<String, Object>>> relatorios,
+                  int concorrencia, int capacidadeFila, Duration ttl, long maximo, long esperaSincronaMs) {
+        this.relatorios = new LinkedHashMap<>(relatorios);
+        this.esperaSincronaMs = esperaSincronaMs;
+        this.concorrencia = Math.max(1, concorrencia);
+        this.capacidadeFila = Math.max(1, capacidadeFila);
+        AtomicInteger sequencia = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.concorrencia, this.concorrencia, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "relatorio-job-" + sequencia.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.porChave = Caffeine.newBuilder().maximumSize(maximo).expireAfter(new ExpiraAposConcluir(ttl)).build();
+        this.porId = Caffeine.newBuilder().maximumSize(maximo).expireAfter(new ExpiraAposConcluir(ttl)).build();
+        log.info("📑 Jobs de relatório: {} worker(s), fila de {}, resultados por {} s", this.concorrencia,
+                this.capacidadeFila, ttl.toSeconds());
+    }
+
+    private static Map<String, Function<Map<String, Object>, Map<String, Object>>> relatoriosDisponiveis(RelatorioService service) {
+        Map<String, Function<Map<String, Object>, Map<String, Object>>> relatorios = new LinkedHashMap<>();
+        relatorios.put("performance-sistema", service::executarRelatorioPerformanceSistema);
+        relatorios.put("auditoria-seguranca", service::executarRelatorioAuditoriaSeguranca);
+        relatorios.put("manutencao", service::executarRelatorioManutencao);
+        relatorios.put("analytics-avancado", service::executarRelatorioAnalyticsAvancado);
+        relatorios.put("ocupacao-inteligente", service::executarRelatorioOcupacaoInteligente);
+        relatorios.put("monitoramento-sla", service::executarRelatorioMonitoramentoSLA);
+        return relatorios;
+    }
+
+    /** Resultado de uma submissão: o job e se ele já existia (em andamento ou em cache). */
+    public record Submissao(JobRelatorio job, boolean reaproveitado) {
+    }
+
+    /**
+     * Submete um relatório ou entra no job idêntico já existente.
+     *
+     * @throws InvalidInputException       tipo de relatório desconhecido
+     * @throws RelatoriosOcupadosException fila de relatórios cheia
+     */
+    public Submissao submeter(String tipo, Map<String, ?> parametros) {
+        if (!relatorios.containsKey(tipo)) {
+            throw new InvalidInputException("Relatório desconhecido: '" + tipo + "'. Disponíveis: " + relatorios.keySet());
+        }
+        Map<String, String> normalizados = normalizar(parametros);
+        String chave = tipo + normalizados;
+        JobRelatorio novo = new JobRelatorio(tipo, normalizados, chave);
+        JobRelatorio job = porChave.asMap().compute(chave,
+                (k, atual) -> atual != null && atual.getEstado() != JobRelatorio.Estado.FALHOU ? atual : novo);
+
+        if (job != novo) {
+            int solicitacoes = job.registrarSolicitacao();
+            if (job.getEstado() == JobRelatorio.Estado.CONCLUIDO) {
+                acertosCache.increment();
+            } else {
+                coalescidos.increment();
+            }
+            log.debug("📑 Relatório '{}' reaproveitado do job {} ({} solicitação(ões))", tipo, job.getId(), solicitacoes);
+            return new Submissao(job, true);
+        }
+
+        porId.put(novo.getId(), novo);
+        try {
+            executor.execute(new Tarefa(novo));
+        } catch (RejectedExecutionException e) {
+            rejeitados.increment();
+            novo.falhar("Fila de relatórios cheia");
+            porChave.asMap().remove(chave, novo);
+            porId.asMap().replace(novo.getId(), novo, novo);
+            log.warn("⚠️ Fila de relatórios cheia ({} na fila, {} em execução): '{}' recusado",
+                    executor.getQueue().size(), executor.getActiveCount(), tipo);
+            throw new RelatoriosOcupadosException("Muitos relatórios em processamento. Tente novamente em instantes.");
+        }
+        log.info("📑 Job {} do relatório '{}' na fila {}", novo.getId(), tipo, normalizados);
+        return new Submissao(novo, false);
+    }
+
+    /**
+     * Caminho dos endpoints síncronos: submete (ou reaproveita) e espera o resultado por até
+     * {@code mottu.relatorios.jobs.esperaSincronaMs}.
+     *
+     * @return o resultado, ou null se o job ainda não terminou (segue consultável pelo ID)
+     */
+    public Map<String, Object> executar(Submissao submissao) {
+        return submissao.job().aguardar(esperaSincronaMs);
+    }
+
+    /**
+     * @throws ResourceNotFoundException job inexistente ou já expirado
+     */
+    public JobRelatorio buscar(String id) {
+        JobRelatorio job = porId.getIfPresent(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Job de relatório não encontrado ou expirado: " + id);
+        }
+        return job;
+    }
+
+    public JobRelatorioDto paraDto(JobRelatorio job, boolean reaproveitado) {
+        return JobRelatorioDto.builder()
+                .id(job.getId())
+                .tipo(job.getTipo())
+                .parametros(job.getParametros())
+                .estado(job.getEstado().name())
+                .posicaoFila(posicaoNaFila(job))
+                .solicitacoes(job.getSolicitacoes())
+                .reaproveitado(reaproveitado)
+                .criadoEm(job.getCriadoEm())
+                .iniciadoEm(job.getIniciadoEm())
+                .concluidoEm(job.getConcluidoEm())
+                .duracaoMs(job.getDuracaoMs() < 0 ? null : job.getDuracaoMs())
+                .erro(job.getErro())
+                .resultadoUrl("/api/relatorios/jobs/" + job.getId() + "/resultado")
+                .build();
+    }
+
+    /** 1 = próximo a executar; 0 quando já saiu da fila. */
+    private int posicaoNaFila(JobRelatorio job) {
+        if (job.getEstado() != JobRelatorio.Estado.NA_FILA) {
+            return 0;
+        }
+        int posicao = 0;
+        for (Runnable tarefa : executor.getQueue()) {
+            posicao++;
+            if (tarefa instanceof Tarefa t && t.job == job) {
+                return posicao;
+            }
+        }
+        return 0;
+    }
+
+    public Set<String> tipos() {
+        return relatorios.keySet();
+    }
+
+    /** Snapshot do pool e do reaproveitamento (single-flight e cache). */
+    public Map<String, Object> estatisticas() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("concorrencia", concorrencia);
+        stats.put("capacidadeFila", capacidadeFila);
+        stats.put("fila", executor.getQueue().size());
+        stats.put("emExecucao", executor.getActiveCount());
+        stats.put("execucoes", execucoes.sum());
+        stats.put("coalescidos", coalescidos.sum());
+        stats.put("acertosCache", acertosCache.sum());
+        stats.put("falhas", falhas.sum());
+        stats.put("rejeitados", rejeitados.sum());
+        stats.put("jobsRetidos", porId.estimatedSize());
+        return stats;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Parâmetros em ordem alfabética, com valores como texto aparado; nulos e vazios são ignorados
+     * (ausente e vazio pedem o mesmo relatório).
+     */
+    static Map<String, String> normalizar(Map<String, ?> parametros) {
+        Map<String, String> normalizados = new TreeMap<>();
+        if (parametros != null) {
+            parametros.forEach((nome, valor) -> {
+                String texto = valor == null ? "" : String.valueOf(valor).trim();
+                if (nome != null && !nome.isBlank() && !texto.isEmpty()) {
+                    normalizados.put(nome.trim(), texto);
+                }
+            });
+        }
+        return normalizados;
+    }
+
+    private void executar(JobRelatorio job) {
+        job.iniciar();
+        execucoes.increment();
+        try {
+            Map<String, Object> resultado = relatorios.get(job.getTipo()).apply(new LinkedHashMap<>(job.getParametros()));
+            if ("erro".equals(resultado.get("status"))) {
+                // Relatório respondeu com erro tratado: entrega a quem esperava, mas não reaproveita
+                falhas.increment();
+                porChave.asMap().remove(job.getChave(), job);
+                job.concluir(resultado);
+            } else {
+                job.concluir(resultado);
+                porChave.asMap().replace(job.getChave(), job, job); // recalcula a expiração: TTL conta a partir daqui
+            }
+            log.info("✅ Job {} do relatório '{}' concluído em {} ms ({} solicitação(ões))", job.getId(), job.getTipo(),
+                    job.getDuracaoMs(), job.getSolicitacoes());
+        } catch (Throwable e) {
+            // Inclui Error (OOM, StackOverflowError, AssertionError de biblioteca): sem isso o job ficaria
+            // em andamento para sempre, sem expirar, e os pedidos idênticos entrariam nele
+            falhas.increment();
+            job.falhar(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            porChave.asMap().remove(job.getChave(), job);
+            log.error("❌ Job {} do relatório '{}' falhou", job.getId(), job.getTipo(), e);
+            if (e instanceof Error erro) {
+                throw erro;
+            }
+        } finally {
+            porId.asMap().replace(job.getId(), job, job);
+        }
+    }
+
+    private final class Tarefa implements Runnable {
+
+        private final JobRelatorio job;
+
+        private Tarefa(JobRelatorio job) {
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            executar(job);
+        }
+    }
+
+    /** Jobs em andamento não expiram; concluídos e falhos ficam retidos pelo TTL. */
+    private record ExpiraAposConcluir(Duration ttl) implements Expiry<String, JobRelatorio> {
+
+        @Override
+        public long expireAfterCreate(String chave, JobRelatorio job, long agora) {
+            return job.getEstado().isFinal() ? ttl.toNanos() : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, JobRelatorio job, long agora, long duracaoAtual) {
+            return expireAfterCreate(chave, job, agora);
+        }
+
+        @Override
+        public long expireAfterRead(String chave, JobRelatorio job, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package br.com.fiap.mottu.service.relatorios.performance;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Métricas de performance de todos os pátios em um número fixo de consultas agrupadas
+ * (pátios + boxes, movimentações do rollup, top boxes e top veículos), independente da
+ * quantidade de pátios. Substitui o laço que fazia ~10 consultas por pátio.
+ */
+@Component
+public class ConsultaPerformancePatios {
+
+    /** Quantidade de boxes/veículos no ranking de cada pátio. */
+    static final int LIMITE_TOP = 5;
+
+    static final String SQL_PATIOS = """
+            SELECT p.ID_PATIO, p.NOME_PATIO, p.STATUS, e.CIDADE, e.ESTADO,
+                   NVL(b.TOTAL, 0), NVL(b.OCUPADOS, 0)
+              FROM TB_PATIO p
+              LEFT JOIN TB_ENDERECO e ON e.ID_ENDERECO = p.TB_ENDERECO_ID_ENDERECO
+              LEFT JOIN (SELECT TB_PATIO_ID_PATIO, COUNT(*) AS TOTAL,
+                                SUM(CASE WHEN STATUS = 'O' THEN 1 ELSE 0 END) AS OCUPADOS
+                           FROM TB_BOX
+                          GROUP BY TB_PATIO_ID_PATIO) b ON b.TB_PATIO_ID_PATIO = p.ID_PATIO
+             ORDER BY p.ID_PATIO
+            """;
+
+    static final String SQL_MOVIMENTACOES = """
+            SELECT TB_PATIO_ID_PATIO,
+                   SUM(CASE WHEN HORA >= ? THEN ENTRADAS ELSE 0 END),
+                   SUM(CASE WHEN HORA >= ? THEN SAIDAS ELSE 0 END),
+                   SUM(ENTRADAS), SUM(SAIDAS), SUM(SOMA_TEMPO_MINUTOS), SUM(QTD_TEMPO)
+              FROM TB_MOVIMENTACAO_HORA
+             GROUP BY TB_PATIO_ID_PATIO
+            """;
+
+    static final String SQL_TOP_BOXES = """
+            SELECT PATIO, BOX, NOME, TOTAL FROM (
+                   SELECT r.TB_PATIO_ID_PATIO AS PATIO, r.TB_BOX_ID_BOX AS BOX, b.NOME AS NOME,
+                          SUM(r.ENTRADAS + r.SAIDAS) AS TOTAL,
+                          ROW_NUMBER() OVER (PARTITION BY r.TB_PATIO_ID_PATIO
+                                             ORDER BY SUM(r.ENTRADAS + r.SAIDAS) DESC) AS POSICAO
+                     FROM TB_MOVIMENTACAO_HORA r
+                     JOIN TB_BOX b ON b.ID_BOX = r.TB_BOX_ID_BOX
+                    GROUP BY r.TB_PATIO_ID_PATIO, r.TB_BOX_ID_BOX, b.NOME)
+             WHERE POSICAO <=\s""" + LIMITE_TOP + " ORDER BY PATIO, POSICAO";
+
+    static final String SQL_TOP_VEICULOS = """
+            SELECT PATIO, VEICULO, PLACA, TOTAL FROM (
+                   SELECT l.TB_PATIO_ID_PATIO AS PATIO, v.ID_VEICULO AS VEICULO, v.PLACA AS PLACA,
+                          COUNT(*) AS TOTAL,
+                          ROW_NUMBER() OVER (PARTITION BY l.TB_PATIO_ID_PATIO ORDER BY COUNT(*) DESC) AS POSICAO
+                     FROM TB_LOG_MOVIMENTACAO l
+                     JOIN TB_VEICULO v ON v.ID_VEICULO = l.TB_VEICULO_ID_VEICULO
+                    GROUP BY l.TB_PATIO_ID_PATIO, v.ID_VEICULO, v.PLACA)
+             WHERE POSICAO <=\s""" + LIMITE_TOP + " ORDER BY PATIO, POSICAO";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ConsultaPerformancePatios(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Linha do ranking de um pátio: {id, nome/placa, total}, no formato esperado pelo
+     * LogMovimentacaoMapper (toTopBoxDto / toTopVeiculoDto).
+     */
+    public record ItemRanking(Long id, String descricao, Long total) {
+
+        public Object[] comoLinha() {
+            return new Object[]{id, descricao, total};
+        }
+    }
+
+    /**
+     * Métricas de um pátio. Entradas/saídas "do período" contam as horas do rollup a partir
+     * de {@code inicioPeriodo}; os totais e o tempo médio cobrem todo o histórico.
+     */
+    public static final class MetricasPatio {
+        private final Long patioId;
+        private final String nomePatio;
+        private final String status;
+        private final String cidade;
+        private final String estado;
+        private final int totalBoxes;
+        private final int boxesOcupados;
+        private long entradasPeriodo;
+        private long saidasPeriodo;
+        private long entradasTotal;
+        private long saidasTotal;
+        private long somaTempoMinutos;
+        private long qtdTempo;
+        private final List<ItemRanking> topBoxes = new ArrayList<>(LIMITE_TOP);
+        private final List<ItemRanking> topVeiculos = new ArrayList<>(LIMITE_TOP);
+
+        MetricasPatio(Long patioId, String nomePatio, String status, String cidade, String estado,
+                      int totalBoxes, int boxesOcupados) {
+            this.patioId = patioId;
+            this.nomePatio = nomePatio;
+            this.status = status;
+            this.cidade = cidade;
+            this.estado = estado;
+            this.totalBoxes = totalBoxes;
+            this.boxesOcupados = boxesOcupados;
+        }
+
+        public Long getPatioId() { return patioId; }
+        public String getNomePatio() { return nomePatio; }
+        public String getStatus() { return status; }
+        public String getCidade() { return cidade; }
+        public String getEstado() { return estado; }
+        public int getTotalBoxes() { return totalBoxes; }
+        public int getBoxesOcupados() { return boxesOcupados; }
+        public long getEntradasPeriodo() { return entradasPeriodo; }
+        public long getSaidasPeriodo() { return saidasPeriodo; }
+        public long getEntradasTotal() { return entradasTotal; }
+        public long getSaidasTotal() { return saidasTotal; }
+        public List<ItemRanking> getTopBoxes() { return topBoxes; }
+        public List<ItemRanking> getTopVeiculos() { return topVeiculos; }
+
+        public long getMovimentacoesPeriodo() {
+            return entradasPeriodo + saidasPeriodo;
+        }
+
+        public long getMovimentacoesTotal() {
+            return entradasTotal + saidasTotal;
+        }
+
+        /** Percentual de boxes com STATUS 'O' agora. */
+        public double getTaxaOcupacao() {
+            return totalBoxes > 0 ? (boxesOcupados * 100.0) / totalBoxes : 0.0;
+        }
+
+        /** Média de TEMPO_ESTACIONAMENTO_MINUTOS; null quando nenhuma saída registrou tempo (como AVG). */
+        public Double getTempoMedioEstacionamento() {
+            return qtdTempo > 0 ? (double) somaTempoMinutos / qtdTempo : null;
+        }
+    }
+
+    /**
+     * Carrega as métricas de todos os pátios, ordenadas por id.
+     * @param inicioPeriodo início da janela de entradas/saídas (a hora inteira entra)
+     */
+    @Transactional(readOnly = true)
+    public Collection<MetricasPatio> carregar(LocalDateTime inicioPeriodo) {
+        Map<Long, MetricasPatio> patios = new LinkedHashMap<>();
+        jdbcTemplate.query(SQL_PATIOS, rs -> {
+            long patioId = rs.getLong(1);
+            patios.put(patioId, new MetricasPatio(patioId, rs.getString(2), rs.getString(3),
+                    rs.getString(4), rs.getString(5), rs.getInt(6), rs.getInt(7)));
+        });
+        if (patios.isEmpty()) {
+            return patios.values();
+        }
+
+        Timestamp desde = Timestamp.valueOf(inicioPeriodo.truncatedTo(ChronoUnit.HOURS));
+        jdbcTemplate.query(SQL_MOVIMENTACOES, rs -> {
+            MetricasPatio metricas = patios.get(rs.getLong(1));
+            if (metricas != null) {
+                metricas.entradasPeriodo = rs.getLong(2);
+                metricas.saidasPeriodo = rs.getLong(3);
+                metricas.entradasTotal = rs.getLong(4);
+                metricas.saidasTotal = rs.getLong(5);
+                metricas.somaTempoMinutos = rs.getLong(6);
+                metricas.qtdTempo = rs.getLong(7);
+            }
+        }, desde, desde);
+
+        jdbcTemplate.query(SQL_TOP_BOXES, rs -> {
+            MetricasPatio metricas = patios.get(rs.getLong(1));
+            if (metricas != null) {
+                metricas.topBoxes.add(new ItemRanking(rs.getLong(2), rs.getString(3), rs.getLong(4)));
+            }
+        });
+
+        jdbcTemplate.query(SQL_TOP_VEICULOS, rs -> {
+            MetricasPatio metricas = patios.get(rs.getLong(1));
+            if (metricas != null) {
+                metricas.topVeiculos.add(new ItemRanking(rs.getLong(2), rs.getString(3), rs.getLong(4)));
+            }
+        });
+        return patios.values();
+    }
+}
@@ -0,0 +1,248 @@
+package br.com.fiap.mottu.service.relatorios.performance;
+
+import br.com.fiap.mottu.dto.relatorio.performance.MetricasAplicacaoDto;
+import br.com.fiap.mottu.service.metricas.ContadorSql;
+import br.com.fiap.mottu.service.ocr.OcrExecutor;
+import br.com.fiap.mottu.service.stream.MudancaHub;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relatório das métricas medidas pelo Micrometer: latência por rota, statements e duração por
+ * método de repositório, pool de conexões, caches, streams SSE e OCR.
+ * Lê o mesmo registry que alimenta o /actuator/prometheus; os valores são acumulados desde a subida.
+ */
+@Service
+public class MetricasAplicacaoService {
+
+    static final int MAXIMO_LINHAS = 20;
+
+    private final MeterRegistry registry;
+    private final MudancaHub mudancaHub;
+    private final OcrExecutor ocrExecutor;
+
+    public MetricasAplicacaoService(MeterRegistry registry, MudancaHub mudancaHub, OcrExecutor ocrExecutor) {
+        this.registry = registry;
+        this.mudancaHub = mudancaHub;
+        this.ocrExecutor = ocrExecutor;
+    }
+
+    public MetricasAplicacaoDto coletar() {
+        Map<String, Object> sse = new LinkedHashMap<>();
+        sse.put("total", mudancaHub.getAssinantesAtivos());
+        sse.put("porGrupo", mudancaHub.getAssinantesPorGrupo());
+
+        Map<String, Object> ocr = new LinkedHashMap<>();
+        ocr.put("fila", ocrExecutor.getTamanhoFila());
+        ocr.put("emExecucao", ocrExecutor.getEmExecucao());
+        ocr.put("concluidas", ocrExecutor.getConcluidas());
+        ocr.put("rejeitadas", ocrExecutor.getRejeitadas());
+
+        return MetricasAplicacaoDto.builder()
+                .coletadoEm(LocalDateTime.now())
+                .http(latenciaPorRota())
+                .sql(sqlPorRepositorio())
+                .poolConexoes(poolConexoes())
+                .caches(caches())
+                .sse(sse)
+                .ocr(ocr)
+                .build();
+    }
+
+    /**
+     * Uma linha por rota (uri + método HTTP), somando os timers dos diferentes status.
+     * Os percentis são os maiores entre os status da rota.
+     */
+    List<Map<String, Object>> latenciaPorRota() {
+        Map<String, Acumulado> porRota = new LinkedHashMap<>();
+        for (Timer timer : registry.find("http.server.requests").timers()) {
+            String uri = tag(timer, "uri");
+            String metodo = tag(timer, "method");
+            porRota.computeIfAbsent(metodo + " " + uri, k -> new Acumulado(identificacao("uri", uri, "method", metodo)))
+                    .somar(timer);
+        }
+        return porRota.values().stream()
+                .sorted(Comparator.comparingDouble(Acumulado::totalMs).reversed())
+                .limit(MAXIMO_LINHAS)
+                .map(acumulado -> acumulado.comoMapa("requisicoes"))
+                .toList();
+    }
+
+    /**
+     * Statements SQL ({@link ContadorSql}) e duração ({@code spring.data.repository.invocations})
+     * por método de repositório.
+     */
+    List<Map<String, Object>> sqlPorRepositorio() {
+        Map<String, Acumulado> porMetodo = new LinkedHashMap<>();
+        for (Counter contador : registry.find(ContadorSql.METRICA).counters()) {
+            porMetodo.computeIfAbsent(chaveRepositorio(contador), k -> new Acumulado(origem(contador)))
+                    .statements += (long) contador.count();
+        }
+        for (Timer timer : registry.find("spring.data.repository.invocations").timers()) {
+            porMetodo.computeIfAbsent(chaveRepositorio(timer), k -> new Acumulado(origem(timer)))
+                    .somar(timer);
+        }
+        return porMetodo.values().stream()
+                .sorted(Comparator.comparingLong((Acumulado a) -> a.statements)
+                        .thenComparingDouble(Acumulado::totalMs).reversed())
+                .limit(MAXIMO_LINHAS)
+                .map(acumulado -> {
+                    Map<String, Object> linha = acumulado.comoMapa("invocacoes");
+                    linha.put("statements", acumulado.statements);
+                    return linha;
+                })
+                .toList();
+    }
+
+    /**
+     * Soma dos pools Hikari (normalmente um só).
+     */
+    Map<String, Object> poolConexoes() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        if (registry.find("hikaricp.connections.max").gauge() == null) {
+            pool.put("disponivel", false);
+            return pool;
+        }
+        double ativas = somaGauges("hikaricp.connections.active");
+        double maximo = somaGauges("hikaricp.connections.max");
+        pool.put("disponivel", true);
+        pool.put("ativas", (long) ativas);
+        pool.put("ociosas", (long) somaGauges("hikaricp.connections.idle"));
+        pool.put("pendentes", (long) somaGauges("hikaricp.connections.pending"));
+        pool.put("maximo", (long) maximo);
+        pool.put("utilizacao", maximo > 0 ? arredondar(ativas / maximo * 100) : 0.0);
+        long esperas = 0;
+        double esperaTotalMs = 0;
+        double esperaMaxMs = 0;
+        for (Timer espera : registry.find("hikaricp.connections.acquire").timers()) {
+            esperas += espera.count();
+            esperaTotalMs += espera.totalTime(TimeUnit.MILLISECONDS);
+            esperaMaxMs = Math.max(esperaMaxMs, espera.max(TimeUnit.MILLISECONDS));
+        }
+        pool.put("esperaMediaMs", esperas > 0 ? arredondar(esperaTotalMs / esperas) : 0.0);
+        pool.put("esperaMaxMs", arredondar(esperaMaxMs));
+        pool.put("timeouts", (long) registry.find("hikaricp.connections.timeout").counters().stream()
+                .mapToDouble(Counter::count).sum());
+        return pool;
+    }
+
+    /**
+     * Uma linha por cache com {@code recordStats()}: acertos, faltas e remoções desde a subida.
+     */
+    List<Map<String, Object>> caches() {
+        Map<String, Map<String, Object>> porCache = new LinkedHashMap<>();
+        for (FunctionCounter leituras : registry.find("cache.gets").functionCounters()) {
+            Map<String, Object> linha = linhaCache(porCache, leituras);
+            String resultado = "hit".equals(leituras.getId().getTag("result")) ? "acertos" : "faltas";
+            linha.merge(resultado, (long) leituras.count(), (a, b) -> (Long) a + (Long) b);
+        }
+        for (FunctionCounter remocoes : registry.find("cache.evictions").functionCounters()) {
+            linhaCache(porCache, remocoes).put("remocoes", (long) remocoes.count());
+        }
+        for (Gauge tamanho : registry.find("cache.size").gauges()) {
+            linhaCache(porCache, tamanho).put("tamanho", (long) tamanho.value());
+        }
+        List<Map<String, Object>> linhas = new ArrayList<>(porCache.values());
+        for (Map<String, Object> linha : linhas) {
+            long acertos = (Long) linha.getOrDefault("acertos", 0L);
+            long faltas = (Long) linha.getOrDefault("faltas", 0L);
+            linha.put("taxaAcerto", acertos + faltas > 0 ? arredondar((double) acertos / (acertos + faltas) * 100) : 0.0);
+        }
+        linhas.sort(Comparator.comparing((Map<String, Object> linha) -> String.valueOf(linha.get("cacheManager")))
+                .thenComparing(linha -> String.valueOf(linha.get("cache"))));
+        return linhas;
+    }
+
+    private static Map<String, Object> linhaCache(Map<String, Map<String, Object>> porCache, Meter meter) {
+        String cache = tag(meter, "cache");
+        String cacheManager = tag(meter, "cache.manager");
+        return porCache.computeIfAbsent(cacheManager + "/" + cache, k -> {
+            Map<String, Object> linha = new LinkedHashMap<>();
+            linha.put("cache", cache);
+            linha.put("cacheManager", cacheManager);
+            return linha;
+        });
+    }
+
+    private double somaGauges(String nome) {
+        return registry.find(nome).gauges().stream().mapToDouble(Gauge::value).filter(Double::isFinite).sum();
+    }
+
+    private static String chaveRepositorio(Meter meter) {
+        return tag(meter, "repository") + "#" + tag(meter, "method");
+    }
+
+    private static Map<String, Object> origem(Meter meter) {
+        return identificacao("repository", tag(meter, "repository"), "method", tag(meter, "method"));
+    }
+
+    private static Map<String, Object> identificacao(String chave1, String valor1, String chave2, String valor2) {
+        Map<String, Object> identificacao = new LinkedHashMap<>();
+        identificacao.put(chave1, valor1);
+        identificacao.put(chave2, valor2);
+        return identificacao;
+    }
+
+    private static String tag(Meter meter, String nome) {
+        return Objects.requireNonNullElse(meter.getId().getTag(nome), "none");
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    /**
+     * Soma de timers com a mesma identificação (rota ou método de repositório).
+     */
+    private static final class Acumulado {
+        private final Map<String, Object> identificacao;
+        private final Map<Double, Double> percentisMs = new TreeMap<>();
+        private long contagem;
+        private double totalMs;
+        private double maxMs;
+        private long statements;
+
+        Acumulado(Map<String, Object> identificacao) {
+            this.identificacao = identificacao;
+        }
+
+        void somar(Timer timer) {
+            contagem += timer.count();
+            totalMs += timer.totalTime(TimeUnit.MILLISECONDS);
+            maxMs = Math.max(maxMs, timer.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentil : timer.takeSnapshot().percentileValues()) {
+                percentisMs.merge(percentil.percentile(), percentil.value(TimeUnit.MILLISECONDS), Math::max);
+            }
+        }
+
+        double totalMs() {
+            return totalMs;
+        }
+
+        Map<String, Object> comoMapa(String nomeContagem) {
+            Map<String, Object> linha = new LinkedHashMap<>(identificacao);
+            linha.put(nomeContagem, contagem);
+            linha.put("mediaMs", contagem > 0 ? arredondar(totalMs / contagem) : 0.0);
+            percentisMs.forEach((percentil, valorMs) ->
+                    linha.put("p" + Math.round(percentil * 100) + "Ms", arredondar(valorMs)));
+            linha.put("maxMs", arredondar(maxMs));
+            return linha;
+        }
+    }
+}
@@ -15,7 +15,7 @@ import java.util.List;
 @Service("systemPerformanceService")
 public class SystemPerformanceService {
 
-    @Cacheable(value = "relatorioPerformance", key = "'system'", unless = "#result == null")
+    @Cacheable(value = "relatorioPerformance", keyGenerator = "recargaCaches", unless = "#result == null")
     public SystemPerformanceDto coletarSystemInfo() {
         SystemPerformanceDto dto = new SystemPerformanceDto();
 
@@ -59,7 +59,7 @@ public class SystemPerformanceService {
         return dto;
     }
 
-    @Cacheable(value = "relatorioPerformance", key = "'threads'", unless = "#result == null")
+    @Cacheable(value = "relatorioPerformance", keyGenerator = "recargaCaches", unless = "#result == null")
     public List<ThreadInfoDto> listarThreads() {
         ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
         boolean cpuTimeSupported = threadMXBean.isThreadCpuTimeSupported();
@@ -0,0 +1,220 @@
+package br.com.fiap.mottu.service.stream;
+
+import br.com.fiap.mottu.dto.box.BoxStatusEventoDto;
+import br.com.fiap.mottu.service.VagaOracleService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream de status dos boxes com protocolo snapshot + delta.
+ *
+ * Cada pátio (ou "todos") tem um canal com o último estado conhecido e um número de sequência.
+ * O primeiro evento de um cliente é o SNAPSHOT completo; depois seguem apenas DELTAs com os boxes
+ * cujo status ou veículo mudou. O ID do evento SSE é "geracao:seq", então o EventSource pode
+ * reconectar com Last-Event-ID e receber só os deltas perdidos (se ainda estiverem no histórico).
+ * As recargas são disparadas pelo {@link MudancaHub}, uma vez por mudança e não por cliente.
+ * O canal é descartado quando o último cliente sai e ninguém reconecta dentro do período de grace
+ * (o mesmo do hub); a próxima conexão começa uma nova geração e recebe snapshot.
+ */
+@Service
+@Slf4j
+public class BoxStatusStreamService {
+
+    /** Quantidade de deltas guardados por canal para retomada via Last-Event-ID. */
+    static final int HISTORICO_DELTAS = 256;
+
+    private final VagaOracleService vagaService;
+    private final MudancaHub mudancaHub;
+    private final Map<String, CanalBoxes> canais = new ConcurrentHashMap<>();
+
+    /** Tempo que o canal (e seu histórico de deltas) aguarda uma reconexão após o último cliente sair. */
+    @Value("${mottu.stream.graceDesconexaoSegundos:10}")
+    private long graceDesconexaoSegundos = 10;
+
+    public BoxStatusStreamService(VagaOracleService vagaService, MudancaHub mudancaHub) {
+        this.vagaService = vagaService;
+        this.mudancaHub = mudancaHub;
+    }
+
+    /**
+     * Assina o stream de um pátio (ou de todos quando patioId é null).
+     *
+     * @param patioId     pátio desejado (opcional)
+     * @param lastEventId valor do header Last-Event-ID enviado na reconexão (opcional)
+     */
+    public Flux<ServerSentEvent<BoxStatusEventoDto>> assinar(Long patioId, String lastEventId) {
+        String chave = patioId != null ? "patio-" + patioId : "todos";
+        CanalBoxes canal = entrar(chave);
+
+        // Gatilho compartilhado: recarrega e calcula o delta uma única vez por mudança.
+        // A geração na chave impede que um canal novo reaproveite o gatilho de um canal já descartado.
+        Flux<Long> gatilho = mudancaHub.snapshots("boxes-delta:" + chave + ":" + canal.geracao, patioId,
+                () -> canal.aplicar(carregar(patioId)),
+                TopicoMudanca.BOX, TopicoMudanca.ESTACIONAMENTO, TopicoMudanca.VEICULO);
+
+        Flux<BoxStatusEventoDto> eventos = gatilho.next()
+                .flatMapMany(seq -> canal.iniciar(lastEventId));
+
+        // O gatilho permanece assinado enquanto o cliente estiver conectado
+        return Flux.merge(gatilho.thenMany(Flux.<BoxStatusEventoDto>empty()), eventos)
+                .map(evento -> ServerSentEvent.<BoxStatusEventoDto>builder(evento)
+                        .id(canal.geracao + ":" + evento.seq())
+                        .event(evento.tipo().toLowerCase())
+                        .build())
+                .doFinally(sinal -> sair(chave, canal));
+    }
+
+    /** Canal da chave (criado se preciso) com um assinante a mais. */
+    private CanalBoxes entrar(String chave) {
+        return canais.compute(chave, (k, canal) -> {
+            CanalBoxes atual = canal != null ? canal : new CanalBoxes();
+            atual.assinantes++;
+            return atual;
+        });
+    }
+
+    /** Registra a saída de um assinante; sem assinantes, o canal é removido após o grace. */
+    private void sair(String chave, CanalBoxes canal) {
+        canais.computeIfPresent(chave, (k, atual) -> {
+            if (atual == canal && --atual.assinantes == 0) {
+                if (graceDesconexaoSegundos <= 0) {
+                    return null;
+                }
+                Mono.delay(Duration.ofSeconds(graceDesconexaoSegundos)).subscribe(t -> removerSeVazio(chave, canal));
+            }
+            return atual;
+        });
+    }
+
+    private void removerSeVazio(String chave, CanalBoxes canal) {
+        canais.computeIfPresent(chave, (k, atual) -> {
+            if (atual != canal || atual.assinantes > 0) {
+                return atual; // houve reconexão durante o grace
+            }
+            log.debug("Canal de boxes '{}' sem assinantes descartado", chave);
+            return null;
+        });
+    }
+
+    /** Canais com assinantes conectados. */
+    int getCanaisAtivos() {
+        return canais.size();
+    }
+
+    private List<BoxStatusEventoDto.BoxStatus> carregar(Long patioId) {
+        List<VagaOracleService.BoxComVeiculoRow> rows = patioId != null
+                ? vagaService.listarBoxesComDetalhesVeiculo(patioId)
+                : vagaService.listarBoxesComDetalhesVeiculo();
+        return rows.stream().map(BoxStatusStreamService::toBoxStatus).toList();
+    }
+
+    static BoxStatusEventoDto.BoxStatus toBoxStatus(VagaOracleService.BoxComVeiculoRow row) {
+        BoxStatusEventoDto.Veiculo veiculo = row.placa() == null ? null : new BoxStatusEventoDto.Veiculo(
+                row.placa(),
+                row.modelo() != null ? row.modelo() : "",
+                row.fabricante() != null ? row.fabricante() : "",
+                row.tagBleId());
+        return new BoxStatusEventoDto.BoxStatus(row.idBox(), row.nome(), row.status(), veiculo);
+    }
+
+    /**
+     * Estado de um pátio: boxes atuais, sequência e histórico recente de deltas.
+     */
+    static final class CanalBoxes {
+
+        private static final AtomicLong GERACOES = new AtomicLong(System.currentTimeMillis());
+
+        /** Identifica a instância do canal; IDs de outra geração (ex.: antes de um restart) recebem snapshot. */
+        final long geracao = GERACOES.incrementAndGet();
+
+        /** Alterado apenas dentro do compute do mapa de canais. */
+        private int assinantes;
+
+        private final Map<Long, BoxStatusEventoDto.BoxStatus> estado = new LinkedHashMap<>();
+        private final Sinks.Many<BoxStatusEventoDto> deltas = Sinks.many().replay().limit(HISTORICO_DELTAS);
+        private long seq;
+        private boolean carregado;
+
+        /**
+         * Compara a lista recarregada com o estado atual e emite um DELTA se algo mudou.
+         * Retorna a sequência resultante.
+         */
+        synchronized long aplicar(List<BoxStatusEventoDto.BoxStatus> atuais) {
+            List<BoxStatusEventoDto.BoxStatus> alterados = new ArrayList<>();
+            Map<Long, BoxStatusEventoDto.BoxStatus> novoEstado = new LinkedHashMap<>();
+            for (BoxStatusEventoDto.BoxStatus box : atuais) {
+                novoEstado.put(box.idBox(), box);
+                if (!Objects.equals(estado.get(box.idBox()), box)) {
+                    alterados.add(box);
+                }
+            }
+            List<Long> removidos = estado.keySet().stream()
+                    .filter(id -> !novoEstado.containsKey(id))
+                    .toList();
+
+            boolean primeiraCarga = !carregado;
+            carregado = true;
+            estado.clear();
+            estado.putAll(novoEstado);
+
+            if (!primeiraCarga && (!alterados.isEmpty() || !removidos.isEmpty())) {
+                seq++;
+                deltas.tryEmitNext(BoxStatusEventoDto.delta(seq, alterados, removidos));
+                log.debug("Delta de boxes seq {}: {} alterado(s), {} removido(s)", seq, alterados.size(), removidos.size());
+            }
+            return seq;
+        }
+
+        /**
+         * Eventos iniciais do cliente: deltas perdidos (se Last-Event-ID ainda está no histórico)
+         * ou snapshot completo, seguidos dos deltas ao vivo.
+         */
+        synchronized Flux<BoxStatusEventoDto> iniciar(String lastEventId) {
+            Long ultimoSeq = seqRetomavel(lastEventId);
+            long base;
+            Flux<BoxStatusEventoDto> iniciais;
+            if (ultimoSeq != null) {
+                base = ultimoSeq;
+                iniciais = Flux.empty();
+                log.debug("Retomando stream de boxes a partir da seq {} (atual {})", ultimoSeq, seq);
+            } else {
+                base = seq;
+                iniciais = Flux.just(BoxStatusEventoDto.snapshot(seq, List.copyOf(estado.values())));
+            }
+            // O sink replay guarda os deltas recentes; o filtro descarta os já cobertos
+            return iniciais.concatWith(deltas.asFlux().filter(delta -> delta.seq() > base));
+        }
+
+        private Long seqRetomavel(String lastEventId) {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return null;
+            }
+            String[] partes = lastEventId.trim().split(":");
+            if (partes.length != 2) {
+                return null;
+            }
+            try {
+                long geracaoCliente = Long.parseLong(partes[0]);
+                long seqCliente = Long.parseLong(partes[1]);
+                boolean noHistorico = seqCliente <= seq && seq - seqCliente <= HISTORICO_DELTAS;
+                return geracaoCliente == geracao && noHistorico ? seqCliente : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
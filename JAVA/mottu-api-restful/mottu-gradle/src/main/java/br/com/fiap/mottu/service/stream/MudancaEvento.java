@@ -0,0 +1,28 @@
+package br.com.fiap.mottu.service.stream;
+
+import java.time.Instant;
+
+/**
+ * Evento de domínio publicado após uma escrita (estacionamento, box, pátio, veículo...).
+ * É entregue ao {@link MudancaHub} somente após o commit da transação.
+ *
+ * @param topico     tópico afetado
+ * @param patioId    pátio afetado (null quando a mudança não é restrita a um pátio)
+ * @param entidadeId ID da entidade alterada (box, veículo, pátio...), pode ser null
+ * @param acao       descrição curta da operação (ENTRADA, SAIDA, CRIADO, ATUALIZADO, REMOVIDO...)
+ * @param instante   momento da publicação
+ */
+public record MudancaEvento(TopicoMudanca topico, Long patioId, Long entidadeId, String acao, Instant instante) {
+
+    public static MudancaEvento of(TopicoMudanca topico, Long patioId, Long entidadeId, String acao) {
+        return new MudancaEvento(topico, patioId, entidadeId, acao, Instant.now());
+    }
+
+    /**
+     * Verifica se o evento interessa a um assinante de um pátio específico.
+     * Eventos sem pátio (ex.: alteração de veículo) atingem todos os pátios.
+     */
+    public boolean afetaPatio(Long outroPatioId) {
+        return outroPatioId == null || patioId == null || patioId.equals(outroPatioId);
+    }
+}
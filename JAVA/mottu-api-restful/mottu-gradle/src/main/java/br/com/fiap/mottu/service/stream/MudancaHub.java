@@ -0,0 +1,204 @@
+package br.com.fiap.mottu.service.stream;
+
+import br.com.fiap.mottu.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Hub em memória que distribui mudanças de domínio para os streams SSE.
+ *
+ * Os serviços de escrita publicam {@link MudancaEvento} via ApplicationEventPublisher;
+ * o hub só recebe o evento após o commit e o repassa a um {@link Sinks.Many} multicast por tópico.
+ * Os controllers SSE não consultam mais o banco por cliente: cada chave (ex.: "boxes:patio-1")
+ * tem um único Flux compartilhado que recarrega o snapshot apenas quando chega uma mudança
+ * (coalescida numa janela curta) ou no refresh de segurança, e todos os assinantes recebem o mesmo valor.
+ * A conexão é mantida por um curto período após o último cliente sair, para que reconexões reaproveitem o snapshot;
+ * depois disso (ou se o stream terminar com erro) a chave sai do hub, então só ficam em memória os snapshots com clientes.
+ * Assim a carga no banco acompanha a taxa de escrita e não o número de abas abertas.
+ */
+@Component
+@Slf4j
+public class MudancaHub {
+
+    private static final Object CARGA_INICIAL = "inicial";
+
+    /** Grupo das chaves que não pertencem a nenhum stream conhecido. */
+    public static final String GRUPO_OUTROS = "outros";
+
+    /**
+     * Grupos de stream para métricas. Conjunto fixo: as chaves carregam parâmetros do cliente
+     * (pátio, página), então derivar o grupo da chave deixaria mapa e tags sem limite.
+     */
+    public static final List<String> GRUPOS = List.of(
+            "boxes", "boxes-delta", "zonas", "notificacoes", "veiculos:estacionados",
+            "relatorios:analytics", "relatorios:ia", "relatorios:ocupacao", "relatorios:manutencao",
+            "relatorios:movimentacao", GRUPO_OUTROS);
+
+    private final Map<TopicoMudanca, Sinks.Many<MudancaEvento>> sinks = new EnumMap<>(TopicoMudanca.class);
+    private final Map<String, Flux<?>> snapshotsCompartilhados = new ConcurrentHashMap<>();
+    private final AtomicInteger assinantes = new AtomicInteger();
+    private final Map<String, AtomicInteger> assinantesPorGrupo = new ConcurrentHashMap<>();
+
+    @Value("${mottu.stream.janelaCoalescenciaMs:500}")
+    private long janelaCoalescenciaMs = 500;
+
+    @Value("${mottu.stream.refreshSegurancaSegundos:60}")
+    private long refreshSegurancaSegundos = 60;
+
+    /** Tempo que o snapshot continua conectado após o último cliente sair (reconexões do EventSource). */
+    @Value("${mottu.stream.graceDesconexaoSegundos:10}")
+    private long graceDesconexaoSegundos = 10;
+
+    public MudancaHub() {
+        for (TopicoMudanca topico : TopicoMudanca.values()) {
+            sinks.put(topico, Sinks.many().multicast().directBestEffort());
+        }
+        for (String grupo : GRUPOS) {
+            assinantesPorGrupo.put(grupo, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Recebe os eventos publicados pelos serviços somente após o commit.
+     * Sem transação ativa (ex.: chamadas JDBC diretas), o evento é entregue imediatamente.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoConfirmarMudanca(MudancaEvento evento) {
+        publicar(evento);
+    }
+
+    /**
+     * Emite o evento para os assinantes do tópico.
+     */
+    public void publicar(MudancaEvento evento) {
+        Sinks.Many<MudancaEvento> sink = sinks.get(evento.topico());
+        // Sinks não aceitam emissões concorrentes; serializa por tópico
+        synchronized (sink) {
+            Sinks.EmitResult resultado = sink.tryEmitNext(evento);
+            if (resultado.isFailure() && resultado != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+                log.warn("Falha ao emitir mudança {} no hub: {}", evento, resultado);
+            }
+        }
+        log.trace("Mudança publicada no hub: {}", evento);
+    }
+
+    /**
+     * Fluxo de eventos dos tópicos informados, opcionalmente restrito a um pátio.
+     */
+    public Flux<MudancaEvento> eventos(Long patioId, TopicoMudanca... topicos) {
+        return Flux.merge(Arrays.stream(topicos).map(t -> sinks.get(t).asFlux()).toList())
+                .filter(evento -> evento.afetaPatio(patioId));
+    }
+
+    /**
+     * Snapshot compartilhado por chave: carrega uma vez na primeira assinatura, recarrega
+     * quando há mudança nos tópicos (coalescendo rajadas) e no refresh de segurança.
+     * Novos assinantes recebem imediatamente o último valor carregado.
+     * Erro na carga inicial ou {@link ResourceNotFoundException} numa recarga encerram o stream com o erro;
+     * demais falhas de recarga são registradas e o último snapshot é mantido.
+     *
+     * @param chave      identificador único do snapshot (ex.: "ocupacao", "boxes:patio-3")
+     * @param patioId    pátio de interesse (null para todos)
+     * @param carregador consulta bloqueante que gera o snapshot
+     * @param topicos    tópicos que invalidam o snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Flux<T> snapshots(String chave, Long patioId, Supplier<T> carregador, TopicoMudanca... topicos) {
+        Flux<T> compartilhado = (Flux<T>) snapshotsCompartilhados.computeIfAbsent(chave,
+                k -> criarSnapshotCompartilhado(k, patioId, carregador, topicos));
+        AtomicInteger doGrupo = assinantesPorGrupo.get(grupo(chave));
+        return compartilhado
+                .doOnSubscribe(s -> {
+                    assinantes.incrementAndGet();
+                    doGrupo.incrementAndGet();
+                })
+                .doFinally(s -> {
+                    assinantes.decrementAndGet();
+                    doGrupo.decrementAndGet();
+                });
+    }
+
+    /**
+     * Grupo do stream para métricas, sempre um dos {@link #GRUPOS}: o prefixo da chave com dois
+     * segmentos ("relatorios:ia") ou um ("boxes:patio-3" -> "boxes"); fora da lista, {@link #GRUPO_OUTROS}.
+     */
+    static String grupo(String chave) {
+        String[] segmentos = chave.split(":");
+        if (segmentos.length > 1 && GRUPOS.contains(segmentos[0] + ":" + segmentos[1])) {
+            return segmentos[0] + ":" + segmentos[1];
+        }
+        return GRUPOS.contains(segmentos[0]) ? segmentos[0] : GRUPO_OUTROS;
+    }
+
+    private <T> Flux<T> criarSnapshotCompartilhado(String chave, Long patioId, Supplier<T> carregador, TopicoMudanca... topicos) {
+        Flux<Object> gatilhos = Flux.merge(
+                Flux.just(CARGA_INICIAL),
+                eventos(patioId, topicos).sample(Duration.ofMillis(janelaCoalescenciaMs)),
+                Flux.interval(Duration.ofSeconds(refreshSegurancaSegundos), Duration.ofSeconds(refreshSegurancaSegundos)));
+
+        AtomicReference<Flux<T>> proprio = new AtomicReference<>();
+        Flux<T> compartilhado = gatilhos
+                .onBackpressureLatest()
+                .concatMap(gatilho -> Mono.fromCallable(carregador::get)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(err -> gatilho != CARGA_INICIAL && !(err instanceof ResourceNotFoundException), err -> {
+                            log.warn("Erro ao recarregar snapshot '{}' do hub: {}", chave, err.toString());
+                            return Mono.empty();
+                        }), 1)
+                .doOnSubscribe(s -> log.debug("Snapshot '{}' conectado ao hub", chave))
+                .doOnCancel(() -> log.debug("Snapshot '{}' sem assinantes, desconectado do hub", chave))
+                .doOnError(err -> log.warn("Snapshot '{}' encerrado com erro: {}", chave, err.toString()))
+                // Fim da conexão compartilhada (grace expirado ou erro): a chave deixa o hub
+                .doFinally(sinal -> snapshotsCompartilhados.remove(chave, proprio.get()))
+                .replay(1)
+                .refCount(1, Duration.ofSeconds(graceDesconexaoSegundos));
+        proprio.set(compartilhado);
+        return compartilhado;
+    }
+
+    /**
+     * Quantidade de snapshots compartilhados mantidos pelo hub.
+     */
+    int getSnapshotsAtivos() {
+        return snapshotsCompartilhados.size();
+    }
+
+    /**
+     * Quantidade de clientes SSE atualmente conectados ao hub.
+     */
+    public int getAssinantesAtivos() {
+        return assinantes.get();
+    }
+
+    /**
+     * Clientes SSE conectados por grupo de stream (ver {@link #grupo(String)}).
+     */
+    public Map<String, Integer> getAssinantesPorGrupo() {
+        Map<String, Integer> porGrupo = new TreeMap<>();
+        assinantesPorGrupo.forEach((grupo, quantidade) -> porGrupo.put(grupo, quantidade.get()));
+        return porGrupo;
+    }
+
+    /** Assinantes conectados de um grupo (0 se não for um dos {@link #GRUPOS}). */
+    public int getAssinantes(String grupo) {
+        AtomicInteger quantidade = assinantesPorGrupo.get(grupo);
+        return quantidade != null ? quantidade.get() : 0;
+    }
+}
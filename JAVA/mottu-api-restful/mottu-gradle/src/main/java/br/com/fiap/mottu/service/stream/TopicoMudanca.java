@@ -0,0 +1,13 @@
+package br.com.fiap.mottu.service.stream;
+
+/**
+ * Tópicos de mudança publicados pelos serviços de escrita e consumidos pelos streams SSE.
+ */
+public enum TopicoMudanca {
+    ESTACIONAMENTO,
+    BOX,
+    PATIO,
+    ZONA,
+    VEICULO,
+    NOTIFICACAO
+}
@@ -0,0 +1,126 @@
+package br.com.fiap.mottu.util;
+
+import br.com.fiap.mottu.exception.InvalidInputException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Cursor opaco da paginação por keyset: guarda os valores das colunas de ordenação do último
+ * registro entregue (ex.: dataEntrada + idEstacionamento) em Base64 URL-safe. O próximo pedido
+ * continua com "WHERE (data, id) &lt; (:data, :id)" em vez de OFFSET, então o custo não cresce
+ * com a profundidade da página.
+ *
+ * Cada chave leva também a direção em que foi ordenada: um cursor emitido em "dataEntrada ASC"
+ * aplicado a "dataEntrada DESC" usaria o limite antigo na direção nova e devolveria outra página.
+ */
+public final class CursorPaginacao {
+
+    private static final String VERSAO = "2";
+
+    private CursorPaginacao() {
+    }
+
+    /**
+     * Cursor decodificado: a posição e a ordenação (propriedade + direção) em que foi emitido.
+     */
+    public record Cursor(KeysetScrollPosition posicao, Sort ordem) {
+    }
+
+    /**
+     * @param ordem ordenação da consulta que gerou a posição, na ordem das colunas
+     * @return o cursor, ou null quando a posição não é keyset ou tem valor nulo/tipo não suportado
+     *         (nesses casos o cliente continua pela paginação por offset)
+     */
+    public static String codificar(ScrollPosition posicao, Sort ordem) {
+        if (!(posicao instanceof KeysetScrollPosition keyset) || keyset.isInitial() || ordem.isUnsorted()) {
+            return null;
+        }
+        StringJoiner texto = new StringJoiner("&", VERSAO + "&", "");
+        for (Sort.Order coluna : ordem) {
+            String valor = codificarValor(keyset.getKeys().get(coluna.getProperty()));
+            if (valor == null) {
+                return null;
+            }
+            texto.add(url(coluna.getProperty()) + ":" + (coluna.isAscending() ? "A" : "D") + "=" + valor);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidInputException quando o cursor foi alterado ou é de outra versão
+     */
+    public static Cursor decodificar(String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = texto.split("&");
+            if (partes.length < 2 || !VERSAO.equals(partes[0])) {
+                throw new InvalidInputException("Cursor de paginação inválido.");
+            }
+            Map<String, Object> chaves = new LinkedHashMap<>();
+            List<Sort.Order> colunas = new ArrayList<>();
+            for (int i = 1; i < partes.length; i++) {
+                int igual = partes[i].indexOf('=');
+                int direcao = partes[i].lastIndexOf(':', igual);
+                String propriedade = URLDecoder.decode(partes[i].substring(0, direcao), StandardCharsets.UTF_8);
+                colunas.add(switch (partes[i].substring(direcao + 1, igual)) {
+                    case "A" -> Sort.Order.asc(propriedade);
+                    case "D" -> Sort.Order.desc(propriedade);
+                    default -> throw new IllegalArgumentException("direção " + partes[i]);
+                });
+                chaves.put(propriedade, decodificarValor(partes[i].substring(igual + 1)));
+            }
+            return new Cursor(ScrollPosition.forward(chaves), Sort.by(colunas));
+        } catch (InvalidInputException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidInputException("Cursor de paginação inválido.");
+        }
+    }
+
+    private static String codificarValor(Object valor) {
+        String tipo;
+        if (valor instanceof Long) tipo = "L";
+        else if (valor instanceof Integer) tipo = "I";
+        else if (valor instanceof String) tipo = "S";
+        else if (valor instanceof LocalDateTime) tipo = "T";
+        else if (valor instanceof LocalDate) tipo = "D";
+        else if (valor instanceof BigDecimal) tipo = "N";
+        else if (valor instanceof Double) tipo = "F";
+        else if (valor instanceof Boolean) tipo = "B";
+        else return null;
+        return tipo + ":" + url(valor.toString());
+    }
+
+    private static Object decodificarValor(String codificado) {
+        String valor = URLDecoder.decode(codificado.substring(2), StandardCharsets.UTF_8);
+        return switch (codificado.charAt(0)) {
+            case 'L' -> Long.valueOf(valor);
+            case 'I' -> Integer.valueOf(valor);
+            case 'S' -> valor;
+            case 'T' -> LocalDateTime.parse(valor);
+            case 'D' -> LocalDate.parse(valor);
+            case 'N' -> new BigDecimal(valor);
+            case 'F' -> Double.valueOf(valor);
+            case 'B' -> Boolean.valueOf(valor);
+            default -> throw new IllegalArgumentException("tipo " + codificado.charAt(0));
+        };
+    }
+
+    private static String url(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+    }
+}
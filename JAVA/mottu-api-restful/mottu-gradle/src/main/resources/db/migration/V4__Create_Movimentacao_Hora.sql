@@ -0,0 +1,32 @@
+-- ============================================================================
+-- MOTTU - Rollup horário de movimentações
+-- Compatível com Oracle 12c+ (IDENTITY)
+-- ============================================================================
+-- Uma linha por (pátio, box, hora cheia) com contagens de entradas/saídas e
+-- soma/quantidade de TEMPO_ESTACIONAMENTO_MINUTOS. Mantida incrementalmente
+-- pela aplicação e reconstruída a partir de TB_LOG_MOVIMENTACAO quando vazia.
+-- ============================================================================
+
+-- 1) TABELA TB_MOVIMENTACAO_HORA
+CREATE TABLE TB_MOVIMENTACAO_HORA (
+  id_movimentacao_hora     NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  tb_patio_id_patio        NUMBER NOT NULL,
+  tb_box_id_box            NUMBER NOT NULL,
+  hora                     TIMESTAMP NOT NULL,
+  entradas                 NUMBER(19) DEFAULT 0 NOT NULL,
+  saidas                   NUMBER(19) DEFAULT 0 NOT NULL,
+  soma_tempo_minutos       NUMBER(19) DEFAULT 0 NOT NULL,
+  qtd_tempo                NUMBER(19) DEFAULT 0 NOT NULL,
+  CONSTRAINT uk_mov_hora_patio_box_hora UNIQUE (tb_patio_id_patio, tb_box_id_box, hora)
+);
+
+-- 2) COMENTÁRIOS
+COMMENT ON TABLE TB_MOVIMENTACAO_HORA IS 'Rollup horário de TB_LOG_MOVIMENTACAO por pátio e box';
+COMMENT ON COLUMN TB_MOVIMENTACAO_HORA.hora IS 'Início da hora agregada';
+COMMENT ON COLUMN TB_MOVIMENTACAO_HORA.soma_tempo_minutos IS 'Soma de TEMPO_ESTACIONAMENTO_MINUTOS das saídas da hora';
+COMMENT ON COLUMN TB_MOVIMENTACAO_HORA.qtd_tempo IS 'Saídas da hora com tempo de estacionamento registrado';
+
+-- 3) ÍNDICES
+CREATE INDEX ix_mov_hora_hora ON TB_MOVIMENTACAO_HORA (hora);
+
+COMMIT;
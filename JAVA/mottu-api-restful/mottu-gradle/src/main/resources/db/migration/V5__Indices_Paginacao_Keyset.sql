@@ -0,0 +1,19 @@
+-- ============================================================================
+-- MOTTU - Índices para paginação por cursor (keyset) dos históricos
+-- Compatível com Oracle 12c+
+-- ============================================================================
+-- A paginação por cursor filtra por "(data, id) < (:data, :id)" na ordem do
+-- índice e para após N linhas, então cada janela custa o mesmo em qualquer
+-- profundidade — desde que exista um índice com (filtro, data, id).
+-- ============================================================================
+
+-- 1) Histórico por veículo/placa (ORDER BY data_entrada DESC, id DESC)
+CREATE INDEX ix_estac_veiculo_entrada ON TB_ESTACIONAMENTO (tb_veiculo_id_veiculo, data_entrada DESC, id_estacionamento DESC);
+
+-- 2) Histórico por pátio
+CREATE INDEX ix_estac_patio_entrada ON TB_ESTACIONAMENTO (tb_patio_id_patio, data_entrada DESC, id_estacionamento DESC);
+
+-- 3) Ordenação padrão do DataTable de estacionamentos
+CREATE INDEX ix_estac_atualizacao ON TB_ESTACIONAMENTO (data_ultima_atualizacao DESC, id_estacionamento DESC);
+
+COMMIT;
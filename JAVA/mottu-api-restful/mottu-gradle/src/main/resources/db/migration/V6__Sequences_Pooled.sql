@@ -0,0 +1,32 @@
+-- ============================================================================
+-- MOTTU - Sequences com INCREMENT BY 50 (otimizador pooled do Hibernate)
+-- Compatível com Oracle 12c+
+-- ============================================================================
+-- As entidades usam @SequenceGenerator(allocationSize = 50): um NEXTVAL reserva
+-- 50 IDs e os INSERTs saem em JDBC batch, em vez de um NEXTVAL por linha.
+-- O INCREMENT BY precisa ser igual ao allocationSize; com INCREMENT BY 1 o
+-- Hibernate geraria IDs repetidos. Executar ANTES de subir a versão com
+-- allocationSize = 50: sem isso a aplicação não sobe (VerificadorSequencias
+-- confere USER/ALL_SEQUENCES na inicialização). Idempotente: só altera as sequences existentes que
+-- ainda não estão em 50. O próximo NEXTVAL continua acima do último ID usado.
+-- ============================================================================
+
+BEGIN
+    FOR s IN (SELECT sequence_name
+                FROM user_sequences
+               WHERE increment_by <> 50
+                 AND sequence_name IN ('SEQ_TB_BOX', 'SEQ_TB_CLIENTE', 'SEQ_TB_CNH', 'SEQ_TB_CONTATO',
+                                       'SEQ_TB_ENDERECO', 'SEQ_TB_ESTACIONAMENTO', 'SEQ_TB_LOG_MOVIMENTACAO',
+                                       'SEQ_TB_PATIO', 'SEQ_TB_RASTREAMENTO', 'SEQ_TB_VEICULO', 'SEQ_TB_ZONA',
+                                       'SEQ_NOTIFICACAO'))
+    LOOP
+        EXECUTE IMMEDIATE 'ALTER SEQUENCE ' || s.sequence_name || ' INCREMENT BY 50';
+    END LOOP;
+END;
+/
+
+-- Conferência
+SELECT sequence_name, increment_by, last_number
+  FROM user_sequences
+ WHERE sequence_name LIKE 'SEQ_%'
+ ORDER BY sequence_name;
@@ -0,0 +1,128 @@
+package br.com.fiap.mottu.config;
+
+import br.com.fiap.mottu.service.cache.RecargaCaches;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes dos caches com carga única por chave e refresh antecipado.
+ */
+@DisplayName("Testes - CacheConfig (carga única e refresh antecipado)")
+class CacheConfigTest {
+
+    @Test
+    @DisplayName("N leituras simultâneas de uma chave ausente disparam uma única carga")
+    void deveCarregarUmaUnicaVezComLeiturasSimultaneas() throws Exception {
+        AtomicInteger cargas = new AtomicInteger();
+        RecargaCaches recargas = mock(RecargaCaches.class);
+        when(recargas.recarregar(eq("metricasGerais"), any())).thenAnswer(invocacao -> {
+            cargas.incrementAndGet();
+            Thread.sleep(200); // GROUP BY lento: todos os pedidos chegam durante a carga
+            return "metricas";
+        });
+        @SuppressWarnings("unchecked")
+        ObjectProvider<RecargaCaches> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(recargas);
+
+        CacheManager cacheManager = new CacheConfig().cacheManager(provider);
+        Cache cache = cacheManager.getCache("metricasGerais");
+
+        int leitores = 32;
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(leitores);
+        try {
+            List<Future<Object>> leituras = new ArrayList<>();
+            for (int i = 0; i < leitores; i++) {
+                leituras.add(pool.submit(() -> {
+                    largada.await();
+                    Cache.ValueWrapper valor = cache.get("geral");
+                    return valor != null ? valor.get() : null;
+                }));
+            }
+            largada.countDown();
+            for (Future<Object> leitura : leituras) {
+                assertThat(leitura.get(5, TimeUnit.SECONDS)).isEqualTo("metricas");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(cargas.get()).isEqualTo(1);
+        assertThat(((CaffeineCache) cache).getNativeCache().stats().loadCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Chave sem recálculo conhecido é um miss: o @Cacheable executa o método")
+    void deveTratarChaveSemRecargaComoMiss() {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<RecargaCaches> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(mock(RecargaCaches.class));
+        Cache cache = new CacheConfig().cacheManager(provider).getCache("mapaGlobal");
+
+        assertThat(cache.get("pagina-0-20")).isNull();
+        cache.put("pagina-0-20", "pagina");
+        assertThat(cache.get("pagina-0-20").get()).isEqualTo("pagina");
+    }
+
+    @Test
+    @DisplayName("Depois do refresh a leitura devolve o valor antigo e recarrega em segundo plano")
+    void deveServirValorAntigoDuranteORefresh() throws Exception {
+        AtomicInteger versao = new AtomicInteger();
+        CountDownLatch liberarRecarga = new CountDownLatch(1);
+        CacheConfig.PoliticaRefresh politica =
+                new CacheConfig.PoliticaRefresh(10, Duration.ofMillis(100), Duration.ofMinutes(1));
+        CaffeineCache cache = new CaffeineCache("teste", CacheConfig.cacheComRefresh(politica, (chave, executor) ->
+                CompletableFuture.supplyAsync(() -> {
+                    int atual = versao.incrementAndGet();
+                    if (atual > 1) {
+                        aguardar(liberarRecarga);
+                    }
+                    return "v" + atual;
+                }, executor)), true);
+
+        assertThat(cache.get("chave").get()).isEqualTo("v1");
+        Thread.sleep(150);
+
+        // a recarga está presa no latch, mas a leitura não espera por ela
+        long inicio = System.nanoTime();
+        assertThat(cache.get("chave").get()).isEqualTo("v1");
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofMillis(100));
+
+        liberarRecarga.countDown();
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!"v2".equals(cache.get("chave").get()) && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(cache.get("chave").get()).isEqualTo("v2");
+        assertThat(versao.get()).isEqualTo(2);
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
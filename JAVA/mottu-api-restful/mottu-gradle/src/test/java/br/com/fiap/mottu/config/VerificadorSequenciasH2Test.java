@@ -0,0 +1,42 @@
+package br.com.fiap.mottu.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de integração: as sequences conferidas na subida são as do mapeamento real das entidades.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:liberacao;MODE=Oracle;DB_CLOSE_DELAY=-1;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.default_schema=PUBLIC",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.type.preferred_boolean_jdbc_type=INTEGER",
+        "mottu.ocr.alpr.workers=1",
+        "mottu.ocr.tesseract.motores=1",
+        "app.launch-swagger-on-startup=false"
+})
+@DisplayName("Testes de Integração - VerificadorSequencias sobre H2")
+class VerificadorSequenciasH2Test {
+
+    @Autowired
+    private VerificadorSequencias verificador;
+
+    @Test
+    @DisplayName("Lê do metamodelo do Hibernate cada sequence mapeada com o seu allocationSize")
+    void deveLerSequencesMapeadas() {
+        assertThat(verificador.sequencesMapeadas())
+                .containsEntry("SEQ_TB_BOX", 50)
+                .containsEntry("SEQ_TB_LOG_MOVIMENTACAO", 50)
+                .hasSize(12)
+                .allSatisfy((nome, allocationSize) -> assertThat(allocationSize).isEqualTo(50));
+    }
+}
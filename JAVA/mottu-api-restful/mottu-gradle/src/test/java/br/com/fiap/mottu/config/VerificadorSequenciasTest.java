@@ -0,0 +1,93 @@
+package br.com.fiap.mottu.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários da conferência do INCREMENT BY das sequences na subida.
+ */
+@DisplayName("Testes Unitários - VerificadorSequencias")
+class VerificadorSequenciasTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private final VerificadorSequencias verificador = new VerificadorSequencias(entityManagerFactory, jdbcTemplate);
+
+    @Test
+    @DisplayName("Lista sequences com INCREMENT BY diferente do allocationSize e as que não existem")
+    void deveListarDivergencias() {
+        Map<String, Integer> incrementos = Map.of("RELACAODIRETA.SEQ_TB_BOX", 50, "RELACAODIRETA.SEQ_TB_ZONA", 1);
+
+        List<String> divergencias = VerificadorSequencias.divergencias(
+                Map.of("RELACAODIRETA.SEQ_TB_BOX", 50, "RELACAODIRETA.SEQ_TB_ZONA", 50, "RELACAODIRETA.SEQ_TB_CNH", 50),
+                incrementos::get);
+
+        assertThat(divergencias).containsExactlyInAnyOrder(
+                "RELACAODIRETA.SEQ_TB_ZONA INCREMENT BY 1 (allocationSize 50)",
+                "RELACAODIRETA.SEQ_TB_CNH não existe");
+    }
+
+    @Test
+    @DisplayName("Sequence ainda em INCREMENT BY 1 impede a subida")
+    void deveFalharComSequenceNaoMigrada() {
+        when(jdbcTemplate.queryForList(any(String.class), eq(Integer.class), eq("RELACAODIRETA"), eq("SEQ_TB_BOX")))
+                .thenReturn(List.of(1));
+
+        assertThatThrownBy(() -> verificador.conferir(Map.of("RELACAODIRETA.SEQ_TB_BOX", 50)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("RELACAODIRETA.SEQ_TB_BOX INCREMENT BY 1 (allocationSize 50)")
+                .hasMessageContaining("V6__Sequences_Pooled.sql");
+    }
+
+    @Test
+    @DisplayName("Sequences migradas liberam a subida; sem schema, consulta o schema corrente")
+    void deveSubirComSequencesMigradas() {
+        when(jdbcTemplate.queryForList(any(String.class), eq(Integer.class), eq("RELACAODIRETA"), eq("SEQ_TB_BOX")))
+                .thenReturn(List.of(50));
+        when(jdbcTemplate.queryForList(any(String.class), eq(Integer.class), isNull(), eq("SEQ_NOTIFICACAO")))
+                .thenReturn(List.of(50));
+
+        assertThatCode(() -> verificador.conferir(Map.of("RELACAODIRETA.SEQ_TB_BOX", 50, "SEQ_NOTIFICACAO", 50)))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Sequence sem schema é procurada no default_schema do Hibernate")
+    void deveUsarSchemaPadraoDoHibernate() {
+        ReflectionTestUtils.setField(verificador, "schemaPadrao", "relacaoDireta");
+        when(jdbcTemplate.queryForList(any(String.class), eq(Integer.class), eq("RELACAODIRETA"), eq("SEQ_TB_BOX")))
+                .thenReturn(List.of(50));
+
+        assertThatCode(() -> verificador.conferir(Map.of("SEQ_TB_BOX", 50))).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Fora do Oracle a conferência não consulta o dicionário de dados")
+    @SuppressWarnings("unchecked")
+    void deveIgnorarOutrosBancos() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+
+        assertThatCode(verificador::verificar).doesNotThrowAnyException();
+        verifyNoInteractions(entityManagerFactory);
+        verify(jdbcTemplate, never()).queryForList(any(String.class), eq(Integer.class), any(), any());
+    }
+}
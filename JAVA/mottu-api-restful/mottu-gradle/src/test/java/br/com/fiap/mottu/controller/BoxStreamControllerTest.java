@@ -1,11 +1,14 @@
 package br.com.fiap.mottu.controller;
 
 import br.com.fiap.mottu.service.VagaOracleService;
+import br.com.fiap.mottu.service.stream.BoxStatusStreamService;
+import br.com.fiap.mottu.service.stream.MudancaEvento;
+import br.com.fiap.mottu.service.stream.MudancaHub;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
@@ -29,7 +32,8 @@ class BoxStreamControllerTest {
     @Mock
     private VagaOracleService vagaService;
 
-    @InjectMocks
+    private MudancaHub mudancaHub;
+
     private BoxStreamController controller;
 
     private VagaOracleService.BoxComVeiculoRow boxLivre;
@@ -38,6 +42,10 @@ class BoxStreamControllerTest {
 
     @BeforeEach
     void setUp() {
+        mudancaHub = new MudancaHub();
+        controller = new BoxStreamController(vagaService, mudancaHub,
+                new BoxStatusStreamService(vagaService, mudancaHub));
+
         // Criar boxes de teste com diferentes status
         boxLivre = new VagaOracleService.BoxComVeiculoRow(
                 1L, "Gru001", "L", null, null, null,
@@ -249,28 +257,67 @@ class BoxStreamControllerTest {
     }
 
     @Test
-    @DisplayName("Deve atualizar stream a cada 3 segundos")
-    void deveAtualizarStreamACada3Segundos() {
+    @DisplayName("Deve emitir novo snapshot quando uma mudança do pátio é publicada no hub")
+    void deveEmitirNovoSnapshotQuandoMudancaPublicada() {
         // Arrange
         Long patioId = 1L;
-        List<VagaOracleService.BoxComVeiculoRow> boxes = List.of(boxLivre);
-        
         when(vagaService.listarBoxesComDetalhesVeiculo(patioId))
-                .thenReturn(boxes);
+                .thenReturn(List.of(boxLivre), List.of(boxOcupado));
 
         // Act
         Flux<List<Map<String, Object>>> flux = controller.streamBoxesStatus(patioId);
 
-        // Assert - verificar que recebe múltiplas atualizações
+        // Assert - snapshot inicial e um novo snapshot após o evento (sem polling)
         StepVerifier.create(flux)
-                .expectNextCount(1) // Primeira atualização imediata
-                .thenAwait(Duration.ofSeconds(3)) // Aguardar 3 segundos
-                .expectNextCount(1) // Segunda atualização após 3 segundos
+                .expectNextMatches(boxesList -> "L".equals(boxesList.get(0).get("status")))
+                .then(() -> mudancaHub.publicar(MudancaEvento.of(TopicoMudanca.ESTACIONAMENTO, patioId, 2L, "ENTRADA")))
+                .expectNextMatches(boxesList -> "O".equals(boxesList.get(0).get("status")))
                 .thenCancel()
-                .verify(Duration.ofSeconds(10));
+                .verify(Duration.ofSeconds(5));
+
+        verify(vagaService, times(2)).listarBoxesComDetalhesVeiculo(patioId);
+    }
+
+    @Test
+    @DisplayName("Não deve recarregar boxes quando a mudança é de outro pátio")
+    void naoDeveRecarregarQuandoMudancaDeOutroPatio() {
+        // Arrange
+        Long patioId = 1L;
+        when(vagaService.listarBoxesComDetalhesVeiculo(patioId))
+                .thenReturn(List.of(boxLivre));
+
+        // Act
+        Flux<List<Map<String, Object>>> flux = controller.streamBoxesStatus(patioId);
+
+        // Assert
+        StepVerifier.create(flux)
+                .expectNextCount(1)
+                .then(() -> mudancaHub.publicar(MudancaEvento.of(TopicoMudanca.BOX, 2L, 10L, "OCUPADO")))
+                .expectNoEvent(Duration.ofSeconds(1))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        verify(vagaService, times(1)).listarBoxesComDetalhesVeiculo(patioId);
+    }
+
+    @Test
+    @DisplayName("Clientes do mesmo pátio devem compartilhar uma única consulta")
+    void clientesDoMesmoPatioDevemCompartilharConsulta() {
+        // Arrange
+        Long patioId = 1L;
+        when(vagaService.listarBoxesComDetalhesVeiculo(patioId))
+                .thenReturn(List.of(boxLivre, boxOcupado));
+
+        // Act
+        Flux<List<Map<String, Object>>> cliente1 = controller.streamBoxesStatus(patioId);
+        Flux<List<Map<String, Object>>> cliente2 = controller.streamBoxesStatus(patioId);
+
+        // Assert
+        StepVerifier.create(Flux.merge(cliente1.take(1), cliente2.take(1)))
+                .expectNextCount(2)
+                .verifyComplete();
 
-        // Verificar que o serviço foi chamado múltiplas vezes devido ao intervalo
-        verify(vagaService, atLeast(2)).listarBoxesComDetalhesVeiculo(patioId);
+        verify(vagaService, times(1)).listarBoxesComDetalhesVeiculo(patioId);
     }
 
     @Test
@@ -0,0 +1,74 @@
+package br.com.fiap.mottu.controller;
+
+import br.com.fiap.mottu.dto.zona.ZonaResponseDto;
+import br.com.fiap.mottu.exception.ResourceNotFoundException;
+import br.com.fiap.mottu.model.Patio;
+import br.com.fiap.mottu.service.PatioService;
+import br.com.fiap.mottu.service.stream.MudancaHub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para ZonaStreamController - validação do pátio antes de abrir o stream SSE.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ZonaStreamController - Testes SSE")
+class ZonaStreamControllerTest {
+
+    @Mock
+    private PatioService patioService;
+
+    private ZonaStreamController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new ZonaStreamController(patioService, new MudancaHub());
+    }
+
+    @Test
+    @DisplayName("Deve responder 404 na conexão quando o pátio não existe")
+    void deveFalharParaPatioInexistente() {
+        when(patioService.buscarPatioPorId(99L)).thenThrow(new ResourceNotFoundException("Pátio", 99L));
+
+        assertThrows(ResourceNotFoundException.class, () -> controller.streamZonas(99L, "A"));
+    }
+
+    @Test
+    @DisplayName("Deve responder 404 na conexão quando o status não confere")
+    void deveFalharParaStatusDiferente() {
+        when(patioService.buscarPatioPorId(1L)).thenReturn(Patio.builder().idPatio(1L).status("A").build());
+
+        assertThrows(ResourceNotFoundException.class, () -> controller.streamZonas(1L, "qualquer-coisa"));
+        verify(patioService, never()).listarZonasPorPatio(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve emitir as zonas ordenadas por nome para um pátio válido")
+    void deveEmitirZonasDoPatio() {
+        when(patioService.buscarPatioPorId(1L)).thenReturn(Patio.builder().idPatio(1L).status("A").build());
+        ZonaResponseDto zonaB = new ZonaResponseDto();
+        zonaB.setNome("B");
+        ZonaResponseDto zonaA = new ZonaResponseDto();
+        zonaA.setNome("a");
+        when(patioService.listarZonasPorPatio(eq(1L), eq("A"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(zonaB, zonaA)));
+
+        StepVerifier.create(controller.streamZonas(1L, " A ").take(1))
+                .expectNextMatches(zonas -> zonas.get(0).getNome().equals("a") && zonas.get(1).getNome().equals("B"))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,188 @@
+package br.com.fiap.mottu.service;
+
+import br.com.fiap.mottu.dto.estacionamento.LoteEstacionamentoResponseDto;
+import br.com.fiap.mottu.dto.estacionamento.LoteEstacionamentoResponseDto.ResultadoPlaca;
+import br.com.fiap.mottu.model.Box;
+import br.com.fiap.mottu.model.Contato;
+import br.com.fiap.mottu.model.Endereco;
+import br.com.fiap.mottu.model.LogMovimentacao;
+import br.com.fiap.mottu.model.Patio;
+import br.com.fiap.mottu.model.Veiculo;
+import br.com.fiap.mottu.repository.BoxRepository;
+import br.com.fiap.mottu.repository.ContatoRepository;
+import br.com.fiap.mottu.repository.EnderecoRepository;
+import br.com.fiap.mottu.repository.LogMovimentacaoRepository;
+import br.com.fiap.mottu.repository.PatioRepository;
+import br.com.fiap.mottu.repository.VeiculoRepository;
+import br.com.fiap.mottu.service.alocacao.AlocadorVagas;
+import br.com.fiap.mottu.service.alocacao.IndiceVagasLivres;
+import br.com.fiap.mottu.service.alocacao.ReivindicadorBoxJdbc;
+import br.com.fiap.mottu.service.cache.InvalidadorCacheEstacionamento;
+import br.com.fiap.mottu.service.relatorios.analytics.RollupMovimentacaoService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de integração da entrada/saída em lote sobre um banco real (H2 no modo Oracle, esquema
+ * gerado pelo Hibernate): os inserts em batch, os IDs das sequences e o rollup gravam de fato.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lote;MODE=Oracle;DB_CLOSE_DELAY=-1;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.default_schema=PUBLIC",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.type.preferred_boolean_jdbc_type=INTEGER"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EstacionamentoLoteService.class, GeradorIdsEntidade.class, AlocadorVagas.class, IndiceVagasLivres.class,
+        ReivindicadorBoxJdbc.class, RollupMovimentacaoService.class})
+@DisplayName("Testes de Integração - EstacionamentoLoteService sobre H2")
+class EstacionamentoLoteH2Test {
+
+    private static final int BOXES = 120;
+    private static final int VEICULOS = 130;
+
+    @Autowired
+    private EstacionamentoLoteService service;
+
+    @Autowired
+    private IndiceVagasLivres indiceVagasLivres;
+
+    @Autowired
+    private PatioRepository patioRepository;
+
+    @Autowired
+    private BoxRepository boxRepository;
+
+    @Autowired
+    private VeiculoRepository veiculoRepository;
+
+    @Autowired
+    private ContatoRepository contatoRepository;
+
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+
+    @Autowired
+    private LogMovimentacaoRepository logMovimentacaoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @MockitoBean
+    private InvalidadorCacheEstacionamento invalidadorCache;
+
+    private Patio patio;
+    private final List<String> placas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Contato contato = contatoRepository.save(Contato.builder()
+                .email("patio@lote.mottu").ddd(11).ddi(55).telefone1("1130000000").celular("11990000000").build());
+        Endereco endereco = enderecoRepository.save(Endereco.builder()
+                .cep("01310-100").numero(1).logradouro("Av. Paulista").bairro("Bela Vista")
+                .cidade("São Paulo").estado("SP").pais("Brasil").build());
+        patio = patioRepository.save(Patio.builder()
+                .nomePatio("Pátio Lote").status("A").dataCadastro(LocalDate.now())
+                .contato(contato).endereco(endereco).build());
+        List<Box> boxes = new ArrayList<>(BOXES);
+        for (int b = 1; b <= BOXES; b++) {
+            boxes.add(Box.builder().nome("L-B" + b).status("L").patio(patio).build());
+        }
+        boxRepository.saveAll(boxes);
+        List<Veiculo> veiculos = new ArrayList<>(VEICULOS);
+        for (int v = 0; v < VEICULOS; v++) {
+            String placa = "LT" + (char) ('A' + v / 100) + (v / 10 % 10) + (char) ('A' + v % 10) + "0" + (v % 10);
+            placas.add(placa);
+            veiculos.add(Veiculo.builder().placa(placa)
+                    .renavam(String.format("%011d", v)).chassi(String.format("9LOTE%012d", v))
+                    .fabricante("Mottu").modelo("Mottu Sport 110i").ano(2024).combustivel("Gasolina")
+                    .status("OPERACIONAL").build());
+        }
+        veiculoRepository.saveAll(veiculos);
+        entityManager.flush();
+        indiceVagasLivres.recarregar();
+    }
+
+    @Test
+    @DisplayName("Entrada em lote grava estacionamentos, logs e rollup com IDs únicos")
+    void deveGravarLoteDeEntrada() {
+        LoteEstacionamentoResponseDto resposta = service.estacionarEmLote(placas, patio.getIdPatio(), "Troca de turno");
+
+        assertThat(resposta.sucessos()).isEqualTo(BOXES);
+        assertThat(resposta.resultados().subList(BOXES, VEICULOS))
+                .allMatch(r -> r.mensagem().equals("Nenhuma vaga livre encontrada no pátio " + patio.getIdPatio() + "."));
+        List<Long> idsEstacionamento = resposta.resultados().stream()
+                .filter(ResultadoPlaca::sucesso).map(ResultadoPlaca::idEstacionamento).toList();
+        assertThat(new HashSet<>(idsEstacionamento)).hasSize(BOXES);
+
+        assertThat(contar("SELECT COUNT(*) FROM TB_ESTACIONAMENTO WHERE ESTA_ESTACIONADO = 1")).isEqualTo(BOXES);
+        assertThat(contar("SELECT COUNT(DISTINCT TB_BOX_ID_BOX) FROM TB_ESTACIONAMENTO WHERE ESTA_ESTACIONADO = 1")).isEqualTo(BOXES);
+        assertThat(contar("SELECT COUNT(*) FROM TB_BOX WHERE STATUS = 'O'")).isEqualTo(BOXES);
+        assertThat(contar("SELECT COUNT(*) FROM TB_LOG_MOVIMENTACAO WHERE TIPO_MOVIMENTACAO = 'ENTRADA'")).isEqualTo(BOXES);
+        assertThat(contar("SELECT SUM(ENTRADAS) FROM TB_MOVIMENTACAO_HORA")).isEqualTo(BOXES);
+    }
+
+    @Test
+    @DisplayName("IDs do lote e dos inserts por JPA saem do mesmo gerador e não colidem")
+    void idsDoLoteNaoColidemComInsertsJpa() {
+        service.estacionarEmLote(placas.subList(0, 60), patio.getIdPatio(), null);
+
+        Box box = boxRepository.findAll().getFirst();
+        Veiculo veiculo = veiculoRepository.findAll().getFirst();
+        LogMovimentacao avulso = logMovimentacaoRepository.saveAndFlush(LogMovimentacao.builder()
+                .veiculo(veiculo).box(box).patio(patio).tipoMovimentacao(LogMovimentacao.TipoMovimentacao.ENTRADA)
+                .dataHoraMovimentacao(LocalDateTime.now()).build());
+        service.estacionarEmLote(placas.subList(60, 100), patio.getIdPatio(), null);
+
+        List<Long> ids = jdbc.queryForList("SELECT ID_LOG_MOVIMENTACAO FROM TB_LOG_MOVIMENTACAO", Long.class);
+        assertThat(ids).hasSize(101).contains(avulso.getIdLogMovimentacao());
+        assertThat(new HashSet<>(ids)).hasSize(101);
+    }
+
+    @Test
+    @DisplayName("Saída em lote libera boxes e registra as saídas")
+    void deveGravarLoteDeSaida() {
+        service.estacionarEmLote(placas.subList(0, 80), patio.getIdPatio(), null);
+
+        List<String> saida = new ArrayList<>(placas.subList(0, 80));
+        saida.add(placas.get(100));
+        LoteEstacionamentoResponseDto resposta = service.liberarEmLote(saida, null);
+
+        assertThat(resposta.sucessos()).isEqualTo(80);
+        assertThat(resposta.resultados().getLast().mensagem()).isEqualTo("Veículo não está estacionado.");
+        assertThat(contar("SELECT COUNT(*) FROM TB_ESTACIONAMENTO WHERE ESTA_ESTACIONADO = 1")).isZero();
+        assertThat(contar("SELECT COUNT(*) FROM TB_BOX WHERE STATUS = 'L'")).isEqualTo(BOXES);
+        Set<Long> idsLog = new HashSet<>(jdbc.queryForList("SELECT ID_LOG_MOVIMENTACAO FROM TB_LOG_MOVIMENTACAO", Long.class));
+        assertThat(idsLog).hasSize(160);
+        assertThat(contar("SELECT SUM(SAIDAS) FROM TB_MOVIMENTACAO_HORA")).isEqualTo(80);
+    }
+
+    private int contar(String sql) {
+        return jdbc.queryForObject(sql, Integer.class);
+    }
+}
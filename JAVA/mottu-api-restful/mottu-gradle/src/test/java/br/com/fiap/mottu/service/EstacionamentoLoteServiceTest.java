@@ -0,0 +1,173 @@
+package br.com.fiap.mottu.service;
+
+import br.com.fiap.mottu.dto.estacionamento.LoteEstacionamentoResponseDto;
+import br.com.fiap.mottu.dto.estacionamento.LoteEstacionamentoResponseDto.ResultadoPlaca;
+import br.com.fiap.mottu.model.Estacionamento;
+import br.com.fiap.mottu.model.LogMovimentacao;
+import br.com.fiap.mottu.service.alocacao.AlocadorVagas;
+import br.com.fiap.mottu.service.alocacao.IndiceVagasLivres;
+import br.com.fiap.mottu.service.cache.InvalidadorCacheEstacionamento;
+import br.com.fiap.mottu.service.relatorios.analytics.RollupMovimentacaoService;
+import br.com.fiap.mottu.service.stream.MudancaEvento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários da entrada/saída em lote.
+ * Além do resultado por placa, verificam que o número de round-trips ao banco é fixo,
+ * independente do tamanho do lote (o fluxo unitário faz ~10 comandos por veículo).
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - EstacionamentoLoteService")
+class EstacionamentoLoteServiceTest {
+
+    private static final int TAMANHO_LOTE = 200;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AlocadorVagas alocadorVagas;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private InvalidadorCacheEstacionamento invalidadorCache;
+
+    @Mock
+    private RollupMovimentacaoService rollupMovimentacao;
+
+    @Mock
+    private GeradorIdsEntidade geradorIds;
+
+    private EstacionamentoLoteService service;
+    private final AtomicLong sequence = new AtomicLong(1000);
+
+    @BeforeEach
+    void setUp() {
+        service = new EstacionamentoLoteService(jdbcTemplate, alocadorVagas, eventPublisher, invalidadorCache,
+                rollupMovimentacao, geradorIds);
+    }
+
+    @Test
+    @DisplayName("Entrada em lote: resultado por placa e round-trips constantes")
+    @SuppressWarnings("unchecked")
+    void deveEstacionarLoteComRoundTripsConstantes() {
+        List<String> placas = new ArrayList<>();
+        List<EstacionamentoLoteService.VeiculoPlaca> veiculos = new ArrayList<>();
+        for (int i = 0; i < TAMANHO_LOTE; i++) {
+            String placa = placa(i);
+            placas.add(placa);
+            veiculos.add(new EstacionamentoLoteService.VeiculoPlaca((long) i + 1, placa));
+        }
+        placas.add("XX");                 // inválida
+        placas.add(placa(0));             // repetida
+        placas.add("ZZZ9Z99");            // não cadastrada
+        // Veículo 1 já está estacionado; sobram 199 aptos e apenas 198 vagas
+        List<IndiceVagasLivres.VagaLivre> vagas = LongStream.range(0, TAMANHO_LOTE - 2)
+                .mapToObj(i -> new IndiceVagasLivres.VagaLivre(500 + i, 1L)).toList();
+
+        when(jdbcTemplate.query(startsWith("SELECT ID_VEICULO"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn((List) veiculos);
+        when(jdbcTemplate.query(startsWith("SELECT DISTINCT TB_VEICULO_ID_VEICULO"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn((List) List.of(1L));
+        when(geradorIds.proximos(any(), anyInt())).thenAnswer(inv -> proximosIds(inv.getArgument(1)));
+        when(alocadorVagas.alocarLote(1L, TAMANHO_LOTE - 1)).thenReturn(vagas);
+
+        LoteEstacionamentoResponseDto resposta = service.estacionarEmLote(placas, 1L, "Troca de turno");
+
+        assertThat(resposta.total()).isEqualTo(TAMANHO_LOTE + 3);
+        assertThat(resposta.sucessos()).isEqualTo(TAMANHO_LOTE - 2);
+        List<ResultadoPlaca> resultados = resposta.resultados();
+        assertThat(resultados.get(0).mensagem()).isEqualTo("Veículo já está estacionado.");
+        assertThat(resultados.get(1)).matches(ResultadoPlaca::sucesso);
+        assertThat(resultados.get(1).boxId()).isEqualTo(500L);
+        assertThat(resultados.get(TAMANHO_LOTE - 1).mensagem()).isEqualTo("Nenhuma vaga livre encontrada no pátio 1.");
+        assertThat(resultados.get(TAMANHO_LOTE).mensagem()).isEqualTo("Placa inválida.");
+        assertThat(resultados.get(TAMANHO_LOTE + 1).mensagem()).isEqualTo("Placa repetida no lote.");
+        assertThat(resultados.get(TAMANHO_LOTE + 2).mensagem()).isEqualTo("Veículo não cadastrado.");
+
+        // 2 consultas + 2 batches (+ 1 batch de ocupação no AlocadorVagas, 1 no rollup e um NEXTVAL
+        // a cada 50 IDs no gerador pooled), para qualquer tamanho de lote
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).query(any(String.class), any(RowMapper.class), any(Object[].class));
+        verify(geradorIds).proximos(Estacionamento.class, TAMANHO_LOTE - 2);
+        verify(geradorIds).proximos(LogMovimentacao.class, TAMANHO_LOTE - 2);
+        verify(jdbcTemplate).batchUpdate(eq(EstacionamentoLoteService.SQL_INSERIR_ESTACIONAMENTO), batch.capture());
+        assertThat(batch.getValue()).hasSize(TAMANHO_LOTE - 2);
+        verify(jdbcTemplate).batchUpdate(eq(EstacionamentoLoteService.SQL_INSERIR_LOG), anyList());
+        verify(alocadorVagas).alocarLote(1L, TAMANHO_LOTE - 1);
+        verify(eventPublisher, times(TAMANHO_LOTE - 2)).publishEvent(any(MudancaEvento.class));
+        verify(invalidadorCache, times(1)).invalidar(anyList());
+        ArgumentCaptor<List<RollupMovimentacaoService.Incremento>> incrementos = ArgumentCaptor.forClass(List.class);
+        verify(rollupMovimentacao, times(1)).registrarLote(incrementos.capture());
+        assertThat(incrementos.getValue()).hasSize(TAMANHO_LOTE - 2).allMatch(RollupMovimentacaoService.Incremento::entrada);
+    }
+
+    @Test
+    @DisplayName("Saída em lote: libera apenas o que o próprio lote encerrou")
+    @SuppressWarnings("unchecked")
+    void deveLiberarLoteIgnorandoSaidaConcorrente() {
+        LocalDateTime entrada = LocalDateTime.now().minusMinutes(90);
+        List<EstacionamentoLoteService.EstacionamentoAtivo> ativos = List.of(
+                new EstacionamentoLoteService.EstacionamentoAtivo(10L, 1L, 100L, 1L, entrada, placa(1)),
+                new EstacionamentoLoteService.EstacionamentoAtivo(11L, 2L, 101L, 1L, entrada, placa(2)));
+
+        when(jdbcTemplate.query(startsWith("SELECT e.ID_ESTACIONAMENTO"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn((List) ativos);
+        // O estacionamento 11 foi encerrado por outra saída entre a leitura e o UPDATE
+        when(jdbcTemplate.batchUpdate(eq(EstacionamentoLoteService.SQL_ENCERRAR_ESTACIONAMENTO), anyList()))
+                .thenReturn(new int[]{1, 0});
+        when(geradorIds.proximos(any(), anyInt())).thenAnswer(inv -> proximosIds(inv.getArgument(1)));
+
+        LoteEstacionamentoResponseDto resposta = service.liberarEmLote(List.of(placa(1), placa(2), placa(3)), null);
+
+        assertThat(resposta.sucessos()).isEqualTo(1);
+        assertThat(resposta.resultados().get(0).boxId()).isEqualTo(100L);
+        assertThat(resposta.resultados().get(1).mensagem()).isEqualTo("Veículo não está estacionado.");
+        assertThat(resposta.resultados().get(2).mensagem()).isEqualTo("Veículo não está estacionado.");
+
+        ArgumentCaptor<List<Object[]>> boxes = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(EstacionamentoLoteService.SQL_LIBERAR_BOX), boxes.capture());
+        assertThat(boxes.getValue()).hasSize(1);
+        assertThat(boxes.getValue().getFirst()[1]).isEqualTo(100L);
+        verify(eventPublisher, times(1)).publishEvent(any(MudancaEvento.class));
+        ArgumentCaptor<List<RollupMovimentacaoService.Incremento>> incrementos = ArgumentCaptor.forClass(List.class);
+        verify(rollupMovimentacao).registrarLote(incrementos.capture());
+        assertThat(incrementos.getValue()).singleElement()
+                .matches(i -> !i.entrada() && i.boxId() == 100L && i.tempoMinutos() >= 90);
+    }
+
+    private List<Long> proximosIds(int quantidade) {
+        return LongStream.range(0, quantidade).map(i -> sequence.incrementAndGet()).boxed().toList();
+    }
+
+    private static String placa(int i) {
+        return "T" + (char) ('A' + i / 26) + (char) ('A' + i % 26) + "1A23";
+    }
+}
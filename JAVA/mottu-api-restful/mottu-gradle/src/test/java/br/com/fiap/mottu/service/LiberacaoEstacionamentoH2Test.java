@@ -0,0 +1,141 @@
+package br.com.fiap.mottu.service;
+
+import br.com.fiap.mottu.model.Box;
+import br.com.fiap.mottu.model.Contato;
+import br.com.fiap.mottu.model.Endereco;
+import br.com.fiap.mottu.model.Patio;
+import br.com.fiap.mottu.model.Veiculo;
+import br.com.fiap.mottu.model.Zona;
+import br.com.fiap.mottu.repository.BoxRepository;
+import br.com.fiap.mottu.repository.ContatoRepository;
+import br.com.fiap.mottu.repository.EnderecoRepository;
+import br.com.fiap.mottu.repository.PatioRepository;
+import br.com.fiap.mottu.repository.VeiculoRepository;
+import br.com.fiap.mottu.repository.ZonaRepository;
+import br.com.fiap.mottu.service.alocacao.IndiceVagasLivres;
+import br.com.fiap.mottu.service.metricas.ContadorSql;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Teste de integração do check-in seguido de check-out sobre um banco real (H2 no modo Oracle):
+ * o flush da saída não pode esbarrar nas coleções com orphanRemoval do {@link Patio}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:liberacao;MODE=Oracle;DB_CLOSE_DELAY=-1;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.default_schema=PUBLIC",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.type.preferred_boolean_jdbc_type=INTEGER",
+        "mottu.ocr.alpr.workers=1",
+        "mottu.ocr.tesseract.motores=1",
+        "app.launch-swagger-on-startup=false"
+})
+@DisplayName("Testes de Integração - Liberação de estacionamento sobre H2")
+class LiberacaoEstacionamentoH2Test {
+
+    private static final String PLACA = "LIB1A23";
+
+    @Autowired
+    private EstacionamentoService estacionamentoService;
+
+    @Autowired
+    private IndiceVagasLivres indiceVagasLivres;
+
+    @Autowired
+    private PatioRepository patioRepository;
+
+    @Autowired
+    private ZonaRepository zonaRepository;
+
+    @Autowired
+    private BoxRepository boxRepository;
+
+    @Autowired
+    private VeiculoRepository veiculoRepository;
+
+    @Autowired
+    private ContatoRepository contatoRepository;
+
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Patio patio;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM TB_LOG_MOVIMENTACAO");
+        jdbc.update("DELETE FROM TB_ESTACIONAMENTO");
+        jdbc.update("DELETE FROM TB_MOVIMENTACAO_HORA");
+
+        Contato contato = contatoRepository.save(Contato.builder()
+                .email("patio@liberacao.mottu").ddd(11).ddi(55).telefone1("1130000000").celular("11990000000").build());
+        Endereco endereco = enderecoRepository.save(Endereco.builder()
+                .cep("01310-100").numero(1).logradouro("Av. Paulista").bairro("Bela Vista")
+                .cidade("São Paulo").estado("SP").pais("Brasil").build());
+        patio = patioRepository.save(Patio.builder()
+                .nomePatio("Pátio Liberação").status("A").dataCadastro(LocalDate.now())
+                .contato(contato).endereco(endereco).build());
+        zonaRepository.save(Zona.builder().nome("Z-LIB").status("A").patio(patio).build());
+        boxRepository.save(Box.builder().nome("LIB-B1").status("L").patio(patio).build());
+        if (veiculoRepository.findByPlaca(PLACA).isEmpty()) {
+            veiculoRepository.save(Veiculo.builder().placa(PLACA)
+                    .renavam("00000000001").chassi("9LIBERACAO0000001")
+                    .fabricante("Mottu").modelo("Mottu Sport 110i").ano(2024).combustivel("Gasolina")
+                    .status("OPERACIONAL").build());
+        }
+        indiceVagasLivres.recarregar();
+    }
+
+    @Test
+    @DisplayName("Check-out após check-in libera o box sem erro de orphanRemoval no Patio")
+    void deveLiberarVeiculoEstacionado() {
+        estacionamentoService.estacionarVeiculo(PLACA, null, patio.getIdPatio(), null);
+
+        assertThatCode(() -> estacionamentoService.liberarVeiculo(PLACA, null)).doesNotThrowAnyException();
+
+        assertThat(contar("SELECT COUNT(*) FROM TB_ESTACIONAMENTO WHERE ESTA_ESTACIONADO = 1")).isZero();
+        assertThat(contar("SELECT COUNT(*) FROM TB_BOX WHERE TB_PATIO_ID_PATIO = ? AND STATUS = 'L'", patio.getIdPatio())).isEqualTo(1);
+        assertThat(contar("SELECT COUNT(*) FROM TB_LOG_MOVIMENTACAO WHERE TIPO_MOVIMENTACAO = 'SAIDA'")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("SQL do JdbcTemplate entra na contagem de statements e o pool continua medido")
+    void deveContarSqlDoJdbcDireto() {
+        double antes = statements("none", "delete");
+
+        jdbc.update("DELETE FROM TB_MOVIMENTACAO_HORA");
+
+        assertThat(statements("none", "delete")).isEqualTo(antes + 1);
+        assertThat(meterRegistry.find("hikaricp.connections").gauge()).isNotNull();
+    }
+
+    private double statements(String repositorio, String tipo) {
+        var contador = meterRegistry.find(ContadorSql.METRICA).tag("repository", repositorio).tag("type", tipo).counter();
+        return contador != null ? contador.count() : 0;
+    }
+
+    private int contar(String sql, Object... parametros) {
+        return jdbc.queryForObject(sql, Integer.class, parametros);
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.fiap.mottu.service;
+
+import br.com.fiap.mottu.model.Box;
+import br.com.fiap.mottu.model.Patio;
+import br.com.fiap.mottu.repository.BoxRepository;
+import br.com.fiap.mottu.repository.PatioRepository;
+import br.com.fiap.mottu.service.stream.MudancaEvento;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para PatioService.gerarBoxesEmLotePorPatio()
+ * Foca no envio dos boxes em rodadas do tamanho do JDBC batch
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - PatioService.gerarBoxesEmLotePorPatio")
+class PatioServiceGerarBoxesEmLoteTest {
+
+    @Mock
+    private PatioRepository patioRepository;
+
+    @Mock
+    private BoxRepository boxRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private PatioService patioService;
+
+    private final Long patioId = 1L;
+    private final List<List<String>> rodadas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(patioService, "entityManager", entityManager);
+        Patio patio = Patio.builder().idPatio(patioId).nomePatio("Pátio Teste").status("A").build();
+        when(patioRepository.findByIdWithContatoAndEndereco(patioId)).thenReturn(Optional.of(patio));
+        when(entityManager.getReference(Patio.class, patioId)).thenReturn(patio);
+        when(boxRepository.saveAll(anyList())).thenAnswer(invocacao -> {
+            List<Box> lote = invocacao.getArgument(0);
+            rodadas.add(lote.stream().map(Box::getNome).toList());
+            return lote;
+        });
+    }
+
+    @Test
+    @DisplayName("Deve salvar os boxes em rodadas do tamanho do lote, limpando o contexto a cada rodada")
+    void deveSalvarEmRodadas() {
+        patioService.gerarBoxesEmLotePorPatio(patioId, "A", "GRU", 120);
+
+        assertEquals(List.of(50, 50, 20), rodadas.stream().map(List::size).toList());
+        assertEquals("GRU-001", rodadas.get(0).get(0));
+        assertEquals("GRU-051", rodadas.get(1).get(0));
+        assertEquals("GRU-120", rodadas.get(2).get(19));
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(boxRepository, never()).save(any(Box.class));
+        verify(eventPublisher, times(1)).publishEvent(any(MudancaEvento.class));
+    }
+
+    @Test
+    @DisplayName("Deve fazer uma única rodada quando a quantidade cabe em um lote")
+    void deveFazerRodadaUnica() {
+        patioService.gerarBoxesEmLotePorPatio(patioId, "A", "BX", PatioService.LOTE_GERACAO_BOXES);
+
+        assertEquals(1, rodadas.size());
+        assertEquals(PatioService.LOTE_GERACAO_BOXES, rodadas.get(0).size());
+        verify(entityManager, times(1)).flush();
+        verify(entityManager, times(1)).clear();
+    }
+}
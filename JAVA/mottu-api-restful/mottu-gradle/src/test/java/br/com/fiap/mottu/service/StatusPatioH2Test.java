@@ -0,0 +1,129 @@
+package br.com.fiap.mottu.service;
+
+import br.com.fiap.mottu.dto.patio.PatioRequestDto;
+import br.com.fiap.mottu.model.Contato;
+import br.com.fiap.mottu.model.Endereco;
+import br.com.fiap.mottu.model.Patio;
+import br.com.fiap.mottu.model.Zona;
+import br.com.fiap.mottu.model.relacionamento.ContatoPatio;
+import br.com.fiap.mottu.model.relacionamento.EnderecoPatio;
+import br.com.fiap.mottu.repository.ContatoRepository;
+import br.com.fiap.mottu.repository.EnderecoRepository;
+import br.com.fiap.mottu.repository.PatioRepository;
+import br.com.fiap.mottu.repository.ZonaRepository;
+import br.com.fiap.mottu.repository.relacionamento.ContatoPatioRepository;
+import br.com.fiap.mottu.repository.relacionamento.EnderecoPatioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de integração da cópia do status do pátio (TB_PATIO_STATUS) em zonas e associações,
+ * sobre H2 no modo Oracle: a junção com o {@link Patio} é só pelo ID, e a cópia acompanha as
+ * mudanças de status do pátio mesmo quando a zona não é alterada.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:liberacao;MODE=Oracle;DB_CLOSE_DELAY=-1;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.default_schema=PUBLIC",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.type.preferred_boolean_jdbc_type=INTEGER",
+        "mottu.ocr.alpr.workers=1",
+        "mottu.ocr.tesseract.motores=1",
+        "app.launch-swagger-on-startup=false"
+})
+@DisplayName("Testes de Integração - Status do pátio copiado em zonas e associações")
+class StatusPatioH2Test {
+
+    @Autowired
+    private PatioService patioService;
+
+    @Autowired
+    private PatioRepository patioRepository;
+
+    @Autowired
+    private ZonaRepository zonaRepository;
+
+    @Autowired
+    private ContatoRepository contatoRepository;
+
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+
+    @Autowired
+    private ContatoPatioRepository contatoPatioRepository;
+
+    @Autowired
+    private EnderecoPatioRepository enderecoPatioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Patio patio;
+
+    @BeforeEach
+    void setUp() {
+        long sufixo = System.nanoTime();
+        Contato contato = contatoRepository.save(Contato.builder()
+                .email("status" + sufixo + "@patio.mottu").ddd(11).ddi(55).telefone1("1130000000").celular("11990000000").build());
+        Endereco endereco = enderecoRepository.save(Endereco.builder()
+                .cep("01310-100").numero(1).logradouro("Av. Paulista").bairro("Bela Vista")
+                .cidade("São Paulo").estado("SP").pais("Brasil").build());
+        patio = patioRepository.save(Patio.builder()
+                .nomePatio("Pátio Status " + sufixo).status("A").dataCadastro(LocalDate.now())
+                .contato(contato).endereco(endereco).build());
+        zonaRepository.save(Zona.builder().nome("Z-ST1").status("A").patio(patio).build());
+        zonaRepository.save(Zona.builder().nome("Z-ST2").status("A").patio(patio).build());
+        contatoPatioRepository.save(new ContatoPatio(patio, contato));
+        enderecoPatioRepository.save(new EnderecoPatio(endereco, patio));
+    }
+
+    @Test
+    @DisplayName("Zona criada grava o status atual do pátio")
+    void deveGravarStatusDoPatioNaZona() {
+        assertThat(statusNasZonas()).containsExactly("A", "A");
+    }
+
+    @Test
+    @DisplayName("Mudança de status do pátio atualiza zonas, contatos e endereços dele")
+    void deveCopiarNovoStatusAoAtualizarStatus() {
+        patioService.atualizarStatusPatio(patio.getIdPatio(), "I");
+
+        assertThat(statusNasZonas()).containsExactly("I", "I");
+        assertThat(statusEm("TB_CONTATOPATIO")).isEqualTo("I");
+        assertThat(statusEm("TB_ENDERECIOPATIO")).isEqualTo("I");
+    }
+
+    @Test
+    @DisplayName("Edição do pátio que troca o status atualiza as zonas sem alterá-las")
+    void deveCopiarNovoStatusAoEditarPatio() {
+        patioService.atualizarPatio(patio.getIdPatio(),
+                new PatioRequestDto(patio.getNomePatio(), null, "I", null, null, null, null));
+
+        assertThat(statusNasZonas()).containsExactly("I", "I");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM TB_ZONA WHERE STATUS = 'A' AND TB_PATIO_ID_PATIO = ?",
+                Integer.class, patio.getIdPatio())).isEqualTo(2);
+    }
+
+    private List<String> statusNasZonas() {
+        return jdbc.queryForList("SELECT TB_PATIO_STATUS FROM TB_ZONA WHERE TB_PATIO_ID_PATIO = ? ORDER BY NOME",
+                String.class, patio.getIdPatio());
+    }
+
+    private String statusEm(String tabela) {
+        return jdbc.queryForObject("SELECT TB_PATIO_STATUS FROM " + tabela + " WHERE TB_PATIO_ID_PATIO = ?",
+                String.class, patio.getIdPatio());
+    }
+}
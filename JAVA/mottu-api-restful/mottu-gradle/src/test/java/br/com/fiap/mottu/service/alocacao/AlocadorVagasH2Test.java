@@ -0,0 +1,243 @@
+package br.com.fiap.mottu.service.alocacao;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de concorrência do motor de alocação sobre um banco real (H2 no modo Oracle)
+ * com o {@link ReivindicadorBoxJdbc} de produção.
+ *
+ * Simula dois nós da aplicação sobre o mesmo banco: cada nó tem seu próprio índice, locks e
+ * reservas pendentes, e nenhum recebe os eventos do outro. A única proteção entre os nós é o
+ * UPDATE condicional; a unicidade é verificada nas linhas de TB_ESTACIONAMENTO gravadas em cada check-in.
+ */
+@DisplayName("Testes de Concorrência - AlocadorVagas sobre H2")
+class AlocadorVagasH2Test {
+
+    private static final int CHECKINS_SIMULTANEOS = 200;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transacao;
+
+    @BeforeEach
+    void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:alocacao-" + UUID.randomUUID() + ";MODE=Oracle;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(40);
+        dataSource = new HikariDataSource(config);
+        jdbc = new JdbcTemplate(dataSource);
+        transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        jdbc.execute("""
+                CREATE TABLE TB_BOX (
+                    ID_BOX NUMBER(19) PRIMARY KEY,
+                    STATUS VARCHAR2(1) NOT NULL,
+                    DATA_ENTRADA TIMESTAMP,
+                    DATA_SAIDA TIMESTAMP,
+                    TB_PATIO_ID_PATIO NUMBER(19)
+                )""");
+        jdbc.execute("""
+                CREATE TABLE TB_ESTACIONAMENTO (
+                    ID_ESTACIONAMENTO NUMBER(19) GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    TB_BOX_ID_BOX NUMBER(19) NOT NULL,
+                    TB_VEICULO_ID_VEICULO NUMBER(19) NOT NULL,
+                    ESTA_ESTACIONADO NUMBER(1) NOT NULL
+                )""");
+        jdbc.execute("CREATE TABLE TB_VEICULOBOX (TB_VEICULO_ID_VEICULO NUMBER(19), TB_BOX_ID_BOX NUMBER(19))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("200 check-ins em dois nós com índices desatualizados não duplicam boxes no banco")
+    void checkinsConcorrentesEmDoisNos() throws Exception {
+        for (long patio = 1; patio <= 3; patio++) {
+            for (long i = 0; i < 50; i++) {
+                inserirBox(patio * 1000 + i, patio, "L");
+            }
+        }
+        AlocadorVagas noA = novoNo();
+        AlocadorVagas noB = novoNo();
+        // Ocupados depois da carga dos índices (por um terceiro nó): as duas cópias ficam desatualizadas
+        jdbc.update("UPDATE TB_BOX SET STATUS = 'O' WHERE MOD(ID_BOX, 1000) < 10");
+
+        List<Optional<IndiceVagasLivres.VagaLivre>> resultados = executarEmParalelo(i ->
+                checkin(i % 2 == 0 ? noA : noB, i % 4 == 3 ? null : (long) (i % 4) + 1, i));
+
+        List<Long> alocados = resultados.stream().flatMap(Optional::stream).map(IndiceVagasLivres.VagaLivre::boxId).toList();
+        assertThat(alocados).hasSize(120);
+        assertThat(new HashSet<>(alocados)).hasSize(120);
+        assertThat(boxesDuplicadosNoBanco()).isEmpty();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM TB_ESTACIONAMENTO", Integer.class)).isEqualTo(120);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM TB_BOX WHERE STATUS = 'L'", Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("200 check-ins em lote nos dois nós não duplicam boxes no banco")
+    void lotesConcorrentesEmDoisNos() throws Exception {
+        for (long i = 1; i <= 150; i++) {
+            inserirBox(i, 1L, "L");
+        }
+        AlocadorVagas noA = novoNo();
+        AlocadorVagas noB = novoNo();
+
+        ExecutorService pool = Executors.newFixedThreadPool(20);
+        try {
+            List<Future<List<IndiceVagasLivres.VagaLivre>>> futuros = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                AlocadorVagas no = i % 2 == 0 ? noA : noB;
+                int lote = i;
+                futuros.add(pool.submit(() -> transacao.execute(status -> {
+                    List<IndiceVagasLivres.VagaLivre> vagas = no.alocarLote(1L, 10);
+                    for (int v = 0; v < vagas.size(); v++) {
+                        registrarEstacionamento(vagas.get(v).boxId(), lote * 100L + v);
+                    }
+                    return vagas;
+                })));
+            }
+            Set<Long> alocados = new HashSet<>();
+            long total = 0;
+            for (Future<List<IndiceVagasLivres.VagaLivre>> futuro : futuros) {
+                for (IndiceVagasLivres.VagaLivre vaga : futuro.get(60, TimeUnit.SECONDS)) {
+                    alocados.add(vaga.boxId());
+                    total++;
+                }
+            }
+            assertThat(total).isEqualTo(150);
+            assertThat(alocados).hasSize(150);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(boxesDuplicadosNoBanco()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("200 operadores em dois nós disputando o mesmo box: apenas um vence")
+    void mesmoBoxPreferidoApenasUmVence() throws Exception {
+        inserirBox(7L, 1L, "L");
+        AlocadorVagas noA = novoNo();
+        AlocadorVagas noB = novoNo();
+
+        List<Boolean> resultados = executarEmParalelo(i -> transacao.execute(status -> {
+            boolean ocupou = (i % 2 == 0 ? noA : noB).alocarBox(7L, 1L);
+            if (ocupou) {
+                registrarEstacionamento(7L, i);
+            }
+            return ocupou;
+        }));
+
+        assertThat(resultados).filteredOn(Boolean::booleanValue).hasSize(1);
+        assertThat(boxesDuplicadosNoBanco()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Controle: sem o UPDATE condicional, a verificação no banco encontra duplicidades")
+    void semUpdateCondicionalDuplicidadeEDetectada() throws Exception {
+        for (long i = 1; i <= 150; i++) {
+            inserirBox(i, 1L, "L");
+        }
+        ReivindicadorBox ingenuo = new ReivindicadorBoxJdbc(jdbc) {
+            @Override
+            public boolean ocuparSeLivre(Long boxId) {
+                return jdbc.update("UPDATE TB_BOX SET STATUS = 'O' WHERE ID_BOX = ?", boxId) == 1;
+            }
+        };
+        AlocadorVagas noA = new AlocadorVagas(indiceCarregado(), ingenuo);
+        AlocadorVagas noB = new AlocadorVagas(indiceCarregado(), ingenuo);
+
+        executarEmParalelo(i -> checkin(i % 2 == 0 ? noA : noB, 1L, i));
+
+        assertThat(boxesDuplicadosNoBanco()).isNotEmpty();
+    }
+
+    private AlocadorVagas novoNo() {
+        return new AlocadorVagas(indiceCarregado(), new ReivindicadorBoxJdbc(jdbc));
+    }
+
+    private IndiceVagasLivres indiceCarregado() {
+        IndiceVagasLivres indice = new IndiceVagasLivres(jdbc);
+        indice.recarregar();
+        assertThat(indice.isPronto()).isTrue();
+        return indice;
+    }
+
+    /** Check-in: ocupa o box e grava o estacionamento na mesma transação. */
+    private Optional<IndiceVagasLivres.VagaLivre> checkin(AlocadorVagas alocador, Long patioId, long veiculoId) {
+        return transacao.execute(status -> {
+            Optional<IndiceVagasLivres.VagaLivre> vaga = alocador.alocar(patioId);
+            vaga.ifPresent(v -> registrarEstacionamento(v.boxId(), veiculoId));
+            return vaga;
+        });
+    }
+
+    private void registrarEstacionamento(Long boxId, long veiculoId) {
+        jdbc.update("INSERT INTO TB_ESTACIONAMENTO (TB_BOX_ID_BOX, TB_VEICULO_ID_VEICULO, ESTA_ESTACIONADO) VALUES (?, ?, 1)",
+                boxId, veiculoId);
+    }
+
+    private void inserirBox(long boxId, long patioId, String status) {
+        jdbc.update("INSERT INTO TB_BOX (ID_BOX, STATUS, TB_PATIO_ID_PATIO) VALUES (?, ?, ?)", boxId, status, patioId);
+    }
+
+    private List<Long> boxesDuplicadosNoBanco() {
+        return jdbc.queryForList("""
+                SELECT TB_BOX_ID_BOX FROM TB_ESTACIONAMENTO
+                WHERE ESTA_ESTACIONADO = 1
+                GROUP BY TB_BOX_ID_BOX HAVING COUNT(*) > 1""", Long.class);
+    }
+
+    private <T> List<T> executarEmParalelo(Tarefa<T> tarefa) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CHECKINS_SIMULTANEOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<T>> futuros = new ArrayList<>();
+            for (int i = 0; i < CHECKINS_SIMULTANEOS; i++) {
+                int indice = i;
+                futuros.add(pool.submit((Callable<T>) () -> {
+                    largada.await();
+                    return tarefa.executar(indice);
+                }));
+            }
+            largada.countDown();
+            List<T> resultados = new ArrayList<>();
+            for (Future<T> futuro : futuros) {
+                resultados.add(futuro.get(60, TimeUnit.SECONDS));
+            }
+            return resultados;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Tarefa<T> {
+        T executar(int indice);
+    }
+}
@@ -0,0 +1,234 @@
+package br.com.fiap.mottu.service.alocacao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da lógica do motor de alocação (índice desatualizado, reserva pelo banco, lotes, rollback)
+ * sobre um "banco" em memória em que o UPDATE condicional é um compare-and-set.
+ * O fake não reproduz a concorrência do banco; a garantia de não duplicar alocações
+ * é verificada com o {@link ReivindicadorBoxJdbc} real em {@link AlocadorVagasH2Test}.
+ */
+@DisplayName("Testes de Concorrência - AlocadorVagas")
+class AlocadorVagasTest {
+
+    private static final int CHECKINS_SIMULTANEOS = 200;
+
+    @AfterEach
+    void limparSincronizacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("200 check-ins pelo índice (com entradas desatualizadas) não duplicam alocações")
+    void checkinsConcorrentesPeloIndice() throws Exception {
+        BancoEmMemoria banco = new BancoEmMemoria();
+        List<IndiceVagasLivres.VagaLivre> vagasDoIndice = new ArrayList<>();
+        for (long patio = 1; patio <= 3; patio++) {
+            for (long i = 0; i < 50; i++) {
+                long boxId = patio * 1000 + i;
+                // 10 boxes por pátio já foram ocupados por outro nó: o índice está desatualizado
+                banco.adicionar(boxId, patio, i < 10 ? "O" : "L");
+                vagasDoIndice.add(new IndiceVagasLivres.VagaLivre(boxId, patio));
+            }
+        }
+        AlocadorVagas alocador = new AlocadorVagas(indiceCom(vagasDoIndice), banco);
+
+        List<Optional<IndiceVagasLivres.VagaLivre>> resultados = executarEmParalelo(i ->
+                alocador.alocar(i % 4 == 3 ? null : (long) (i % 4) + 1));
+
+        long alocados = resultados.stream().filter(Optional::isPresent).count();
+        assertThat(banco.alocacoesDuplicadas()).isZero();
+        assertThat(alocados).isEqualTo(120);
+        assertThat(banco.livres()).isZero();
+    }
+
+    @Test
+    @DisplayName("200 check-ins pelo banco (índice indisponível) não duplicam alocações")
+    void checkinsConcorrentesPeloBanco() throws Exception {
+        BancoEmMemoria banco = new BancoEmMemoria();
+        for (long i = 0; i < 100; i++) {
+            banco.adicionar(i + 1, i % 2 + 1, "L");
+        }
+        JdbcTemplate jdbcIndisponivel = mock(JdbcTemplate.class);
+        IndiceVagasLivres indice = new IndiceVagasLivres(jdbcIndisponivel);
+        AlocadorVagas alocador = new AlocadorVagas(indice, banco);
+
+        List<Optional<IndiceVagasLivres.VagaLivre>> resultados = executarEmParalelo(i ->
+                alocador.alocar(i % 3 == 2 ? null : (long) (i % 3) + 1));
+
+        assertThat(indice.isPronto()).isFalse();
+        assertThat(banco.alocacoesDuplicadas()).isZero();
+        assertThat(resultados.stream().filter(Optional::isPresent).count()).isEqualTo(100);
+        assertThat(banco.livres()).isZero();
+    }
+
+    @Test
+    @DisplayName("Lotes concorrentes (200 check-ins em 20 lotes) não duplicam alocações")
+    void lotesConcorrentesNaoDuplicam() throws Exception {
+        BancoEmMemoria banco = new BancoEmMemoria();
+        List<IndiceVagasLivres.VagaLivre> vagasDoIndice = new ArrayList<>();
+        for (long i = 0; i < 150; i++) {
+            banco.adicionar(i + 1, 1L, i % 5 == 0 ? "O" : "L");
+            vagasDoIndice.add(new IndiceVagasLivres.VagaLivre(i + 1, 1L));
+        }
+        AlocadorVagas alocador = new AlocadorVagas(indiceCom(vagasDoIndice), banco);
+
+        ExecutorService pool = Executors.newFixedThreadPool(20);
+        try {
+            List<Future<List<IndiceVagasLivres.VagaLivre>>> futuros = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futuros.add(pool.submit(() -> alocador.alocarLote(1L, 10)));
+            }
+            long alocados = 0;
+            for (Future<List<IndiceVagasLivres.VagaLivre>> futuro : futuros) {
+                alocados += futuro.get(30, TimeUnit.SECONDS).size();
+            }
+            assertThat(alocados).isEqualTo(120);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(banco.alocacoesDuplicadas()).isZero();
+        assertThat(banco.livres()).isZero();
+    }
+
+    @Test
+    @DisplayName("200 operadores disputando o mesmo box: apenas um vence")
+    void mesmoBoxPreferidoApenasUmVence() throws Exception {
+        BancoEmMemoria banco = new BancoEmMemoria();
+        banco.adicionar(7L, 1L, "L");
+        AlocadorVagas alocador = new AlocadorVagas(
+                indiceCom(List.of(new IndiceVagasLivres.VagaLivre(7L, 1L))), banco);
+
+        List<Boolean> resultados = executarEmParalelo(i -> alocador.alocarBox(7L, 1L));
+
+        assertThat(resultados).filteredOn(Boolean::booleanValue).hasSize(1);
+        assertThat(banco.alocacoesDuplicadas()).isZero();
+    }
+
+    @Test
+    @DisplayName("Rollback do check-in devolve o box ao índice")
+    void rollbackDevolveBoxAoIndice() {
+        BancoEmMemoria banco = new BancoEmMemoria();
+        banco.adicionar(5L, 1L, "L");
+        IndiceVagasLivres indice = indiceCom(List.of(new IndiceVagasLivres.VagaLivre(5L, 1L)));
+        AlocadorVagas alocador = new AlocadorVagas(indice, banco);
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(alocador.alocar(1L)).isPresent();
+        assertThat(indice.contarLivres(1L)).isZero();
+
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizacoes.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(indice.contarLivres(1L)).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private IndiceVagasLivres indiceCom(List<IndiceVagasLivres.VagaLivre> vagas) {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        when(jdbc.query(anyString(), any(RowMapper.class))).thenReturn(vagas);
+        IndiceVagasLivres indice = new IndiceVagasLivres(jdbc);
+        indice.recarregar();
+        return indice;
+    }
+
+    private <T> List<T> executarEmParalelo(Tarefa<T> tarefa) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CHECKINS_SIMULTANEOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<T>> futuros = new ArrayList<>();
+            for (int i = 0; i < CHECKINS_SIMULTANEOS; i++) {
+                int indice = i;
+                futuros.add(pool.submit((Callable<T>) () -> {
+                    largada.await();
+                    return tarefa.executar(indice);
+                }));
+            }
+            largada.countDown();
+            List<T> resultados = new ArrayList<>();
+            for (Future<T> futuro : futuros) {
+                resultados.add(futuro.get(30, TimeUnit.SECONDS));
+            }
+            return resultados;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Tarefa<T> {
+        T executar(int indice);
+    }
+
+    /**
+     * TB_BOX simulada: o UPDATE condicional vira um compare-and-set atômico por box.
+     */
+    private static final class BancoEmMemoria implements ReivindicadorBox {
+
+        private final Map<Long, String> status = new ConcurrentHashMap<>();
+        private final Map<Long, Long> patioDoBox = new ConcurrentHashMap<>();
+        private final Map<Long, AtomicInteger> alocacoes = new ConcurrentHashMap<>();
+
+        void adicionar(Long boxId, Long patioId, String statusInicial) {
+            status.put(boxId, statusInicial);
+            patioDoBox.put(boxId, patioId);
+        }
+
+        @Override
+        public boolean ocuparSeLivre(Long boxId) {
+            boolean ocupou = status.replace(boxId, "L", "O");
+            if (ocupou) {
+                alocacoes.computeIfAbsent(boxId, k -> new AtomicInteger()).incrementAndGet();
+            }
+            return ocupou;
+        }
+
+        @Override
+        public List<IndiceVagasLivres.VagaLivre> buscarCandidatas(Long patioId, int limite) {
+            return status.entrySet().stream()
+                    .filter(e -> "L".equals(e.getValue()))
+                    .map(Map.Entry::getKey)
+                    .filter(id -> patioId == null || patioId.equals(patioDoBox.get(id)))
+                    .sorted()
+                    .limit(limite)
+                    .map(id -> new IndiceVagasLivres.VagaLivre(id, patioDoBox.get(id)))
+                    .toList();
+        }
+
+        long alocacoesDuplicadas() {
+            return alocacoes.values().stream().filter(c -> c.get() > 1).count();
+        }
+
+        long livres() {
+            return status.values().stream().filter("L"::equals).count();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.fiap.mottu.service.alocacao;
+
+import br.com.fiap.mottu.service.stream.MudancaEvento;
+import br.com.fiap.mottu.service.stream.TopicoMudanca;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários do índice em memória de vagas livres.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - IndiceVagasLivres")
+class IndiceVagasLivresTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private IndiceVagasLivres indice;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        indice = new IndiceVagasLivres(jdbcTemplate);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenReturn(List.of(
+                new IndiceVagasLivres.VagaLivre(12L, 1L),
+                new IndiceVagasLivres.VagaLivre(10L, 1L),
+                new IndiceVagasLivres.VagaLivre(20L, 2L)));
+        indice.recarregar();
+    }
+
+    @Test
+    @DisplayName("Deve reservar a vaga de menor ID do pátio e não repeti-la")
+    void deveReservarMenorIdDoPatio() {
+        assertThat(indice.isPronto()).isTrue();
+        assertThat(indice.reservar(1L)).contains(new IndiceVagasLivres.VagaLivre(10L, 1L));
+        assertThat(indice.reservar(1L)).contains(new IndiceVagasLivres.VagaLivre(12L, 1L));
+        assertThat(indice.reservar(1L)).isEmpty();
+        assertThat(indice.contarLivres(2L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Sem pátio informado deve reservar em qualquer pátio com vaga")
+    void deveReservarEmQualquerPatio() {
+        indice.reservar(1L);
+        indice.reservar(1L);
+        assertThat(indice.reservar(null)).contains(new IndiceVagasLivres.VagaLivre(20L, 2L));
+        assertThat(indice.reservar(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Saída confirmada deve devolver o box ao índice")
+    void saidaDeveDevolverBox() {
+        indice.reservar(2L);
+        assertThat(indice.contarLivres(2L)).isZero();
+
+        indice.aoConfirmarMudanca(MudancaEvento.of(TopicoMudanca.ESTACIONAMENTO, 2L, 20L, "SAIDA"));
+
+        assertThat(indice.reservar(2L)).contains(new IndiceVagasLivres.VagaLivre(20L, 2L));
+    }
+
+    @Test
+    @DisplayName("Reservas concorrentes nunca devem entregar o mesmo box duas vezes")
+    void reservasConcorrentesNaoDevemDuplicar() throws InterruptedException {
+        for (long id = 100; id < 300; id++) {
+            indice.devolver(id, 3L);
+        }
+        Set<Long> reservados = ConcurrentHashMap.newKeySet();
+        List<Long> duplicados = new java.util.concurrent.CopyOnWriteArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch largada = new CountDownLatch(1);
+        for (int i = 0; i < 400; i++) {
+            pool.submit(() -> {
+                largada.await();
+                Optional<IndiceVagasLivres.VagaLivre> vaga = indice.reservar(3L);
+                vaga.ifPresent(v -> {
+                    if (!reservados.add(v.boxId())) {
+                        duplicados.add(v.boxId());
+                    }
+                });
+                return null;
+            });
+        }
+        largada.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(duplicados).isEmpty();
+        assertThat(reservados).hasSize(200);
+        assertThat(new HashSet<>(reservados)).allMatch(id -> id >= 100 && id < 300);
+    }
+
+    @Test
+    @DisplayName("Check-in durante a recarga deve ver as vagas atuais, e a vaga reservada não volta ao índice")
+    @SuppressWarnings("unchecked")
+    void reservaDuranteRecargaNaoDeveVerIndiceVazio() throws Exception {
+        CountDownLatch consultando = new CountDownLatch(1);
+        CountDownLatch liberarConsulta = new CountDownLatch(1);
+        // A consulta da recarga ainda enxerga o box 10 como livre (reserva não confirmada no banco)
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenAnswer(invocacao -> {
+            consultando.countDown();
+            liberarConsulta.await(5, TimeUnit.SECONDS);
+            return List.of(new IndiceVagasLivres.VagaLivre(10L, 1L), new IndiceVagasLivres.VagaLivre(12L, 1L),
+                    new IndiceVagasLivres.VagaLivre(20L, 2L), new IndiceVagasLivres.VagaLivre(30L, 2L));
+        });
+
+        ExecutorService recarga = Executors.newSingleThreadExecutor();
+        var concluida = recarga.submit(indice::recarregar);
+        assertThat(consultando.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(indice.reservar(1L)).contains(new IndiceVagasLivres.VagaLivre(10L, 1L));
+        indice.devolver(40L, 2L);
+
+        liberarConsulta.countDown();
+        concluida.get(5, TimeUnit.SECONDS);
+        recarga.shutdown();
+
+        assertThat(indice.reservar(1L)).contains(new IndiceVagasLivres.VagaLivre(12L, 1L));
+        assertThat(indice.reservar(1L)).isEmpty();
+        assertThat(indice.contarLivres(2L)).isEqualTo(3);
+    }
+}
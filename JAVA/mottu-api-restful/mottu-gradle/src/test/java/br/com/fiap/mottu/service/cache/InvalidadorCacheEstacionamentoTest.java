@@ -0,0 +1,166 @@
+package br.com.fiap.mottu.service.cache;
+
+import br.com.fiap.mottu.config.CacheConfig;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes da invalidação direcionada: só a placa/box/pátio afetados ficam obsoletos.
+ * Usa o CacheConfig real com um serviço fake anotado com as mesmas chaves do EstacionamentoService.
+ */
+@SpringJUnitConfig(InvalidadorCacheEstacionamentoTest.Config.class)
+@DisplayName("Testes - InvalidadorCacheEstacionamento")
+class InvalidadorCacheEstacionamentoTest {
+
+    @Configuration
+    @Import(CacheConfig.class)
+    static class Config {
+        @Bean
+        InvalidadorCacheEstacionamento invalidadorCacheEstacionamento(
+                @Qualifier("estacionamentoCacheManager") CacheManager estacionamentoCacheManager,
+                CacheManager cacheManager) {
+            return new InvalidadorCacheEstacionamento(estacionamentoCacheManager, cacheManager);
+        }
+
+        @Bean
+        ConsultasFake consultasFake() {
+            return new ConsultasFake();
+        }
+    }
+
+    static class ConsultasFake {
+        private final Map<String, AtomicInteger> chamadas = new ConcurrentHashMap<>();
+
+        @Cacheable(cacheManager = "estacionamentoCacheManager", value = "estacionamentosPorPatio",
+                key = "#patioId + '-v' + @invalidadorCacheEstacionamento.versaoPatio(#patioId)")
+        public String listarAtivosPorPatio(Long patioId) {
+            return registrar("patio-" + patioId);
+        }
+
+        @Cacheable(cacheManager = "estacionamentoCacheManager", value = "estacionamentoPorPlaca",
+                key = "T(br.com.fiap.mottu.service.ocr.PlateUtils).normalizeMercosul(#placa)")
+        public String buscarAtivoPorPlaca(String placa) {
+            return registrar("placa-" + placa.toUpperCase());
+        }
+
+        private String registrar(String chave) {
+            chamadas.computeIfAbsent(chave, k -> new AtomicInteger()).incrementAndGet();
+            return chave;
+        }
+
+        public int chamadas(String chave) {
+            return chamadas.getOrDefault(chave, new AtomicInteger()).get();
+        }
+
+        public void zerarChamadas() {
+            chamadas.clear();
+        }
+    }
+
+    @Autowired
+    private ConsultasFake consultas;
+
+    @Autowired
+    private InvalidadorCacheEstacionamento invalidador;
+
+    @Autowired
+    @Qualifier("estacionamentoCacheManager")
+    private CacheManager estacionamentoCacheManager;
+
+    @BeforeEach
+    void limpar() {
+        consultas.zerarChamadas();
+        estacionamentoCacheManager.getCacheNames()
+                .forEach(nome -> estacionamentoCacheManager.getCache(nome).clear());
+    }
+
+    @AfterEach
+    void limparSincronizacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Movimentação em um pátio não invalida a lista dos outros pátios")
+    void deveInvalidarSomenteOPatioAfetado() {
+        consultas.listarAtivosPorPatio(1L);
+        consultas.listarAtivosPorPatio(2L);
+
+        invalidador.invalidar("ABC1D23", 10L, 100L, 1L);
+
+        consultas.listarAtivosPorPatio(1L);
+        consultas.listarAtivosPorPatio(2L);
+        assertThat(consultas.chamadas("patio-1")).isEqualTo(2);
+        assertThat(consultas.chamadas("patio-2")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Invalida somente a placa afetada, independente da grafia usada na consulta")
+    void deveInvalidarSomenteAPlacaAfetada() {
+        consultas.buscarAtivoPorPlaca("abc-1d23");
+        consultas.buscarAtivoPorPlaca("XYZ9A87");
+
+        invalidador.invalidar("ABC1D23", 10L, 100L, 1L);
+
+        consultas.buscarAtivoPorPlaca("ABC1D23");
+        consultas.buscarAtivoPorPlaca("XYZ9A87");
+        assertThat(consultas.chamadas("placa-ABC-1D23") + consultas.chamadas("placa-ABC1D23")).isEqualTo(2);
+        assertThat(consultas.chamadas("placa-XYZ9A87")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Dentro de transação a invalidação só ocorre após o commit")
+    void deveInvalidarSomenteAposCommit() {
+        consultas.listarAtivosPorPatio(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        invalidador.invalidar(null, null, null, 1L);
+        consultas.listarAtivosPorPatio(1L);
+        assertThat(consultas.chamadas("patio-1")).isEqualTo(1);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        consultas.listarAtivosPorPatio(1L);
+        assertThat(consultas.chamadas("patio-1")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Hit ratio exposto pelo recordStats do Caffeine")
+    void deveRegistrarHitRatio() {
+        CaffeineCache cache = (CaffeineCache) estacionamentoCacheManager.getCache("estacionamentosPorPatio");
+        CacheStats antes = cache.getNativeCache().stats();
+
+        for (int i = 0; i < 10; i++) {
+            consultas.listarAtivosPorPatio(1L);
+            consultas.listarAtivosPorPatio(2L);
+        }
+        invalidador.invalidar(null, null, null, 2L);
+        consultas.listarAtivosPorPatio(1L);
+        consultas.listarAtivosPorPatio(2L);
+
+        CacheStats stats = cache.getNativeCache().stats().minus(antes);
+        assertThat(stats.requestCount()).isEqualTo(22);
+        assertThat(stats.missCount()).isEqualTo(3);
+        assertThat(stats.hitRate()).isGreaterThan(0.85);
+    }
+}
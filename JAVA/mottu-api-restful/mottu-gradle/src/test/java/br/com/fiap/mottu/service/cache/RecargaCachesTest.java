@@ -0,0 +1,202 @@
+package br.com.fiap.mottu.service.cache;
+
+import br.com.fiap.mottu.config.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Testes das chaves tipadas e da recarga pelos próprios métodos {@code @Cacheable}.
+ * Usa o CacheConfig real com um serviço fake anotado como os serviços de painel.
+ */
+@SpringJUnitConfig(RecargaCachesTest.Config.class)
+@DisplayName("Testes - RecargaCaches")
+class RecargaCachesTest {
+
+    @Configuration
+    @Import(CacheConfig.class)
+    static class Config {
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return mock(PlatformTransactionManager.class);
+        }
+
+        @Bean
+        RecargaCaches recargaCaches(BeanFactory beanFactory, PlatformTransactionManager transactionManager) {
+            return new RecargaCaches(beanFactory, transactionManager);
+        }
+
+        @Bean
+        InvalidadorCacheEstacionamento invalidadorCacheEstacionamento(
+                @Qualifier("estacionamentoCacheManager") CacheManager estacionamentoCacheManager,
+                CacheManager cacheManager) {
+            return new InvalidadorCacheEstacionamento(estacionamentoCacheManager, cacheManager);
+        }
+
+        @Bean
+        PainelFake painelFake() {
+            return new PainelFake();
+        }
+    }
+
+    static class PainelFake {
+        private final Map<String, AtomicInteger> chamadas = new ConcurrentHashMap<>();
+
+        @Cacheable(cacheManager = "estacionamentoCacheManager", value = "estatisticasEstacionamento",
+                keyGenerator = "recargaCaches")
+        @VersaoCache("@invalidadorCacheEstacionamento.versaoPatio(#patioId)")
+        public long contarPorPatio(Long patioId) {
+            return registrar("patio-" + patioId);
+        }
+
+        @Transactional(readOnly = true)
+        @Cacheable(value = "mapaGlobal", keyGenerator = "recargaCaches", unless = "#result.isEmpty()")
+        public List<String> buscarPorCidade(String cidade) {
+            registrar("cidade-" + cidade);
+            return "Vazia".equals(cidade) ? List.of() : List.of(cidade);
+        }
+
+        private long registrar(String chave) {
+            return chamadas.computeIfAbsent(chave, k -> new AtomicInteger()).incrementAndGet();
+        }
+
+        int chamadas(String chave) {
+            return chamadas.getOrDefault(chave, new AtomicInteger()).get();
+        }
+
+        void zerarChamadas() {
+            chamadas.clear();
+        }
+    }
+
+    @Autowired
+    private PainelFake painel;
+
+    @Autowired
+    private RecargaCaches recargaCaches;
+
+    @Autowired
+    private InvalidadorCacheEstacionamento invalidador;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    @Qualifier("estacionamentoCacheManager")
+    private CacheManager estacionamentoCacheManager;
+
+    @BeforeEach
+    void limpar() {
+        painel.zerarChamadas();
+        cacheManager.getCache("mapaGlobal").clear();
+        estacionamentoCacheManager.getCache("estatisticasEstacionamento").clear();
+        clearInvocations(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Primeira leitura carrega pelo próprio método anotado, uma única vez, com chave tipada")
+    void deveCarregarPeloMetodoAnotado() {
+        assertThat(painel.contarPorPatio(1L)).isEqualTo(1L);
+        assertThat(painel.contarPorPatio(1L)).isEqualTo(1L);
+
+        assertThat(painel.chamadas("patio-1")).isEqualTo(1);
+        ChaveRecarga chave = chaveUnica("estatisticasEstacionamento");
+        assertThat(chave.metodo().getName()).isEqualTo("contarPorPatio");
+        assertThat(chave.argumentos()).containsExactly(1L);
+        assertThat(chave.versao()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("Refresh executa o mesmo método com os argumentos guardados na chave")
+    void deveRecarregarComOsArgumentosDaChave() {
+        painel.contarPorPatio(7L);
+
+        Object recarregado = recargaCaches.recarregar("estatisticasEstacionamento", chaveUnica("estatisticasEstacionamento"));
+
+        assertThat(recarregado).isEqualTo(2L);
+        assertThat(painel.chamadas("patio-7")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Chave de versão antiga é descartada no refresh sem consultar de novo")
+    void deveDescartarChaveDeVersaoAntiga() {
+        painel.contarPorPatio(3L);
+        ChaveRecarga antiga = chaveUnica("estatisticasEstacionamento");
+
+        invalidador.invalidar(null, null, null, 3L);
+
+        assertThat(recargaCaches.recarregar("estatisticasEstacionamento", antiga)).isNull();
+        assertThat(painel.chamadas("patio-3")).isEqualTo(1);
+        assertThat(painel.contarPorPatio(3L)).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("O unless da anotação vale também no refresh")
+    void deveAplicarUnlessNaRecarga() {
+        painel.buscarPorCidade("Vazia");
+        assertThat(nativo("mapaGlobal")).isEmpty();
+
+        painel.buscarPorCidade("Recife");
+        Object recarregado = recargaCaches.recarregar("mapaGlobal", chaveUnica("mapaGlobal"));
+        assertThat(recarregado).isEqualTo(List.of("Recife"));
+
+        ChaveRecarga recife = chaveUnica("mapaGlobal");
+        ChaveRecarga vazia = recargaCaches.generate(recife.alvo(), recife.metodo(), "Vazia");
+        assertThat(recargaCaches.recarregar("mapaGlobal", vazia)).isNull();
+    }
+
+    @Test
+    @DisplayName("A transação declarada no método é aplicada na recarga")
+    void deveAplicarTransacaoDoMetodo() {
+        painel.buscarPorCidade("Recife");
+        verify(transactionManager).getTransaction(any());
+
+        clearInvocations(transactionManager);
+        painel.contarPorPatio(1L);
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Chave que não é tipada não é recarregada por aqui")
+    void deveIgnorarChaveNaoTipada() {
+        assertThat(recargaCaches.recarregar("mapaGlobal", "cidade-Recife")).isNull();
+        assertThat(painel.chamadas("cidade-Recife")).isZero();
+    }
+
+    private ChaveRecarga chaveUnica(String nome) {
+        assertThat(nativo(nome)).hasSize(1);
+        return (ChaveRecarga) nativo(nome).keySet().iterator().next();
+    }
+
+    private Map<Object, Object> nativo(String nome) {
+        CacheManager manager = "mapaGlobal".equals(nome) ? cacheManager : estacionamentoCacheManager;
+        return ((CaffeineCache) manager.getCache(nome)).getNativeCache().asMap();
+    }
+}
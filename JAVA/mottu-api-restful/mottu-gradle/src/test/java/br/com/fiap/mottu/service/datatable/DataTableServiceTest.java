@@ -0,0 +1,163 @@
+package br.com.fiap.mottu.service.datatable;
+
+import br.com.fiap.mottu.dto.datatable.DataTableRequest;
+import br.com.fiap.mottu.dto.datatable.DataTableResponse;
+import br.com.fiap.mottu.dto.datatable.JanelaResponse;
+import br.com.fiap.mottu.exception.InvalidInputException;
+import br.com.fiap.mottu.util.CursorPaginacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários da paginação por cursor (keyset) e do modo sem COUNT do DataTable.
+ */
+@DisplayName("Testes Unitários - DataTableService (keyset / contagem estimada)")
+class DataTableServiceTest {
+
+    private static final Sort ORDEM = Sort.by(Sort.Direction.DESC, "dataEntrada");
+    private static final Sort ORDEM_COM_ID = Sort.by(Sort.Direction.DESC, "dataEntrada", "idEstacionamento");
+
+    private final DataTableService service = new DataTableService();
+    private JpaSpecificationExecutor<String> executor;
+    private JpaSpecificationExecutor.SpecificationFluentQuery<String> consulta;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        executor = mock(JpaSpecificationExecutor.class);
+        consulta = mock(JpaSpecificationExecutor.SpecificationFluentQuery.class, RETURNS_SELF);
+        when(executor.findBy(any(Specification.class), any(Function.class)))
+                .thenAnswer(inv -> ((Function<JpaSpecificationExecutor.SpecificationFluentQuery<String>, Object>) inv.getArgument(1)).apply(consulta));
+    }
+
+    @Test
+    @DisplayName("Cursor deve preservar chaves, tipos e direções, e rejeitar token alterado")
+    void cursorDeveFazerIdaEVolta() {
+        Map<String, Object> chaves = new LinkedHashMap<>();
+        chaves.put("dataEntrada", LocalDateTime.of(2025, 3, 1, 10, 30, 15));
+        chaves.put("idEstacionamento", 42L);
+        Sort ordem = Sort.by(Sort.Order.desc("dataEntrada"), Sort.Order.asc("idEstacionamento"));
+        String cursor = CursorPaginacao.codificar(ScrollPosition.forward(chaves), ordem);
+
+        CursorPaginacao.Cursor decodificado = CursorPaginacao.decodificar(cursor);
+        assertThat(decodificado.posicao().getKeys()).isEqualTo(chaves);
+        assertThat(decodificado.ordem()).isEqualTo(ordem);
+        assertThat(CursorPaginacao.codificar(ScrollPosition.offset(10), ordem)).isNull();
+        assertThatThrownBy(() -> CursorPaginacao.decodificar("x" + cursor))
+                .isInstanceOf(InvalidInputException.class);
+    }
+
+    @Test
+    @DisplayName("Desempate deve seguir a direção da última coluna e não duplicar o ID")
+    void deveAcrescentarDesempate() {
+        assertThat(DataTableService.comDesempate(ORDEM, "idEstacionamento"))
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "dataEntrada", "idEstacionamento"));
+        Sort porId = Sort.by("idEstacionamento");
+        assertThat(DataTableService.comDesempate(porId, "idEstacionamento")).isSameAs(porId);
+    }
+
+    @Test
+    @DisplayName("Contagem estimada deve usar slice e nunca executar COUNT")
+    void contagemEstimadaNaoDeveContar() {
+        Pageable pagina = PageRequest.of(3, 10);
+        when(consulta.slice(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of("a", "b"), pagina, true));
+        DataTableRequest request = DataTableRequest.builder().draw(4).start(30).length(10).contagem("estimada").build();
+
+        DataTableResponse<String> resposta = service.paginar(request, executor, null, ORDEM, "idEstacionamento", s -> s);
+
+        assertThat(resposta.getData()).containsExactly("a", "b");
+        assertThat(resposta.getRecordsTotal()).isEqualTo(30 + 2 + 10);
+        assertThat(resposta.getTotalEstimado()).isTrue();
+        verify(consulta, never()).page(any(Pageable.class));
+        verify(executor, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @DisplayName("Janela por cursor deve emitir o próximo cursor e recusar cursor de outra ordenação")
+    void rolarDeveEmitirProximoCursor() {
+        LocalDateTime data = LocalDateTime.of(2025, 5, 2, 8, 0);
+        when(consulta.scroll(any(ScrollPosition.class))).thenReturn(Window.from(List.of("a", "b"),
+                i -> ScrollPosition.forward(Map.of("dataEntrada", data, "idEstacionamento", (long) i)), true));
+
+        JanelaResponse<String> janela = service.rolar(executor, null, ORDEM, "idEstacionamento", null, 2, s -> s);
+
+        assertThat(janela.getData()).containsExactly("a", "b");
+        assertThat(janela.getTemMais()).isTrue();
+        assertThat(CursorPaginacao.decodificar(janela.getProximoCursor()).posicao().getKeys())
+                .containsEntry("dataEntrada", data)
+                .containsEntry("idEstacionamento", 1L);
+
+        String outraOrdem = CursorPaginacao.codificar(ScrollPosition.forward(Map.of("nome", "Pátio")), Sort.by("nome"));
+        assertThatThrownBy(() -> service.rolar(executor, null, ORDEM, "idEstacionamento", outraOrdem, 2, s -> s))
+                .isInstanceOf(InvalidInputException.class);
+    }
+
+    @Test
+    @DisplayName("Janela deve recusar cursor emitido com as mesmas colunas em outra direção")
+    void rolarDeveRecusarCursorDeOutraDirecao() {
+        String crescente = cursorEm(Sort.by(Sort.Direction.ASC, "dataEntrada", "idEstacionamento"));
+
+        assertThatThrownBy(() -> service.rolar(executor, null, ORDEM, "idEstacionamento", crescente, 2, s -> s))
+                .isInstanceOf(InvalidInputException.class);
+        verify(consulta, never()).scroll(any(ScrollPosition.class));
+    }
+
+    @Test
+    @DisplayName("DataTable deve recomeçar da primeira página quando a direção da ordenação inverte")
+    void paginarDeveRecomecarAoInverterDirecao() {
+        when(consulta.scroll(any(ScrollPosition.class))).thenReturn(Window.from(List.of("a"), ScrollPosition::offset));
+        DataTableRequest request = DataTableRequest.builder().draw(2).start(0).length(10)
+                .cursor(cursorEm(Sort.by(Sort.Direction.ASC, "dataEntrada", "idEstacionamento"))).build();
+
+        service.paginar(request, executor, null, ORDEM, "idEstacionamento", s -> s);
+
+        ArgumentCaptor<ScrollPosition> posicao = ArgumentCaptor.forClass(ScrollPosition.class);
+        verify(consulta).scroll(posicao.capture());
+        assertThat(posicao.getValue().isInitial()).isTrue();
+    }
+
+    @Test
+    @DisplayName("DataTable deve continuar do cursor quando a ordenação é a mesma")
+    void paginarDeveContinuarDoCursor() {
+        when(consulta.scroll(any(ScrollPosition.class))).thenReturn(Window.from(List.of("a"), ScrollPosition::offset));
+        DataTableRequest request = DataTableRequest.builder().draw(2).start(10).length(10)
+                .cursor(cursorEm(ORDEM_COM_ID)).build();
+
+        service.paginar(request, executor, null, ORDEM, "idEstacionamento", s -> s);
+
+        ArgumentCaptor<ScrollPosition> posicao = ArgumentCaptor.forClass(ScrollPosition.class);
+        verify(consulta).scroll(posicao.capture());
+        assertThat(((KeysetScrollPosition) posicao.getValue()).getKeys()).containsEntry("idEstacionamento", 7L);
+    }
+
+    private static String cursorEm(Sort ordem) {
+        return CursorPaginacao.codificar(ScrollPosition.forward(
+                Map.of("dataEntrada", LocalDateTime.of(2025, 5, 2, 8, 0), "idEstacionamento", 7L)), ordem);
+    }
+}
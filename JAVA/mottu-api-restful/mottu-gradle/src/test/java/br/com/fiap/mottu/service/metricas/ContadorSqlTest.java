@@ -0,0 +1,70 @@
+package br.com.fiap.mottu.service.metricas;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários da contagem de statements SQL por método de repositório.
+ */
+@DisplayName("Testes Unitários - ContadorSql")
+class ContadorSqlTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ContadorSql contadorSql = new ContadorSql(registry);
+
+    interface ConsultaFake {
+        void executar(String... sqls);
+    }
+
+    private ConsultaFake repositorio(String nome, ConsultaFake alvo) {
+        ProxyFactory proxy = new ProxyFactory(alvo);
+        proxy.addInterface(ConsultaFake.class);
+        proxy.addAdvice(ContadorSql.interceptador(nome));
+        return (ConsultaFake) proxy.getProxy();
+    }
+
+    private double statements(String repositorio, String tipo) {
+        var contador = registry.find(ContadorSql.METRICA).tag("repository", repositorio).tag("type", tipo).counter();
+        return contador != null ? contador.count() : 0;
+    }
+
+    @Test
+    @DisplayName("Statements são atribuídos ao repositório e ao tipo de comando")
+    void deveContarPorRepositorioETipo() {
+        ConsultaFake boxes = repositorio("BoxRepository", sqls -> {
+            for (String sql : sqls) {
+                contadorSql.contar(sql);
+            }
+        });
+
+        boxes.executar("select b.id from box b", "  SELECT count(*) from box", "with x as (select 1) select * from x");
+        boxes.executar("update box set status=? where id=?");
+        contadorSql.contar("insert into log_movimentacao values (?)"); // flush fora do repositório
+
+        assertThat(statements("BoxRepository", "select")).isEqualTo(3);
+        assertThat(statements("BoxRepository", "update")).isEqualTo(1);
+        assertThat(statements("none", "insert")).isEqualTo(1);
+        assertThat(registry.find(ContadorSql.METRICA).tag("method", "executar").counters()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Chamadas aninhadas restauram o repositório anterior ao sair")
+    void deveRestaurarOrigemEmChamadasAninhadas() {
+        ConsultaFake patios = repositorio("PatioRepository", sqls -> contadorSql.contar(sqls[0]));
+        ConsultaFake boxes = repositorio("BoxRepository", sqls -> {
+            patios.executar("select * from patio");
+            contadorSql.contar("delete from box where id=?");
+        });
+
+        boxes.executar();
+        contadorSql.contar("call proc()");
+
+        assertThat(statements("PatioRepository", "select")).isEqualTo(1);
+        assertThat(statements("BoxRepository", "delete")).isEqualTo(1);
+        assertThat(statements("none", "other")).isEqualTo(1);
+    }
+}
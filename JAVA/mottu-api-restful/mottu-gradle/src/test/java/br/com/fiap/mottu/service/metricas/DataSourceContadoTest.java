@@ -0,0 +1,59 @@
+package br.com.fiap.mottu.service.metricas;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários da contagem de SQL no nível do DataSource (JDBC direto, sem Hibernate).
+ */
+@DisplayName("Testes Unitários - DataSourceContado")
+class DataSourceContadoTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private double statements(String tipo) {
+        var contador = registry.find(ContadorSql.METRICA).tag("repository", "none").tag("type", tipo).counter();
+        return contador != null ? contador.count() : 0;
+    }
+
+    private JdbcTemplate jdbc(ContadorSql contadorSql) {
+        DriverManagerDataSource h2 = new DriverManagerDataSource(
+                "jdbc:h2:mem:contado-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        return new JdbcTemplate(new DataSourceContado(h2, () -> contadorSql));
+    }
+
+    @Test
+    @DisplayName("JdbcTemplate tem statements preparados, simples e em lote contados")
+    void deveContarJdbcDireto() {
+        JdbcTemplate jdbc = jdbc(new ContadorSql(registry));
+
+        jdbc.execute("create table box (id int primary key, status varchar(1))");
+        jdbc.batchUpdate("insert into box values (?, ?)", List.of(new Object[]{1, "L"}, new Object[]{2, "L"}));
+        jdbc.update("update box set status = ? where id = ?", "O", 1);
+        jdbc.queryForObject("select count(*) from box", Integer.class);
+        jdbc.queryForObject("select count(*) from box where status = ?", Integer.class, "L");
+
+        assertThat(statements("other")).isEqualTo(1);
+        assertThat(statements("insert")).isEqualTo(1);
+        assertThat(statements("update")).isEqualTo(1);
+        assertThat(statements("select")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Sem contador disponível o SQL executa normalmente, só não é contado")
+    void deveExecutarSemContador() {
+        JdbcTemplate jdbc = jdbc(null);
+
+        jdbc.execute("create table zona (id int)");
+
+        assertThat(jdbc.queryForObject("select count(*) from zona", Integer.class)).isZero();
+        assertThat(registry.find(ContadorSql.METRICA).counters()).isEmpty();
+    }
+}
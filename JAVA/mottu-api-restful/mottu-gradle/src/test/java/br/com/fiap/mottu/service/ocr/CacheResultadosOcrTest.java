@@ -0,0 +1,186 @@
+package br.com.fiap.mottu.service.ocr;
+
+import nu.pattern.OpenCV;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Testes unitários do cache de resultados do OCR por imagem (acerto, coalescência, chave
+ * perceptual e descarte dos resultados que não são definitivos).
+ */
+@DisplayName("Testes Unitários - CacheResultadosOcr")
+class CacheResultadosOcrTest {
+
+    private final CacheResultadosOcr cache = new CacheResultadosOcr(100, 30, false);
+    private final AtomicInteger reconhecimentos = new AtomicInteger();
+
+    private CompletableFuture<CacheResultadosOcr.Resultado> reconhecer(CacheResultadosOcr.Resultado resultado) {
+        reconhecimentos.incrementAndGet();
+        return CompletableFuture.completedFuture(resultado);
+    }
+
+    @Test
+    @DisplayName("Mesma imagem reaproveita o resultado sem reconhecer de novo")
+    void deveReaproveitarResultadoDaMesmaImagem() {
+        String chave = cache.chave(new byte[]{1, 2, 3});
+        CacheResultadosOcr.Resultado lido = CacheResultadosOcr.Resultado.sucesso("ABC1D23", "ABC1D23", 400);
+
+        cache.obter(chave, () -> reconhecer(lido)).join();
+        CacheResultadosOcr.Resultado reaproveitado = cache.obter(cache.chave(new byte[]{1, 2, 3}),
+                () -> reconhecer(CacheResultadosOcr.Resultado.erro("não deveria rodar", 0))).join();
+
+        assertThat(reaproveitado.placa()).isEqualTo("ABC1D23");
+        assertThat(reconhecimentos).hasValue(1);
+        assertThat(cache.estatisticas()).containsEntry("acertos", 1L).containsEntry("faltas", 1L)
+                .containsEntry("tempoPoupadoMs", 400L);
+        assertThat(cache.chave(new byte[]{1, 2, 4})).isNotEqualTo(chave);
+    }
+
+    @Test
+    @DisplayName("Uploads simultâneos da mesma imagem aguardam um único reconhecimento")
+    void deveCoalescerReconhecimentoEmCurso() {
+        String chave = cache.chave(new byte[]{9});
+        CompletableFuture<CacheResultadosOcr.Resultado> emCurso = new CompletableFuture<>();
+
+        CompletableFuture<CacheResultadosOcr.Resultado> primeiro = cache.obter(chave, () -> {
+            reconhecimentos.incrementAndGet();
+            return emCurso;
+        });
+        CompletableFuture<CacheResultadosOcr.Resultado> segundo = cache.obter(chave, () -> {
+            reconhecimentos.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        assertThat(segundo).isNotDone();
+
+        emCurso.complete(CacheResultadosOcr.Resultado.sucesso("BRA2E19", "BRA2E19", 300));
+
+        assertThat(primeiro.join().placa()).isEqualTo("BRA2E19");
+        assertThat(segundo.join().placa()).isEqualTo("BRA2E19");
+        assertThat(reconhecimentos).hasValue(1);
+        assertThat(cache.estatisticas()).containsEntry("coalescidos", 1L).containsEntry("faltas", 1L);
+    }
+
+    @Test
+    @DisplayName("Imagem sem placa é definitiva e fica no cache")
+    void deveGuardarImagemSemPlaca() {
+        String chave = cache.chave(new byte[]{7});
+
+        cache.obter(chave, () -> reconhecer(CacheResultadosOcr.Resultado.semPlaca("Nenhuma placa encontrada (br).", 200))).join();
+        cache.obter(chave, () -> reconhecer(CacheResultadosOcr.Resultado.sucesso("ABC1D23", "ABC1D23", 1))).join();
+
+        assertThat(reconhecimentos).hasValue(1);
+        assertThat(cache.estatisticas()).containsEntry("entradas", 1L);
+    }
+
+    @Test
+    @DisplayName("Ocupado, tempo esgotado e falhas saem do cache e o reenvio reconhece de novo")
+    void deveDescartarResultadosNaoDefinitivos() {
+        String chave = cache.chave(new byte[]{5});
+
+        CacheResultadosOcr.Resultado[] transitorios = {
+                CacheResultadosOcr.Resultado.ocupado("Reconhecimento de placas ocupado.", 0),
+                CacheResultadosOcr.Resultado.erro("Tempo esgotado no reconhecimento da placa.", 5_000),
+                CacheResultadosOcr.Resultado.erro("Reconhecimento cancelado.", 10)
+        };
+        for (CacheResultadosOcr.Resultado transitorio : transitorios) {
+            assertThat(cache.obter(chave, () -> reconhecer(transitorio)).join()).isSameAs(transitorio);
+            assertThat(cache.estatisticas()).containsEntry("entradas", 0L);
+        }
+        CacheResultadosOcr.Resultado lido = cache.obter(chave,
+                () -> reconhecer(CacheResultadosOcr.Resultado.sucesso("ABC1D23", "ABC1D23", 400))).join();
+
+        assertThat(lido.placa()).isEqualTo("ABC1D23");
+        assertThat(reconhecimentos).hasValue(4);
+        assertThat(cache.estatisticas()).containsEntry("entradas", 1L).containsEntry("faltas", 4L);
+    }
+
+    @Test
+    @DisplayName("Falha excepcional do reconhecimento não fica no cache")
+    void deveDescartarFalhaExcepcional() {
+        String chave = cache.chave(new byte[]{6});
+
+        CompletableFuture<CacheResultadosOcr.Resultado> falha = cache.obter(chave,
+                () -> CompletableFuture.failedFuture(new IllegalStateException("worker morreu")));
+        assertThat(falha).isCompletedExceptionally();
+
+        cache.obter(chave, () -> reconhecer(CacheResultadosOcr.Resultado.sucesso("ABC1D23", "ABC1D23", 1))).join();
+        assertThat(reconhecimentos).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Com hash perceptual, o mesmo quadro recomprimido colide e uma imagem diferente não")
+    void deveColidirQuadrosQuaseIdenticosNoHashPerceptual() throws IOException {
+        try {
+            OpenCV.loadLocally();
+        } catch (Throwable ignored) {
+            // sem nativos na plataforma: o teste é ignorado abaixo
+        }
+        assumeTrue(ImagemOcr.opencvDisponivel(), "OpenCV indisponível nesta plataforma");
+        CacheResultadosOcr perceptual = new CacheResultadosOcr(100, 30, true);
+        BufferedImage placa = placa("ABC1D23");
+
+        byte[] alta = jpeg(placa, 0.95f);
+        byte[] baixa = jpeg(placa, 0.6f);
+        assertThat(alta).isNotEqualTo(baixa);
+
+        String chave = perceptual.chave(alta);
+        assertThat(chave).startsWith("ph:");
+        assertThat(perceptual.chave(baixa)).isEqualTo(chave);
+        assertThat(perceptual.chave(jpeg(placa("XYZ9W87"), 0.95f))).isNotEqualTo(chave);
+
+        perceptual.obter(chave, () -> reconhecer(CacheResultadosOcr.Resultado.sucesso("ABC1D23", "ABC1D23", 400))).join();
+        CacheResultadosOcr.Resultado recomprimida = perceptual.obter(perceptual.chave(baixa),
+                () -> reconhecer(CacheResultadosOcr.Resultado.erro("não deveria rodar", 0))).join();
+        assertThat(recomprimida.placa()).isEqualTo("ABC1D23");
+        assertThat(reconhecimentos).hasValue(1);
+
+        // Bytes que não decodificam como imagem caem no SHA-256
+        assertThat(perceptual.chave(new byte[]{1, 2, 3})).startsWith("sha:");
+    }
+
+    private static BufferedImage placa(String texto) {
+        BufferedImage imagem = new BufferedImage(320, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = imagem.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 320, 100);
+        g.setColor(new Color(0, 51, 153));
+        g.fillRect(0, 0, 320, 22);
+        g.setColor(Color.BLACK);
+        g.setFont(new Font(Font.MONOSPACED, Font.BOLD, 56));
+        g.drawString(texto, 18, 84);
+        g.dispose();
+        return imagem;
+    }
+
+    private static byte[] jpeg(BufferedImage imagem, float qualidade) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream stream = new MemoryCacheImageOutputStream(saida)) {
+            writer.setOutput(stream);
+            ImageWriteParam parametros = writer.getDefaultWriteParam();
+            parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parametros.setCompressionQuality(qualidade);
+            writer.write(null, new IIOImage(imagem, null, null), parametros);
+        } finally {
+            writer.dispose();
+        }
+        return saida.toByteArray();
+    }
+}
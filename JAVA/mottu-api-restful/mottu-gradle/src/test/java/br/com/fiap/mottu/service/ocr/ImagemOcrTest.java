@@ -0,0 +1,101 @@
+package br.com.fiap.mottu.service.ocr;
+
+import nu.pattern.OpenCV;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Testes unitários das conversões em memória do OCR (requer os nativos do OpenCV).
+ */
+@DisplayName("Testes Unitários - ImagemOcr")
+class ImagemOcrTest {
+
+    @BeforeAll
+    static void carregarOpenCv() {
+        try {
+            OpenCV.loadLocally();
+        } catch (Throwable ignored) {
+            // sem nativos na plataforma: os testes são ignorados abaixo
+        }
+        assumeTrue(ImagemOcr.opencvDisponivel(), "OpenCV indisponível nesta plataforma");
+    }
+
+    @Test
+    @DisplayName("PNG é decodificado direto para Mat BGR preservando os pixels")
+    void deveDecodificarPngEmMemoria() throws IOException {
+        BufferedImage imagem = new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = imagem.createGraphics();
+        g.setColor(new Color(10, 20, 30));
+        g.fillRect(0, 0, 40, 20);
+        g.dispose();
+
+        Mat mat = ImagemOcr.decodificar(png(imagem));
+        try {
+            assertThat(mat).isNotNull();
+            assertThat(mat.cols()).isEqualTo(40);
+            assertThat(mat.rows()).isEqualTo(20);
+            assertThat(mat.get(5, 5)).containsExactly(30.0, 20.0, 10.0);
+        } finally {
+            mat.release();
+        }
+    }
+
+    @Test
+    @DisplayName("Bytes que o OpenCV não reconhece retornam null")
+    void deveRetornarNullParaFormatoDesconhecido() {
+        assertThat(ImagemOcr.decodificar(new byte[]{1, 2, 3, 4})).isNull();
+    }
+
+    @Test
+    @DisplayName("Mat em tons de cinza vira BufferedImage por cópia do buffer")
+    void deveConverterMatCinzaParaBufferedImage() {
+        Mat cinza = new Mat(3, 5, CvType.CV_8UC1);
+        try {
+            for (int linha = 0; linha < 3; linha++) {
+                for (int coluna = 0; coluna < 5; coluna++) {
+                    cinza.put(linha, coluna, linha * 50 + coluna);
+                }
+            }
+            BufferedImage imagem = ImagemOcr.paraBufferedImage(cinza);
+
+            assertThat(imagem.getType()).isEqualTo(BufferedImage.TYPE_BYTE_GRAY);
+            assertThat(imagem.getRaster().getSample(4, 2, 0)).isEqualTo(104);
+        } finally {
+            cinza.release();
+        }
+    }
+
+    @Test
+    @DisplayName("BufferedImage RGB e Mat BGR fazem ida e volta sem perda")
+    void deveFazerIdaEVolta() {
+        BufferedImage imagem = new BufferedImage(7, 3, BufferedImage.TYPE_INT_RGB);
+        imagem.setRGB(6, 2, new Color(200, 100, 50).getRGB());
+
+        Mat mat = ImagemOcr.paraMat(imagem);
+        try {
+            BufferedImage volta = ImagemOcr.paraBufferedImage(mat);
+            assertThat(new Color(volta.getRGB(6, 2))).isEqualTo(new Color(200, 100, 50));
+        } finally {
+            mat.release();
+        }
+    }
+
+    private static byte[] png(BufferedImage imagem) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ImageIO.write(imagem, "png", saida);
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.fiap.mottu.service.ocr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários do índice de placas da frota (vizinhança por deleção), comparado com a varredura linear.
+ */
+@DisplayName("Testes Unitários - IndicePlacasFrota")
+class IndicePlacasFrotaTest {
+
+    private final IndicePlacasFrota indice = new IndicePlacasFrota(null);
+
+    @Test
+    @DisplayName("Busca devolve as placas no raio, da mais próxima para a mais distante")
+    void deveBuscarPlacasNoRaio() {
+        indice.reconstruir(List.of("ABC1D23", "ABC1D24", "ABC1E25", "XYZ9K87"));
+
+        assertThat(indice.buscar("abc-1d23", 2)).containsExactly(
+                new IndicePlacasFrota.PlacaProxima("ABC1D23", 0),
+                new IndicePlacasFrota.PlacaProxima("ABC1D24", 1),
+                new IndicePlacasFrota.PlacaProxima("ABC1E25", 2));
+        assertThat(indice.maisProxima("ABC1D28", 1)).isEmpty(); // empate entre ABC1D23 e ABC1D24
+        assertThat(indice.maisProxima("XYZ9K8", 1)).contains("XYZ9K87");
+    }
+
+    @Test
+    @DisplayName("Inclusões, alterações e exclusões de veículos atualizam o índice")
+    void deveAcompanharAlteracoesDaFrota() {
+        indice.reconstruir(List.of("ABC1D23"));
+
+        indice.aoAlterarPlaca(new PlacaFrotaAlterada(null, "QWE4R56"));
+        indice.aoAlterarPlaca(new PlacaFrotaAlterada("ABC1D23", "ABC1D99"));
+        assertThat(indice.maisProxima("ABC1D23", 0)).isEmpty();
+        assertThat(indice.maisProxima("ABC1D98", 1)).contains("ABC1D99");
+
+        indice.aoAlterarPlaca(new PlacaFrotaAlterada("QWE4R56", null));
+        assertThat(indice.buscar("QWE4R56", 0)).isEmpty();
+        indice.aoAlterarPlaca(new PlacaFrotaAlterada(null, "QWE4R56"));
+        assertThat(indice.buscar("QWE4R56", 0)).hasSize(1);
+        assertThat(indice.tamanho()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Resultados idênticos à varredura linear, também após muitas exclusões")
+    void deveCoincidirComVarreduraLinear() {
+        Random aleatorio = new Random(42);
+        List<String> frota = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            frota.add(placaAleatoria(aleatorio));
+        }
+        indice.reconstruir(frota);
+        for (String removida : frota.subList(0, 3_000)) {
+            indice.remover(removida);
+        }
+        List<String> ativas = frota.subList(3_000, frota.size());
+
+        for (int i = 0; i < 600; i++) {
+            String leitura = switch (i % 3) {
+                case 0 -> placaAleatoria(aleatorio);
+                case 1 -> trocarUmCaractere(ativas.get(i), aleatorio);
+                default -> removerOuIncluirUmCaractere(ativas.get(i), aleatorio);
+            };
+            int raio = i % 10 == 0 ? 2 : 1; // raio 2 usa a varredura linear
+            List<String> esperadas = ativas.stream()
+                    .filter(p -> PlateUtils.levenshtein(p, leitura) <= raio)
+                    .distinct()
+                    .sorted()
+                    .toList();
+            List<String> obtidas = indice.buscar(leitura, raio).stream()
+                    .map(IndicePlacasFrota.PlacaProxima::placa)
+                    .sorted()
+                    .toList();
+            assertThat(obtidas).as("leitura %s, raio %d", leitura, raio).isEqualTo(esperadas);
+        }
+    }
+
+    private static String removerOuIncluirUmCaractere(String placa, Random aleatorio) {
+        int posicao = aleatorio.nextInt(placa.length());
+        return aleatorio.nextBoolean()
+                ? placa.substring(0, posicao) + placa.substring(posicao + 1)
+                : placa.substring(0, posicao) + letra(aleatorio) + placa.substring(posicao);
+    }
+
+    private static String placaAleatoria(Random aleatorio) {
+        return "" + letra(aleatorio) + letra(aleatorio) + letra(aleatorio) + aleatorio.nextInt(10)
+                + letra(aleatorio) + aleatorio.nextInt(10) + aleatorio.nextInt(10);
+    }
+
+    private static String trocarUmCaractere(String placa, Random aleatorio) {
+        char[] c = placa.toCharArray();
+        c[aleatorio.nextInt(c.length)] = letra(aleatorio);
+        return new String(c);
+    }
+
+    private static char letra(Random aleatorio) {
+        return (char) ('A' + aleatorio.nextInt(26));
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.fiap.mottu.service.ocr;
+
+import br.com.fiap.mottu.exception.OcrOcupadoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes unitários do pool de OCR: concorrência fixa, fila limitada e métricas.
+ */
+@DisplayName("Testes Unitários - OcrExecutor")
+class OcrExecutorTest {
+
+    private final OcrExecutor executor = new OcrExecutor(1, 1);
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        executor.encerrar();
+    }
+
+    @Test
+    @DisplayName("Com worker ocupado e fila cheia a submissão é rejeitada na hora")
+    void deveRejeitarQuandoFilaCheia() throws Exception {
+        CountDownLatch iniciou = new CountDownLatch(1);
+        executor.submeter("s1", () -> {
+            iniciou.countDown();
+            aguardar(liberar);
+        });
+        assertThat(iniciou.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.submeter("s2", () -> { });
+
+        assertThatThrownBy(() -> executor.submeter("s3", () -> { }))
+                .isInstanceOf(OcrOcupadoException.class);
+
+        Map<String, Object> stats = executor.estatisticas();
+        assertThat(stats).containsEntry("emExecucao", 1).containsEntry("fila", 1).containsEntry("rejeitadas", 1L);
+    }
+
+    @Test
+    @DisplayName("Após liberar o worker a fila esvazia e novas imagens são aceitas")
+    void deveAceitarAposEsvaziarFila() throws Exception {
+        CountDownLatch concluiu = new CountDownLatch(2);
+        executor.submeter("s1", () -> {
+            aguardar(liberar);
+            concluiu.countDown();
+        });
+        executor.submeter("s2", concluiu::countDown);
+        liberar.countDown();
+
+        assertThat(concluiu.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.submeter("s3", () -> { });
+        assertThat(executor.getTamanhoFila()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Latência é agregada por motor")
+    @SuppressWarnings("unchecked")
+    void deveAgregarLatenciaPorMotor() {
+        executor.registrarLatencia("openalpr", 100, true);
+        executor.registrarLatencia("openalpr", 300, false);
+        executor.registrarLatencia("tesseract", 50, true);
+
+        Map<String, Object> motores = (Map<String, Object>) executor.estatisticas().get("latenciaPorMotor");
+        assertThat((Map<String, Object>) motores.get("openalpr"))
+                .containsEntry("execucoes", 2L)
+                .containsEntry("falhas", 1L)
+                .containsEntry("mediaMs", 200L)
+                .containsEntry("maximaMs", 300L);
+        assertThat(motores).containsKey("tesseract");
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.fiap.mottu.service.ocr;
+
+import com.github.benmanes.caffeine.cache.Scheduler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários do armazenamento de sessões de OCR (validade, limite e notificação do resultado).
+ */
+@DisplayName("Testes Unitários - OcrSessionManager")
+class OcrSessionManagerTest {
+
+    private final AtomicLong relogio = new AtomicLong();
+
+    private OcrSessionManager novoManager(long maximo) {
+        return new OcrSessionManager(Duration.ofMinutes(10), Duration.ofMinutes(2), maximo,
+                relogio::get, Scheduler.disabledScheduler(), Runnable::run);
+    }
+
+    private void avancar(Duration tempo) {
+        relogio.addAndGet(tempo.toNanos());
+    }
+
+    @Test
+    @DisplayName("Quem aguarda é notificado no momento em que a placa é reconhecida")
+    void deveNotificarAoConcluir() {
+        OcrSessionManager manager = novoManager(100);
+        String id = manager.createSession().getId();
+        manager.setSessionProcessing(id);
+
+        CompletableFuture<OcrSession> resultado = manager.aguardarConclusao(id).orElseThrow();
+        assertThat(resultado).isNotDone();
+        assertThat(manager.estatisticas()).containsEntry("aguardando", 1);
+
+        manager.updateSessionSuccess(id, "ABC1D23");
+
+        assertThat(resultado).isCompleted();
+        assertThat(resultado.join().getRecognizedPlate()).isEqualTo("ABC1D23");
+        assertThat(manager.estatisticas()).containsEntry("aguardando", 0);
+    }
+
+    @Test
+    @DisplayName("Sessão já concluída ou inexistente responde na hora")
+    void deveResponderNaHoraQuandoConcluidaOuInexistente() {
+        OcrSessionManager manager = novoManager(100);
+        String id = manager.createSession().getId();
+        manager.updateSessionError(id, "Placa não encontrada.");
+
+        assertThat(manager.aguardarConclusao(id).orElseThrow().join().getStatus()).isEqualTo(OcrSession.Status.ERROR);
+        assertThat(manager.aguardarConclusao("inexistente")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Sessão BUSY responde na hora e continua válida para um novo envio")
+    void deveResponderNaHoraQuandoOcupada() {
+        OcrSessionManager manager = novoManager(100);
+        String id = manager.createSession().getId();
+        manager.setSessionProcessing(id);
+        manager.updateSessionBusy(id, "Fila de OCR cheia.");
+
+        CompletableFuture<OcrSession> resultado = manager.aguardarConclusao(id).orElseThrow();
+
+        assertThat(resultado).isCompleted();
+        assertThat(resultado.join().getStatus()).isEqualTo(OcrSession.Status.BUSY);
+        assertThat(manager.estatisticas()).containsEntry("aguardando", 0);
+        avancar(Duration.ofMinutes(3));
+        assertThat(manager.getSession(id)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Sessões expiram pela validade, mais cedo depois de concluídas")
+    void deveExpirarSessoes() {
+        OcrSessionManager manager = novoManager(100);
+        String pendente = manager.createSession().getId();
+        String concluida = manager.createSession().getId();
+        manager.updateSessionSuccess(concluida, "ABC1D23");
+
+        avancar(Duration.ofMinutes(3));
+        assertThat(manager.getSession(concluida)).isEmpty();
+        assertThat(manager.getSession(pendente)).isPresent();
+
+        avancar(Duration.ofMinutes(8));
+        assertThat(manager.getSession(pendente)).isEmpty();
+        assertThat(manager.estatisticas()).containsEntry("expiradas", 2L).containsEntry("criadas", 2L);
+    }
+
+    @Test
+    @DisplayName("Acima do limite as sessões excedentes são descartadas e contabilizadas")
+    void deveRespeitarLimiteDeSessoes() {
+        OcrSessionManager manager = novoManager(10);
+
+        for (int i = 0; i < 50; i++) {
+            manager.createSession();
+        }
+        manager.getSession("limpeza");
+
+        assertThat((Long) manager.estatisticas().get("ativas")).isLessThanOrEqualTo(10L);
+        assertThat((Long) manager.estatisticas().get("descartadasPorLimite")).isGreaterThanOrEqualTo(40L);
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.fiap.mottu.service.ocr;
+
+import br.com.fiap.mottu.exception.OcrOcupadoException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes unitários do pool de motores de OCR (com motores falsos, sem nativos).
+ */
+@DisplayName("Testes Unitários - PoolMotoresOcr")
+class PoolMotoresOcrTest {
+
+    private final AtomicInteger criados = new AtomicInteger();
+    private final List<Integer> descartados = new ArrayList<>();
+
+    private PoolMotoresOcr<Integer> novoPool(int tamanho) {
+        return new PoolMotoresOcr<>("teste", tamanho, criados::incrementAndGet, descartados::add);
+    }
+
+    @Test
+    @DisplayName("Todos os motores são criados na subida e reaproveitados entre usos")
+    void deveCriarMotoresUmaUnicaVez() {
+        PoolMotoresOcr<Integer> pool = novoPool(2);
+
+        for (int i = 0; i < 10; i++) {
+            pool.usar(100, motor -> motor);
+        }
+
+        assertThat(criados.get()).isEqualTo(2);
+        assertThat(pool.estatisticas()).containsEntry("emprestimos", 10L).containsEntry("emUso", 0);
+    }
+
+    @Test
+    @DisplayName("Um motor nunca é usado por duas threads ao mesmo tempo")
+    void deveConfinarMotorAUmaThread() throws Exception {
+        PoolMotoresOcr<Integer> pool = novoPool(3);
+        Set<Integer> emUso = ConcurrentHashMap.newKeySet();
+        AtomicInteger conflitos = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                tarefas.add(threads.submit(() -> pool.usar(5_000, motor -> {
+                    if (!emUso.add(motor)) {
+                        conflitos.incrementAndGet();
+                    }
+                    Thread.onSpinWait();
+                    emUso.remove(motor);
+                    return null;
+                })));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertThat(conflitos.get()).isZero();
+        assertThat(criados.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Sem motor livre dentro da espera máxima o pool responde ocupado")
+    void deveFalharQuandoEsperaEsgota() throws Exception {
+        PoolMotoresOcr<Integer> pool = novoPool(1);
+        CountDownLatch emprestado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Thread dono = new Thread(() -> {
+            try {
+                pool.usar(100, motor -> {
+                    emprestado.countDown();
+                    return liberar.await(5, TimeUnit.SECONDS);
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dono.start();
+        assertThat(emprestado.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> pool.usar(20, motor -> motor)).isInstanceOf(OcrOcupadoException.class);
+        assertThat(pool.estatisticas()).containsEntry("timeouts", 1L).containsEntry("utilizacao", "100%");
+
+        liberar.countDown();
+        dono.join(5_000);
+        assertThat(pool.getEmUso()).isZero();
+    }
+
+    @Test
+    @DisplayName("Encerrar descarta todos os motores")
+    void deveDescartarMotoresAoEncerrar() {
+        PoolMotoresOcr<Integer> pool = novoPool(2);
+
+        pool.close();
+
+        assertThat(descartados).containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    @DisplayName("Falha da fábrica no meio da subida descarta os motores já criados")
+    void deveDescartarMotoresCriadosQuandoFabricaFalha() {
+        assertThatThrownBy(() -> new PoolMotoresOcr<Integer>("teste", 4, () -> {
+            int motor = criados.incrementAndGet();
+            if (motor == 3) {
+                throw new IllegalStateException("modelo não encontrado");
+            }
+            return motor;
+        }, descartados::add))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("modelo não encontrado");
+
+        assertThat(descartados).containsExactlyInAnyOrder(1, 2);
+    }
+}
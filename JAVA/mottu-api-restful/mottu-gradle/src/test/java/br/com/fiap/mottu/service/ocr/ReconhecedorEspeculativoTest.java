@@ -0,0 +1,210 @@
+package br.com.fiap.mottu.service.ocr;
+
+import br.com.fiap.mottu.exception.OcrOcupadoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários do reconhecimento especulativo e do cache por imagem com motores falsos (sem alpr/Tesseract).
+ */
+@DisplayName("Testes Unitários - ReconhecedorEspeculativo")
+class ReconhecedorEspeculativoTest {
+
+    private final OcrSessionManager sessionManager = new OcrSessionManager(10, 120, 1000);
+    private final OcrExecutor ocrExecutor = new OcrExecutor(1, 1);
+    private final IndicePlacasFrota indiceFrota = new IndicePlacasFrota(null);
+    private final CacheResultadosOcr cacheResultados = new CacheResultadosOcr(100, 30, false);
+    private final CountDownLatch perdedorIniciou = new CountDownLatch(1);
+    private final CountDownLatch perdedorInterrompido = new CountDownLatch(1);
+    private ReconhecedorEspeculativo reconhecedor;
+
+    @AfterEach
+    void tearDown() {
+        if (reconhecedor != null) {
+            reconhecedor.encerrar();
+        }
+        ocrExecutor.encerrar();
+    }
+
+    private ReconhecedorEspeculativo novoReconhecedor(Map<String, MotorPlaca> motores) {
+        reconhecedor = new ReconhecedorEspeculativo(sessionManager, ocrExecutor, motores, 60, 5_000, indiceFrota, 1, cacheResultados);
+        return reconhecedor;
+    }
+
+    /** Reconhece pela porta pública (cache + fila do OCR) e aguarda a sessão terminar. */
+    private OcrSession reconhecer(String id, byte[] imagem) throws Exception {
+        reconhecedor.extractPlate(id, imagem);
+        return sessionManager.aguardarConclusao(id).orElseThrow().get(10, TimeUnit.SECONDS);
+    }
+
+    /** Motor que só responde após ser interrompido (ou depois de muito tempo). */
+    private MotorPlaca motorLento(String placa) {
+        return (sessionId, imagem) -> {
+            perdedorIniciou.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                perdedorInterrompido.countDown();
+                throw e;
+            }
+            return LeituraPlaca.encontrada(placa, 99);
+        };
+    }
+
+    @Test
+    @DisplayName("O primeiro resultado válido vence e o motor lento é cancelado")
+    void deveAceitarOMaisRapidoECancelarPerdedores() throws Exception {
+        Map<String, MotorPlaca> motores = new LinkedHashMap<>();
+        motores.put("lento", motorLento("XYZ9K87"));
+        // Responde só depois que o lento começou: com a máquina ocupada, o lento poderia ser
+        // cancelado antes de iniciar e nunca seria interrompido
+        motores.put("rapido", (sessionId, imagem) -> {
+            perdedorIniciou.await(5, TimeUnit.SECONDS);
+            return LeituraPlaca.encontrada("ABC1D23", 90);
+        });
+        novoReconhecedor(motores);
+        String id = sessionManager.createSession().getId();
+
+        long inicio = System.currentTimeMillis();
+        OcrSession sessao = reconhecer(id, new byte[]{1});
+
+        assertThat(System.currentTimeMillis() - inicio).isLessThan(5_000);
+        assertThat(sessao.getRecognizedPlate()).isEqualTo("ABC1D23");
+        assertThat(perdedorInterrompido.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(estatisticasDoMotor("rapido")).containsEntry("vitorias", 1L).containsEntry("taxaVitoria", "100%");
+        assertThat(estatisticasDoMotor("lento")).containsEntry("canceladas", 1L).containsEntry("tentativas", 0L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> estatisticasDoMotor(String motor) {
+        Map<String, Object> porMotor = (Map<String, Object>) reconhecedor.estatisticas().get("motores");
+        return (Map<String, Object>) porMotor.get(motor);
+    }
+
+    @Test
+    @DisplayName("Resultado fora do padrão ou com baixa confiança não encerra a disputa")
+    void deveIgnorarResultadosInvalidos() throws Exception {
+        Map<String, MotorPlaca> motores = new LinkedHashMap<>();
+        motores.put("forma", (sessionId, imagem) -> LeituraPlaca.encontrada("AB12", 99));
+        motores.put("confianca", (sessionId, imagem) -> LeituraPlaca.encontrada("ABC1D23", 30));
+        motores.put("valido", (sessionId, imagem) -> {
+            Thread.sleep(100);
+            return LeituraPlaca.encontrada("BRA2E19", 85);
+        });
+        novoReconhecedor(motores);
+        String id = sessionManager.createSession().getId();
+
+        OcrSession sessao = reconhecer(id, new byte[]{1});
+        assertThat(sessao.getStatus()).isEqualTo(OcrSession.Status.COMPLETED);
+        assertThat(sessao.getRecognizedPlate()).isEqualTo("BRA2E19");
+    }
+
+    @Test
+    @DisplayName("A leitura vencedora é aproximada da placa cadastrada na frota")
+    void deveCorrigirPelaPlacaDaFrota() throws Exception {
+        indiceFrota.reconstruir(List.of("ABC1D23", "QWE4R56"));
+        novoReconhecedor(Map.of("alpr", (sessionId, imagem) -> LeituraPlaca.encontrada("ABC1D28", 90)));
+        String id = sessionManager.createSession().getId();
+
+        OcrSession sessao = reconhecer(id, new byte[]{1});
+        assertThat(sessao.getRecognizedPlate()).isEqualTo("ABC1D23");
+        assertThat(sessao.getPlacaLida()).isEqualTo("ABC1D28");
+    }
+
+    @Test
+    @DisplayName("Sem resultado aceito a sessão recebe a mensagem do motor preferido")
+    void deveFalharComMensagemDoPrimeiroMotor() throws Exception {
+        Map<String, MotorPlaca> motores = new LinkedHashMap<>();
+        motores.put("alpr", (sessionId, imagem) -> {
+            Thread.sleep(50);
+            return LeituraPlaca.falha("Nenhuma placa encontrada (br).");
+        });
+        motores.put("tesseract", (sessionId, imagem) -> {
+            throw new IllegalStateException("nativo indisponível");
+        });
+        novoReconhecedor(motores);
+        String id = sessionManager.createSession().getId();
+
+        OcrSession sessao = reconhecer(id, new byte[]{1});
+        assertThat(sessao.getStatus()).isEqualTo(OcrSession.Status.ERROR);
+        assertThat(sessao.getErrorMessage()).isEqualTo("Nenhuma placa encontrada (br).");
+        assertThat(cacheResultados.estatisticas()).containsEntry("entradas", 0L); // um motor falhou: não é definitivo
+    }
+
+    @Test
+    @DisplayName("Imagem sem placa em todos os motores é definitiva e vai para o cache")
+    void deveGuardarImagemSemPlacaNoCache() throws Exception {
+        Map<String, MotorPlaca> motores = new LinkedHashMap<>();
+        motores.put("alpr", (sessionId, imagem) -> LeituraPlaca.semPlaca("Nenhuma placa encontrada (br)."));
+        motores.put("tesseract", (sessionId, imagem) -> LeituraPlaca.semPlaca("Não foi possível reconhecer uma placa válida na imagem."));
+        novoReconhecedor(motores);
+
+        OcrSession sessao = reconhecer(sessionManager.createSession().getId(), new byte[]{4});
+
+        assertThat(sessao.getStatus()).isEqualTo(OcrSession.Status.ERROR);
+        assertThat(sessao.getErrorMessage()).isEqualTo("Nenhuma placa encontrada (br).");
+        assertThat(cacheResultados.estatisticas()).containsEntry("entradas", 1L);
+    }
+
+    @Test
+    @DisplayName("Com todos os motores ocupados a sessão fica BUSY")
+    void deveMarcarOcupadoQuandoTodosOsPoolsEstaoCheios() throws Exception {
+        Map<String, MotorPlaca> motores = new LinkedHashMap<>();
+        motores.put("a", (sessionId, imagem) -> { throw new OcrOcupadoException("ocupado"); });
+        motores.put("b", (sessionId, imagem) -> { throw new OcrOcupadoException("ocupado"); });
+        novoReconhecedor(motores);
+        String id = sessionManager.createSession().getId();
+
+        assertThat(reconhecer(id, new byte[]{1}).getStatus()).isEqualTo(OcrSession.Status.BUSY);
+        assertThat(cacheResultados.estatisticas()).containsEntry("entradas", 0L); // ocupado não vai para o cache
+    }
+
+    @Test
+    @DisplayName("Reenvio da mesma imagem conclui a sessão pelo cache, sem nova disputa")
+    void deveReaproveitarResultadoDaMesmaImagem() throws Exception {
+        novoReconhecedor(Map.of("alpr", (sessionId, imagem) -> LeituraPlaca.encontrada("ABC1D23", 90)));
+        String primeira = sessionManager.createSession().getId();
+        reconhecer(primeira, new byte[]{1, 2, 3});
+
+        String reenvio = sessionManager.createSession().getId();
+        reconhecedor.extractPlate(reenvio, new byte[]{1, 2, 3});
+
+        OcrSession sessao = sessionManager.getSession(reenvio).orElseThrow(); // concluída já no retorno
+        assertThat(sessao.getStatus()).isEqualTo(OcrSession.Status.COMPLETED);
+        assertThat(sessao.getRecognizedPlate()).isEqualTo("ABC1D23");
+        assertThat(reconhecedor.estatisticas()).containsEntry("disputas", 1L);
+        assertThat(cacheResultados.estatisticas()).containsEntry("acertos", 1L).containsEntry("faltas", 1L);
+    }
+
+    @Test
+    @DisplayName("Uploads simultâneos da mesma imagem aguardam um único reconhecimento")
+    void deveCoalescerUploadsSimultaneos() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        novoReconhecedor(Map.of("alpr", (sessionId, imagem) -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return LeituraPlaca.encontrada("BRA2E19", 90);
+        }));
+        String primeira = sessionManager.createSession().getId();
+        String duplicada = sessionManager.createSession().getId();
+
+        reconhecedor.extractPlate(primeira, new byte[]{9});
+        reconhecedor.extractPlate(duplicada, new byte[]{9});
+        liberar.countDown();
+
+        assertThat(sessionManager.aguardarConclusao(duplicada).orElseThrow().get(5, TimeUnit.SECONDS).getRecognizedPlate())
+                .isEqualTo("BRA2E19");
+        assertThat(sessionManager.aguardarConclusao(primeira).orElseThrow().get(5, TimeUnit.SECONDS).getRecognizedPlate())
+                .isEqualTo("BRA2E19");
+        assertThat(reconhecedor.estatisticas()).containsEntry("disputas", 1L);
+        assertThat(cacheResultados.estatisticas()).containsEntry("coalescidos", 1L);
+    }
+}
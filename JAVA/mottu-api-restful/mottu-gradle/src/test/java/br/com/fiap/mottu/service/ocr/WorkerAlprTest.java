@@ -0,0 +1,159 @@
+package br.com.fiap.mottu.service.ocr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Testes do worker alpr persistente usando um executável substituto (src/test/resources/ocr/alpr-stub.sh).
+ */
+@DisplayName("Testes - WorkerAlpr (processo persistente)")
+class WorkerAlprTest {
+
+    private static final ObjectMapper om = new ObjectMapper();
+    private static String stub;
+
+    private final AtomicReference<String> regiao = new AtomicReference<>("br");
+    private WorkerAlpr worker;
+
+    @BeforeAll
+    static void localizarStub() throws URISyntaxException {
+        assumeTrue(new File("/bin/bash").canExecute(), "bash indisponível nesta plataforma");
+        stub = Path.of(Objects.requireNonNull(WorkerAlprTest.class.getResource("/ocr/alpr-stub.sh")).toURI()).toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (worker != null) {
+            worker.encerrar();
+        }
+    }
+
+    private WorkerAlpr novoWorker(long timeoutMs) {
+        worker = new WorkerAlpr(1, List.of("/bin/bash", stub), regiao::get, 10, timeoutMs);
+        return worker;
+    }
+
+    @Test
+    @DisplayName("O mesmo processo atende várias imagens")
+    void deveReaproveitarProcesso() throws Exception {
+        novoWorker(5_000);
+
+        JsonNode primeira = om.readTree(worker.reconhecer(imagem("PLACA:ABC1D23")));
+        JsonNode segunda = om.readTree(worker.reconhecer(imagem("sem placa")));
+        JsonNode terceira = om.readTree(worker.reconhecer(imagem("PLACA:XYZ9K87")));
+
+        assertThat(primeira.at("/results/0/plate").asText()).isEqualTo("ABC1D23");
+        assertThat(segunda.get("results")).isEmpty();
+        assertThat(terceira.at("/results/0/plate").asText()).isEqualTo("XYZ9K87");
+        assertThat(terceira.get("pid").asLong()).isEqualTo(primeira.get("pid").asLong());
+        assertThat(worker.getInicializacoes()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Após um crash o worker reinicia na imagem seguinte")
+    void deveReiniciarAposCrash() throws Exception {
+        novoWorker(5_000);
+        long pidAntes = om.readTree(worker.reconhecer(imagem("PLACA:ABC1D23"))).get("pid").asLong();
+
+        assertThatThrownBy(() -> worker.reconhecer(imagem("CRASH")))
+                .isInstanceOf(WorkerAlpr.FalhaWorkerAlpr.class)
+                .hasMessageContaining("encerrou");
+
+        JsonNode depois = om.readTree(worker.reconhecer(imagem("PLACA:ABC1D23")));
+        assertThat(depois.get("pid").asLong()).isNotEqualTo(pidAntes);
+        assertThat(worker.getInicializacoes()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Processo que não responde no timeout é destruído e substituído")
+    void deveDestruirProcessoTravado() throws Exception {
+        novoWorker(300);
+
+        assertThatThrownBy(() -> worker.reconhecer(imagem("LENTO")))
+                .isInstanceOf(WorkerAlpr.FalhaWorkerAlpr.class)
+                .hasMessageContaining("Timeout");
+        assertThat(worker.isAtivo()).isFalse();
+
+        assertThat(om.readTree(worker.reconhecer(imagem("PLACA:ABC1D23"))).at("/results/0/plate").asText())
+                .isEqualTo("ABC1D23");
+    }
+
+    @Test
+    @DisplayName("Interrupção (motor perdedor) conclui a imagem em curso e mantém o processo carregado")
+    void interrupcaoDeveManterProcesso() throws Exception {
+        novoWorker(5_000);
+        long pid = om.readTree(worker.reconhecer(imagem("PLACA:ABC1D23"))).get("pid").asLong();
+        AtomicReference<String> resposta = new AtomicReference<>();
+        AtomicBoolean interrupcaoRestaurada = new AtomicBoolean();
+        Thread perdedor = new Thread(() -> {
+            try {
+                resposta.set(worker.reconhecer(imagem("DEMORA:XYZ9K87")));
+            } catch (Exception e) {
+                resposta.set(e.toString());
+            }
+            interrupcaoRestaurada.set(Thread.currentThread().isInterrupted());
+        });
+
+        perdedor.start();
+        Thread.sleep(300); // o stub leva 1 s para responder a esta imagem
+        perdedor.interrupt();
+        perdedor.join(5_000);
+
+        assertThat(om.readTree(resposta.get()).at("/results/0/plate").asText()).isEqualTo("XYZ9K87");
+        assertThat(interrupcaoRestaurada).isTrue();
+        JsonNode seguinte = om.readTree(worker.reconhecer(imagem("PLACA:QWE4R56")));
+        assertThat(seguinte.at("/results/0/plate").asText()).isEqualTo("QWE4R56");
+        assertThat(seguinte.get("pid").asLong()).isEqualTo(pid);
+        assertThat(worker.getInicializacoes()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Perfil ausente aparece na saída do worker e a troca de região reinicia o mesmo worker")
+    void deveTrocarRegiaoSemNovoWorker() throws Exception {
+        regiao.set("xx");
+        novoWorker(5_000);
+
+        assertThatThrownBy(() -> worker.reconhecer(imagem("PLACA:ABC1D23")))
+                .isInstanceOfSatisfying(WorkerAlpr.FalhaWorkerAlpr.class,
+                        falha -> assertThat(falha.getSaida()).contains("Missing config for the country"));
+
+        regiao.set("eu");
+        JsonNode resposta = om.readTree(worker.reconhecer(imagem("PLACA:ABC1D23")));
+        assertThat(resposta.get("regiao").asText()).isEqualTo("eu");
+        assertThat(worker.getRegiao()).isEqualTo("eu");
+    }
+
+    @Test
+    @DisplayName("Health check inicia o processo antes da primeira imagem")
+    void healthCheckDeveIniciarProcesso() throws Exception {
+        novoWorker(5_000);
+        assertThat(worker.isAtivo()).isFalse();
+
+        worker.garantirAtivo();
+
+        assertThat(worker.isAtivo()).isTrue();
+        worker.reconhecer(imagem("PLACA:ABC1D23"));
+        assertThat(worker.getInicializacoes()).isEqualTo(1);
+    }
+
+    private static byte[] imagem(String conteudo) {
+        return conteudo.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.fiap.mottu.service.relatorios;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes unitários da composição paralela de seções de relatório: concorrência, prazo e metadados.
+ */
+@DisplayName("Testes Unitários - SecoesRelatorio")
+class SecoesRelatorioTest {
+
+    private final SecoesRelatorio secoes = new SecoesRelatorio(TransactionOperations.withoutTransaction(), 2_000);
+
+    @Test
+    @DisplayName("Seções rodam ao mesmo tempo: cada uma só termina quando todas começaram")
+    void deveExecutarSecoesEmParalelo() {
+        CountDownLatch todasIniciadas = new CountDownLatch(3);
+        try (SecoesRelatorio.Execucao execucao = secoes.iniciar("teste")) {
+            var a = execucao.secao("a", () -> encontrar(todasIniciadas, 1), 0);
+            var b = execucao.secao("b", () -> encontrar(todasIniciadas, 2), 0);
+            var c = execucao.secao("c", () -> encontrar(todasIniciadas, 3), 0);
+
+            assertThat(List.of(a.obter(), b.obter(), c.obter())).containsExactly(1, 2, 3);
+            assertThat(execucao.isParcial()).isFalse();
+            assertThat(execucao.metadados()).containsEntry("parcial", false).containsEntry("prazoMs", 2_000L);
+        }
+    }
+
+    @Test
+    @DisplayName("Seção que passa do prazo é cancelada e o relatório sai parcial com o valor padrão")
+    void deveDevolverPadraoQuandoSecaoExpira() {
+        SecoesRelatorio curto = new SecoesRelatorio(TransactionOperations.withoutTransaction(), 200);
+        AtomicBoolean interrompida = new AtomicBoolean();
+        try (SecoesRelatorio.Execucao execucao = curto.iniciar("teste")) {
+            var rapida = execucao.secao("rapida", () -> "ok", "padrao");
+            var lenta = execucao.secao("lenta", () -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrompida.set(true);
+                }
+                return "tarde";
+            }, "padrao");
+
+            assertThat(rapida.obter()).isEqualTo("ok");
+            assertThat(lenta.obter()).isEqualTo("padrao");
+            assertThat(lenta.isConcluida()).isFalse();
+
+            Map<String, Object> metadados = execucao.metadados();
+            assertThat(metadados).containsEntry("parcial", true);
+            @SuppressWarnings("unchecked")
+            Map<String, Map<String, Object>> porSecao = (Map<String, Map<String, Object>>) metadados.get("secoes");
+            assertThat(porSecao.get("rapida")).containsEntry("status", "concluida");
+            assertThat(porSecao.get("lenta")).containsEntry("status", "expirada");
+            assertThat((Long) porSecao.get("lenta").get("duracaoMs")).isGreaterThanOrEqualTo(200L);
+        }
+        assertThat(esperar(interrompida)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Erro de uma seção propaga para o relatório (não vira resultado parcial)")
+    void devePropagarErroDaSecao() {
+        try (SecoesRelatorio.Execucao execucao = secoes.iniciar("teste")) {
+            var falha = execucao.secao("falha", () -> {
+                throw new IllegalArgumentException("consulta inválida");
+            }, null);
+
+            assertThatThrownBy(falha::obter).isInstanceOf(IllegalArgumentException.class).hasMessage("consulta inválida");
+            assertThatThrownBy(falha::obter).isInstanceOf(IllegalArgumentException.class);
+            assertThat(execucao.isParcial()).isFalse();
+        }
+    }
+
+    private static int encontrar(CountDownLatch todasIniciadas, int valor) {
+        todasIniciadas.countDown();
+        try {
+            if (!todasIniciadas.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("seções não rodaram em paralelo");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return valor;
+    }
+
+    private static boolean esperar(AtomicBoolean condicao) {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!condicao.get() && System.currentTimeMillis() < limite) {
+            Thread.onSpinWait();
+        }
+        return condicao.get();
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.fiap.mottu.service.relatorios.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes do motor de agregação: uma passada em cursor forward-only produz todos os contadores.
+ */
+@DisplayName("Testes Unitários - AgregadorMovimentacoes")
+class AgregadorMovimentacoesTest {
+
+    private static final int LINHAS = 50_000;
+    /** Segunda-feira, 06/01/2025 00:00. */
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 6, 0, 0);
+
+    @Test
+    @DisplayName("Agrega hora, dia, pátio, box, fabricante e permanência em uma passada")
+    void deveAgregarEmUmaPassada() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        Connection conexao = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(conexao.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        AtomicInteger linhasLidas = new AtomicInteger();
+
+        doAnswer(inv -> {
+            PreparedStatementCreator criador = inv.getArgument(0);
+            assertThat(criador.createPreparedStatement(conexao)).isSameAs(statement);
+            RowCallbackHandler handler = inv.getArgument(1);
+            ResultSet rs = cursor(linhasLidas);
+            for (int i = 0; i < LINHAS; i++) {
+                linhasLidas.set(i);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        AgregadoMovimentacoes agregado = new AgregadorMovimentacoes(jdbcTemplate).agregar();
+
+        verify(conexao).prepareStatement(AgregadorMovimentacoes.SQL_MOVIMENTACOES,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        verify(statement).setFetchSize(AgregadorMovimentacoes.FETCH_SIZE);
+        verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        assertThat(agregado.getTotal()).isEqualTo(LINHAS);
+        assertThat(agregado.getEntradas()).isEqualTo(LINHAS / 2);
+        assertThat(agregado.getSaidas()).isEqualTo(LINHAS / 2);
+        // Linha i ocorre i horas após a base: 50.000 h cobrem todas as horas e dias por igual (± 1 ciclo)
+        assertThat(agregado.getMovimentacoesNaHora(0)).isBetween(2083L, 2084L);
+        assertThat(agregado.getMovimentacoesNoDia(DayOfWeek.MONDAY)).isBetween(7142L, 7152L);
+        assertThat(agregado.horariosPico()).hasSize(24);
+        assertThat(agregado.diasSemana()).hasSize(7).containsKey("SUNDAY");
+        assertThat(agregado.movimentacoesPorPatio()).hasSize(3);
+        assertThat(agregado.getMovimentacoesDoPatio(1L) + agregado.getMovimentacoesDoPatio(2L)
+                + agregado.getMovimentacoesDoPatio(3L)).isEqualTo(LINHAS);
+        assertThat(agregado.getMovimentacoesDoBox(7L)).isEqualTo(LINHAS / 1_000);
+        assertThat(agregado.boxesMaisMovimentados(5)).hasSize(5);
+        assertThat(agregado.tiposVeiculo()).containsOnlyKeys("Honda", "Yamaha");
+        // Saídas com i % 4 == 1 registram 30 min, com i % 4 == 3 registram 90 min
+        assertThat(agregado.getTempoMedioPermanenciaMinutos()).isEqualTo(60.0);
+    }
+
+    @Test
+    @DisplayName("Histórico vazio não quebra os indicadores")
+    void deveTratarHistoricoVazio() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+        AgregadoMovimentacoes agregado = new AgregadorMovimentacoes(jdbcTemplate).agregar();
+
+        assertThat(agregado.getTotal()).isZero();
+        assertThat(agregado.horarioPico()).isEqualTo("N/A");
+        assertThat(agregado.diaMaisMovimentado()).isEqualTo("N/A");
+        assertThat(agregado.getTempoMedioPermanenciaMinutos()).isZero();
+    }
+
+    @Test
+    @DisplayName("Contador por id cresce sem perder contagens")
+    void contadorPorIdDeveCrescer() {
+        ContadorPorId contador = new ContadorPorId(4);
+        for (long id = 1; id <= 10_000; id++) {
+            contador.somar(id * 31, id);
+        }
+        contador.incrementar(31);
+
+        assertThat(contador.tamanho()).isEqualTo(10_000);
+        assertThat(contador.get(31)).isEqualTo(2);
+        assertThat(contador.get(31 * 10_000L)).isEqualTo(10_000);
+        assertThat(contador.get(5)).isZero();
+        assertThat(contador.maiores(1)).containsEntry(31 * 10_000L, 10_000L);
+    }
+
+    /**
+     * ResultSet simulado: os valores são derivados do número da linha corrente.
+     */
+    private static ResultSet cursor(AtomicInteger linha) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        AtomicInteger ultimaColuna = new AtomicInteger();
+        when(rs.getTimestamp(1)).thenAnswer(inv -> Timestamp.valueOf(BASE.plusHours(linha.get())));
+        when(rs.getString(2)).thenAnswer(inv -> linha.get() % 2 == 0 ? "ENTRADA" : "SAIDA");
+        when(rs.getLong(3)).thenAnswer(inv -> (long) linha.get() % 3 + 1);
+        when(rs.getLong(4)).thenAnswer(inv -> (long) linha.get() % 1_000);
+        when(rs.getLong(5)).thenAnswer(inv -> {
+            ultimaColuna.set(5);
+            return switch (linha.get() % 4) {
+                case 1 -> 30L;
+                case 3 -> 90L;
+                default -> 0L;
+            };
+        });
+        when(rs.wasNull()).thenAnswer(inv -> ultimaColuna.get() == 5 && linha.get() % 2 == 0);
+        when(rs.getString(6)).thenAnswer(inv -> linha.get() % 5 == 0 ? "Yamaha" : "Honda");
+        return rs;
+    }
+}
@@ -0,0 +1,127 @@
+package br.com.fiap.mottu.service.relatorios.analytics;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de concorrência do rollup em lote sobre um banco real (H2 no modo Oracle):
+ * dois lotes que criam a mesma linha (pátio, box, hora) ao mesmo tempo.
+ */
+@DisplayName("Testes de Concorrência - RollupMovimentacaoService sobre H2")
+class RollupMovimentacaoH2Test {
+
+    private static final LocalDateTime HORA = LocalDateTime.of(2025, 3, 10, 14, 0);
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transacao;
+    private RollupMovimentacaoService service;
+
+    @BeforeEach
+    void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:rollup-" + UUID.randomUUID() + ";MODE=Oracle;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(4);
+        dataSource = new HikariDataSource(config);
+        jdbc = new JdbcTemplate(dataSource);
+        transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        service = new RollupMovimentacaoService(jdbc);
+
+        jdbc.execute("""
+                CREATE TABLE TB_MOVIMENTACAO_HORA (
+                    ID_MOVIMENTACAO_HORA NUMBER(19) GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    TB_PATIO_ID_PATIO NUMBER(19) NOT NULL,
+                    TB_BOX_ID_BOX NUMBER(19) NOT NULL,
+                    HORA TIMESTAMP NOT NULL,
+                    ENTRADAS NUMBER(19) NOT NULL,
+                    SAIDAS NUMBER(19) NOT NULL,
+                    SOMA_TEMPO_MINUTOS NUMBER(19) NOT NULL,
+                    QTD_TEMPO NUMBER(19) NOT NULL,
+                    CONSTRAINT UK_MOV_HORA_PATIO_BOX_HORA UNIQUE (TB_PATIO_ID_PATIO, TB_BOX_ID_BOX, HORA)
+                )""");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Dois lotes que criam a mesma hora/box ao mesmo tempo somam tudo, sem duplicar nem perder")
+    void lotesConcorrentesNaMesmaHora() throws Exception {
+        CountDownLatch primeiroGravou = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // Primeiro lote cria (1, 10, HORA) e segura a transação aberta
+            Future<?> primeiro = pool.submit(() -> transacao.executeWithoutResult(status -> {
+                service.registrarLote(List.of(entrada(10L, 5)));
+                primeiroGravou.countDown();
+                dormir(500);
+            }));
+            // Segundo lote: (1, 20, HORA) é aplicado antes de o MERGE de (1, 10, HORA) colidir
+            Future<?> segundo = pool.submit(() -> {
+                aguardar(primeiroGravou);
+                transacao.executeWithoutResult(status ->
+                        service.registrarLote(List.of(entrada(20L, 1), entrada(10L, 7), saida(10L, 40, 35L))));
+            });
+            primeiro.get(10, TimeUnit.SECONDS);
+            segundo.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM TB_MOVIMENTACAO_HORA", Integer.class)).isEqualTo(2);
+        assertThat(linha(10L)).containsExactly(2L, 1L, 35L, 1L);
+        assertThat(linha(20L)).containsExactly(1L, 0L, 0L, 0L);
+    }
+
+    private List<Long> linha(long boxId) {
+        return jdbc.queryForObject("""
+                SELECT ENTRADAS, SAIDAS, SOMA_TEMPO_MINUTOS, QTD_TEMPO FROM TB_MOVIMENTACAO_HORA
+                 WHERE TB_PATIO_ID_PATIO = 1 AND TB_BOX_ID_BOX = ?""",
+                (rs, n) -> List.of(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)), boxId);
+    }
+
+    private static RollupMovimentacaoService.Incremento entrada(long boxId, int minuto) {
+        return new RollupMovimentacaoService.Incremento(1L, boxId, HORA.plusMinutes(minuto), true, null);
+    }
+
+    private static RollupMovimentacaoService.Incremento saida(long boxId, int minuto, Long tempo) {
+        return new RollupMovimentacaoService.Incremento(1L, boxId, HORA.plusMinutes(minuto), false, tempo);
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
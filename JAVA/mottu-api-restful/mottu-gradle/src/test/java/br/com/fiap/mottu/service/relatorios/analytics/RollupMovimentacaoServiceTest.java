@@ -0,0 +1,161 @@
+package br.com.fiap.mottu.service.relatorios.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários do rollup horário: incremento por (pátio, box, hora), consolidação e leitura.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - RollupMovimentacaoService")
+class RollupMovimentacaoServiceTest {
+
+    private static final LocalDateTime HORA = LocalDateTime.of(2025, 3, 10, 14, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private Connection conexao;
+
+    private RollupMovimentacaoService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RollupMovimentacaoService(jdbcTemplate);
+        // O lote roda dentro de um ConnectionCallback (savepoint na conexão da transação)
+        lenient().when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocacao -> ((ConnectionCallback<?>) invocacao.getArgument(0)).doInConnection(conexao));
+    }
+
+    @Test
+    @DisplayName("Lote agrupa por pátio/box/hora e envia um único batch de MERGE")
+    @SuppressWarnings("unchecked")
+    void deveAgruparLotePorHora() {
+        service.registrarLote(List.of(
+                new RollupMovimentacaoService.Incremento(1L, 10L, HORA.plusMinutes(5), true, null),
+                new RollupMovimentacaoService.Incremento(1L, 10L, HORA.plusMinutes(40), false, 35L),
+                new RollupMovimentacaoService.Incremento(1L, 10L, HORA.plusMinutes(50), false, null),
+                new RollupMovimentacaoService.Incremento(1L, 10L, HORA.plusHours(1), true, null),
+                new RollupMovimentacaoService.Incremento(2L, 20L, HORA.plusMinutes(1), true, null)));
+
+        ArgumentCaptor<List<Object[]>> lote = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(RollupMovimentacaoService.SQL_INCREMENTAR), lote.capture());
+        assertThat(lote.getValue()).hasSize(3);
+        assertThat(lote.getValue().getFirst())
+                .containsExactly(1L, 10L, Timestamp.valueOf(HORA), 1L, 2L, 35L, 1L);
+    }
+
+    @Test
+    @DisplayName("Lote que colide com outro volta ao savepoint e reenvia as linhas uma a uma")
+    void deveReenviarLoteLinhaALinhaEmChaveDuplicada() throws Exception {
+        Savepoint savepoint = mock(Savepoint.class);
+        when(conexao.setSavepoint()).thenReturn(savepoint);
+        when(jdbcTemplate.batchUpdate(eq(RollupMovimentacaoService.SQL_INCREMENTAR), anyList()))
+                .thenThrow(new DuplicateKeyException("ORA-00001"));
+
+        service.registrarLote(List.of(
+                new RollupMovimentacaoService.Incremento(1L, 10L, HORA.plusMinutes(5), true, null),
+                new RollupMovimentacaoService.Incremento(2L, 20L, HORA.plusMinutes(1), true, null)));
+
+        verify(conexao).rollback(savepoint);
+        verify(jdbcTemplate).update(RollupMovimentacaoService.SQL_INCREMENTAR,
+                1L, 10L, Timestamp.valueOf(HORA), 1L, 0L, 0L, 0L);
+        verify(jdbcTemplate).update(RollupMovimentacaoService.SQL_INCREMENTAR,
+                2L, 20L, Timestamp.valueOf(HORA), 1L, 0L, 0L, 0L);
+    }
+
+    @Test
+    @DisplayName("MERGE concorrente na mesma hora é repetido como UPDATE")
+    void deveRepetirMergeEmChaveDuplicada() {
+        when(jdbcTemplate.update(eq(RollupMovimentacaoService.SQL_INCREMENTAR), any(Object[].class)))
+                .thenThrow(new DuplicateKeyException("ORA-00001"))
+                .thenReturn(1);
+
+        service.registrar(new RollupMovimentacaoService.Incremento(1L, 10L, HORA.plusMinutes(7), false, 120L));
+
+        verify(jdbcTemplate, times(2)).update(RollupMovimentacaoService.SQL_INCREMENTAR,
+                1L, 10L, Timestamp.valueOf(HORA), 0L, 1L, 120L, 1L);
+    }
+
+    @Test
+    @DisplayName("Consolidação substitui apenas as horas cheias do intervalo")
+    void deveConsolidarHorasCheias() {
+        Timestamp de = Timestamp.valueOf(HORA);
+        Timestamp ate = Timestamp.valueOf(HORA.plusHours(1));
+        // A mesma assinatura de update() também recebe o DELETE
+        lenient().when(jdbcTemplate.update(RollupMovimentacaoService.SQL_CONSOLIDAR_INTERVALO, de, ate)).thenReturn(42);
+
+        int linhas = service.consolidar(HORA.plusMinutes(59), HORA.plusHours(1).plusMinutes(5));
+
+        assertThat(linhas).isEqualTo(42);
+        verify(jdbcTemplate).update(RollupMovimentacaoService.SQL_LIMPAR_INTERVALO, de, ate);
+        verify(jdbcTemplate).update(RollupMovimentacaoService.SQL_CONSOLIDAR_INTERVALO, de, ate);
+    }
+
+    @Test
+    @DisplayName("Leitura soma as horas do rollup com os mesmos indicadores do log bruto")
+    void deveAgregarHorasDoRollup() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getTimestamp(1)).thenReturn(Timestamp.valueOf(HORA), Timestamp.valueOf(HORA.plusDays(1)));
+        when(rs.getLong(2)).thenReturn(1L, 2L);
+        when(rs.getLong(3)).thenReturn(10L, 20L);
+        when(rs.getLong(4)).thenReturn(5L, 1L);
+        when(rs.getLong(5)).thenReturn(3L, 1L);
+        when(rs.getLong(6)).thenReturn(90L, 60L);
+        when(rs.getLong(7)).thenReturn(2L, 1L);
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        AgregadoMovimentacoes agregado = service.agregar(HORA.minusDays(1), HORA.plusDays(2), null);
+
+        assertThat(agregado.getTotal()).isEqualTo(10);
+        assertThat(agregado.getEntradas()).isEqualTo(6);
+        assertThat(agregado.getSaidas()).isEqualTo(4);
+        assertThat(agregado.getMovimentacoesNaHora(14)).isEqualTo(10);
+        assertThat(agregado.getMovimentacoesNoDia(HORA.getDayOfWeek())).isEqualTo(8);
+        assertThat(agregado.getMovimentacoesDoPatio(2L)).isEqualTo(2);
+        assertThat(agregado.getPatiosComMovimento()).isEqualTo(2);
+        assertThat(agregado.getTempoMedioPermanenciaMinutos()).isEqualTo(50.0);
+    }
+
+    @Test
+    @DisplayName("Lote vazio não acessa o banco")
+    void loteVazioNaoAcessaBanco() {
+        service.registrarLote(List.of());
+
+        verify(jdbcTemplate, times(0)).batchUpdate(any(String.class), anyList());
+    }
+}
@@ -0,0 +1,181 @@
+package br.com.fiap.mottu.service.relatorios.jobs;
+
+import br.com.fiap.mottu.exception.InvalidInputException;
+import br.com.fiap.mottu.exception.RelatoriosOcupadosException;
+import br.com.fiap.mottu.exception.ReportGenerationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes unitários dos jobs de relatório: single-flight, cache com TTL, falhas e fila limitada.
+ */
+@DisplayName("Testes Unitários - JobsRelatorio")
+class JobsRelatorioTest {
+
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private final AtomicInteger execucoesSla = new AtomicInteger();
+    private final List<JobsRelatorio> criados = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        criados.forEach(JobsRelatorio::encerrar);
+    }
+
+    private JobsRelatorio jobs(int concorrencia, int capacidadeFila, Duration ttl) {
+        Map<String, Function<Map<String, Object>, Map<String, Object>>> relatorios = new HashMap<>();
+        relatorios.put("monitoramento-sla", parametros -> {
+            execucoesSla.incrementAndGet();
+            aguardar(liberar);
+            return Map.of("status", "sucesso", "parametros", parametros);
+        });
+        relatorios.put("falha", parametros -> {
+            throw new IllegalStateException("banco indisponível");
+        });
+        relatorios.put("estouro", parametros -> {
+            throw new StackOverflowError();
+        });
+        relatorios.put("erro-tratado", parametros -> Map.of("status", "erro", "mensagem", "sem dados"));
+        JobsRelatorio jobs = new JobsRelatorio(relatorios, concorrencia, capacidadeFila, ttl, 100, 5_000);
+        criados.add(jobs);
+        return jobs;
+    }
+
+    @Test
+    @DisplayName("Cinco pedidos idênticos em andamento geram uma única execução")
+    void deveCoalescerPedidosIdenticos() {
+        JobsRelatorio jobs = jobs(2, 4, Duration.ofMinutes(1));
+
+        JobsRelatorio.Submissao primeira = jobs.submeter("monitoramento-sla", Map.of("patioId", 3));
+        List<JobsRelatorio.Submissao> demais = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            // mesma consulta com parâmetros em outra forma: número x texto, espaços, vazio
+            demais.add(jobs.submeter("monitoramento-sla", Map.of("patioId", " 3 ", "filtro", "")));
+        }
+        liberar.countDown();
+
+        assertThat(primeira.reaproveitado()).isFalse();
+        assertThat(demais).allSatisfy(s -> {
+            assertThat(s.reaproveitado()).isTrue();
+            assertThat(s.job()).isSameAs(primeira.job());
+        });
+        assertThat(jobs.executar(primeira)).containsEntry("status", "sucesso");
+        assertThat(execucoesSla.get()).isEqualTo(1);
+        assertThat(primeira.job().getSolicitacoes()).isEqualTo(5);
+        assertThat(jobs.estatisticas()).containsEntry("execucoes", 1L).containsEntry("coalescidos", 4L);
+    }
+
+    @Test
+    @DisplayName("Resultado concluído é reaproveitado até o TTL e recalculado depois")
+    void deveReaproveitarResultadoAteOTtl() throws Exception {
+        JobsRelatorio jobs = jobs(1, 4, Duration.ofMillis(300));
+        liberar.countDown();
+
+        JobsRelatorio.Submissao primeira = jobs.submeter("monitoramento-sla", Map.of());
+        assertThat(jobs.executar(primeira)).isNotNull();
+
+        JobsRelatorio.Submissao emCache = jobs.submeter("monitoramento-sla", null);
+        assertThat(emCache.reaproveitado()).isTrue();
+        assertThat(emCache.job().getEstado()).isEqualTo(JobRelatorio.Estado.CONCLUIDO);
+        assertThat(execucoesSla.get()).isEqualTo(1);
+
+        Thread.sleep(500);
+        JobsRelatorio.Submissao expirada = jobs.submeter("monitoramento-sla", Map.of());
+        assertThat(expirada.reaproveitado()).isFalse();
+        assertThat(jobs.executar(expirada)).isNotNull();
+        assertThat(execucoesSla.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Falhas não ficam em cache: o próximo pedido executa de novo")
+    void naoDeveGuardarFalhas() {
+        JobsRelatorio jobs = jobs(1, 4, Duration.ofMinutes(1));
+
+        JobsRelatorio.Submissao falha = jobs.submeter("falha", Map.of());
+        assertThatThrownBy(() -> jobs.executar(falha)).isInstanceOf(ReportGenerationException.class)
+                .hasMessage("banco indisponível");
+        assertThat(falha.job().getEstado()).isEqualTo(JobRelatorio.Estado.FALHOU);
+        assertThat(jobs.submeter("falha", Map.of()).reaproveitado()).isFalse();
+
+        JobsRelatorio.Submissao erroTratado = jobs.submeter("erro-tratado", Map.of());
+        assertThat(jobs.executar(erroTratado)).containsEntry("status", "erro");
+        assertThat(jobs.submeter("erro-tratado", Map.of()).reaproveitado()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Error no relatório falha o job e libera a chave: o próximo pedido executa de novo")
+    void deveFalharJobQuandoRelatorioLancaError() {
+        JobsRelatorio jobs = jobs(1, 4, Duration.ofMinutes(1));
+
+        JobsRelatorio.Submissao estouro = jobs.submeter("estouro", Map.of());
+        assertThatThrownBy(() -> jobs.executar(estouro)).isInstanceOf(ReportGenerationException.class)
+                .hasMessage("StackOverflowError");
+        assertThat(estouro.job().getEstado()).isEqualTo(JobRelatorio.Estado.FALHOU);
+
+        JobsRelatorio.Submissao seguinte = jobs.submeter("estouro", Map.of());
+        assertThat(seguinte.reaproveitado()).isFalse();
+        assertThat(seguinte.job()).isNotSameAs(estouro.job());
+        assertThatThrownBy(() -> jobs.executar(seguinte)).isInstanceOf(ReportGenerationException.class);
+        assertThat(jobs.estatisticas()).containsEntry("falhas", 2L);
+    }
+
+    @Test
+    @DisplayName("Com workers ocupados e fila cheia a submissão é recusada na hora")
+    void deveRecusarQuandoFilaCheia() {
+        JobsRelatorio jobs = jobs(1, 1, Duration.ofMinutes(1));
+
+        JobsRelatorio.Submissao executando = jobs.submeter("monitoramento-sla", Map.of("patioId", 1));
+        JobsRelatorio.Submissao naFila = jobs.submeter("monitoramento-sla", Map.of("patioId", 2));
+        esperarEstado(executando.job(), JobRelatorio.Estado.EXECUTANDO);
+        assertThat(jobs.paraDto(naFila.job(), false).getPosicaoFila()).isEqualTo(1);
+
+        assertThatThrownBy(() -> jobs.submeter("monitoramento-sla", Map.of("patioId", 3)))
+                .isInstanceOf(RelatoriosOcupadosException.class);
+        // pedido idêntico a um job em andamento não ocupa a fila
+        assertThat(jobs.submeter("monitoramento-sla", Map.of("patioId", 2)).reaproveitado()).isTrue();
+        assertThat(jobs.estatisticas()).containsEntry("rejeitados", 1L);
+    }
+
+    @Test
+    @DisplayName("Mudanças de estado são publicadas até o fim do job")
+    void devePublicarMudancasDeEstado() {
+        JobsRelatorio jobs = jobs(1, 4, Duration.ofMinutes(1));
+        JobsRelatorio.Submissao submissao = jobs.submeter("monitoramento-sla", Map.of());
+        esperarEstado(submissao.job(), JobRelatorio.Estado.EXECUTANDO);
+        liberar.countDown();
+
+        List<JobRelatorio.Estado> estados = submissao.job().mudancas().collectList().block(Duration.ofSeconds(5));
+        assertThat(estados).last().isEqualTo(JobRelatorio.Estado.CONCLUIDO);
+        assertThatThrownBy(() -> jobs.submeter("inexistente", Map.of())).isInstanceOf(InvalidInputException.class);
+    }
+
+    private static void esperarEstado(JobRelatorio job, JobRelatorio.Estado estado) {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (job.getEstado() != estado && System.currentTimeMillis() < limite) {
+            Thread.onSpinWait();
+        }
+        assertThat(job.getEstado()).isEqualTo(estado);
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
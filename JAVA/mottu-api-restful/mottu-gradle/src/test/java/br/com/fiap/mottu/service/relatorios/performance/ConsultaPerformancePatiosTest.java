@@ -0,0 +1,141 @@
+package br.com.fiap.mottu.service.relatorios.performance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+
+/**
+ * Testes unitários da consulta agrupada de performance: número fixo de comandos SQL
+ * independente da quantidade de pátios e montagem das métricas em memória.
+ */
+@DisplayName("Testes Unitários - ConsultaPerformancePatios")
+class ConsultaPerformancePatiosTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 3, 1, 10, 30);
+
+    @Test
+    @DisplayName("Quantidade de comandos SQL não cresce com o número de pátios")
+    void quantidadeDeConsultasConstante() {
+        assertThat(consultasPara(3)).isEqualTo(4);
+        assertThat(consultasPara(300)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Sem pátios cadastrados apenas a consulta de pátios é executada")
+    void semPatiosNaoConsultaMovimentacoes() {
+        JdbcTemplate jdbcTemplate = jdbcFake(Map.of());
+
+        Collection<ConsultaPerformancePatios.MetricasPatio> metricas =
+                new ConsultaPerformancePatios(jdbcTemplate).carregar(INICIO);
+
+        assertThat(metricas).isEmpty();
+        assertThat(mockingDetails(jdbcTemplate).getInvocations()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Métricas de cada pátio são montadas a partir das linhas agrupadas")
+    void deveMontarMetricasPorPatio() {
+        JdbcTemplate jdbcTemplate = jdbcFake(Map.of(
+                ConsultaPerformancePatios.SQL_PATIOS, List.of(
+                        new Object[]{1L, "Pátio A", "A", "Guarulhos", "SP", 4, 3},
+                        new Object[]{2L, "Pátio B", "A", "Osasco", "SP", 0, 0}),
+                ConsultaPerformancePatios.SQL_MOVIMENTACOES, List.of(
+                        new Object[]{1L, 5L, 3L, 20L, 18L, 900L, 10L},
+                        new Object[]{99L, 1L, 1L, 1L, 1L, 0L, 0L}),
+                ConsultaPerformancePatios.SQL_TOP_BOXES, List.of(
+                        new Object[]{1L, 10L, "A01", 12L},
+                        new Object[]{1L, 11L, "A02", 7L}),
+                ConsultaPerformancePatios.SQL_TOP_VEICULOS, List.<Object[]>of(
+                        new Object[]{2L, 7L, "ABC1D23", 2L})));
+
+        List<ConsultaPerformancePatios.MetricasPatio> metricas =
+                new ArrayList<>(new ConsultaPerformancePatios(jdbcTemplate).carregar(INICIO));
+
+        assertThat(metricas).hasSize(2);
+        ConsultaPerformancePatios.MetricasPatio patioA = metricas.get(0);
+        assertThat(patioA.getTaxaOcupacao()).isEqualTo(75.0);
+        assertThat(patioA.getMovimentacoesPeriodo()).isEqualTo(8);
+        assertThat(patioA.getMovimentacoesTotal()).isEqualTo(38);
+        assertThat(patioA.getTempoMedioEstacionamento()).isEqualTo(90.0);
+        assertThat(patioA.getTopBoxes()).extracting(ConsultaPerformancePatios.ItemRanking::descricao)
+                .containsExactly("A01", "A02");
+        assertThat(patioA.getTopVeiculos()).isEmpty();
+
+        ConsultaPerformancePatios.MetricasPatio patioB = metricas.get(1);
+        assertThat(patioB.getTaxaOcupacao()).isZero();
+        assertThat(patioB.getTempoMedioEstacionamento()).isNull();
+        assertThat(patioB.getTopVeiculos()).extracting(ConsultaPerformancePatios.ItemRanking::descricao)
+                .containsExactly("ABC1D23");
+    }
+
+    private static int consultasPara(int quantidadePatios) {
+        List<Object[]> patios = new ArrayList<>();
+        List<Object[]> movimentacoes = new ArrayList<>();
+        List<Object[]> topBoxes = new ArrayList<>();
+        for (long id = 1; id <= quantidadePatios; id++) {
+            patios.add(new Object[]{id, "Pátio " + id, "A", "São Paulo", "SP", 10, 5});
+            movimentacoes.add(new Object[]{id, 4L, 4L, 40L, 40L, 600L, 5L});
+            for (long box = 1; box <= ConsultaPerformancePatios.LIMITE_TOP; box++) {
+                topBoxes.add(new Object[]{id, id * 100 + box, "B" + box, 10L - box});
+            }
+        }
+        JdbcTemplate jdbcTemplate = jdbcFake(Map.of(
+                ConsultaPerformancePatios.SQL_PATIOS, patios,
+                ConsultaPerformancePatios.SQL_MOVIMENTACOES, movimentacoes,
+                ConsultaPerformancePatios.SQL_TOP_BOXES, topBoxes));
+
+        Collection<ConsultaPerformancePatios.MetricasPatio> metricas =
+                new ConsultaPerformancePatios(jdbcTemplate).carregar(INICIO);
+
+        assertThat(metricas).hasSize(quantidadePatios);
+        assertThat(metricas).allSatisfy(m -> assertThat(m.getTopBoxes()).hasSize(ConsultaPerformancePatios.LIMITE_TOP));
+        return mockingDetails(jdbcTemplate).getInvocations().size();
+    }
+
+    /**
+     * JdbcTemplate que entrega, para cada SQL, as linhas informadas ao RowCallbackHandler.
+     */
+    private static JdbcTemplate jdbcFake(Map<String, List<Object[]>> linhasPorSql) {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(inv -> entregarLinhas(inv, linhasPorSql))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        doAnswer(inv -> entregarLinhas(inv, linhasPorSql))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        return jdbcTemplate;
+    }
+
+    private static Object entregarLinhas(InvocationOnMock inv, Map<String, List<Object[]>> linhasPorSql) throws Exception {
+        RowCallbackHandler handler = inv.getArgument(1);
+        for (Object[] valores : linhasPorSql.getOrDefault(inv.<String>getArgument(0), List.of())) {
+            handler.processRow(linha(valores));
+        }
+        return null;
+    }
+
+    private static ResultSet linha(Object[] valores) {
+        return mock(ResultSet.class, inv -> {
+            Object valor = valores[(Integer) inv.getArgument(0) - 1];
+            return switch (inv.getMethod().getName()) {
+                case "getLong" -> ((Number) valor).longValue();
+                case "getInt" -> ((Number) valor).intValue();
+                default -> valor;
+            };
+        });
+    }
+}
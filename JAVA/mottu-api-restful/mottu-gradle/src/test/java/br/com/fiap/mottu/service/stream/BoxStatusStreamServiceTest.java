@@ -0,0 +1,170 @@
+package br.com.fiap.mottu.service.stream;
+
+import br.com.fiap.mottu.dto.box.BoxStatusEventoDto;
+import br.com.fiap.mottu.service.VagaOracleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários do protocolo snapshot + delta do stream de boxes.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - BoxStatusStreamService")
+class BoxStatusStreamServiceTest {
+
+    private static final Long PATIO_ID = 1L;
+
+    @Mock
+    private VagaOracleService vagaService;
+
+    private MudancaHub mudancaHub;
+    private BoxStatusStreamService service;
+
+    private VagaOracleService.BoxComVeiculoRow box1Livre;
+    private VagaOracleService.BoxComVeiculoRow box1Ocupado;
+    private VagaOracleService.BoxComVeiculoRow box2Livre;
+    private VagaOracleService.BoxComVeiculoRow box2Manutencao;
+
+    @BeforeEach
+    void setUp() {
+        mudancaHub = new MudancaHub();
+        service = new BoxStatusStreamService(vagaService, mudancaHub);
+
+        box1Livre = new VagaOracleService.BoxComVeiculoRow(1L, "Gru001", "L", null, null, null, null, null, null, null);
+        box1Ocupado = new VagaOracleService.BoxComVeiculoRow(1L, "Gru001", "O", LocalDate.now(), null, null,
+                "ABC1234", "CB300", "Honda", "TAG001");
+        box2Livre = new VagaOracleService.BoxComVeiculoRow(2L, "Gru002", "L", null, null, null, null, null, null, null);
+        box2Manutencao = new VagaOracleService.BoxComVeiculoRow(2L, "Gru002", "M", null, null, "Em manutenção",
+                null, null, null, null);
+    }
+
+    private void publicarMudanca() {
+        mudancaHub.publicar(MudancaEvento.of(TopicoMudanca.ESTACIONAMENTO, PATIO_ID, 1L, "ENTRADA"));
+    }
+
+    @Test
+    @DisplayName("Deve enviar snapshot completo e depois apenas os boxes alterados")
+    void deveEnviarSnapshotEDepoisDelta() {
+        when(vagaService.listarBoxesComDetalhesVeiculo(PATIO_ID))
+                .thenReturn(List.of(box1Livre, box2Livre), List.of(box1Ocupado, box2Livre));
+
+        StepVerifier.create(service.assinar(PATIO_ID, null))
+                .assertNext(sse -> {
+                    assertThat(sse.event()).isEqualTo("snapshot");
+                    assertThat(sse.data().seq()).isZero();
+                    assertThat(sse.data().boxes()).hasSize(2);
+                })
+                .then(this::publicarMudanca)
+                .assertNext(sse -> {
+                    assertThat(sse.event()).isEqualTo("delta");
+                    assertThat(sse.data().seq()).isEqualTo(1L);
+                    assertThat(sse.data().boxes()).hasSize(1);
+                    BoxStatusEventoDto.BoxStatus alterado = sse.data().boxes().get(0);
+                    assertThat(alterado.idBox()).isEqualTo(1L);
+                    assertThat(alterado.status()).isEqualTo("O");
+                    assertThat(alterado.veiculo().placa()).isEqualTo("ABC1234");
+                    assertThat(sse.id()).endsWith(":1");
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Não deve emitir delta quando a recarga não muda nenhum box")
+    void naoDeveEmitirDeltaSemMudanca() {
+        when(vagaService.listarBoxesComDetalhesVeiculo(PATIO_ID))
+                .thenReturn(List.of(box1Livre, box2Livre));
+
+        StepVerifier.create(service.assinar(PATIO_ID, null))
+                .expectNextCount(1)
+                .then(this::publicarMudanca)
+                .expectNoEvent(Duration.ofSeconds(1))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Deve retomar com Last-Event-ID enviando somente os deltas perdidos")
+    void deveRetomarComLastEventId() {
+        when(vagaService.listarBoxesComDetalhesVeiculo(PATIO_ID))
+                .thenReturn(List.of(box1Livre, box2Livre),
+                        List.of(box1Ocupado, box2Livre),
+                        List.of(box1Ocupado, box2Manutencao));
+
+        AtomicReference<String> ultimoId = new AtomicReference<>();
+        StepVerifier.create(service.assinar(PATIO_ID, null))
+                .expectNextCount(1)
+                .then(this::publicarMudanca)
+                .consumeNextWith(sse -> ultimoId.set(sse.id()))
+                .then(this::publicarMudanca)
+                .expectNextCount(1)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        // Cliente reconecta informando o delta seq 1: deve receber apenas o delta seq 2
+        StepVerifier.create(service.assinar(PATIO_ID, ultimoId.get()))
+                .assertNext(sse -> {
+                    assertThat(sse.event()).isEqualTo("delta");
+                    assertThat(sse.data().seq()).isEqualTo(2L);
+                    assertThat(sse.data().boxes()).extracting(BoxStatusEventoDto.BoxStatus::idBox).containsExactly(2L);
+                })
+                .expectNoEvent(Duration.ofMillis(500))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Deve enviar snapshot quando Last-Event-ID é de outra geração ou inválido")
+    void deveEnviarSnapshotQuandoLastEventIdDesconhecido() {
+        when(vagaService.listarBoxesComDetalhesVeiculo(PATIO_ID))
+                .thenReturn(List.of(box1Livre, box2Livre));
+
+        StepVerifier.create(service.assinar(PATIO_ID, "123:7").map(ServerSentEvent::event))
+                .expectNext("snapshot")
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        StepVerifier.create(service.assinar(PATIO_ID, "abc").map(ServerSentEvent::event))
+                .expectNext("snapshot")
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Deve descartar o canal quando o último assinante sai")
+    void deveDescartarCanalSemAssinantes() {
+        ReflectionTestUtils.setField(service, "graceDesconexaoSegundos", 0L);
+        when(vagaService.listarBoxesComDetalhesVeiculo(PATIO_ID))
+                .thenReturn(List.of(box1Livre, box2Livre));
+
+        var primeiro = service.assinar(PATIO_ID, null).subscribe();
+        var segundo = service.assinar(PATIO_ID, null).subscribe();
+        assertThat(service.getCanaisAtivos()).isEqualTo(1);
+
+        primeiro.dispose();
+        assertThat(service.getCanaisAtivos()).isEqualTo(1);
+        segundo.dispose();
+        assertThat(service.getCanaisAtivos()).isZero();
+
+        // Nova conexão abre outra geração e recebe snapshot
+        StepVerifier.create(service.assinar(PATIO_ID, null).map(ServerSentEvent::event))
+                .expectNext("snapshot")
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+}
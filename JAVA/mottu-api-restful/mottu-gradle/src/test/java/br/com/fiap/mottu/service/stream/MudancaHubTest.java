@@ -0,0 +1,129 @@
+package br.com.fiap.mottu.service.stream;
+
+import br.com.fiap.mottu.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários do MudancaHub (fan-out de mudanças para os streams SSE).
+ */
+@DisplayName("Testes Unitários - MudancaHub")
+class MudancaHubTest {
+
+    private MudancaHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new MudancaHub();
+    }
+
+    @Test
+    @DisplayName("Deve entregar somente eventos do pátio assinado ou globais")
+    void deveFiltrarEventosPorPatio() {
+        StepVerifier.create(hub.eventos(1L, TopicoMudanca.BOX).take(2))
+                .then(() -> {
+                    hub.publicar(MudancaEvento.of(TopicoMudanca.BOX, 2L, 20L, "OCUPADO"));
+                    hub.publicar(MudancaEvento.of(TopicoMudanca.BOX, 1L, 10L, "OCUPADO"));
+                    hub.publicar(MudancaEvento.of(TopicoMudanca.VEICULO, null, 5L, "ATUALIZADO"));
+                    hub.publicar(MudancaEvento.of(TopicoMudanca.BOX, null, 30L, "LIBERADO"));
+                })
+                .expectNextMatches(e -> e.entidadeId().equals(10L))
+                .expectNextMatches(e -> e.entidadeId().equals(30L))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve coalescer rajadas de mudanças em uma única recarga do snapshot")
+    void deveCoalescerRajadaDeMudancas() {
+        AtomicInteger cargas = new AtomicInteger();
+
+        StepVerifier.create(hub.snapshots("teste", 1L, cargas::incrementAndGet, TopicoMudanca.ESTACIONAMENTO))
+                .expectNext(1)
+                .then(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        hub.publicar(MudancaEvento.of(TopicoMudanca.ESTACIONAMENTO, 1L, (long) i, "ENTRADA"));
+                    }
+                })
+                .expectNext(2)
+                .expectNoEvent(Duration.ofSeconds(1))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(cargas.get()).isEqualTo(2);
+        assertThat(hub.getAssinantesAtivos()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve remover o snapshot do hub quando o último assinante sai e o grace expira")
+    void deveRemoverSnapshotSemAssinantes() throws InterruptedException {
+        ReflectionTestUtils.setField(hub, "graceDesconexaoSegundos", 0L);
+
+        for (int pagina = 0; pagina < 5; pagina++) {
+            Disposable assinatura = hub.snapshots("teste:" + pagina, null, () -> 1, TopicoMudanca.NOTIFICACAO).subscribe();
+            assinatura.dispose();
+        }
+
+        long limite = System.currentTimeMillis() + 5000;
+        while (hub.getSnapshotsAtivos() > 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertThat(hub.getSnapshotsAtivos()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve propagar o erro da carga inicial ao cliente e liberar a chave")
+    void devePropagarErroDaCargaInicial() {
+        StepVerifier.create(hub.snapshots("zonas:patio-99", 99L,
+                        () -> { throw new ResourceNotFoundException("Pátio", 99L); }, TopicoMudanca.ZONA))
+                .expectError(ResourceNotFoundException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(hub.getSnapshotsAtivos()).isZero();
+        assertThat(hub.getAssinantesAtivos()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve manter o último snapshot quando uma recarga falha")
+    void deveManterSnapshotQuandoRecargaFalha() {
+        AtomicInteger cargas = new AtomicInteger();
+
+        StepVerifier.create(hub.snapshots("teste", 1L, () -> {
+                    if (cargas.incrementAndGet() == 2) {
+                        throw new IllegalStateException("falha transitória");
+                    }
+                    return cargas.get();
+                }, TopicoMudanca.BOX))
+                .expectNext(1)
+                .then(() -> hub.publicar(MudancaEvento.of(TopicoMudanca.BOX, 1L, 1L, "OCUPADO")))
+                .expectNoEvent(Duration.ofSeconds(1))
+                .then(() -> hub.publicar(MudancaEvento.of(TopicoMudanca.BOX, 1L, 1L, "LIBERADO")))
+                .expectNext(3)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Grupo das métricas é sempre um dos grupos fixos, qualquer que seja a chave")
+    void deveLimitarGruposAoConjuntoFixo() {
+        assertThat(MudancaHub.grupo("boxes:patio-3")).isEqualTo("boxes");
+        assertThat(MudancaHub.grupo("boxes-delta:boxes:todos:7")).isEqualTo("boxes-delta");
+        assertThat(MudancaHub.grupo("relatorios:ia")).isEqualTo("relatorios:ia");
+        assertThat(MudancaHub.grupo("notificacoes:0-20")).isEqualTo("notificacoes");
+        assertThat(MudancaHub.grupo("relatorios:qualquer")).isEqualTo(MudancaHub.GRUPO_OUTROS);
+        assertThat(MudancaHub.grupo("teste:abc")).isEqualTo(MudancaHub.GRUPO_OUTROS);
+
+        for (int pagina = 0; pagina < 50; pagina++) {
+            hub.snapshots("notificacoes:" + pagina + "-20", null, () -> 1, TopicoMudanca.NOTIFICACAO).subscribe().dispose();
+        }
+        assertThat(hub.getAssinantesPorGrupo().keySet()).containsExactlyInAnyOrderElementsOf(MudancaHub.GRUPOS);
+    }
+}
@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Substituto do binário alpr nos testes, no modo "stdin" (um caminho de imagem por linha).
+# A "imagem" é texto: PLACA:<placa>, DEMORA:<placa> (responde após 1 s), CRASH (encerra o
+# processo), LENTO (não responde a tempo) ou qualquer outro conteúdo (nenhuma placa). A região "xx" simula perfil ausente.
+regiao=""
+while [ $# -gt 0 ]; do
+  case "$1" in
+    -c) regiao="$2"; shift 2 ;;
+    *) shift ;;
+  esac
+done
+
+if [ "$regiao" = "xx" ]; then
+  echo "Missing config for the country: xx"
+  echo "Error loading OpenALPR"
+  exit 1
+fi
+
+while IFS= read -r arquivo; do
+  conteudo=$(cat "$arquivo")
+  case "$conteudo" in
+    CRASH) exit 3 ;;
+    LENTO) sleep 5 ;;
+    DEMORA:*) sleep 1; conteudo="PLACA:${conteudo#DEMORA:}" ;;
+  esac
+  if [[ "$conteudo" == PLACA:* ]]; then
+    echo "{\"pid\":$$,\"regiao\":\"$regiao\",\"results\":[{\"plate\":\"${conteudo#PLACA:}\",\"confidence\":92.5,\"candidates\":[]}]}"
+  else
+    echo "{\"pid\":$$,\"regiao\":\"$regiao\",\"results\":[]}"
+  fi
+done